@@ -0,0 +1,62 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.limiter.NanoClock;
+import com.gateway.admin.upstream.BackendPool;
+import com.gateway.admin.upstream.OutlierPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend Selection Benchmark
+ * 后端服务器加权选择：别名表选择的耗时与服务器数量无关
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="BackendSelectionBenchmark -t 8"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendSelectionBenchmark {
+
+    @Param({"4", "64", "1024"})
+    private int backends;
+
+    private BackendPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<BackendServer> servers = new ArrayList<>();
+        for (int i = 0; i < backends; i++) {
+            BackendServer server = new BackendServer("10.0." + (i / 256) + "." + (i % 256), 8080,
+                    BackendServer.Protocol.HTTP, null, null);
+            server.setId((long) i);
+            server.setWeight(1 + i % 10);
+            servers.add(server);
+        }
+        OutlierPolicy policy = new OutlierPolicy(50, TimeUnit.SECONDS.toNanos(30), 3, 50,
+                TimeUnit.SECONDS.toNanos(30));
+        pool = BackendPool.create("benchmark", servers, policy, NanoClock.SYSTEM, null, null);
+    }
+
+    @Benchmark
+    public BackendPool.Host select() {
+        return pool.select();
+    }
+}
@@ -0,0 +1,73 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.limiter.CircuitBreaker;
+import com.gateway.admin.limiter.NanoClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit Breaker Benchmark
+ * 熔断器热路径：关闭状态下获取许可 + 记录结果（所有线程共享一个熔断器），以及打开状态下的拒绝路径
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="CircuitBreakerBenchmark -t 8"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CircuitBreakerBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        CircuitBreaker closed;
+        CircuitBreaker open;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            // 5% 错误率低于阈值，熔断器始终关闭
+            closed = new CircuitBreaker(50, TimeUnit.SECONDS.toNanos(60), 5,
+                    CircuitBreaker.DEFAULT_WINDOW_SIZE, CircuitBreaker.DEFAULT_MINIMUM_CALLS, NanoClock.SYSTEM);
+            open = new CircuitBreaker(50, TimeUnit.HOURS.toNanos(1), 5,
+                    CircuitBreaker.DEFAULT_WINDOW_SIZE, CircuitBreaker.DEFAULT_MINIMUM_CALLS, NanoClock.SYSTEM);
+            for (int i = 0; i < CircuitBreaker.DEFAULT_MINIMUM_CALLS; i++) {
+                open.onError();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Sequence {
+        int next;
+    }
+
+    @Benchmark
+    public boolean acquireAndRecord(Shared state, Sequence sequence) {
+        boolean permitted = state.closed.tryAcquirePermission();
+        if (++sequence.next % 20 == 0) {
+            state.closed.onError();
+        } else {
+            state.closed.onSuccess();
+        }
+        return permitted;
+    }
+
+    /**
+     * 拒绝路径只读状态字并累加 LongAdder
+     */
+    @Benchmark
+    public boolean rejectedWhileOpen(Shared state) {
+        return state.open.tryAcquirePermission();
+    }
+}
@@ -0,0 +1,87 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.dto.GatewayConfigDTO;
+import com.gateway.admin.validation.ConfigValidationEngine;
+import com.gateway.admin.validation.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration Validation Benchmark
+ * 单个配置校验耗时与批量校验吞吐
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="ConfigValidationBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigValidationBenchmark {
+
+    private static final String LEGACY_DOMAIN_REGEX =
+            "^[a-zA-Z0-9]([a-zA-Z0-9\\-]{0,61}[a-zA-Z0-9])?(\\.[a-zA-Z0-9]([a-zA-Z0-9\\-]{0,61}[a-zA-Z0-9])?)*$";
+
+    private ConfigValidationEngine engine;
+    private GatewayConfigDTO validConfig;
+    private GatewayConfigDTO invalidConfig;
+    private List<GatewayConfigDTO> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new ConfigValidationEngine(0);
+        validConfig = new GatewayConfigDTO("api.orders.example.com", "/v1/orders/**", "/orders");
+        invalidConfig = new GatewayConfigDTO("-bad..domain-", "orders", " ");
+
+        batch = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            batch.add(i % 10 == 0
+                    ? new GatewayConfigDTO("bad_domain" + i + ".example.com", "/", "")
+                    : new GatewayConfigDTO("svc" + i + ".example.com", "/api/" + i, "/backend/" + i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    /**
+     * 改造前的正则校验（每次调用重新编译正则）
+     */
+    @Benchmark
+    public boolean legacyRegexDomain() {
+        return validConfig.getDomain().matches(LEGACY_DOMAIN_REGEX);
+    }
+
+    @Benchmark
+    public ValidationResult validateValidConfig() {
+        return engine.validate(validConfig);
+    }
+
+    @Benchmark
+    public ValidationResult validateInvalidConfig() {
+        return engine.validate(invalidConfig);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ValidationResult> validateBatchOf10k() {
+        return engine.validateAll(batch);
+    }
+}
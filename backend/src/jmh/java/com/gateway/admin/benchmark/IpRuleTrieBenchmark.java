@@ -0,0 +1,109 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+import com.gateway.admin.iprule.Cidr;
+import com.gateway.admin.iprule.CidrRule;
+import com.gateway.admin.iprule.IpRuleTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * IP Rule Trie Benchmark
+ * IP 规则前缀树单次查找耗时：rules 条随机规则（IPv4 /8~/32，另有 1/4 为 IPv6 /16~/128），
+ * 查找地址一半落在规则前缀内、一半随机；地址预先生成，循环使用
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="IpRuleTrieBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IpRuleTrieBenchmark {
+
+    private static final int ADDRESSES = 1 << 16;
+
+    @Param({"1000", "100000"})
+    private int rules;
+
+    private IpRuleTrie trie;
+    private int[] ipv4;
+    private byte[][] ipv4Bytes;
+    private byte[][] ipv6;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<CidrRule> cidrRules = new ArrayList<>(rules);
+        List<Cidr> v4Prefixes = new ArrayList<>();
+        List<Cidr> v6Prefixes = new ArrayList<>();
+        for (int i = 0; i < rules; i++) {
+            boolean v6 = i % 4 == 3;
+            byte[] address = new byte[v6 ? 16 : 4];
+            random.nextBytes(address);
+            Cidr cidr = Cidr.of(address, v6 ? 16 + random.nextInt(113) : 8 + random.nextInt(25));
+            (v6 ? v6Prefixes : v4Prefixes).add(cidr);
+            IpRuleMode mode = random.nextInt(3) == 0 ? IpRuleMode.ALLOW : IpRuleMode.DENY;
+            cidrRules.add(new CidrRule(cidr, mode, random.nextInt(4), (long) i, i));
+        }
+        trie = IpRuleTrie.compileRules(cidrRules);
+
+        ipv4 = new int[ADDRESSES];
+        ipv4Bytes = new byte[ADDRESSES][];
+        ipv6 = new byte[ADDRESSES][];
+        for (int i = 0; i < ADDRESSES; i++) {
+            ipv4Bytes[i] = address(random, v4Prefixes, 4, i % 2 == 0);
+            ipv4[i] = (ipv4Bytes[i][0] & 0xff) << 24 | (ipv4Bytes[i][1] & 0xff) << 16
+                    | (ipv4Bytes[i][2] & 0xff) << 8 | (ipv4Bytes[i][3] & 0xff);
+            ipv6[i] = address(random, v6Prefixes, 16, i % 2 == 0);
+        }
+    }
+
+    /**
+     * 随机地址；inside 为 true 时落在某条规则的前缀内
+     */
+    private static byte[] address(Random random, List<Cidr> prefixes, int length, boolean inside) {
+        byte[] address = new byte[length];
+        random.nextBytes(address);
+        if (inside && !prefixes.isEmpty()) {
+            Cidr cidr = prefixes.get(random.nextInt(prefixes.size()));
+            byte[] network = cidr.getAddress();
+            for (int bit = 0; bit < cidr.getPrefixLength(); bit++) {
+                int mask = 0x80 >>> (bit & 7);
+                address[bit >>> 3] = (byte) ((address[bit >>> 3] & ~mask) | (network[bit >>> 3] & mask));
+            }
+        }
+        return address;
+    }
+
+    @Benchmark
+    public int lookupIpv4Int() {
+        return trie.lookupIpv4(ipv4[next++ & (ADDRESSES - 1)]);
+    }
+
+    @Benchmark
+    public int lookupIpv4Bytes() {
+        return trie.lookup(ipv4Bytes[next++ & (ADDRESSES - 1)]);
+    }
+
+    @Benchmark
+    public int lookupIpv6() {
+        return trie.lookup(ipv6[next++ & (ADDRESSES - 1)]);
+    }
+}
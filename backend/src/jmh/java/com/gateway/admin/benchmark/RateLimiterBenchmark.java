@@ -0,0 +1,81 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.limiter.NanoClock;
+import com.gateway.admin.limiter.RateLimiter;
+import com.gateway.admin.limiter.TokenBucket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limiter Benchmark
+ * 令牌桶 tryAcquire 吞吐：所有线程共享一个桶（CAS 竞争）与每线程独立的桶（按路由/客户端分桶的典型用法）
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="RateLimiterBenchmark -t 8"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Shared {
+        RateLimiter limiter;
+        TokenBucket exhausted;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            limiter = RateLimiter.compile(limiterConfig());
+            exhausted = new TokenBucket(1, TimeUnit.HOURS.toNanos(1), 1, NanoClock.SYSTEM);
+            exhausted.tryAcquire();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PerThread {
+        RateLimiter limiter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            limiter = RateLimiter.compile(limiterConfig());
+        }
+    }
+
+    private static LimiterConfig limiterConfig() {
+        LimiterConfig config = new LimiterConfig();
+        config.setMaxPerSecond(Integer.MAX_VALUE);
+        config.setMaxPerMinute(Integer.MAX_VALUE);
+        return config;
+    }
+
+    @Benchmark
+    public boolean sharedLimiter(Shared state) {
+        return state.limiter.tryAcquire();
+    }
+
+    @Benchmark
+    public boolean perThreadLimiter(PerThread state) {
+        return state.limiter.tryAcquire();
+    }
+
+    /**
+     * 拒绝路径只读共享状态，不做 CAS
+     */
+    @Benchmark
+    public boolean sharedRejected(Shared state) {
+        return state.exhausted.tryAcquire();
+    }
+}
@@ -0,0 +1,94 @@
+package com.gateway.admin.benchmark;
+
+import com.gateway.admin.limiter.NanoClock;
+import com.gateway.admin.limiter.SlidingWindowLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sliding Window Benchmark
+ * 单条热点路由上滑动窗口计数的吞吐：分段计数（LongAdder 槽位）与单个 AtomicLong 计数对比，1/8/64 线程
+ *
+ * 运行: mvn -Pbenchmark compile exec:exec -Djmh.args="SlidingWindowBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlidingWindowBenchmark {
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private SlidingWindowLimiter striped;
+    private AtomicLong counter;
+    private long counterLimit;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        striped = new SlidingWindowLimiter(Long.MAX_VALUE / 2, WINDOW_NANOS, 60, NanoClock.SYSTEM);
+        counter = new AtomicLong();
+        counterLimit = Long.MAX_VALUE / 2;
+    }
+
+    /**
+     * 对照组：所有线程对同一个 AtomicLong 先读后加（同样读取一次时钟）
+     */
+    private boolean singleCounter() {
+        if (System.nanoTime() == 0 || counter.get() + 1 > counterLimit) {
+            return false;
+        }
+        counter.incrementAndGet();
+        return true;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean striped1() {
+        return striped.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean striped8() {
+        return striped.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean striped64() {
+        return striped.tryAcquire();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean singleCounter1() {
+        return singleCounter();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean singleCounter8() {
+        return singleCounter();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public boolean singleCounter64() {
+        return singleCounter();
+    }
+}
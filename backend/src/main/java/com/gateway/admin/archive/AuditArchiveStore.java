@@ -0,0 +1,174 @@
+package com.gateway.admin.archive;
+
+import com.gateway.admin.exception.GatewayConfigException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Audit Archive Store
+ * 审计归档的本地目录布局
+ *
+ * <pre>
+ * {directory}/{审计表}/{yyyy-MM}/{首个修订号}-{最后修订号}.seg|.idx
+ * {directory}/{审计表}/archived-revision      已归档到的修订号（水位）
+ * </pre>
+ * 水位以下的审计行已全部写入段文件，热表中这些行可以安全删除。
+ * 段在水位推进到其最后修订号之后才算发布：写段之后、推进水位之前中断的归档留下的段首个修订号高于水位，
+ * 读取时忽略，下一次归档开始前删除（{@link #discardUnpublished}），重写同名段不会冲突，也不会与热表重复。
+ */
+@Component
+public class AuditArchiveStore {
+
+    private static final String WATERMARK_FILE = "archived-revision";
+
+    @Value("${gateway.admin.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${gateway.admin.archive.directory:data/audit-archive}")
+    private String directory;
+
+    @Value("${gateway.admin.archive.block-rows:1000}")
+    private int blockRows;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 获取审计表的归档水位，未归档过返回 0
+     */
+    public long getArchivedRevision(String table) {
+        Path file = tableDirectory(table).resolve(WATERMARK_FILE);
+        try {
+            if (!Files.exists(file)) {
+                return 0;
+            }
+            return Long.parseLong(Files.readString(file, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new GatewayConfigException("读取归档水位失败: " + table, e);
+        }
+    }
+
+    /**
+     * 原子更新审计表的归档水位
+     */
+    public void setArchivedRevision(String table, long revision) throws IOException {
+        Path tableDir = tableDirectory(table);
+        Files.createDirectories(tableDir);
+        Path temp = Files.createTempFile(tableDir, WATERMARK_FILE, ".tmp");
+        Files.writeString(temp, Long.toString(revision), StandardCharsets.UTF_8);
+        Files.move(temp, tableDir.resolve(WATERMARK_FILE),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 为审计表的某个月份分区打开一个新段
+     */
+    public AuditSegmentWriter openWriter(String table, YearMonth month) throws IOException {
+        return new AuditSegmentWriter(tableDirectory(table).resolve(month.toString()), blockRows);
+    }
+
+    /**
+     * 删除审计表中未发布的段（首个修订号高于水位）和中断写入留下的临时文件；在写入新段之前调用
+     *
+     * @return 删除的文件数
+     */
+    public int discardUnpublished(String table, long watermark) throws IOException {
+        Path tableDir = tableDirectory(table);
+        if (!Files.isDirectory(tableDir)) {
+            return 0;
+        }
+        List<Path> stale = new ArrayList<>();
+        for (Path monthDir : monthDirectories(tableDir)) {
+            try (Stream<Path> files = Files.list(monthDir)) {
+                files.filter(file -> {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(".tmp")) {
+                        return true;
+                    }
+                    boolean segmentFile = name.endsWith(AuditSegmentWriter.SEGMENT_SUFFIX)
+                            || name.endsWith(AuditSegmentWriter.INDEX_SUFFIX);
+                    return segmentFile && firstRevision(file) > watermark;
+                }).forEach(stale::add);
+            }
+        }
+        for (Path file : stale) {
+            Files.deleteIfExists(file);
+        }
+        return stale.size();
+    }
+
+    /**
+     * 按时间范围（毫秒，null 表示不限）列出审计表已发布（最后修订号不超过 watermark）的段索引文件，
+     * 按月份、首个修订号升序
+     */
+    public List<Path> findIndexFiles(String table, Long from, Long to, long watermark) throws IOException {
+        Path tableDir = tableDirectory(table);
+        if (!Files.isDirectory(tableDir)) {
+            return Collections.emptyList();
+        }
+        YearMonth fromMonth = from != null ? monthOf(from) : null;
+        YearMonth toMonth = to != null ? monthOf(to) : null;
+
+        List<Path> indexFiles = new ArrayList<>();
+        for (Path monthDir : monthDirectories(tableDir)) {
+            YearMonth month = YearMonth.parse(monthDir.getFileName().toString());
+            if ((fromMonth != null && month.isBefore(fromMonth)) || (toMonth != null && month.isAfter(toMonth))) {
+                continue;
+            }
+            List<Path> segments = new ArrayList<>();
+            try (Stream<Path> files = Files.list(monthDir)) {
+                files.filter(file -> file.getFileName().toString().endsWith(AuditSegmentWriter.INDEX_SUFFIX)
+                                && lastRevision(file) <= watermark)
+                        .forEach(segments::add);
+            }
+            segments.sort((a, b) -> Long.compare(firstRevision(a), firstRevision(b)));
+            indexFiles.addAll(segments);
+        }
+        return indexFiles;
+    }
+
+    /**
+     * 修订时间所属的月份分区
+     */
+    public static YearMonth monthOf(long timestamp) {
+        return YearMonth.from(Instant.ofEpochMilli(timestamp).atZone(ZoneId.systemDefault()));
+    }
+
+    private static List<Path> monthDirectories(Path tableDir) throws IOException {
+        List<Path> months = new ArrayList<>();
+        try (Stream<Path> children = Files.list(tableDir)) {
+            children.filter(Files::isDirectory).forEach(months::add);
+        }
+        months.sort(null);
+        return months;
+    }
+
+    private static long firstRevision(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.indexOf('-')));
+    }
+
+    private static long lastRevision(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return Long.parseLong(name.substring(name.indexOf('-') + 1, name.lastIndexOf('.')));
+    }
+
+    private Path tableDirectory(String table) {
+        return Paths.get(directory).resolve(table);
+    }
+}
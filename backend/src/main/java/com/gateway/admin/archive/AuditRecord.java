@@ -0,0 +1,77 @@
+package com.gateway.admin.archive;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Audit Record
+ * 一行 Envers 审计记录：修订号、修订时间、修订类型、实体ID及其余列
+ *
+ * 热数据（*_AUDIT 表）与冷数据（归档段文件）统一用该结构返回
+ */
+public class AuditRecord {
+
+    private long revision;
+    private long timestamp;
+    private Integer revisionType;
+    private String entityId;
+    private ObjectNode data;
+
+    public AuditRecord() {}
+
+    public AuditRecord(long revision, long timestamp, Integer revisionType, String entityId, ObjectNode data) {
+        this.revision = revision;
+        this.timestamp = timestamp;
+        this.revisionType = revisionType;
+        this.entityId = entityId;
+        this.data = data;
+    }
+
+    /**
+     * 修订号
+     */
+    public long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(long revision) {
+        this.revision = revision;
+    }
+
+    /**
+     * 修订时间（REVINFO.REVTSTMP，毫秒）
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(long timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 修订类型：0 新增，1 修改，2 删除
+     */
+    public Integer getRevisionType() {
+        return revisionType;
+    }
+
+    public void setRevisionType(Integer revisionType) {
+        this.revisionType = revisionType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    public ObjectNode getData() {
+        return data;
+    }
+
+    public void setData(ObjectNode data) {
+        this.data = data;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gateway.admin.archive;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Audit Row Mapper
+ * 将审计表行（需关联 REVINFO 取出 REVTSTMP 列）转换为 {@link AuditRecord}
+ *
+ * id、REV、REVTYPE、REVTSTMP 单独存放，其余列按列名写入 data
+ */
+public class AuditRowMapper implements RowMapper<AuditRecord> {
+
+    public static final String TIMESTAMP_COLUMN = "REVTSTMP";
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    @Override
+    public AuditRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        ResultSetMetaData meta = rs.getMetaData();
+        ObjectNode data = NODES.objectNode();
+        String entityId = null;
+        Integer revisionType = null;
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            String column = meta.getColumnLabel(i);
+            if ("REV".equalsIgnoreCase(column) || TIMESTAMP_COLUMN.equalsIgnoreCase(column)) {
+                continue;
+            }
+            Object value = rs.getObject(i);
+            if ("id".equalsIgnoreCase(column)) {
+                entityId = value != null ? value.toString() : null;
+            } else if ("REVTYPE".equalsIgnoreCase(column)) {
+                revisionType = value != null ? ((Number) value).intValue() : null;
+            } else {
+                put(data, column, value);
+            }
+        }
+        return new AuditRecord(rs.getLong("REV"), rs.getLong(TIMESTAMP_COLUMN), revisionType, entityId, data);
+    }
+
+    private static void put(ObjectNode data, String column, Object value) {
+        if (value == null) {
+            data.putNull(column);
+        } else if (value instanceof String) {
+            data.put(column, (String) value);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            data.put(column, ((Number) value).intValue());
+        } else if (value instanceof Long) {
+            data.put(column, (Long) value);
+        } else if (value instanceof BigDecimal) {
+            data.put(column, (BigDecimal) value);
+        } else if (value instanceof Number) {
+            data.put(column, ((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            data.put(column, (Boolean) value);
+        } else if (value instanceof Timestamp) {
+            data.put(column, ((Timestamp) value).toLocalDateTime().toString());
+        } else if (value instanceof byte[]) {
+            data.put(column, (byte[]) value);
+        } else {
+            data.put(column, value.toString());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.gateway.admin.archive;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Audit Segment Reader
+ * 读取审计归档段：先加载稀疏索引，只解压时间范围相交（按实体查询时还需实体过滤器命中）的块
+ */
+public final class AuditSegmentReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private AuditSegmentReader() {
+    }
+
+    /**
+     * 读取段的索引文件
+     */
+    public static List<SegmentIndexEntry> readIndex(Path indexFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            int magic = in.readInt();
+            if (magic != AuditSegmentWriter.INDEX_MAGIC) {
+                throw new IOException("无效的归档索引文件: " + indexFile);
+            }
+            int count = in.readInt();
+            List<SegmentIndexEntry> entries = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                entries.add(SegmentIndexEntry.readFrom(in));
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * 扫描一个段中时间范围与 [from, to] 相交的块，将满足条件的记录交给 consumer
+     *
+     * @param indexFile 段的索引文件，对应的段文件与其同名
+     */
+    public static void scan(Path indexFile, Long from, Long to, Predicate<AuditRecord> filter,
+                            Consumer<AuditRecord> consumer) throws IOException {
+        scan(indexFile, from, to, null, filter, consumer);
+    }
+
+    /**
+     * 只扫描可能包含 entityId 的块；没有这样的块时不打开段文件
+     *
+     * @param entityId 实体ID，null 表示不按实体跳过（filter 仍需自行过滤实体）
+     */
+    public static void scan(Path indexFile, Long from, Long to, String entityId, Predicate<AuditRecord> filter,
+                            Consumer<AuditRecord> consumer) throws IOException {
+        String name = indexFile.getFileName().toString();
+        Path segment = indexFile.resolveSibling(
+                name.substring(0, name.length() - AuditSegmentWriter.INDEX_SUFFIX.length())
+                        + AuditSegmentWriter.SEGMENT_SUFFIX);
+        List<SegmentIndexEntry> index = new ArrayList<>();
+        for (SegmentIndexEntry entry : readIndex(indexFile)) {
+            if (entry.overlaps(from, to) && entry.mayContain(entityId)) {
+                index.add(entry);
+            }
+        }
+        if (index.isEmpty()) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            for (SegmentIndexEntry entry : index) {
+                ByteBuffer buffer = ByteBuffer.allocate(entry.getLength());
+                long position = entry.getOffset();
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position + buffer.position());
+                    if (read < 0) {
+                        throw new IOException("归档段文件不完整: " + segment);
+                    }
+                }
+                readBlock(buffer.array(), from, to, filter, consumer);
+            }
+        }
+    }
+
+    private static void readBlock(byte[] block, Long from, Long to, Predicate<AuditRecord> filter,
+                                  Consumer<AuditRecord> consumer) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteArrayInputStream(block)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                JsonNode node = MAPPER.readTree(line);
+                long timestamp = node.path("ts").asLong();
+                if ((from != null && timestamp < from) || (to != null && timestamp > to)) {
+                    continue;
+                }
+                AuditRecord record = new AuditRecord(
+                        node.path("rev").asLong(),
+                        timestamp,
+                        node.hasNonNull("type") ? node.get("type").asInt() : null,
+                        node.path("id").asText(null),
+                        node.get("data") instanceof ObjectNode ? (ObjectNode) node.get("data") : MAPPER.createObjectNode());
+                if (filter == null || filter.test(record)) {
+                    consumer.accept(record);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.gateway.admin.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Audit Segment Writer
+ * 写入一个只追加的审计归档段
+ *
+ * 段文件由若干独立的 GZIP 块组成，每块包含最多 blockRows 行 JSON 记录；
+ * 索引文件为每个块记录一项 {@link SegmentIndexEntry}（含块内实体ID的过滤器）。先写临时文件，关闭时强制落盘后原子改名，
+ * 段文件先于索引文件出现，因此索引文件存在即表示该段已完整写入。
+ * 段只有在归档水位推进到其最后修订号之后才算发布，见 {@link AuditArchiveStore#discardUnpublished}。
+ */
+public class AuditSegmentWriter implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+    static final String INDEX_SUFFIX = ".idx";
+    static final int INDEX_MAGIC = 0x41554458; // "AUDX"
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path directory;
+    private final int blockRows;
+    private final Path tempSegment;
+    private final FileChannel channel;
+    private final List<SegmentIndexEntry> index = new ArrayList<>();
+
+    private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream(64 * 1024);
+    private final Set<String> blockEntities = new HashSet<>();
+    private OutputStream block;
+    private int blockRowCount;
+    private long blockFirstRevision;
+    private long blockLastRevision;
+    private long blockMinTimestamp;
+    private long blockMaxTimestamp;
+
+    private long firstRevision = -1;
+    private long lastRevision = -1;
+    private long totalRows;
+
+    public AuditSegmentWriter(Path directory, int blockRows) throws IOException {
+        this.directory = directory;
+        this.blockRows = blockRows;
+        Files.createDirectories(directory);
+        this.tempSegment = Files.createTempFile(directory, "segment-", ".tmp");
+        this.channel = FileChannel.open(tempSegment, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * 追加一条记录，记录需按修订号升序写入
+     */
+    public void append(AuditRecord record) throws IOException {
+        if (block == null) {
+            blockBuffer.reset();
+            block = new GZIPOutputStream(blockBuffer, 8192);
+            blockRowCount = 0;
+            blockEntities.clear();
+            blockFirstRevision = record.getRevision();
+            blockMinTimestamp = Long.MAX_VALUE;
+            blockMaxTimestamp = Long.MIN_VALUE;
+        }
+
+        ObjectNode line = MAPPER.createObjectNode();
+        line.put("rev", record.getRevision());
+        line.put("ts", record.getTimestamp());
+        if (record.getRevisionType() != null) {
+            line.put("type", record.getRevisionType());
+        }
+        line.put("id", record.getEntityId());
+        line.set("data", record.getData());
+        block.write(MAPPER.writeValueAsBytes(line));
+        block.write('\n');
+
+        blockRowCount++;
+        if (record.getEntityId() != null) {
+            blockEntities.add(record.getEntityId());
+        }
+        blockLastRevision = record.getRevision();
+        blockMinTimestamp = Math.min(blockMinTimestamp, record.getTimestamp());
+        blockMaxTimestamp = Math.max(blockMaxTimestamp, record.getTimestamp());
+        if (firstRevision < 0) {
+            firstRevision = record.getRevision();
+        }
+        lastRevision = record.getRevision();
+        totalRows++;
+
+        if (blockRowCount >= blockRows) {
+            flushBlock();
+        }
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    private void flushBlock() throws IOException {
+        if (block == null) {
+            return;
+        }
+        block.close();
+        long offset = channel.size();
+        byte[] bytes = blockBuffer.toByteArray();
+        channel.write(ByteBuffer.wrap(bytes));
+        index.add(new SegmentIndexEntry(blockFirstRevision, blockLastRevision, blockMinTimestamp, blockMaxTimestamp,
+                offset, bytes.length, blockRowCount, EntityFilter.build(blockEntities)));
+        block = null;
+    }
+
+    /**
+     * 放弃本段：删除临时文件，不发布任何内容
+     */
+    public void abort() throws IOException {
+        channel.close();
+        Files.deleteIfExists(tempSegment);
+    }
+
+    /**
+     * 完成段写入：落盘后依次原子发布段文件和索引文件；空段直接丢弃
+     */
+    @Override
+    public void close() throws IOException {
+        flushBlock();
+        channel.force(true);
+        channel.close();
+        if (totalRows == 0) {
+            Files.deleteIfExists(tempSegment);
+            return;
+        }
+
+        String name = firstRevision + "-" + lastRevision;
+        Path segment = directory.resolve(name + SEGMENT_SUFFIX);
+        Files.move(tempSegment, segment, StandardCopyOption.ATOMIC_MOVE);
+
+        Path tempIndex = Files.createTempFile(directory, "index-", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempIndex)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(index.size());
+            for (SegmentIndexEntry entry : index) {
+                entry.writeTo(out);
+            }
+        }
+        try (FileChannel indexChannel = FileChannel.open(tempIndex, StandardOpenOption.WRITE)) {
+            indexChannel.force(true);
+        }
+        Files.move(tempIndex, directory.resolve(name + INDEX_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,42 @@
+package com.gateway.admin.archive;
+
+import com.gateway.admin.exception.GatewayConfigException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Audit Table Registry
+ * 列出当前库中的 Envers 审计表（*_AUDIT）
+ *
+ * 审计表名需要拼接进原生SQL，所有外部传入的表名都必须先经过 {@link #requireAuditTable} 校验
+ */
+@Component
+public class AuditTableRegistry {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 查询全部审计表
+     */
+    public List<String> findAuditTables() {
+        return jdbcTemplate.queryForList(
+                "SELECT table_name FROM information_schema.tables " +
+                "WHERE table_schema = DATABASE() AND table_name LIKE '%\\_AUDIT'", String.class);
+    }
+
+    /**
+     * 校验并返回库中实际的审计表名（大小写以库中为准）
+     */
+    public String requireAuditTable(String table) {
+        for (String auditTable : findAuditTables()) {
+            if (auditTable.equalsIgnoreCase(table)) {
+                return auditTable;
+            }
+        }
+        throw new GatewayConfigException("审计表不存在: " + table);
+    }
+}
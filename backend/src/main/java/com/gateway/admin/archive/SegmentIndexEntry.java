@@ -0,0 +1,108 @@
+package com.gateway.admin.archive;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Segment Index Entry
+ * 段文件稀疏索引项：每个压缩块一项，记录块的修订号范围、时间范围、文件偏移和块内实体的过滤器
+ */
+public class SegmentIndexEntry {
+
+    private final long firstRevision;
+    private final long lastRevision;
+    private final long minTimestamp;
+    private final long maxTimestamp;
+    private final long offset;
+    private final int length;
+    private final int rows;
+    private final long[] entityFilter;
+
+    /**
+     * @param entityFilter 块内实体ID的过滤器（{@link EntityFilter}）
+     */
+    SegmentIndexEntry(long firstRevision, long lastRevision, long minTimestamp, long maxTimestamp,
+                      long offset, int length, int rows, long[] entityFilter) {
+        this.firstRevision = firstRevision;
+        this.lastRevision = lastRevision;
+        this.minTimestamp = minTimestamp;
+        this.maxTimestamp = maxTimestamp;
+        this.offset = offset;
+        this.length = length;
+        this.rows = rows;
+        this.entityFilter = entityFilter;
+    }
+
+    /**
+     * 块的时间范围是否与 [from, to] 相交，边界为 null 表示不限
+     */
+    public boolean overlaps(Long from, Long to) {
+        return (from == null || maxTimestamp >= from) && (to == null || minTimestamp <= to);
+    }
+
+    /**
+     * 块中是否可能有该实体的记录；可能误判为有，不会误判为没有
+     */
+    public boolean mayContain(String entityId) {
+        return EntityFilter.mayContain(entityFilter, entityId);
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeLong(firstRevision);
+        out.writeLong(lastRevision);
+        out.writeLong(minTimestamp);
+        out.writeLong(maxTimestamp);
+        out.writeLong(offset);
+        out.writeInt(length);
+        out.writeInt(rows);
+        out.writeInt(entityFilter.length);
+        for (long word : entityFilter) {
+            out.writeLong(word);
+        }
+    }
+
+    static SegmentIndexEntry readFrom(DataInputStream in) throws IOException {
+        long firstRevision = in.readLong();
+        long lastRevision = in.readLong();
+        long minTimestamp = in.readLong();
+        long maxTimestamp = in.readLong();
+        long offset = in.readLong();
+        int length = in.readInt();
+        int rows = in.readInt();
+        long[] entityFilter = new long[in.readInt()];
+        for (int i = 0; i < entityFilter.length; i++) {
+            entityFilter[i] = in.readLong();
+        }
+        return new SegmentIndexEntry(firstRevision, lastRevision, minTimestamp, maxTimestamp,
+                offset, length, rows, entityFilter);
+    }
+
+    public long getFirstRevision() {
+        return firstRevision;
+    }
+
+    public long getLastRevision() {
+        return lastRevision;
+    }
+
+    public long getMinTimestamp() {
+        return minTimestamp;
+    }
+
+    public long getMaxTimestamp() {
+        return maxTimestamp;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+}
@@ -0,0 +1,97 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Backend Status DTO
+ * 后端服务器的实时摘除状态
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BackendStatusDTO {
+
+    private String routeId;
+    private Long backendId;
+    private String address;
+    private String state;
+    private int weight;
+    private double effectiveWeight;
+    private Double failureRate;
+    private long trips;
+    private long openMillis;
+
+    // 构造函数
+    public BackendStatusDTO() {}
+
+    // Getter和Setter方法
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public void setRouteId(String routeId) {
+        this.routeId = routeId;
+    }
+
+    public Long getBackendId() {
+        return backendId;
+    }
+
+    public void setBackendId(Long backendId) {
+        this.backendId = backendId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public void setAddress(String address) {
+        this.address = address;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+
+    public double getEffectiveWeight() {
+        return effectiveWeight;
+    }
+
+    public void setEffectiveWeight(double effectiveWeight) {
+        this.effectiveWeight = effectiveWeight;
+    }
+
+    public Double getFailureRate() {
+        return failureRate;
+    }
+
+    public void setFailureRate(Double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public long getTrips() {
+        return trips;
+    }
+
+    public void setTrips(long trips) {
+        this.trips = trips;
+    }
+
+    public long getOpenMillis() {
+        return openMillis;
+    }
+
+    public void setOpenMillis(long openMillis) {
+        this.openMillis = openMillis;
+    }
+}
@@ -0,0 +1,154 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration Diff DTO
+ * 两个配置版本之间的结构化差异
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfigDiffDTO {
+
+    private String configId;
+    private Integer fromVersion;
+    private Integer toVersion;
+    private int added;
+    private int removed;
+    private int modified;
+    private List<FieldChangeDTO> changes = new ArrayList<>();
+
+    // 构造函数
+    public ConfigDiffDTO() {}
+
+    public ConfigDiffDTO(String configId, Integer fromVersion, Integer toVersion) {
+        this.configId = configId;
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+    }
+
+    // Getter和Setter方法
+    public String getConfigId() {
+        return configId;
+    }
+
+    public void setConfigId(String configId) {
+        this.configId = configId;
+    }
+
+    public Integer getFromVersion() {
+        return fromVersion;
+    }
+
+    public void setFromVersion(Integer fromVersion) {
+        this.fromVersion = fromVersion;
+    }
+
+    public Integer getToVersion() {
+        return toVersion;
+    }
+
+    public void setToVersion(Integer toVersion) {
+        this.toVersion = toVersion;
+    }
+
+    public int getAdded() {
+        return added;
+    }
+
+    public void setAdded(int added) {
+        this.added = added;
+    }
+
+    public int getRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(int removed) {
+        this.removed = removed;
+    }
+
+    public int getModified() {
+        return modified;
+    }
+
+    public void setModified(int modified) {
+        this.modified = modified;
+    }
+
+    public List<FieldChangeDTO> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<FieldChangeDTO> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Field Change DTO
+     * 单处差异：字段级（如 /backends/host:8080/weight）或集合元素级（如 /limiter/ipRules/10.0.0.0~18）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class FieldChangeDTO {
+
+        private String path;
+        private List<String> segments;
+        private String section;
+        private String changeType;
+        private JsonNode oldValue;
+        private JsonNode newValue;
+
+        public FieldChangeDTO() {}
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public List<String> getSegments() {
+            return segments;
+        }
+
+        public void setSegments(List<String> segments) {
+            this.segments = segments;
+        }
+
+        public String getSection() {
+            return section;
+        }
+
+        public void setSection(String section) {
+            this.section = section;
+        }
+
+        public String getChangeType() {
+            return changeType;
+        }
+
+        public void setChangeType(String changeType) {
+            this.changeType = changeType;
+        }
+
+        public JsonNode getOldValue() {
+            return oldValue;
+        }
+
+        public void setOldValue(JsonNode oldValue) {
+            this.oldValue = oldValue;
+        }
+
+        public JsonNode getNewValue() {
+            return newValue;
+        }
+
+        public void setNewValue(JsonNode newValue) {
+            this.newValue = newValue;
+        }
+    }
+}
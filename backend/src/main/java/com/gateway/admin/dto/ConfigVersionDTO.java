@@ -0,0 +1,90 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Configuration Version DTO
+ * 配置版本历史数据传输对象
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ConfigVersionDTO {
+
+    private String configId;
+    private Integer version;
+    private Boolean checkpoint;
+    private Long revision;
+    private String description;
+    private LocalDateTime createdAt;
+    private String createdBy;
+    private Integer payloadSize;
+
+    // 构造函数
+    public ConfigVersionDTO() {}
+
+    // Getter和Setter方法
+    public String getConfigId() {
+        return configId;
+    }
+
+    public void setConfigId(String configId) {
+        this.configId = configId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Boolean getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Boolean checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Integer getPayloadSize() {
+        return payloadSize;
+    }
+
+    public void setPayloadSize(Integer payloadSize) {
+        this.payloadSize = payloadSize;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+/**
+ * Field Blame DTO
+ * 配置字段最后一次修改的归属信息
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FieldBlameDTO {
+
+    private String configId;
+    private String path;
+    private Integer version;
+    private Long revision;
+    private LocalDateTime modifiedAt;
+    private String modifiedBy;
+
+    // 构造函数
+    public FieldBlameDTO() {}
+
+    // Getter和Setter方法
+    public String getConfigId() {
+        return configId;
+    }
+
+    public void setConfigId(String configId) {
+        this.configId = configId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public LocalDateTime getModifiedAt() {
+        return modifiedAt;
+    }
+
+    public void setModifiedAt(LocalDateTime modifiedAt) {
+        this.modifiedAt = modifiedAt;
+    }
+
+    public String getModifiedBy() {
+        return modifiedBy;
+    }
+
+    public void setModifiedBy(String modifiedBy) {
+        this.modifiedBy = modifiedBy;
+    }
+}
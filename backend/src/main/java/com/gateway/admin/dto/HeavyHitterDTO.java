@@ -0,0 +1,79 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Heavy Hitter DTO
+ * 按客户端限流中请求量最大的客户端
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HeavyHitterDTO {
+
+    private String clientKey;
+    private String limitKey;
+    private Long estimatedRequests;
+    private Integer windowLimit;
+    private Long windowSeconds;
+    private Long rejected;
+    private Long trackedSeconds;
+
+    // 构造函数
+    public HeavyHitterDTO() {}
+
+    // Getter和Setter方法
+    public String getClientKey() {
+        return clientKey;
+    }
+
+    public void setClientKey(String clientKey) {
+        this.clientKey = clientKey;
+    }
+
+    public String getLimitKey() {
+        return limitKey;
+    }
+
+    public void setLimitKey(String limitKey) {
+        this.limitKey = limitKey;
+    }
+
+    public Long getEstimatedRequests() {
+        return estimatedRequests;
+    }
+
+    public void setEstimatedRequests(Long estimatedRequests) {
+        this.estimatedRequests = estimatedRequests;
+    }
+
+    public Integer getWindowLimit() {
+        return windowLimit;
+    }
+
+    public void setWindowLimit(Integer windowLimit) {
+        this.windowLimit = windowLimit;
+    }
+
+    public Long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public void setWindowSeconds(Long windowSeconds) {
+        this.windowSeconds = windowSeconds;
+    }
+
+    public Long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(Long rejected) {
+        this.rejected = rejected;
+    }
+
+    public Long getTrackedSeconds() {
+        return trackedSeconds;
+    }
+
+    public void setTrackedSeconds(Long trackedSeconds) {
+        this.trackedSeconds = trackedSeconds;
+    }
+}
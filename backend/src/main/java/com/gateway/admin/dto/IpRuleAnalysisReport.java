@@ -0,0 +1,267 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IP Rule Analysis Report
+ * IP规则遮蔽与冗余分析结果
+ *
+ * 只分析启用的规则；清理时删除被遮蔽和重复的规则，可选地把可合并的规则组替换为合并后的前缀。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IpRuleAnalysisReport {
+
+    private Long limiterConfigId;
+    private int totalRules;
+    private int analyzedRules;
+    private int effectiveRules;
+    private List<RuleFindingDTO> shadowed = new ArrayList<>();
+    private List<RuleFindingDTO> duplicates = new ArrayList<>();
+    private List<RuleFindingDTO> redundant = new ArrayList<>();
+    private List<RuleFindingDTO> invalid = new ArrayList<>();
+    private List<MergeGroupDTO> mergeable = new ArrayList<>();
+    private int removableRules;
+    private Integer removedRules;
+    private Integer mergedGroups;
+    private long elapsedMillis;
+
+    // 构造函数
+    public IpRuleAnalysisReport() {}
+
+    // Getter和Setter方法
+    public Long getLimiterConfigId() {
+        return limiterConfigId;
+    }
+
+    public void setLimiterConfigId(Long limiterConfigId) {
+        this.limiterConfigId = limiterConfigId;
+    }
+
+    public int getTotalRules() {
+        return totalRules;
+    }
+
+    public void setTotalRules(int totalRules) {
+        this.totalRules = totalRules;
+    }
+
+    public int getAnalyzedRules() {
+        return analyzedRules;
+    }
+
+    public void setAnalyzedRules(int analyzedRules) {
+        this.analyzedRules = analyzedRules;
+    }
+
+    public int getEffectiveRules() {
+        return effectiveRules;
+    }
+
+    public void setEffectiveRules(int effectiveRules) {
+        this.effectiveRules = effectiveRules;
+    }
+
+    public List<RuleFindingDTO> getShadowed() {
+        return shadowed;
+    }
+
+    public void setShadowed(List<RuleFindingDTO> shadowed) {
+        this.shadowed = shadowed;
+    }
+
+    public List<RuleFindingDTO> getDuplicates() {
+        return duplicates;
+    }
+
+    public void setDuplicates(List<RuleFindingDTO> duplicates) {
+        this.duplicates = duplicates;
+    }
+
+    public List<RuleFindingDTO> getRedundant() {
+        return redundant;
+    }
+
+    public void setRedundant(List<RuleFindingDTO> redundant) {
+        this.redundant = redundant;
+    }
+
+    public List<RuleFindingDTO> getInvalid() {
+        return invalid;
+    }
+
+    public void setInvalid(List<RuleFindingDTO> invalid) {
+        this.invalid = invalid;
+    }
+
+    public List<MergeGroupDTO> getMergeable() {
+        return mergeable;
+    }
+
+    public void setMergeable(List<MergeGroupDTO> mergeable) {
+        this.mergeable = mergeable;
+    }
+
+    public int getRemovableRules() {
+        return removableRules;
+    }
+
+    public void setRemovableRules(int removableRules) {
+        this.removableRules = removableRules;
+    }
+
+    public Integer getRemovedRules() {
+        return removedRules;
+    }
+
+    public void setRemovedRules(Integer removedRules) {
+        this.removedRules = removedRules;
+    }
+
+    public Integer getMergedGroups() {
+        return mergedGroups;
+    }
+
+    public void setMergedGroups(Integer mergedGroups) {
+        this.mergedGroups = mergedGroups;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Rule Finding DTO
+     * 单条规则的分析结论；coveredBy 为完全覆盖它的序号更靠前的规则（被多条更具体的规则共同覆盖时为空）
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class RuleFindingDTO {
+
+        private Long ruleId;
+        private String ipOrCidr;
+        private String mode;
+        private Integer priority;
+        private Long coveredByRuleId;
+        private String coveredBy;
+        private String reason;
+
+        public RuleFindingDTO() {}
+
+        public Long getRuleId() {
+            return ruleId;
+        }
+
+        public void setRuleId(Long ruleId) {
+            this.ruleId = ruleId;
+        }
+
+        public String getIpOrCidr() {
+            return ipOrCidr;
+        }
+
+        public void setIpOrCidr(String ipOrCidr) {
+            this.ipOrCidr = ipOrCidr;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Integer getPriority() {
+            return priority;
+        }
+
+        public void setPriority(Integer priority) {
+            this.priority = priority;
+        }
+
+        public Long getCoveredByRuleId() {
+            return coveredByRuleId;
+        }
+
+        public void setCoveredByRuleId(Long coveredByRuleId) {
+            this.coveredByRuleId = coveredByRuleId;
+        }
+
+        public String getCoveredBy() {
+            return coveredBy;
+        }
+
+        public void setCoveredBy(String coveredBy) {
+            this.coveredBy = coveredBy;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public void setReason(String reason) {
+            this.reason = reason;
+        }
+    }
+
+    /**
+     * Merge Group DTO
+     * 可合并为一个前缀的同模式、同优先级规则
+     */
+    public static class MergeGroupDTO {
+
+        private String prefix;
+        private String mode;
+        private int priority;
+        private List<Long> ruleIds = new ArrayList<>();
+        private List<String> members = new ArrayList<>();
+
+        public MergeGroupDTO() {}
+
+        public String getPrefix() {
+            return prefix;
+        }
+
+        public void setPrefix(String prefix) {
+            this.prefix = prefix;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public void setPriority(int priority) {
+            this.priority = priority;
+        }
+
+        public List<Long> getRuleIds() {
+            return ruleIds;
+        }
+
+        public void setRuleIds(List<Long> ruleIds) {
+            this.ruleIds = ruleIds;
+        }
+
+        public List<String> getMembers() {
+            return members;
+        }
+
+        public void setMembers(List<String> members) {
+            this.members = members;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gateway.admin.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IP Rule Import Report
+ * IP规则批量导入结果
+ *
+ * 压缩比 = 有效条目数 / 合并后的前缀数；合并时计入了同模式、同优先级的已有规则。
+ * 合并后的前缀与其他规则冲突时逐条处理被合并的原始条目，conflicts 为实际跳过的原始条目数。
+ */
+public class IpRuleImportReport {
+
+    private long totalLines;
+    private long parsedEntries;
+    private long invalidEntries;
+    private List<String> invalidSamples = new ArrayList<>();
+    private long aggregatedEntries;
+    private double compressionRatio;
+    private long inserted;
+    private long deleted;
+    private long unchanged;
+    private long conflicts;
+    private List<String> conflictSamples = new ArrayList<>();
+    private long elapsedMillis;
+
+    // 构造函数
+    public IpRuleImportReport() {}
+
+    // Getter和Setter方法
+    public long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public long getParsedEntries() {
+        return parsedEntries;
+    }
+
+    public void setParsedEntries(long parsedEntries) {
+        this.parsedEntries = parsedEntries;
+    }
+
+    public long getInvalidEntries() {
+        return invalidEntries;
+    }
+
+    public void setInvalidEntries(long invalidEntries) {
+        this.invalidEntries = invalidEntries;
+    }
+
+    public List<String> getInvalidSamples() {
+        return invalidSamples;
+    }
+
+    public void setInvalidSamples(List<String> invalidSamples) {
+        this.invalidSamples = invalidSamples;
+    }
+
+    public long getAggregatedEntries() {
+        return aggregatedEntries;
+    }
+
+    public void setAggregatedEntries(long aggregatedEntries) {
+        this.aggregatedEntries = aggregatedEntries;
+    }
+
+    public double getCompressionRatio() {
+        return compressionRatio;
+    }
+
+    public void setCompressionRatio(double compressionRatio) {
+        this.compressionRatio = compressionRatio;
+    }
+
+    public long getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(long inserted) {
+        this.inserted = inserted;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public long getUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(long unchanged) {
+        this.unchanged = unchanged;
+    }
+
+    public long getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(long conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public List<String> getConflictSamples() {
+        return conflictSamples;
+    }
+
+    public void setConflictSamples(List<String> conflictSamples) {
+        this.conflictSamples = conflictSamples;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,109 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * IP Table Report
+ * 外部IP表信息；发布时附带输入列表的解析统计
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IpTableReport {
+
+    private String name;
+    private int ipv4Ranges;
+    private int ipv6Ranges;
+    private long fileBytes;
+    private LocalDateTime createdAt;
+    private Long totalLines;
+    private Long parsedEntries;
+    private Long invalidEntries;
+    private List<String> invalidSamples;
+    private Long elapsedMillis;
+
+    // 构造函数
+    public IpTableReport() {}
+
+    // Getter和Setter方法
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getIpv4Ranges() {
+        return ipv4Ranges;
+    }
+
+    public void setIpv4Ranges(int ipv4Ranges) {
+        this.ipv4Ranges = ipv4Ranges;
+    }
+
+    public int getIpv6Ranges() {
+        return ipv6Ranges;
+    }
+
+    public void setIpv6Ranges(int ipv6Ranges) {
+        this.ipv6Ranges = ipv6Ranges;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    public void setFileBytes(long fileBytes) {
+        this.fileBytes = fileBytes;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Long getTotalLines() {
+        return totalLines;
+    }
+
+    public void setTotalLines(Long totalLines) {
+        this.totalLines = totalLines;
+    }
+
+    public Long getParsedEntries() {
+        return parsedEntries;
+    }
+
+    public void setParsedEntries(Long parsedEntries) {
+        this.parsedEntries = parsedEntries;
+    }
+
+    public Long getInvalidEntries() {
+        return invalidEntries;
+    }
+
+    public void setInvalidEntries(Long invalidEntries) {
+        this.invalidEntries = invalidEntries;
+    }
+
+    public List<String> getInvalidSamples() {
+        return invalidSamples;
+    }
+
+    public void setInvalidSamples(List<String> invalidSamples) {
+        this.invalidSamples = invalidSamples;
+    }
+
+    public Long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(Long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+}
@@ -0,0 +1,207 @@
+package com.gateway.admin.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Limiter Simulation Report
+ * 限流与熔断回放模拟结果
+ *
+ * 延迟单位均为毫秒；“原始延迟”为轨迹中记录的延迟，“模拟后延迟”中被拒绝或被熔断的请求按立即返回计为 0。
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LimiterSimulationReport {
+
+    private String route;
+    private long totalEvents;
+    private long matchedEvents;
+    private long malformedLines;
+    private long admitted;
+    private long ipDenied;
+    private long rateLimited;
+    private long concurrencyLimited;
+    private long shortCircuited;
+    private long breakerTrips;
+    private long breakerOpenMillis;
+    private long errorsAdmitted;
+    private long errorsOriginal;
+    private double originalP50Millis;
+    private double originalP99Millis;
+    private double originalMaxMillis;
+    private double simulatedP50Millis;
+    private double simulatedP99Millis;
+    private double admittedP99Millis;
+    private long elapsedMillis;
+    private long eventsPerSecond;
+
+    // 构造函数
+    public LimiterSimulationReport() {}
+
+    // Getter和Setter方法
+    public String getRoute() {
+        return route;
+    }
+
+    public void setRoute(String route) {
+        this.route = route;
+    }
+
+    public long getTotalEvents() {
+        return totalEvents;
+    }
+
+    public void setTotalEvents(long totalEvents) {
+        this.totalEvents = totalEvents;
+    }
+
+    public long getMatchedEvents() {
+        return matchedEvents;
+    }
+
+    public void setMatchedEvents(long matchedEvents) {
+        this.matchedEvents = matchedEvents;
+    }
+
+    public long getMalformedLines() {
+        return malformedLines;
+    }
+
+    public void setMalformedLines(long malformedLines) {
+        this.malformedLines = malformedLines;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    public void setAdmitted(long admitted) {
+        this.admitted = admitted;
+    }
+
+    public long getIpDenied() {
+        return ipDenied;
+    }
+
+    public void setIpDenied(long ipDenied) {
+        this.ipDenied = ipDenied;
+    }
+
+    public long getRateLimited() {
+        return rateLimited;
+    }
+
+    public void setRateLimited(long rateLimited) {
+        this.rateLimited = rateLimited;
+    }
+
+    public long getConcurrencyLimited() {
+        return concurrencyLimited;
+    }
+
+    public void setConcurrencyLimited(long concurrencyLimited) {
+        this.concurrencyLimited = concurrencyLimited;
+    }
+
+    public long getShortCircuited() {
+        return shortCircuited;
+    }
+
+    public void setShortCircuited(long shortCircuited) {
+        this.shortCircuited = shortCircuited;
+    }
+
+    public long getBreakerTrips() {
+        return breakerTrips;
+    }
+
+    public void setBreakerTrips(long breakerTrips) {
+        this.breakerTrips = breakerTrips;
+    }
+
+    public long getBreakerOpenMillis() {
+        return breakerOpenMillis;
+    }
+
+    public void setBreakerOpenMillis(long breakerOpenMillis) {
+        this.breakerOpenMillis = breakerOpenMillis;
+    }
+
+    public long getErrorsAdmitted() {
+        return errorsAdmitted;
+    }
+
+    public void setErrorsAdmitted(long errorsAdmitted) {
+        this.errorsAdmitted = errorsAdmitted;
+    }
+
+    public long getErrorsOriginal() {
+        return errorsOriginal;
+    }
+
+    public void setErrorsOriginal(long errorsOriginal) {
+        this.errorsOriginal = errorsOriginal;
+    }
+
+    public double getOriginalP50Millis() {
+        return originalP50Millis;
+    }
+
+    public void setOriginalP50Millis(double originalP50Millis) {
+        this.originalP50Millis = originalP50Millis;
+    }
+
+    public double getOriginalP99Millis() {
+        return originalP99Millis;
+    }
+
+    public void setOriginalP99Millis(double originalP99Millis) {
+        this.originalP99Millis = originalP99Millis;
+    }
+
+    public double getOriginalMaxMillis() {
+        return originalMaxMillis;
+    }
+
+    public void setOriginalMaxMillis(double originalMaxMillis) {
+        this.originalMaxMillis = originalMaxMillis;
+    }
+
+    public double getSimulatedP50Millis() {
+        return simulatedP50Millis;
+    }
+
+    public void setSimulatedP50Millis(double simulatedP50Millis) {
+        this.simulatedP50Millis = simulatedP50Millis;
+    }
+
+    public double getSimulatedP99Millis() {
+        return simulatedP99Millis;
+    }
+
+    public void setSimulatedP99Millis(double simulatedP99Millis) {
+        this.simulatedP99Millis = simulatedP99Millis;
+    }
+
+    public double getAdmittedP99Millis() {
+        return admittedP99Millis;
+    }
+
+    public void setAdmittedP99Millis(double admittedP99Millis) {
+        this.admittedP99Millis = admittedP99Millis;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getEventsPerSecond() {
+        return eventsPerSecond;
+    }
+
+    public void setEventsPerSecond(long eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+}
@@ -214,6 +214,9 @@ public class BackendServer {
         return protocol.getCode().toLowerCase() + "://" + hostname + ":" + port;
     }
 
+    /**
+     * 是否启用并配置了健康检查地址；实际检查结果见 HealthCheckService
+     */
     public boolean isHealthy() {
         return enabled && healthCheckUrl != null;
     }
@@ -0,0 +1,199 @@
+package com.gateway.admin.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Change Set Entity
+ * 变更集实体类
+ *
+ * 收集多个网关配置的草稿修改，发布时在一个事务内生效，并生成一个全局修订号
+ */
+@Entity
+@Table(name = "change_sets",
+       indexes = {
+           @Index(name = "idx_change_set_status", columnList = "status"),
+           @Index(name = "idx_change_set_revision", columnList = "revision")
+       })
+@EntityListeners(AuditingEntityListener.class)
+public class ChangeSet {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @NotBlank(message = "变更集名称不能为空")
+    @Size(max = 200, message = "变更集名称长度不能超过200个字符")
+    @Column(name = "name", nullable = false, length = 200)
+    private String name;
+
+    @Size(max = 1000, message = "描述长度不能超过1000个字符")
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @NotNull(message = "状态不能为空")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private ChangeSetStatus status = ChangeSetStatus.OPEN;
+
+    // 发布后生成的全局修订号
+    @Column(name = "revision")
+    private Long revision;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "published_by", length = 100)
+    private String publishedBy;
+
+    @OneToMany(mappedBy = "changeSet", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @OrderBy("id ASC")
+    private List<ChangeSetEntry> entries = new ArrayList<>();
+
+    // 构造函数
+    public ChangeSet() {
+        this.id = UUID.randomUUID().toString();
+    }
+
+    public ChangeSet(String name, String description, String createdBy) {
+        this();
+        this.name = name;
+        this.description = description;
+        this.createdBy = createdBy;
+    }
+
+    // Getter和Setter方法
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public ChangeSetStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(ChangeSetStatus status) {
+        this.status = status;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public String getPublishedBy() {
+        return publishedBy;
+    }
+
+    public void setPublishedBy(String publishedBy) {
+        this.publishedBy = publishedBy;
+    }
+
+    public List<ChangeSetEntry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<ChangeSetEntry> entries) {
+        this.entries = entries;
+    }
+
+    // 业务方法
+    public void addEntry(ChangeSetEntry entry) {
+        entry.setChangeSet(this);
+        entries.add(entry);
+    }
+
+    public void removeEntry(ChangeSetEntry entry) {
+        entries.remove(entry);
+        entry.setChangeSet(null);
+    }
+
+    public boolean isOpen() {
+        return ChangeSetStatus.OPEN.equals(status);
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSet{" +
+                "id='" + id + '\'' +
+                ", name='" + name + '\'' +
+                ", status=" + status +
+                ", revision=" + revision +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ChangeSet that = (ChangeSet) o;
+        return id != null && id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+}
@@ -0,0 +1,175 @@
+package com.gateway.admin.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Change Set Entry Entity
+ * 变更集条目实体类，每个网关配置在一个变更集中最多对应一个条目
+ */
+@Entity
+@Table(name = "change_set_entries",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_change_set_config", columnNames = {"change_set_id", "gateway_config_id"})
+       },
+       indexes = {
+           @Index(name = "idx_change_set_id", columnList = "change_set_id"),
+           @Index(name = "idx_entry_gateway_config_id", columnList = "gateway_config_id")
+       })
+@EntityListeners(AuditingEntityListener.class)
+public class ChangeSetEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull(message = "网关配置ID不能为空")
+    @Column(name = "gateway_config_id", nullable = false, length = 36)
+    private String gatewayConfigId;
+
+    @NotNull(message = "操作类型不能为空")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 20)
+    private Operation operation;
+
+    // 草稿内容，JSON格式的GatewayConfigDTO
+    @Column(name = "payload", columnDefinition = "JSON")
+    private String payload;
+
+    @Column(name = "updated_by", length = 100)
+    private String updatedBy;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "change_set_id", nullable = false)
+    private ChangeSet changeSet;
+
+    // 构造函数
+    public ChangeSetEntry() {}
+
+    public ChangeSetEntry(String gatewayConfigId, Operation operation) {
+        this.gatewayConfigId = gatewayConfigId;
+        this.operation = operation;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGatewayConfigId() {
+        return gatewayConfigId;
+    }
+
+    public void setGatewayConfigId(String gatewayConfigId) {
+        this.gatewayConfigId = gatewayConfigId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getUpdatedBy() {
+        return updatedBy;
+    }
+
+    public void setUpdatedBy(String updatedBy) {
+        this.updatedBy = updatedBy;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public ChangeSet getChangeSet() {
+        return changeSet;
+    }
+
+    public void setChangeSet(ChangeSet changeSet) {
+        this.changeSet = changeSet;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeSetEntry{" +
+                "id=" + id +
+                ", gatewayConfigId='" + gatewayConfigId + '\'' +
+                ", operation=" + operation +
+                '}';
+    }
+
+    /**
+     * Change Operation Enum
+     * 变更操作枚举
+     */
+    public enum Operation {
+        CREATE("CREATE", "新建"),
+        UPDATE("UPDATE", "更新"),
+        ENABLE("ENABLE", "启用"),
+        DISABLE("DISABLE", "禁用"),
+        DELETE("DELETE", "删除");
+
+        private final String code;
+        private final String description;
+
+        Operation(String code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * 是否携带草稿内容（新建、更新）；其余操作只改变配置状态
+         */
+        public boolean isContentChange() {
+            return this == CREATE || this == UPDATE;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gateway.admin.entity;
+
+/**
+ * Change Set Status Enum
+ * 变更集状态枚举
+ */
+public enum ChangeSetStatus {
+    OPEN("open", "编辑中"),
+    PUBLISHED("published", "已发布"),
+    DISCARDED("discarded", "已放弃");
+
+    private final String code;
+    private final String description;
+
+    ChangeSetStatus(String code, String description) {
+        this.code = code;
+        this.description = description;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public static ChangeSetStatus fromCode(String code) {
+        for (ChangeSetStatus status : values()) {
+            if (status.code.equals(code)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown change set status code: " + code);
+    }
+}
@@ -0,0 +1,129 @@
+package com.gateway.admin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Configuration Field Blame Entity
+ * 配置字段归属索引实体类
+ *
+ * 每个配置聚合的每个叶子字段（快照中的 JSON Pointer 路径，子对象按自然键定位）一行，
+ * 记录该字段当前值最后一次被修改的版本、修订号、操作人和时间，每次写入版本记录时维护。
+ */
+@Entity
+@Table(name = "config_field_blame",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_blame_config_path", columnNames = {"gateway_config_id", "field_path"})
+       })
+public class ConfigFieldBlame {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "gateway_config_id", nullable = false, length = 36)
+    private String gatewayConfigId;
+
+    @Column(name = "field_path", nullable = false, length = 500)
+    private String fieldPath;
+
+    // 字段当前值的指纹，用于判断字段是否变化，无需回放历史版本
+    @Column(name = "value_hash", nullable = false)
+    private Long valueHash;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    @Column(name = "revision")
+    private Long revision;
+
+    @Column(name = "modified_at", nullable = false)
+    private LocalDateTime modifiedAt;
+
+    @Column(name = "modified_by", length = 100)
+    private String modifiedBy;
+
+    // 构造函数
+    public ConfigFieldBlame() {}
+
+    public ConfigFieldBlame(String gatewayConfigId, String fieldPath) {
+        this.gatewayConfigId = gatewayConfigId;
+        this.fieldPath = fieldPath;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGatewayConfigId() {
+        return gatewayConfigId;
+    }
+
+    public void setGatewayConfigId(String gatewayConfigId) {
+        this.gatewayConfigId = gatewayConfigId;
+    }
+
+    public String getFieldPath() {
+        return fieldPath;
+    }
+
+    public void setFieldPath(String fieldPath) {
+        this.fieldPath = fieldPath;
+    }
+
+    public Long getValueHash() {
+        return valueHash;
+    }
+
+    public void setValueHash(Long valueHash) {
+        this.valueHash = valueHash;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public LocalDateTime getModifiedAt() {
+        return modifiedAt;
+    }
+
+    public void setModifiedAt(LocalDateTime modifiedAt) {
+        this.modifiedAt = modifiedAt;
+    }
+
+    public String getModifiedBy() {
+        return modifiedBy;
+    }
+
+    public void setModifiedBy(String modifiedBy) {
+        this.modifiedBy = modifiedBy;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigFieldBlame{" +
+                "gatewayConfigId='" + gatewayConfigId + '\'' +
+                ", fieldPath='" + fieldPath + '\'' +
+                ", version=" + version +
+                ", modifiedBy='" + modifiedBy + '\'' +
+                '}';
+    }
+}
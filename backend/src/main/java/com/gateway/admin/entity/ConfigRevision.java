@@ -0,0 +1,112 @@
+package com.gateway.admin.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Configuration Revision Entity
+ * 全局配置修订实体类
+ *
+ * 每次发布变更集生成一个单调递增的修订号，数据面按修订号整体重建一次配置快照
+ */
+@Entity
+@Table(name = "config_revisions",
+       indexes = {
+           @Index(name = "idx_revision_change_set_id", columnList = "change_set_id"),
+           @Index(name = "idx_revision_published_at", columnList = "published_at")
+       })
+@EntityListeners(AuditingEntityListener.class)
+public class ConfigRevision {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "revision")
+    private Long revision;
+
+    @Column(name = "change_set_id", length = 36)
+    private String changeSetId;
+
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @Column(name = "change_count", nullable = false)
+    private Integer changeCount = 0;
+
+    @CreatedDate
+    @Column(name = "published_at", nullable = false, updatable = false)
+    private LocalDateTime publishedAt;
+
+    @Column(name = "published_by", length = 100)
+    private String publishedBy;
+
+    // 构造函数
+    public ConfigRevision() {}
+
+    public ConfigRevision(String changeSetId, String description, Integer changeCount, String publishedBy) {
+        this.changeSetId = changeSetId;
+        this.description = description;
+        this.changeCount = changeCount;
+        this.publishedBy = publishedBy;
+    }
+
+    // Getter和Setter方法
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getChangeSetId() {
+        return changeSetId;
+    }
+
+    public void setChangeSetId(String changeSetId) {
+        this.changeSetId = changeSetId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public Integer getChangeCount() {
+        return changeCount;
+    }
+
+    public void setChangeCount(Integer changeCount) {
+        this.changeCount = changeCount;
+    }
+
+    public LocalDateTime getPublishedAt() {
+        return publishedAt;
+    }
+
+    public void setPublishedAt(LocalDateTime publishedAt) {
+        this.publishedAt = publishedAt;
+    }
+
+    public String getPublishedBy() {
+        return publishedBy;
+    }
+
+    public void setPublishedBy(String publishedBy) {
+        this.publishedBy = publishedBy;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigRevision{" +
+                "revision=" + revision +
+                ", changeSetId='" + changeSetId + '\'' +
+                ", changeCount=" + changeCount +
+                '}';
+    }
+}
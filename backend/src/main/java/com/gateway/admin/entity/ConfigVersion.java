@@ -0,0 +1,155 @@
+package com.gateway.admin.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Configuration Version Entity
+ * 配置版本历史实体类
+ *
+ * 历史以“周期性全量检查点 + 结构化增量”存储：检查点保存整个聚合的压缩快照，
+ * 其余版本只保存相对前一版本的压缩增量。还原任一版本最多回放 checkpoint-interval - 1 个增量。
+ */
+@Entity
+@Table(name = "config_versions",
+       uniqueConstraints = {
+           @UniqueConstraint(name = "uk_config_version", columnNames = {"gateway_config_id", "version"})
+       },
+       indexes = {
+           @Index(name = "idx_version_created_at", columnList = "created_at"),
+           @Index(name = "idx_version_revision", columnList = "revision")
+       })
+public class ConfigVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "gateway_config_id", nullable = false, length = 36)
+    private String gatewayConfigId;
+
+    @Column(name = "version", nullable = false)
+    private Integer version;
+
+    // true: payload为全量快照；false: payload为相对前一版本的增量
+    @Column(name = "checkpoint", nullable = false)
+    private Boolean checkpoint = false;
+
+    // Deflate压缩后的JSON
+    @Lob
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+
+    // 全局修订号（通过变更集发布时记录）
+    @Column(name = "revision")
+    private Long revision;
+
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    // 构造函数
+    public ConfigVersion() {}
+
+    public ConfigVersion(String gatewayConfigId, Integer version, Boolean checkpoint, byte[] payload) {
+        this.gatewayConfigId = gatewayConfigId;
+        this.version = version;
+        this.checkpoint = checkpoint;
+        this.payload = payload;
+    }
+
+    // Getter和Setter方法
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getGatewayConfigId() {
+        return gatewayConfigId;
+    }
+
+    public void setGatewayConfigId(String gatewayConfigId) {
+        this.gatewayConfigId = gatewayConfigId;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
+    public Boolean getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Boolean checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    public void setPayload(byte[] payload) {
+        this.payload = payload;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+
+    // 业务方法
+    public boolean isCheckpoint() {
+        return Boolean.TRUE.equals(checkpoint);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigVersion{" +
+                "gatewayConfigId='" + gatewayConfigId + '\'' +
+                ", version=" + version +
+                ", checkpoint=" + checkpoint +
+                ", payloadSize=" + (payload != null ? payload.length : 0) +
+                '}';
+    }
+}
@@ -83,6 +83,10 @@ public class GatewayConfig {
     @Column(name = "version", nullable = false)
     private Integer version = 1;
 
+    // 配置聚合的规范化内容哈希（SHA-256），内容未变化的写入据此短路
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -228,6 +232,14 @@ public class GatewayConfig {
         this.version = version;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -300,6 +312,14 @@ public class GatewayConfig {
         this.responseBodyDecorators = responseBodyDecorators;
     }
 
+    public List<ExtensionConfig> getExtensionConfigs() {
+        return extensionConfigs;
+    }
+
+    public void setExtensionConfigs(List<ExtensionConfig> extensionConfigs) {
+        this.extensionConfigs = extensionConfigs;
+    }
+
     public CspConfig getCspConfig() {
         return cspConfig;
     }
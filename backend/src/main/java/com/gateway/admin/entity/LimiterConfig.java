@@ -3,6 +3,7 @@ package com.gateway.admin.entity;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.Type;
@@ -22,7 +23,8 @@ import java.util.List;
 @Entity
 @Table(name = "limiter_configs", 
        indexes = {
-           @Index(name = "idx_gateway_config_id", columnList = "gateway_config_id")
+           @Index(name = "idx_gateway_config_id", columnList = "gateway_config_id"),
+           @Index(name = "idx_level_scope", columnList = "level, scope_key")
        })
 @Audited
 @EntityListeners(AuditingEntityListener.class)
@@ -33,10 +35,33 @@ public class LimiterConfig {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // 配置层级：ROUTE 属于单个网关配置，其余层级为下级未设置的限额提供继承值
+    @NotNull(message = "限流层级不能为空")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "level", nullable = false, length = 10)
+    private LimitLevel level = LimitLevel.ROUTE;
+
+    // PROJECT 层级为 cmdbProject，DOMAIN 层级为域名，GLOBAL 与 ROUTE 层级为空
+    @Column(name = "scope_key", length = 255)
+    private String scopeKey;
+
     @Min(value = 0, message = "最大并发数不能为负数")
     @Column(name = "max_concurrent")
     private Integer maxConcurrent;
 
+    // true: maxConcurrent 作为上限，实际并发限制按观测到的延迟自适应调整
+    @Column(name = "adaptive_concurrency", nullable = false)
+    private Boolean adaptiveConcurrency = false;
+
+    // true: 速率限额为全集群合计值，各节点从共享存储批量租用令牌
+    @Column(name = "cluster_wide", nullable = false)
+    private Boolean clusterWide = false;
+
+    // 限额的计数维度：为空或 GLOBAL 时全部请求共用一个限额，否则按客户端IP、用户或路径分别计数
+    @Enumerated(EnumType.STRING)
+    @Column(name = "limit_key", length = 10)
+    private LimitKey limitKey;
+
     @Min(value = 0, message = "每分钟最大请求数不能为负数")
     @Column(name = "max_per_minute")
     private Integer maxPerMinute;
@@ -66,6 +91,11 @@ public class LimiterConfig {
     @Column(name = "half_open_max_calls")
     private Integer halfOpenMaxCalls = 5;
 
+    // 外部IP表名称：引用的大型拒绝列表以内存映射文件存放，没有 IP 规则匹配的地址落在表内时拒绝
+    @Pattern(regexp = "[A-Za-z0-9][A-Za-z0-9_-]{0,63}", message = "IP表名称只能包含字母、数字、下划线和连字符")
+    @Column(name = "ip_table", length = 64)
+    private String ipTable;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -75,7 +105,7 @@ public class LimiterConfig {
     private LocalDateTime updatedAt;
 
     @OneToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "gateway_config_id", nullable = false)
+    @JoinColumn(name = "gateway_config_id")
     private GatewayConfig gatewayConfig;
 
     @OneToMany(mappedBy = "limiterConfig", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
@@ -94,6 +124,22 @@ public class LimiterConfig {
         this.id = id;
     }
 
+    public LimitLevel getLevel() {
+        return level;
+    }
+
+    public void setLevel(LimitLevel level) {
+        this.level = level;
+    }
+
+    public String getScopeKey() {
+        return scopeKey;
+    }
+
+    public void setScopeKey(String scopeKey) {
+        this.scopeKey = scopeKey;
+    }
+
     public Integer getMaxConcurrent() {
         return maxConcurrent;
     }
@@ -102,6 +148,30 @@ public class LimiterConfig {
         this.maxConcurrent = maxConcurrent;
     }
 
+    public Boolean getAdaptiveConcurrency() {
+        return adaptiveConcurrency;
+    }
+
+    public void setAdaptiveConcurrency(Boolean adaptiveConcurrency) {
+        this.adaptiveConcurrency = adaptiveConcurrency;
+    }
+
+    public Boolean getClusterWide() {
+        return clusterWide;
+    }
+
+    public void setClusterWide(Boolean clusterWide) {
+        this.clusterWide = clusterWide;
+    }
+
+    public LimitKey getLimitKey() {
+        return limitKey;
+    }
+
+    public void setLimitKey(LimitKey limitKey) {
+        this.limitKey = limitKey;
+    }
+
     public Integer getMaxPerMinute() {
         return maxPerMinute;
     }
@@ -174,6 +244,14 @@ public class LimiterConfig {
         this.halfOpenMaxCalls = halfOpenMaxCalls;
     }
 
+    public String getIpTable() {
+        return ipTable;
+    }
+
+    public void setIpTable(String ipTable) {
+        this.ipTable = ipTable;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -211,6 +289,10 @@ public class LimiterConfig {
         return maxConcurrent != null || maxPerMinute != null || maxPerSecond != null;
     }
 
+    public boolean isPerClient() {
+        return limitKey != null && limitKey != LimitKey.GLOBAL;
+    }
+
     public boolean hasCircuitBreaker() {
         return circuitBreakerEnabled && errorThresholdPercentage != null;
     }
@@ -219,9 +301,64 @@ public class LimiterConfig {
     public String toString() {
         return "LimiterConfig{" +
                 "id=" + id +
+                ", level=" + level +
                 ", maxConcurrent=" + maxConcurrent +
                 ", maxPerMinute=" + maxPerMinute +
                 ", circuitBreakerEnabled=" + circuitBreakerEnabled +
                 '}';
     }
-} 
\ No newline at end of file
+
+    /**
+     * Limit Level Enum
+     * 限流配置层级枚举（按继承优先级从低到高）
+     */
+    public enum LimitLevel {
+        GLOBAL("global", "全局"),
+        PROJECT("project", "项目"),
+        DOMAIN("domain", "域名"),
+        ROUTE("route", "路由");
+
+        private final String code;
+        private final String description;
+
+        LimitLevel(String code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    /**
+     * Limit Key Enum
+     * 限额计数维度枚举
+     */
+    public enum LimitKey {
+        GLOBAL("global", "全局"),
+        IP("ip", "客户端IP"),
+        USER("user", "用户"),
+        PATH("path", "API路径");
+
+        private final String code;
+        private final String description;
+
+        LimitKey(String code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gateway.admin.event;
+
+import com.gateway.admin.upstream.BackendPool.HostState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Backend State Changed Event
+ * 后端服务器摘除状态变化事件
+ *
+ * 服务器被摘除、开始试探、重新加入和权重恢复完成时各发布一次，供管理界面实时展示摘除情况
+ */
+public class BackendStateChangedEvent {
+
+    private final String routeId;
+    private final Long backendId;
+    private final String address;
+    private final HostState from;
+    private final HostState to;
+    private final double failureRate;
+    private final LocalDateTime occurredAt;
+
+    public BackendStateChangedEvent(String routeId, Long backendId, String address, HostState from, HostState to,
+                                    double failureRate, LocalDateTime occurredAt) {
+        this.routeId = routeId;
+        this.backendId = backendId;
+        this.address = address;
+        this.from = from;
+        this.to = to;
+        this.failureRate = failureRate;
+        this.occurredAt = occurredAt;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public Long getBackendId() {
+        return backendId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public HostState getFrom() {
+        return from;
+    }
+
+    public HostState getTo() {
+        return to;
+    }
+
+    /**
+     * 转换时窗口内的错误率（百分比），结果数不足时为 -1
+     */
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    @Override
+    public String toString() {
+        return "BackendStateChangedEvent{" +
+                "routeId='" + routeId + '\'' +
+                ", backendId=" + backendId +
+                ", address='" + address + '\'' +
+                ", " + from + " -> " + to +
+                '}';
+    }
+}
@@ -0,0 +1,44 @@
+package com.gateway.admin.event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Configuration Revision Published Event
+ * 全局修订发布事件
+ *
+ * 一个变更集发布只产生一个事件，下游（缓存、数据面快照）按修订号整体重建一次
+ */
+public class ConfigRevisionPublishedEvent {
+
+    private final Long revision;
+    private final String changeSetId;
+    private final List<String> configIds;
+
+    public ConfigRevisionPublishedEvent(Long revision, String changeSetId, List<String> configIds) {
+        this.revision = revision;
+        this.changeSetId = changeSetId;
+        this.configIds = Collections.unmodifiableList(configIds);
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public String getChangeSetId() {
+        return changeSetId;
+    }
+
+    public List<String> getConfigIds() {
+        return configIds;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigRevisionPublishedEvent{" +
+                "revision=" + revision +
+                ", changeSetId='" + changeSetId + '\'' +
+                ", configCount=" + configIds.size() +
+                '}';
+    }
+}
@@ -0,0 +1,31 @@
+package com.gateway.admin.event;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Effective Limits Changed Event
+ * 路由有效限额变化事件
+ *
+ * 路由自身或上级（全局、项目、域名）限额变更并在事务提交后重新计算，有效限额确实变化的路由汇总为一个事件，
+ * 依赖有效限额的内存状态（如按路由熔断参数创建的服务器池）据此重建
+ */
+public class EffectiveLimitsChangedEvent {
+
+    private final List<String> routeIds;
+
+    public EffectiveLimitsChangedEvent(List<String> routeIds) {
+        this.routeIds = Collections.unmodifiableList(routeIds);
+    }
+
+    public List<String> getRouteIds() {
+        return routeIds;
+    }
+
+    @Override
+    public String toString() {
+        return "EffectiveLimitsChangedEvent{" +
+                "routeCount=" + routeIds.size() +
+                '}';
+    }
+}
@@ -0,0 +1,58 @@
+package com.gateway.admin.event;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.entity.ConfigVersion;
+import com.gateway.admin.entity.GatewayConfig;
+
+/**
+ * Route Changed Event
+ * 路由配置变更事件
+ *
+ * 每写入一条版本记录（新建、修改、启停、归档、回滚）发布一次。在写入版本记录的事务内同步发布，
+ * 监听器可以在同一事务内写库（字段归属索引），需要更新内存状态的监听器自行推迟到事务提交之后。
+ */
+public class RouteChangedEvent {
+
+    private final GatewayConfig config;
+    private final ConfigVersion version;
+    private final ObjectNode snapshot;
+
+    public RouteChangedEvent(GatewayConfig config, ConfigVersion version, ObjectNode snapshot) {
+        this.config = config;
+        this.version = version;
+        this.snapshot = snapshot;
+    }
+
+    public String getRouteId() {
+        return config.getId();
+    }
+
+    /**
+     * 变更后的配置（当前持久化上下文中的实体）
+     */
+    public GatewayConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 本次变更写入的版本记录
+     */
+    public ConfigVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * 该版本的快照（密钥已脱敏）
+     */
+    public ObjectNode getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteChangedEvent{" +
+                "routeId='" + config.getId() + '\'' +
+                ", version=" + version.getVersion() +
+                '}';
+    }
+}
@@ -0,0 +1,24 @@
+package com.gateway.admin.exception;
+
+import com.gateway.admin.validation.ValidationError;
+import com.gateway.admin.validation.ValidationResult;
+
+import java.util.List;
+
+/**
+ * Configuration Validation Exception
+ * 配置校验异常，携带本次校验收集到的全部错误
+ */
+public class ConfigValidationException extends GatewayConfigException {
+
+    private final transient List<ValidationError> errors;
+
+    public ConfigValidationException(ValidationResult result) {
+        super("VALIDATION_FAILED", result.getMessage());
+        this.errors = result.getErrors();
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
+    }
+}
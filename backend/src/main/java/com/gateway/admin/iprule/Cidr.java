@@ -0,0 +1,207 @@
+package com.gateway.admin.iprule;
+
+import java.util.Arrays;
+
+/**
+ * CIDR
+ * 不可变的 IPv4 / IPv6 地址前缀
+ *
+ * 主机位在构造时清零，10.1.2.3/8 与 10.0.0.0/8 相等；不带前缀长度的地址视为 /32 或 /128。
+ */
+public final class Cidr implements Comparable<Cidr> {
+
+    private final byte[] address;
+    private final int prefixLength;
+
+    private Cidr(byte[] address, int prefixLength) {
+        this.address = address;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * @param address      4 或 16 字节地址（会被复制）
+     * @param prefixLength 前缀长度
+     */
+    public static Cidr of(byte[] address, int prefixLength) {
+        if (address.length != 4 && address.length != 16) {
+            throw new IllegalArgumentException("地址长度必须为 4 或 16 字节: " + address.length);
+        }
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            throw new IllegalArgumentException("前缀长度超出范围: /" + prefixLength);
+        }
+        byte[] masked = address.clone();
+        mask(masked, prefixLength);
+        return new Cidr(masked, prefixLength);
+    }
+
+    /**
+     * 解析 "地址" 或 "地址/前缀长度"
+     *
+     * @throws IllegalArgumentException 格式不正确
+     */
+    public static Cidr parse(String text) {
+        String value = text != null ? text.trim() : "";
+        int slash = value.indexOf('/');
+        byte[] address = IpAddresses.parse(value, 0, slash >= 0 ? slash : value.length());
+        if (address == null) {
+            throw new IllegalArgumentException("不是合法的 IP 或 CIDR: " + text);
+        }
+        int prefix = address.length * 8;
+        if (slash >= 0) {
+            prefix = parsePrefix(value, slash + 1, text);
+            // IPv4 映射地址写成 ::ffff:a.b.c.d/104 时，前缀长度换算为 IPv4 的长度
+            if (address.length == 4 && value.indexOf(':') >= 0) {
+                prefix -= 96;
+            }
+        }
+        if (prefix < 0 || prefix > address.length * 8) {
+            throw new IllegalArgumentException("前缀长度超出范围: " + text);
+        }
+        mask(address, prefix);
+        return new Cidr(address, prefix);
+    }
+
+    private static int parsePrefix(String value, int from, String text) {
+        if (from >= value.length() || value.length() - from > 3) {
+            throw new IllegalArgumentException("前缀长度不正确: " + text);
+        }
+        int prefix = 0;
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("前缀长度不正确: " + text);
+            }
+            prefix = prefix * 10 + (c - '0');
+        }
+        return prefix;
+    }
+
+    private static void mask(byte[] address, int prefixLength) {
+        for (int i = 0; i < address.length; i++) {
+            int bits = prefixLength - i * 8;
+            if (bits <= 0) {
+                address[i] = 0;
+            } else if (bits < 8) {
+                address[i] &= (byte) (0xff << (8 - bits));
+            }
+        }
+    }
+
+    public boolean isIpv4() {
+        return address.length == 4;
+    }
+
+    /**
+     * 地址位数：32 或 128
+     */
+    public int bits() {
+        return address.length * 8;
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    /**
+     * 网络地址（副本）
+     */
+    public byte[] getAddress() {
+        return address.clone();
+    }
+
+    /**
+     * 第 index 位（0 为最高位）
+     */
+    public int bit(int index) {
+        return (address[index >>> 3] >>> (7 - (index & 7))) & 1;
+    }
+
+    /**
+     * 是否包含地址（地址族不同时返回 false）
+     */
+    public boolean contains(byte[] other) {
+        if (other.length != address.length) {
+            return false;
+        }
+        int full = prefixLength >>> 3;
+        for (int i = 0; i < full; i++) {
+            if (address[i] != other[i]) {
+                return false;
+            }
+        }
+        int rest = prefixLength & 7;
+        return rest == 0 || ((address[full] ^ other[full]) & (0xff << (8 - rest)) & 0xff) == 0;
+    }
+
+    /**
+     * 是否包含另一个前缀（含相等）
+     */
+    public boolean contains(Cidr other) {
+        return other.address.length == address.length && other.prefixLength >= prefixLength && contains(other.address);
+    }
+
+    /**
+     * 上一级前缀（前缀长度减一）
+     *
+     * @throws IllegalStateException 已是 /0
+     */
+    public Cidr parent() {
+        if (prefixLength == 0) {
+            throw new IllegalStateException("/0 没有上一级前缀");
+        }
+        return of(address, prefixLength - 1);
+    }
+
+    /**
+     * 是否与另一个前缀互为兄弟：前缀长度相同、上一级前缀相同、自身不同，两者合起来恰好是上一级前缀
+     */
+    public boolean isSiblingOf(Cidr other) {
+        return other.address.length == address.length && other.prefixLength == prefixLength && prefixLength > 0
+                && other.bit(prefixLength - 1) != bit(prefixLength - 1) && parent().contains(other);
+    }
+
+    /**
+     * 按地址族（IPv4 在前）、网络地址、前缀长度排序
+     */
+    @Override
+    public int compareTo(Cidr other) {
+        int c = compareAddress(other);
+        return c != 0 ? c : Integer.compare(prefixLength, other.prefixLength);
+    }
+
+    /**
+     * 只按地址族和网络地址比较
+     */
+    int compareAddress(Cidr other) {
+        if (address.length != other.address.length) {
+            return address.length - other.address.length;
+        }
+        return Arrays.compareUnsigned(address, other.address);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Cidr)) {
+            return false;
+        }
+        Cidr other = (Cidr) o;
+        return prefixLength == other.prefixLength && Arrays.equals(address, other.address);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(address) + prefixLength;
+    }
+
+    /**
+     * 规范文本：单个地址不带前缀长度，其余为 网络地址/前缀长度
+     */
+    @Override
+    public String toString() {
+        String text = IpAddresses.format(address);
+        return prefixLength == bits() ? text : text + "/" + prefixLength;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gateway.admin.iprule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * CIDR Aggregator
+ * 把一组 CIDR 合并为覆盖同样地址的最少前缀
+ *
+ * 按地址排序后单遍扫描：被前一个前缀包含的条目被吸收，栈顶两个互为兄弟的前缀合并为上一级前缀并继续向上合并。
+ * 结果按地址排序，互不重叠，与输入覆盖的地址集合完全相同。
+ *
+ * 只在同一模式、同一优先级的规则之间合并。同优先级下另一模式的规则按前缀长短决定胜负，合并出的更短前缀可能改变结果，
+ * 因此可传入这些规则作为屏障（barriers）：包含屏障的前缀既不吸收其中更具体的条目，也不参与向上合并，相关条目原样保留。
+ */
+public final class CidrAggregator {
+
+    private CidrAggregator() {
+    }
+
+    /**
+     * 合并为最少前缀
+     */
+    public static List<Cidr> aggregate(Collection<Cidr> cidrs) {
+        return aggregate(cidrs, List.of());
+    }
+
+    /**
+     * 合并为最少前缀，合并结果不包含任何屏障前缀
+     *
+     * @param cidrs    待合并的前缀（可重复、可重叠、可混合 IPv4 与 IPv6）
+     * @param barriers 不允许被合并结果覆盖的前缀
+     */
+    public static List<Cidr> aggregate(Collection<Cidr> cidrs, Collection<Cidr> barriers) {
+        Cidr[] sorted = cidrs.toArray(new Cidr[0]);
+        Arrays.sort(sorted);
+        Cidr[] walls = barriers.toArray(new Cidr[0]);
+        Arrays.sort(walls);
+
+        List<Cidr> stack = new ArrayList<>();
+        for (Cidr cidr : sorted) {
+            if (!stack.isEmpty()) {
+                Cidr top = stack.get(stack.size() - 1);
+                // 栈中更早的前缀若包含当前条目，必然包含屏障（否则栈顶早已被它吸收），所以只需检查栈顶
+                if (top.equals(cidr) || top.contains(cidr) && !containsAny(top, walls)) {
+                    continue;
+                }
+            }
+            stack.add(cidr);
+            while (stack.size() >= 2) {
+                Cidr last = stack.get(stack.size() - 1);
+                Cidr previous = stack.get(stack.size() - 2);
+                if (!previous.isSiblingOf(last)) {
+                    break;
+                }
+                Cidr parent = last.parent();
+                if (containsAny(parent, walls)) {
+                    break;
+                }
+                stack.remove(stack.size() - 1);
+                stack.set(stack.size() - 1, parent);
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * block 是否包含 walls（已排序）中的任一前缀
+     */
+    private static boolean containsAny(Cidr block, Cidr[] walls) {
+        // 第一个网络地址不小于 block 的条目；网络地址相同、前缀更短的条目排在被包含的条目之前，跳过它们
+        int low = 0;
+        int high = walls.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (walls[mid].compareAddress(block) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < walls.length; i++) {
+            Cidr wall = walls[i];
+            if (block.contains(wall)) {
+                return true;
+            }
+            if (!(wall.getPrefixLength() < block.getPrefixLength() && wall.contains(block))) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+package com.gateway.admin.iprule;
+
+import com.gateway.admin.entity.IpRule;
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+
+import java.util.Comparator;
+
+/**
+ * CIDR Rule
+ * 解析后的 IP 规则
+ *
+ * 多条规则同时匹配时的优先顺序（与仓库中其他 priority 字段一致，数值小的先生效）：
+ * priority 升序 → 前缀更长（更具体）的优先 → DENY 优先于 ALLOW → 声明顺序。
+ */
+public final class CidrRule {
+
+    /**
+     * 规则生效的先后顺序，排在前面的规则优先
+     */
+    public static final Comparator<CidrRule> PRECEDENCE = Comparator
+            .comparingInt(CidrRule::getPriority)
+            .thenComparing(Comparator.comparingInt((CidrRule rule) -> rule.getCidr().getPrefixLength()).reversed())
+            .thenComparingInt(rule -> rule.getMode() == IpRuleMode.DENY ? 0 : 1)
+            .thenComparingInt(CidrRule::getOrder);
+
+    private final Cidr cidr;
+    private final IpRuleMode mode;
+    private final int priority;
+    private final Long ruleId;
+    private final int order;
+
+    /**
+     * @param cidr     地址前缀
+     * @param mode     ALLOW 或 DENY
+     * @param priority 优先级，数值小的先生效
+     * @param ruleId   来源 IpRule 的ID，可为 null
+     * @param order    声明顺序
+     */
+    public CidrRule(Cidr cidr, IpRuleMode mode, int priority, Long ruleId, int order) {
+        if (cidr == null || mode == null) {
+            throw new IllegalArgumentException("IP规则的地址和模式不能为空");
+        }
+        this.cidr = cidr;
+        this.mode = mode;
+        this.priority = priority;
+        this.ruleId = ruleId;
+        this.order = order;
+    }
+
+    /**
+     * 从实体解析
+     *
+     * @throws IllegalArgumentException 地址或模式不正确
+     */
+    public static CidrRule of(IpRule rule, int order) {
+        Cidr cidr;
+        try {
+            cidr = Cidr.parse(rule.getIpOrCidr());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("IP规则 #" + rule.getId() + " 格式不正确: " + rule.getIpOrCidr(), e);
+        }
+        return new CidrRule(cidr, rule.getMode(), rule.getPriority() != null ? rule.getPriority() : 0,
+                rule.getId(), order);
+    }
+
+    public Cidr getCidr() {
+        return cidr;
+    }
+
+    public IpRuleMode getMode() {
+        return mode;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public Long getRuleId() {
+        return ruleId;
+    }
+
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return mode + " " + cidr + " (priority=" + priority + (ruleId != null ? ", id=" + ruleId : "") + ")";
+    }
+}
@@ -0,0 +1,250 @@
+package com.gateway.admin.iprule;
+
+import java.util.Arrays;
+
+/**
+ * IP Addresses
+ * IPv4 / IPv6 字面量解析与格式化
+ *
+ * 只接受数字形式的地址，不做任何域名解析（不使用 InetAddress.getByName）；IPv6 支持 :: 压缩和末尾内嵌 IPv4，
+ * 不支持区域后缀（%eth0）。IPv4 映射的 IPv6 地址（::ffff:a.b.c.d）按 IPv4 处理。
+ */
+public final class IpAddresses {
+
+    private IpAddresses() {
+    }
+
+    /**
+     * 解析地址字面量，返回 4 或 16 字节数组；格式不正确时返回 null
+     */
+    public static byte[] parse(CharSequence text) {
+        return parse(text, 0, text.length());
+    }
+
+    /**
+     * 解析 text[from, to) 中的地址字面量
+     */
+    public static byte[] parse(CharSequence text, int from, int to) {
+        byte[] out = new byte[16];
+        int length = parseInto(text, from, to, out);
+        return length == 0 ? null : length == 16 ? out : Arrays.copyOf(out, 4);
+    }
+
+    /**
+     * 不分配对象的解析：地址写入 out 的前 4 或 16 字节
+     *
+     * @param out 至少 16 字节的缓冲区
+     * @return 地址字节数 4 或 16；格式不正确时返回 0（out 内容未定义）
+     */
+    public static int parseInto(CharSequence text, int from, int to, byte[] out) {
+        if (from >= to) {
+            return 0;
+        }
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == ':') {
+                if (!parseIpv6(text, from, to, out)) {
+                    return 0;
+                }
+                if (isIpv4Mapped(out)) {
+                    System.arraycopy(out, 12, out, 0, 4);
+                    return 4;
+                }
+                return 16;
+            }
+        }
+        return parseIpv4(text, from, to, out, 0) ? 4 : 0;
+    }
+
+    /**
+     * 解析 IPv4 地址为 32 位整数（按无符号解释）；格式不正确时抛出 IllegalArgumentException
+     */
+    public static int parseIpv4Int(CharSequence text) {
+        byte[] bytes = parse(text);
+        if (bytes == null || bytes.length != 4) {
+            throw new IllegalArgumentException("不是合法的 IPv4 地址: " + text);
+        }
+        return toInt(bytes, 0);
+    }
+
+    public static boolean isIpv4Mapped(byte[] address) {
+        if (address.length < 16) {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+
+    public static int toInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16
+                | (bytes[offset + 2] & 0xff) << 8 | (bytes[offset + 3] & 0xff);
+    }
+
+    /**
+     * 格式化为规范文本（IPv6 按 RFC 5952：小写、省略前导零、最长的连续零段压缩为 ::）
+     */
+    public static String format(byte[] address) {
+        if (address.length == 4) {
+            return (address[0] & 0xff) + "." + (address[1] & 0xff) + "." + (address[2] & 0xff) + "." + (address[3] & 0xff);
+        }
+        int[] groups = new int[8];
+        for (int i = 0; i < 8; i++) {
+            groups[i] = (address[2 * i] & 0xff) << 8 | (address[2 * i + 1] & 0xff);
+        }
+        int bestStart = -1;
+        int bestLength = 1;
+        for (int i = 0; i < 8; ) {
+            if (groups[i] != 0) {
+                i++;
+                continue;
+            }
+            int j = i;
+            while (j < 8 && groups[j] == 0) {
+                j++;
+            }
+            if (j - i > bestLength) {
+                bestStart = i;
+                bestLength = j - i;
+            }
+            i = j;
+        }
+        StringBuilder sb = new StringBuilder(39);
+        for (int i = 0; i < 8; i++) {
+            if (i == bestStart) {
+                sb.append("::");
+                i += bestLength - 1;
+                continue;
+            }
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ':') {
+                sb.append(':');
+            }
+            sb.append(Integer.toHexString(groups[i]));
+        }
+        return sb.toString();
+    }
+
+    private static boolean parseIpv4(CharSequence text, int from, int to, byte[] out, int offset) {
+        int part = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c >= '0' && c <= '9') {
+                // 不接受前导零，避免与八进制写法混淆
+                if (digits == 1 && value == 0) {
+                    return false;
+                }
+                value = value * 10 + (c - '0');
+                if (value > 255 || ++digits > 3) {
+                    return false;
+                }
+            } else if (c == '.') {
+                if (digits == 0 || part == 3) {
+                    return false;
+                }
+                out[offset + part++] = (byte) value;
+                value = 0;
+                digits = 0;
+            } else {
+                return false;
+            }
+        }
+        if (digits == 0 || part != 3) {
+            return false;
+        }
+        out[offset + 3] = (byte) value;
+        return true;
+    }
+
+    private static boolean parseIpv6(CharSequence text, int from, int to, byte[] out) {
+        Arrays.fill(out, 0, 16, (byte) 0);
+        int group = 0;
+        int compressAt = -1;
+        int i = from;
+        if (to - from >= 2 && text.charAt(from) == ':' && text.charAt(from + 1) == ':') {
+            compressAt = 0;
+            i += 2;
+            if (i == to) {
+                return true;
+            }
+        } else if (text.charAt(from) == ':') {
+            return false;
+        }
+        while (i < to) {
+            if (group == 8) {
+                return false;
+            }
+            int start = i;
+            int value = 0;
+            int digit;
+            while (i < to && i - start < 5 && (digit = hexDigit(text.charAt(i))) >= 0) {
+                value = value << 4 | digit;
+                i++;
+            }
+            if (i < to && text.charAt(i) == '.') {
+                // 末尾内嵌 IPv4
+                if (group > 6 || !parseIpv4(text, start, to, out, group * 2)) {
+                    return false;
+                }
+                group += 2;
+                i = to;
+                break;
+            }
+            if (i == start || i - start > 4) {
+                return false;
+            }
+            out[group * 2] = (byte) (value >>> 8);
+            out[group * 2 + 1] = (byte) value;
+            group++;
+            if (i == to) {
+                break;
+            }
+            if (text.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < to && text.charAt(i) == ':') {
+                if (compressAt >= 0) {
+                    return false;
+                }
+                compressAt = group;
+                i++;
+                if (i == to) {
+                    break;
+                }
+            } else if (i == to) {
+                return false;
+            }
+        }
+        if (compressAt < 0) {
+            return group == 8;
+        }
+        if (group == 8) {
+            return false;
+        }
+        // 把 :: 之后的分组移到末尾
+        int tail = (group - compressAt) * 2;
+        System.arraycopy(out, compressAt * 2, out, 16 - tail, tail);
+        Arrays.fill(out, compressAt * 2, 16 - tail, (byte) 0);
+        return true;
+    }
+
+    /**
+     * 只接受 ASCII 十六进制字符（Character.digit 会接受全角等其他数字）
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+}
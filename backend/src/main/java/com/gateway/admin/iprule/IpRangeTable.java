@@ -0,0 +1,445 @@
+package com.gateway.admin.iprule;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+/**
+ * IP Range Table
+ * 内存映射的 IP 地址区间表（外部IP表）
+ *
+ * 用于数百万条区间的大型拒绝列表：区间排序、合并后写入一个文件，查找时只读映射（mmap）该文件，在映射区上二分查找。
+ * 数据不在 Java 堆上，打开只需映射并校验文件头，与区间数量无关；多个进程映射同一文件时共享操作系统的页缓存。
+ *
+ * 文件格式（大端序）：
+ * <pre>
+ *   0  int   魔数 "IPRT"
+ *   4  int   版本号
+ *   8  int   IPv4 区间数 n4
+ *  12  int   IPv6 区间数 n6
+ *  16  long  生成时间（毫秒）
+ *  24  int[65537]  IPv4 分桶索引：index[b] 为起始地址高 16 位不小于 b 的第一个区间下标
+ *  ... 对齐到 8 字节
+ *      n4 × (int 起始, int 结束)              按起始地址升序，互不重叠、互不相邻
+ *      n6 × (long 起始高位, long 起始低位, long 结束高位, long 结束低位)
+ * </pre>
+ * IPv4 查找先按地址高 16 位定位分桶，只在桶内二分；IPv6 在全部区间上二分。地址均按无符号比较，查找不分配对象。
+ *
+ * 文件由 {@link Builder} 写入同目录的临时文件后原子重命名替换，已映射旧文件的读者继续读取旧内容，
+ * 重新打开即可看到新表；{@link #isStale(Path)} 用于发现其他进程发布的新文件。映射区在对象被回收后释放，
+ * 单个文件不超过 2 GB（约 6700 万条 IPv6 区间）。
+ */
+public final class IpRangeTable {
+
+    public static final String FILE_SUFFIX = ".iprt";
+
+    private static final int MAGIC = 0x49505254;
+    private static final int VERSION = 1;
+    private static final int BUCKETS = 1 << 16;
+    private static final int INDEX_OFFSET = 24;
+    private static final int V4_OFFSET = (INDEX_OFFSET + (BUCKETS + 1) * 4 + 7) & ~7;
+    private static final int V4_ENTRY_BYTES = 8;
+    private static final int V6_ENTRY_BYTES = 32;
+
+    private final ByteBuffer buffer;
+    private final int ipv4Count;
+    private final int ipv6Count;
+    private final int v6Offset;
+    private final long createdAt;
+    private final long fileBytes;
+    private final Object fileKey;
+    private final FileTime lastModified;
+
+    private IpRangeTable(ByteBuffer buffer, BasicFileAttributes attributes) {
+        this.buffer = buffer;
+        if (buffer.capacity() < V4_OFFSET || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("不是IP区间表文件");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("不支持的IP区间表版本: " + buffer.getInt(4));
+        }
+        this.ipv4Count = buffer.getInt(8);
+        this.ipv6Count = buffer.getInt(12);
+        this.createdAt = buffer.getLong(16);
+        long v6 = V4_OFFSET + (long) ipv4Count * V4_ENTRY_BYTES;
+        long expected = v6 + (long) ipv6Count * V6_ENTRY_BYTES;
+        if (ipv4Count < 0 || ipv6Count < 0 || expected != buffer.capacity()
+                || buffer.getInt(INDEX_OFFSET + BUCKETS * 4) != ipv4Count) {
+            throw new IllegalArgumentException("IP区间表文件已损坏");
+        }
+        this.v6Offset = (int) v6;
+        this.fileBytes = buffer.capacity();
+        this.fileKey = attributes.fileKey();
+        this.lastModified = attributes.lastModifiedTime();
+    }
+
+    /**
+     * 只读映射区间表文件
+     *
+     * @throws IllegalArgumentException 文件格式不正确
+     */
+    public static IpRangeTable open(Path path) throws IOException {
+        // 先取属性再打开：两步之间文件被替换时记录的是旧文件的属性，isStale 随后会发现变化并重新打开
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("IP区间表文件超过 2 GB: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            return new IpRangeTable(mapped, attributes);
+        }
+    }
+
+    /**
+     * 路径上的文件是否已不是本表映射的文件（被替换、删除或修改）
+     */
+    public boolean isStale(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            if (fileKey != null && !fileKey.equals(attributes.fileKey())) {
+                return true;
+            }
+            return !lastModified.equals(attributes.lastModifiedTime()) || attributes.size() != fileBytes;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * 缓冲区前 length（4 或 16）个字节表示的地址是否落在某个区间内（IPv4 映射的 IPv6 地址按 IPv4 查找）
+     */
+    public boolean contains(byte[] address, int length) {
+        if (length == 4) {
+            return containsIpv4(IpAddresses.toInt(address, 0));
+        }
+        if (IpAddresses.isIpv4Mapped(address)) {
+            return containsIpv4(IpAddresses.toInt(address, 12));
+        }
+        return containsIpv6(toLong(address, 0), toLong(address, 8));
+    }
+
+    public boolean contains(byte[] address) {
+        return contains(address, address.length);
+    }
+
+    /**
+     * IPv4 地址（按无符号解释的 32 位整数）是否落在某个区间内
+     */
+    public boolean containsIpv4(int address) {
+        int bucket = address >>> 16;
+        int lo = buffer.getInt(INDEX_OFFSET + bucket * 4);
+        int hi = buffer.getInt(INDEX_OFFSET + (bucket + 1) * 4);
+        // 桶内没有起点不大于地址的区间时，候选为上一个桶的最后一个区间
+        int found = lo - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Integer.compareUnsigned(buffer.getInt(V4_OFFSET + mid * V4_ENTRY_BYTES), address) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return found >= 0
+                && Integer.compareUnsigned(address, buffer.getInt(V4_OFFSET + found * V4_ENTRY_BYTES + 4)) <= 0;
+    }
+
+    /**
+     * IPv6 地址（高 64 位、低 64 位）是否落在某个区间内
+     */
+    public boolean containsIpv6(long high, long low) {
+        int lo = 0;
+        int hi = ipv6Count;
+        int found = -1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int offset = v6Offset + mid * V6_ENTRY_BYTES;
+            if (compare(buffer.getLong(offset), buffer.getLong(offset + 8), high, low) <= 0) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (found < 0) {
+            return false;
+        }
+        int offset = v6Offset + found * V6_ENTRY_BYTES;
+        return compare(high, low, buffer.getLong(offset + 16), buffer.getLong(offset + 24)) <= 0;
+    }
+
+    public int getIpv4Count() {
+        return ipv4Count;
+    }
+
+    public int getIpv6Count() {
+        return ipv6Count;
+    }
+
+    /**
+     * 生成时间（毫秒）
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    private static int compare(long high1, long low1, long high2, long low2) {
+        int c = Long.compareUnsigned(high1, high2);
+        return c != 0 ? c : Long.compareUnsigned(low1, low2);
+    }
+
+    private static long toLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xff);
+        }
+        return value;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 区间表构建器：收集 CIDR 或地址区间，排序合并后写文件。非线程安全。
+     */
+    public static final class Builder {
+
+        // IPv4 区间打包为 (起始 << 32 | 结束) 并翻转符号位，按有符号 long 排序即为按无符号起始地址排序
+        private long[] ipv4 = new long[1024];
+        private int ipv4Size;
+        // IPv6 区间按 (起始高位, 起始低位, 结束高位, 结束低位) 连续存放
+        private long[] ipv6 = new long[256];
+        private int ipv6Size;
+
+        private Builder() {}
+
+        public Builder add(Cidr cidr) {
+            byte[] start = cidr.getAddress();
+            byte[] end = start.clone();
+            for (int i = cidr.getPrefixLength(); i < end.length * 8; i++) {
+                end[i >>> 3] |= (byte) (0x80 >>> (i & 7));
+            }
+            return addRange(start, end);
+        }
+
+        /**
+         * 添加闭区间 [start, end]，两端为同一地址族的 4 或 16 字节地址
+         *
+         * @throws IllegalArgumentException 地址族不同或起始大于结束
+         */
+        public Builder addRange(byte[] start, byte[] end) {
+            if (start.length != end.length || (start.length != 4 && start.length != 16)) {
+                throw new IllegalArgumentException("区间两端必须为同一地址族");
+            }
+            if (start.length == 4) {
+                return addIpv4(IpAddresses.toInt(start, 0), IpAddresses.toInt(end, 0));
+            }
+            long startHigh = toLong(start, 0);
+            long startLow = toLong(start, 8);
+            long endHigh = toLong(end, 0);
+            long endLow = toLong(end, 8);
+            if (compare(startHigh, startLow, endHigh, endLow) > 0) {
+                throw new IllegalArgumentException("区间起始地址大于结束地址");
+            }
+            if (ipv6Size + 4 > ipv6.length) {
+                ipv6 = Arrays.copyOf(ipv6, ipv6.length * 2);
+            }
+            ipv6[ipv6Size++] = startHigh;
+            ipv6[ipv6Size++] = startLow;
+            ipv6[ipv6Size++] = endHigh;
+            ipv6[ipv6Size++] = endLow;
+            return this;
+        }
+
+        private Builder addIpv4(int start, int end) {
+            if (Integer.compareUnsigned(start, end) > 0) {
+                throw new IllegalArgumentException("区间起始地址大于结束地址");
+            }
+            if (ipv4Size == ipv4.length) {
+                ipv4 = Arrays.copyOf(ipv4, ipv4.length * 2);
+            }
+            ipv4[ipv4Size++] = (((long) start << 32) | (end & 0xffffffffL)) ^ Long.MIN_VALUE;
+            return this;
+        }
+
+        /**
+         * 已添加的区间数（合并前）
+         */
+        public long size() {
+            return ipv4Size + ipv6Size / 4;
+        }
+
+        /**
+         * 排序合并后写入 target：先写同目录下的临时文件并刷盘，再原子重命名替换
+         *
+         * @return 新表（已映射）
+         */
+        public IpRangeTable writeTo(Path target) throws IOException {
+            int[] ipv4Ranges = mergeIpv4();
+            long[] ipv6Ranges = mergeIpv6();
+            long bytes = V4_OFFSET + (long) ipv4Ranges.length / 2 * V4_ENTRY_BYTES
+                    + (long) ipv6Ranges.length / 4 * V6_ENTRY_BYTES;
+            if (bytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("IP区间表超过 2 GB");
+            }
+
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+            try {
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    OutputStream stream = Channels.newOutputStream(channel);
+                    DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+                    write(out, ipv4Ranges, ipv6Ranges);
+                    out.flush();
+                    channel.force(true);
+                }
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            return open(target);
+        }
+
+        private static void write(DataOutputStream out, int[] ipv4Ranges, long[] ipv6Ranges) throws IOException {
+            int ipv4Count = ipv4Ranges.length / 2;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(ipv4Count);
+            out.writeInt(ipv6Ranges.length / 4);
+            out.writeLong(System.currentTimeMillis());
+            int range = 0;
+            for (int bucket = 0; bucket <= BUCKETS; bucket++) {
+                while (range < ipv4Count && (ipv4Ranges[range * 2] >>> 16) < bucket) {
+                    range++;
+                }
+                out.writeInt(range);
+            }
+            for (int i = INDEX_OFFSET + (BUCKETS + 1) * 4; i < V4_OFFSET; i++) {
+                out.writeByte(0);
+            }
+            for (int value : ipv4Ranges) {
+                out.writeInt(value);
+            }
+            for (long value : ipv6Ranges) {
+                out.writeLong(value);
+            }
+        }
+
+        /**
+         * 排序后合并重叠和相邻的区间，返回 (起始, 结束) 交替排列的数组
+         */
+        private int[] mergeIpv4() {
+            long[] sorted = Arrays.copyOf(ipv4, ipv4Size);
+            Arrays.sort(sorted);
+            int[] merged = new int[sorted.length * 2];
+            int size = 0;
+            for (long packed : sorted) {
+                long value = packed ^ Long.MIN_VALUE;
+                long start = value >>> 32;
+                long end = value & 0xffffffffL;
+                if (size > 0 && start <= (merged[size - 1] & 0xffffffffL) + 1) {
+                    if (end > (merged[size - 1] & 0xffffffffL)) {
+                        merged[size - 1] = (int) end;
+                    }
+                    continue;
+                }
+                merged[size++] = (int) start;
+                merged[size++] = (int) end;
+            }
+            return Arrays.copyOf(merged, size);
+        }
+
+        private long[] mergeIpv6() {
+            long[] ranges = Arrays.copyOf(ipv6, ipv6Size);
+            sortByStart(ranges, ipv6Size / 4);
+            long[] merged = new long[ipv6Size];
+            int size = 0;
+            for (int i = 0; i < ipv6Size / 4; i++) {
+                long startHigh = ranges[i * 4];
+                long startLow = ranges[i * 4 + 1];
+                long endHigh = ranges[i * 4 + 2];
+                long endLow = ranges[i * 4 + 3];
+                if (size > 0 && adjoins(merged[size - 2], merged[size - 1], startHigh, startLow)) {
+                    if (compare(endHigh, endLow, merged[size - 2], merged[size - 1]) > 0) {
+                        merged[size - 2] = endHigh;
+                        merged[size - 1] = endLow;
+                    }
+                    continue;
+                }
+                merged[size++] = startHigh;
+                merged[size++] = startLow;
+                merged[size++] = endHigh;
+                merged[size++] = endLow;
+            }
+            return Arrays.copyOf(merged, size);
+        }
+
+        /**
+         * 按起始地址原地堆排序 (起始高位, 起始低位, 结束高位, 结束低位) 四元组，不装箱
+         */
+        private static void sortByStart(long[] ranges, int count) {
+            for (int i = count / 2 - 1; i >= 0; i--) {
+                siftDown(ranges, i, count);
+            }
+            for (int end = count - 1; end > 0; end--) {
+                swap(ranges, 0, end);
+                siftDown(ranges, 0, end);
+            }
+        }
+
+        private static void siftDown(long[] ranges, int i, int count) {
+            while (true) {
+                int largest = i;
+                for (int child = 2 * i + 1; child <= 2 * i + 2 && child < count; child++) {
+                    if (compare(ranges[child * 4], ranges[child * 4 + 1], ranges[largest * 4], ranges[largest * 4 + 1]) > 0) {
+                        largest = child;
+                    }
+                }
+                if (largest == i) {
+                    return;
+                }
+                swap(ranges, i, largest);
+                i = largest;
+            }
+        }
+
+        private static void swap(long[] ranges, int a, int b) {
+            for (int k = 0; k < 4; k++) {
+                long value = ranges[a * 4 + k];
+                ranges[a * 4 + k] = ranges[b * 4 + k];
+                ranges[b * 4 + k] = value;
+            }
+        }
+
+        /**
+         * 起始地址不大于上一区间的结束地址 + 1
+         */
+        private static boolean adjoins(long endHigh, long endLow, long startHigh, long startLow) {
+            if (endHigh == -1L && endLow == -1L) {
+                return true;
+            }
+            long nextLow = endLow + 1;
+            long nextHigh = nextLow == 0 ? endHigh + 1 : endHigh;
+            return compare(startHigh, startLow, nextHigh, nextLow) <= 0;
+        }
+    }
+}
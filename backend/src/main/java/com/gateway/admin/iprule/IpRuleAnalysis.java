@@ -0,0 +1,390 @@
+package com.gateway.admin.iprule;
+
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IP Rule Analysis
+ * IP 规则遮蔽与冗余分析
+ *
+ * 规则按 {@link CidrRule#PRECEDENCE} 排序得到序号（与 {@link IpRuleTrie} 相同），再按前缀排序，即前缀树的先序遍历；
+ * 借助一个栈建立包含关系（相同前缀的规则归为一个节点），然后按先序单遍计算每个节点路径上序号最小的两条规则。
+ * 节点前缀中不被子节点覆盖的部分（缺口）由路径上序号最小的规则决定，排序之后的遍历与规则数成线性关系。
+ *
+ * <ul>
+ *   <li>被遮蔽（SHADOWED）：没有任何缺口由它决定，任何地址都不会由它判定</li>
+ *   <li>重复（DUPLICATE）：与序号更小的规则前缀和模式都相同</li>
+ *   <li>冗余（REDUNDANT）：会命中，但单独删除后由它决定的地址改由同模式的规则（或默认结果）判定，结果不变</li>
+ *   <li>可合并：同模式、同优先级的生效规则经 {@link CidrAggregator} 合并为更少的前缀</li>
+ * </ul>
+ *
+ * 被遮蔽和重复的规则可以同时删除而不改变任何地址的判定结果；唯一的例外是白名单语义（存在 ALLOW 规则时未命中即拒绝），
+ * 因此 {@link #removable()} 至少保留一条 ALLOW 规则。冗余规则是逐条判断的，同时删除多条可能改变结果，只用于提示。
+ */
+public final class IpRuleAnalysis {
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    /**
+     * 分析结论
+     */
+    public enum Verdict {
+        EFFECTIVE("effective", "生效"),
+        REDUNDANT("redundant", "冗余"),
+        SHADOWED("shadowed", "被遮蔽"),
+        DUPLICATE("duplicate", "重复");
+
+        private final String code;
+        private final String description;
+
+        Verdict(String code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private final CidrRule[] rules;
+    private final Verdict[] verdicts;
+    private final int[] coveredBy;
+    private final boolean[] removable;
+    private final List<MergeGroup> mergeGroups;
+
+    private IpRuleAnalysis(CidrRule[] rules, Verdict[] verdicts, int[] coveredBy, boolean[] removable,
+                           List<MergeGroup> mergeGroups) {
+        this.rules = rules;
+        this.verdicts = verdicts;
+        this.coveredBy = coveredBy;
+        this.removable = removable;
+        this.mergeGroups = mergeGroups;
+    }
+
+    /**
+     * 分析一组已解析的规则
+     */
+    public static IpRuleAnalysis of(Collection<CidrRule> cidrRules) {
+        CidrRule[] rules = cidrRules.toArray(new CidrRule[0]);
+        Arrays.sort(rules, CidrRule.PRECEDENCE);
+        int n = rules.length;
+        int allowCount = 0;
+        for (CidrRule rule : rules) {
+            if (rule.getMode() == IpRuleMode.ALLOW) {
+                allowCount++;
+            }
+        }
+
+        // 按前缀（先序）排序，同一前缀内按序号
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> {
+            int c = rules[a].getCidr().compareTo(rules[b].getCidr());
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+
+        // 节点：相同前缀的一段 [start[k], start[k + 1])
+        int[] start = new int[n + 1];
+        int nodes = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || !rules[order[i]].getCidr().equals(rules[order[i - 1]].getCidr())) {
+                start[nodes++] = i;
+            }
+        }
+        start[nodes] = n;
+
+        int[] parent = new int[nodes];
+        List<List<Cidr>> children = new ArrayList<>(Collections.nCopies(nodes, null));
+        int[] stack = new int[nodes];
+        int depth = 0;
+        for (int k = 0; k < nodes; k++) {
+            Cidr cidr = rules[order[start[k]]].getCidr();
+            while (depth > 0 && !rules[order[start[stack[depth - 1]]]].getCidr().contains(cidr)) {
+                depth--;
+            }
+            parent[k] = depth > 0 ? stack[depth - 1] : -1;
+            if (parent[k] >= 0) {
+                if (children.get(parent[k]) == null) {
+                    children.set(parent[k], new ArrayList<>());
+                }
+                children.get(parent[k]).add(cidr);
+            }
+            stack[depth++] = k;
+        }
+
+        // 先序单遍：路径上序号最小的两条规则，缺口处的胜出规则与删除它之后的替补
+        int[] best = new int[nodes];
+        int[] second = new int[nodes];
+        boolean[] live = new boolean[n];
+        boolean[] decisive = new boolean[n];
+        for (int k = 0; k < nodes; k++) {
+            int b1 = parent[k] >= 0 ? best[parent[k]] : NONE;
+            int b2 = parent[k] >= 0 ? second[parent[k]] : NONE;
+            int own1 = order[start[k]];
+            int own2 = start[k + 1] - start[k] > 1 ? order[start[k] + 1] : NONE;
+            // own1 < own2：own1 不能进入前两名时 own2 也不能
+            if (own1 < b1) {
+                b2 = Math.min(b1, own2);
+                b1 = own1;
+            } else if (own1 < b2) {
+                b2 = own1;
+            }
+            best[k] = b1;
+            second[k] = b2;
+            if (!covers(rules[own1].getCidr(), children.get(k))) {
+                live[b1] = true;
+                IpRuleMode mode = rules[b1].getMode();
+                IpRuleMode fallback = b2 != NONE ? rules[b2].getMode()
+                        : allowCount - (mode == IpRuleMode.ALLOW ? 1 : 0) > 0 ? IpRuleMode.DENY : IpRuleMode.ALLOW;
+                if (fallback != mode) {
+                    decisive[b1] = true;
+                }
+            }
+        }
+
+        Verdict[] verdicts = new Verdict[n];
+        int[] coveredBy = new int[n];
+        Arrays.fill(coveredBy, -1);
+        for (int k = 0; k < nodes; k++) {
+            int firstAllow = -1;
+            int firstDeny = -1;
+            for (int i = start[k]; i < start[k + 1]; i++) {
+                int rank = order[i];
+                boolean allow = rules[rank].getMode() == IpRuleMode.ALLOW;
+                int sameMode = allow ? firstAllow : firstDeny;
+                if (live[rank]) {
+                    // 唯一的 ALLOW 规则决定了白名单语义，删除它会改变所有未命中地址的结果
+                    boolean soleAllow = allow && allowCount == 1;
+                    verdicts[rank] = decisive[rank] || soleAllow ? Verdict.EFFECTIVE : Verdict.REDUNDANT;
+                } else if (sameMode >= 0) {
+                    verdicts[rank] = Verdict.DUPLICATE;
+                    coveredBy[rank] = sameMode;
+                } else {
+                    verdicts[rank] = Verdict.SHADOWED;
+                    // 路径上序号更小的规则覆盖了整个前缀；否则是被多条更具体的规则共同覆盖
+                    coveredBy[rank] = best[k] != rank ? best[k] : -1;
+                }
+                if (allow && firstAllow < 0) {
+                    firstAllow = rank;
+                } else if (!allow && firstDeny < 0) {
+                    firstDeny = rank;
+                }
+            }
+        }
+        boolean[] removable = removable(rules, verdicts);
+        return new IpRuleAnalysis(rules, verdicts, coveredBy, removable, mergeGroups(rules, verdicts, removable));
+    }
+
+    /**
+     * 被遮蔽和重复的规则，但至少保留一条 ALLOW 规则（序号最小的一条）
+     */
+    private static boolean[] removable(CidrRule[] rules, Verdict[] verdicts) {
+        boolean[] removable = new boolean[rules.length];
+        boolean keptAllow = false;
+        int firstAllow = -1;
+        for (int rank = 0; rank < rules.length; rank++) {
+            boolean allow = rules[rank].getMode() == IpRuleMode.ALLOW;
+            removable[rank] = verdicts[rank] == Verdict.SHADOWED || verdicts[rank] == Verdict.DUPLICATE;
+            if (allow && firstAllow < 0) {
+                firstAllow = rank;
+            }
+            keptAllow |= allow && !removable[rank];
+        }
+        if (!keptAllow && firstAllow >= 0) {
+            removable[firstAllow] = false;
+        }
+        return removable;
+    }
+
+    /**
+     * 互不重叠的子前缀是否恰好拼成 cidr：按地址顺序入栈，兄弟前缀逐级合并
+     */
+    private static boolean covers(Cidr cidr, List<Cidr> children) {
+        if (children == null) {
+            return false;
+        }
+        List<Cidr> merged = new ArrayList<>();
+        for (Cidr child : children) {
+            merged.add(child);
+            while (merged.size() >= 2 && merged.get(merged.size() - 2).isSiblingOf(merged.get(merged.size() - 1))) {
+                Cidr up = merged.remove(merged.size() - 1).parent();
+                merged.set(merged.size() - 1, up);
+            }
+        }
+        return merged.size() == 1 && merged.get(0).equals(cidr);
+    }
+
+    /**
+     * 以删除 removable 之后的规则集为前提：成员只取生效和冗余的规则，屏障取同优先级另一模式中保留下来的全部规则
+     */
+    private static List<MergeGroup> mergeGroups(CidrRule[] rules, Verdict[] verdicts, boolean[] removable) {
+        Map<String, List<CidrRule>> groups = new LinkedHashMap<>();
+        Map<String, List<Cidr>> kept = new LinkedHashMap<>();
+        for (int rank = 0; rank < rules.length; rank++) {
+            String key = rules[rank].getMode() + "/" + rules[rank].getPriority();
+            if (verdicts[rank] == Verdict.EFFECTIVE || verdicts[rank] == Verdict.REDUNDANT) {
+                groups.computeIfAbsent(key, k -> new ArrayList<>()).add(rules[rank]);
+            }
+            if (!removable[rank]) {
+                kept.computeIfAbsent(key, k -> new ArrayList<>()).add(rules[rank].getCidr());
+            }
+        }
+        List<MergeGroup> result = new ArrayList<>();
+        for (List<CidrRule> group : groups.values()) {
+            if (group.size() < 2) {
+                continue;
+            }
+            IpRuleMode mode = group.get(0).getMode();
+            int priority = group.get(0).getPriority();
+            IpRuleMode opposite = mode == IpRuleMode.ALLOW ? IpRuleMode.DENY : IpRuleMode.ALLOW;
+            List<Cidr> barriers = kept.getOrDefault(opposite + "/" + priority, List.of());
+            List<CidrRule> members = new ArrayList<>(group);
+            members.sort((a, b) -> a.getCidr().compareTo(b.getCidr()));
+            List<Cidr> cidrs = new ArrayList<>(members.size());
+            for (CidrRule member : members) {
+                cidrs.add(member.getCidr());
+            }
+            List<Cidr> aggregated = CidrAggregator.aggregate(cidrs, barriers);
+            if (aggregated.size() == cidrs.size()) {
+                continue;
+            }
+            // 每条规则归入包含它的最深的合并结果：包含屏障的前缀原样保留，其内部的规则可能各自合并
+            Map<Cidr, List<CidrRule>> covered = new LinkedHashMap<>();
+            for (int i = 0; i < cidrs.size(); i++) {
+                Cidr owner = deepestContaining(aggregated, cidrs.get(i));
+                covered.computeIfAbsent(owner, key -> new ArrayList<>()).add(members.get(i));
+            }
+            for (Map.Entry<Cidr, List<CidrRule>> entry : covered.entrySet()) {
+                if (entry.getValue().size() > 1) {
+                    result.add(new MergeGroup(entry.getKey(), mode, priority, entry.getValue()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 已排序的前缀中包含 cidr 的最深的一个：排在 cidr 之前（含相等）的最后一个包含者
+     */
+    private static Cidr deepestContaining(List<Cidr> sorted, Cidr cidr) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).compareTo(cidr) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low - 1; i >= 0; i--) {
+            if (sorted.get(i).contains(cidr)) {
+                return sorted.get(i);
+            }
+        }
+        throw new IllegalStateException("合并结果未覆盖 " + cidr);
+    }
+
+    /**
+     * 按生效顺序排列的规则
+     */
+    public List<CidrRule> rules() {
+        return List.of(rules);
+    }
+
+    public Verdict verdict(int rank) {
+        return verdicts[rank];
+    }
+
+    /**
+     * 覆盖该规则的序号更小的规则；被多条更具体的规则共同覆盖或不适用时返回 null
+     */
+    public CidrRule coveredBy(int rank) {
+        return coveredBy[rank] >= 0 ? rules[coveredBy[rank]] : null;
+    }
+
+    public List<CidrRule> withVerdict(Verdict verdict) {
+        List<CidrRule> result = new ArrayList<>();
+        for (int rank = 0; rank < rules.length; rank++) {
+            if (verdicts[rank] == verdict) {
+                result.add(rules[rank]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 可合并的规则组，以删除 {@link #removable()} 为前提
+     */
+    public List<MergeGroup> mergeGroups() {
+        return mergeGroups;
+    }
+
+    /**
+     * 可以一起删除而不改变判定结果的规则：被遮蔽和重复的规则，但至少保留一条 ALLOW 规则
+     */
+    public List<CidrRule> removable() {
+        List<CidrRule> result = new ArrayList<>();
+        for (int rank = 0; rank < rules.length; rank++) {
+            if (removable[rank]) {
+                result.add(rules[rank]);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    /**
+     * 可合并的一组规则
+     */
+    public static final class MergeGroup {
+
+        private final Cidr prefix;
+        private final IpRuleMode mode;
+        private final int priority;
+        private final List<CidrRule> members;
+
+        MergeGroup(Cidr prefix, IpRuleMode mode, int priority, List<CidrRule> members) {
+            this.prefix = prefix;
+            this.mode = mode;
+            this.priority = priority;
+            this.members = List.copyOf(members);
+        }
+
+        /**
+         * 合并后的前缀
+         */
+        public Cidr getPrefix() {
+            return prefix;
+        }
+
+        public IpRuleMode getMode() {
+            return mode;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public List<CidrRule> getMembers() {
+            return members;
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.gateway.admin.iprule;
+
+import com.gateway.admin.entity.IpRule;
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * IP Rule Trie
+ * 编译后的 IP 规则匹配引擎（IPv4 / IPv6 多分支前缀树）
+ *
+ * 每个节点按 4 位（一个十六进制位）分 16 路，IPv4 最多 8 层、IPv6 最多 32 层。前缀长度不是 4 的倍数的规则在其所在节点上
+ * 展开到对应的多个槽位（controlled prefix expansion）。规则按 {@link CidrRule#PRECEDENCE} 排序后以序号（rank）存入槽位，
+ * 同一槽位只保留序号最小的规则；查找时沿地址路径取遇到的最小序号，即为所有匹配规则中最先生效的一条，与前缀长短无关。
+ *
+ * 子树中只有一条规则时不再逐层展开，而是把该规则作为叶子挂在分叉处的槽位上（子节点下标记为 -(rank + 1)），
+ * 查找到叶子时再用完整前缀校验一次；有其他规则经过该槽位时才把叶子下推。长前缀规则因此不会产生一长串单子节点，
+ * IPv6 的查找深度与内存都随规则的实际分叉情况而定。
+ *
+ * 节点以两个 int 数组（子节点下标、规则序号）连续存储。编译后不可变，可被多线程共享；查找不分配对象。
+ */
+public final class IpRuleTrie {
+
+    private static final int STRIDE = 4;
+    private static final int FANOUT = 1 << STRIDE;
+    private static final int NO_MATCH = Integer.MAX_VALUE;
+
+    private final CidrRule[] rules;
+    private final boolean hasAllowRules;
+    private final Table v4;
+    private final Table v6;
+
+    // 叶子校验用：按序号存放的网络地址与前缀长度（IPv4 另存整数形式与掩码）
+    private final byte[][] networks;
+    private final int[] prefixLengths;
+    private final int[] ipv4Networks;
+    private final int[] ipv4Masks;
+
+    private IpRuleTrie(CidrRule[] rules, Table v4, Table v6) {
+        this.rules = rules;
+        this.v4 = v4;
+        this.v6 = v6;
+        this.networks = new byte[rules.length][];
+        this.prefixLengths = new int[rules.length];
+        this.ipv4Networks = new int[rules.length];
+        this.ipv4Masks = new int[rules.length];
+        boolean allow = false;
+        for (int rank = 0; rank < rules.length; rank++) {
+            Cidr cidr = rules[rank].getCidr();
+            networks[rank] = cidr.getAddress();
+            prefixLengths[rank] = cidr.getPrefixLength();
+            if (cidr.isIpv4()) {
+                ipv4Networks[rank] = IpAddresses.toInt(networks[rank], 0);
+                ipv4Masks[rank] = cidr.getPrefixLength() == 0 ? 0 : -1 << (32 - cidr.getPrefixLength());
+            }
+            allow |= rules[rank].getMode() == IpRuleMode.ALLOW;
+        }
+        this.hasAllowRules = allow;
+    }
+
+    /**
+     * 编译限流配置的 IP 规则，忽略未启用的规则
+     *
+     * @throws IllegalArgumentException 存在格式不正确的规则
+     */
+    public static IpRuleTrie compile(Collection<IpRule> ipRules) {
+        List<CidrRule> parsed = new ArrayList<>(ipRules.size());
+        int order = 0;
+        for (IpRule rule : ipRules) {
+            if (!Boolean.FALSE.equals(rule.getEnabled())) {
+                parsed.add(CidrRule.of(rule, order++));
+            }
+        }
+        return compileRules(parsed);
+    }
+
+    /**
+     * 编译已解析的规则
+     */
+    public static IpRuleTrie compileRules(Collection<CidrRule> cidrRules) {
+        CidrRule[] sorted = cidrRules.toArray(new CidrRule[0]);
+        Arrays.sort(sorted, CidrRule.PRECEDENCE);
+        Builder v4 = new Builder(sorted);
+        Builder v6 = new Builder(sorted);
+        for (int rank = 0; rank < sorted.length; rank++) {
+            (sorted[rank].getCidr().isIpv4() ? v4 : v6).insert(rank);
+        }
+        return new IpRuleTrie(sorted, v4.build(), v6.build());
+    }
+
+    /**
+     * 查找地址匹配的最先生效规则
+     *
+     * @param address 4 或 16 字节地址（IPv4 映射的 IPv6 地址按 IPv4 查找）
+     * @return 规则序号（{@link #rule(int)}），没有匹配时返回 -1
+     */
+    public int lookup(byte[] address) {
+        return lookup(address, address.length);
+    }
+
+    /**
+     * 查找缓冲区前 length（4 或 16）个字节表示的地址
+     */
+    public int lookup(byte[] address, int length) {
+        if (length == 4) {
+            return lookupIpv4(IpAddresses.toInt(address, 0));
+        }
+        if (IpAddresses.isIpv4Mapped(address)) {
+            return lookupIpv4(IpAddresses.toInt(address, 12));
+        }
+        int[] children = v6.children;
+        int[] ranks = v6.ranks;
+        int best = v6.defaultRank;
+        int node = 0;
+        for (int i = 0; i < 32; i++) {
+            int nibble = (address[i >>> 1] >>> ((i & 1) == 0 ? 4 : 0)) & 0xf;
+            int slot = node * FANOUT + nibble;
+            int rank = ranks[slot];
+            if (rank < best) {
+                best = rank;
+            }
+            node = children[slot];
+            if (node <= 0) {
+                if (node < 0) {
+                    int leaf = -node - 1;
+                    if (leaf < best && matchesIpv6(leaf, address)) {
+                        best = leaf;
+                    }
+                }
+                break;
+            }
+        }
+        return best == NO_MATCH ? -1 : best;
+    }
+
+    /**
+     * 查找 IPv4 地址（按无符号解释的 32 位整数）
+     */
+    public int lookupIpv4(int address) {
+        int[] children = v4.children;
+        int[] ranks = v4.ranks;
+        int best = v4.defaultRank;
+        int node = 0;
+        for (int shift = 32 - STRIDE; shift >= 0; shift -= STRIDE) {
+            int slot = node * FANOUT + ((address >>> shift) & 0xf);
+            int rank = ranks[slot];
+            if (rank < best) {
+                best = rank;
+            }
+            node = children[slot];
+            if (node <= 0) {
+                if (node < 0) {
+                    int leaf = -node - 1;
+                    if (leaf < best && ((address ^ ipv4Networks[leaf]) & ipv4Masks[leaf]) == 0) {
+                        best = leaf;
+                    }
+                }
+                break;
+            }
+        }
+        return best == NO_MATCH ? -1 : best;
+    }
+
+    private boolean matchesIpv6(int rank, byte[] address) {
+        byte[] network = networks[rank];
+        int length = prefixLengths[rank];
+        int full = length >>> 3;
+        for (int i = 0; i < full; i++) {
+            if (network[i] != address[i]) {
+                return false;
+            }
+        }
+        int rest = length & 7;
+        return rest == 0 || ((network[full] ^ address[full]) & (0xff00 >>> rest) & 0xff) == 0;
+    }
+
+    /**
+     * 匹配规则的模式；没有匹配时返回 null
+     */
+    public IpRuleMode evaluate(byte[] address) {
+        int rank = lookup(address);
+        return rank < 0 ? null : rules[rank].getMode();
+    }
+
+    /**
+     * 是否放行：匹配 ALLOW 放行，匹配 DENY 拒绝；没有匹配时，存在 ALLOW 规则（白名单）则拒绝，否则放行
+     */
+    public boolean permits(byte[] address, int length) {
+        int rank = lookup(address, length);
+        return rank < 0 ? !hasAllowRules : rules[rank].getMode() == IpRuleMode.ALLOW;
+    }
+
+    public boolean permits(byte[] address) {
+        return permits(address, address.length);
+    }
+
+    /**
+     * 是否存在 ALLOW 规则；存在时没有匹配的地址按白名单拒绝
+     */
+    public boolean hasAllowRules() {
+        return hasAllowRules;
+    }
+
+    /**
+     * 按生效顺序排列的第 rank 条规则
+     */
+    public CidrRule rule(int rank) {
+        return rules[rank];
+    }
+
+    public int size() {
+        return rules.length;
+    }
+
+    public boolean isEmpty() {
+        return rules.length == 0;
+    }
+
+    /**
+     * 节点总数（IPv4 与 IPv6）
+     */
+    public int nodeCount() {
+        return v4.children.length / FANOUT + v6.children.length / FANOUT;
+    }
+
+    public long memoryBytes() {
+        return 2L * Integer.BYTES * (v4.children.length + v6.children.length)
+                + (long) rules.length * (3 * Integer.BYTES + 16);
+    }
+
+    private static final class Table {
+
+        final int[] children;
+        final int[] ranks;
+        final int defaultRank;
+
+        Table(int[] children, int[] ranks, int defaultRank) {
+            this.children = children;
+            this.ranks = ranks;
+            this.defaultRank = defaultRank;
+        }
+    }
+
+    private static final class Builder {
+
+        private final CidrRule[] rules;
+        private int[] children = new int[FANOUT * 64];
+        private int[] ranks = new int[FANOUT * 64];
+        private int nodes = 1;
+        private int defaultRank = NO_MATCH;
+
+        Builder(CidrRule[] rules) {
+            this.rules = rules;
+            Arrays.fill(ranks, NO_MATCH);
+        }
+
+        void insert(int rank) {
+            if (rules[rank].getCidr().getPrefixLength() == 0) {
+                defaultRank = Math.min(defaultRank, rank);
+                return;
+            }
+            insert(rank, 0, 0);
+        }
+
+        /**
+         * 从 node（位于第 level 层）开始插入；槽位上保留序号较小的规则
+         */
+        private void insert(int rank, int node, int level) {
+            Cidr cidr = rules[rank].getCidr();
+            int length = cidr.getPrefixLength();
+            // 前缀最后一位所在的层
+            int depth = (length - 1) / STRIDE;
+            for (; level < depth; level++) {
+                int slot = node * FANOUT + nibble(cidr, level);
+                int child = children[slot];
+                if (child == 0) {
+                    children[slot] = -(rank + 1);
+                    return;
+                }
+                if (child < 0) {
+                    // 叶子下推：allocate() 可能扩容数组，先取得下标再赋值
+                    int pushed = allocate();
+                    children[slot] = pushed;
+                    insert(-child - 1, pushed, level + 1);
+                    child = pushed;
+                }
+                node = child;
+            }
+            int remaining = STRIDE - (length - depth * STRIDE);
+            int first = nibble(cidr, depth);
+            for (int i = 0; i < (1 << remaining); i++) {
+                int slot = node * FANOUT + first + i;
+                if (rank < ranks[slot]) {
+                    ranks[slot] = rank;
+                }
+            }
+        }
+
+        private int nibble(Cidr cidr, int level) {
+            int value = 0;
+            for (int i = 0; i < STRIDE; i++) {
+                value = value << 1 | cidr.bit(level * STRIDE + i);
+            }
+            return value;
+        }
+
+        private int allocate() {
+            if ((nodes + 1) * FANOUT > children.length) {
+                int size = children.length * 2;
+                children = Arrays.copyOf(children, size);
+                int old = ranks.length;
+                ranks = Arrays.copyOf(ranks, size);
+                Arrays.fill(ranks, old, size, NO_MATCH);
+            }
+            return nodes++;
+        }
+
+        Table build() {
+            int used = nodes * FANOUT;
+            return new Table(Arrays.copyOf(children, used), Arrays.copyOf(ranks, used), defaultRank);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive Concurrency Limiter
+ * 自适应并发限制器
+ *
+ * 以 maxConcurrent 为上限，按观测到的延迟自动调整允许的在途请求数（梯度算法 + 过载时乘性减小）：
+ * <ul>
+ *   <li>长期 RTT：各采样窗口平均 RTT 的非对称指数移动平均（下降快、上升慢），近似后端无排队时的延迟</li>
+ *   <li>短期 RTT：当前采样窗口内的平均 RTT</li>
+ *   <li>gradient = clamp(tolerance * 长期RTT / 短期RTT, 0.5, 1)，新限制 = 限制 * gradient + sqrt(限制)；
+ *       延迟开始上升（后端出现排队）时限制随之收缩，在后端饱和之前就开始拒绝</li>
+ *   <li>窗口内有请求被后端拒绝或超时（{@link #onDropped}）时限制乘以 0.9</li>
+ *   <li>在途请求不到限制一半时不再增大限制，避免低负载时限制无限膨胀</li>
+ * </ul>
+ * 获取与释放只操作原子计数，窗口内的 RTT 与丢弃也累积在分段计数器中，热路径上没有锁；
+ * 限制的计算在采样窗口结束时由 tryLock 成功的一个线程进行，其余线程不等待。
+ * 窗口切换的瞬间仍计入旧窗口的少量采样会被忽略，对平均 RTT 的影响可以忽略。
+ */
+public final class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private static final long DEFAULT_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LONG_RTT_ALPHA_UP = 0.005;
+    private static final double LONG_RTT_ALPHA_DOWN = 0.5;
+
+    private final int maxLimit;
+    private final int minLimit;
+    private final long windowNanos;
+    private final NanoClock clock;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile int limit;
+    private volatile Window window;
+    private volatile double lastRejectionRate;
+
+    // 以下字段只在窗口切换时访问，受 rollover 保护
+    private final ReentrantLock rollover = new ReentrantLock();
+    private double estimatedLimit;
+    private double longRttNanos;
+    private long lastAccepted;
+    private long lastRejected;
+
+    /**
+     * @param maxLimit     并发上限（即 maxConcurrent）
+     * @param minLimit     并发下限
+     * @param initialLimit 初始限制
+     * @param windowNanos  采样窗口长度
+     * @param clock        时钟
+     */
+    public AdaptiveConcurrencyLimiter(int maxLimit, int minLimit, int initialLimit, long windowNanos, NanoClock clock) {
+        if (minLimit <= 0 || maxLimit < minLimit || windowNanos <= 0) {
+            throw new IllegalArgumentException("并发限制参数不正确: max=" + maxLimit + ", min=" + minLimit);
+        }
+        this.maxLimit = maxLimit;
+        this.minLimit = minLimit;
+        this.windowNanos = windowNanos;
+        this.clock = clock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.estimatedLimit = limit;
+        this.window = new Window(clock.nanoTime());
+    }
+
+    /**
+     * 按 LimiterConfig 创建自适应并发限制器；未开启自适应或未配置 maxConcurrent 时返回 null
+     * 初始限制为上限的一半，下限为 1
+     */
+    public static AdaptiveConcurrencyLimiter forConfig(LimiterConfig config, NanoClock clock) {
+        if (config == null || !Boolean.TRUE.equals(config.getAdaptiveConcurrency())
+                || config.getMaxConcurrent() == null || config.getMaxConcurrent() <= 0) {
+            return null;
+        }
+        int max = config.getMaxConcurrent();
+        return new AdaptiveConcurrencyLimiter(max, 1, Math.max(1, max / 2), DEFAULT_WINDOW_NANOS, clock);
+    }
+
+    /**
+     * 尝试占用一个并发名额，成功后必须调用 {@link #onSuccess}、{@link #onDropped} 或 {@link #onIgnore} 之一释放
+     */
+    public boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                accepted.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 请求正常完成，记录其 RTT
+     */
+    public void onSuccess(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        sample(rttNanos, false, current);
+    }
+
+    /**
+     * 请求因过载失败（超时、后端拒绝），触发限制收缩
+     */
+    public void onDropped() {
+        int current = inFlight.getAndDecrement();
+        sample(0, true, current);
+    }
+
+    /**
+     * 请求结果与后端负载无关（例如客户端断开），只释放名额
+     */
+    public void onIgnore() {
+        inFlight.decrementAndGet();
+    }
+
+    private void sample(long rttNanos, boolean dropped, int inFlightAtCompletion) {
+        Window current = window;
+        if (dropped) {
+            current.dropped = true;
+        } else if (rttNanos > 0) {
+            current.rttSum.add(rttNanos);
+            current.samples.increment();
+        }
+        long now = clock.nanoTime();
+        if (now - current.start < windowNanos || !rollover.tryLock()) {
+            return;
+        }
+        try {
+            if (window != current || (current.samples.sum() < MIN_WINDOW_SAMPLES && !current.dropped)) {
+                return;
+            }
+            // 先换上新窗口再汇总旧窗口，切换后才到达的采样尽量计入新窗口
+            window = new Window(now);
+            updateLimit(current, inFlightAtCompletion);
+            updateRejectionRate();
+        } finally {
+            rollover.unlock();
+        }
+    }
+
+    private void updateLimit(Window closed, int inFlightAtCompletion) {
+        double next;
+        long samples = closed.samples.sum();
+        if (closed.dropped) {
+            next = estimatedLimit * BACKOFF_RATIO;
+        } else if (samples == 0) {
+            return;
+        } else {
+            double shortRtt = (double) closed.rttSum.sum() / samples;
+            if (longRttNanos == 0) {
+                longRttNanos = shortRtt;
+            } else {
+                // 下降快、上升慢：持续排队时长期 RTT 不会很快追上排队后的延迟，后端基线延迟真正变化时仍能逐步适应
+                double alpha = shortRtt < longRttNanos ? LONG_RTT_ALPHA_DOWN : LONG_RTT_ALPHA_UP;
+                longRttNanos = longRttNanos * (1 - alpha) + shortRtt * alpha;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRtt));
+            double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            next = estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING;
+            // 应用本身负载不足时，不能据此判断后端还有余量，只允许收缩
+            if (next > estimatedLimit && inFlightAtCompletion < estimatedLimit / 2) {
+                return;
+            }
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    private void updateRejectionRate() {
+        long acceptedTotal = accepted.sum();
+        long rejectedTotal = rejected.sum();
+        long acceptedDelta = acceptedTotal - lastAccepted;
+        long rejectedDelta = rejectedTotal - lastRejected;
+        long total = acceptedDelta + rejectedDelta;
+        lastRejectionRate = total == 0 ? 0 : (double) rejectedDelta / total;
+        lastAccepted = acceptedTotal;
+        lastRejected = rejectedTotal;
+    }
+
+    /**
+     * 当前允许的在途请求数
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * 当前在途请求数
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 最近一个采样窗口内被拒绝请求的比例
+     */
+    public double getRejectionRate() {
+        return lastRejectionRate;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * 注册指标：gateway.limiter.concurrency.limit / inflight / rejection.rate（Gauge），
+     * gateway.limiter.concurrency.accepted / rejected（累计计数），标签由调用方指定（如路由）
+     */
+    public void bindTo(MeterRegistry registry, List<Tag> tags) {
+        Gauge.builder("gateway.limiter.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("自适应并发限制当前值").tags(tags).register(registry);
+        Gauge.builder("gateway.limiter.concurrency.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("在途请求数").tags(tags).register(registry);
+        Gauge.builder("gateway.limiter.concurrency.rejection.rate", this, AdaptiveConcurrencyLimiter::getRejectionRate)
+                .description("最近采样窗口的拒绝比例").tags(tags).register(registry);
+        FunctionCounter.builder("gateway.limiter.concurrency.accepted", accepted, LongAdder::sum)
+                .description("获得并发名额的请求数").tags(tags).register(registry);
+        FunctionCounter.builder("gateway.limiter.concurrency.rejected", rejected, LongAdder::sum)
+                .description("因并发限制被拒绝的请求数").tags(tags).register(registry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, List.of());
+    }
+
+    /**
+     * 一个采样窗口的累积量；窗口切换时整体替换，不需要清零
+     */
+    private static final class Window {
+        final long start;
+        final LongAdder rttSum = new LongAdder();
+        final LongAdder samples = new LongAdder();
+        volatile boolean dropped;
+
+        Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit Breaker
+ * 熔断器（CLOSED → OPEN → HALF_OPEN）
+ *
+ * 按 LimiterConfig 的熔断字段工作：
+ * <ul>
+ *   <li>CLOSED：最近 windowSize 个请求结果保存在固定大小的环形缓冲区中，结果数达到 minimumCalls
+ *       且错误率达到 errorThresholdPercentage 时打开</li>
+ *   <li>OPEN：拒绝全部请求，recoveryTimeSeconds 后第一个请求把状态切换为半开</li>
+ *   <li>HALF_OPEN：放行 halfOpenMaxCalls 个试探请求，全部成功则关闭，任一失败重新打开；
+ *       半开期间到达的结果（包括打开前放行的请求）都计为试探结果</li>
+ * </ul>
+ * 状态、打开时间和半开计数打包在一个 long 中，所有状态转换都是对它的一次 CAS，读者看到的总是一致的组合。
+ * 环形缓冲区的每个槽位用 getAndSet 写入，同时得到被覆盖的旧结果；调用数与错误数打包在一个 long 中按差值原子累加，
+ * 记录一个结果只需三次原子操作，不加锁、不分配对象。OPEN 期间的结果不写入缓冲区，打开时缓冲区被清空。
+ *
+ * 线程安全。
+ */
+public final class CircuitBreaker implements MeterBinder {
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+    public static final int DEFAULT_MINIMUM_CALLS = 20;
+
+    // 状态字：低 2 位为状态，其后 9 位为半开已发放的试探名额，再 9 位为半开已成功的试探数，高 44 位为最近一次转换的时间（毫秒）
+    private static final int CLOSED = 0;
+    private static final int OPEN = 1;
+    private static final int HALF_OPEN = 2;
+    private static final int COUNT_BITS = 9;
+    private static final int ISSUED_SHIFT = 2;
+    private static final int SUCCESS_SHIFT = ISSUED_SHIFT + COUNT_BITS;
+    private static final int TIME_SHIFT = SUCCESS_SHIFT + COUNT_BITS;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    private static final int MAX_HALF_OPEN_CALLS = (int) COUNT_MASK;
+
+    // 环形缓冲区槽位
+    private static final int EMPTY = 0;
+    private static final int SUCCESS = 1;
+    private static final int FAILURE = 2;
+    private static final long ONE_CALL = 1L << 32;
+
+    private final int thresholdPercentage;
+    private final long recoveryMillis;
+    private final int halfOpenMaxCalls;
+    private final int minimumCalls;
+    private final NanoClock clock;
+    private final long origin;
+
+    private final AtomicLong state;
+    private final AtomicIntegerArray outcomes;
+    private final AtomicLong cursor = new AtomicLong();
+    // 高 32 位为窗口内的结果数，低 32 位为错误数
+    private final AtomicLong counts = new AtomicLong();
+
+    private final AtomicLong trips = new AtomicLong();
+    private final AtomicLong openMillis = new AtomicLong();
+    private final LongAdder notPermitted = new LongAdder();
+
+    private volatile StateListener listener;
+
+    /**
+     * @param thresholdPercentage 打开熔断的错误率（百分比）
+     * @param recoveryNanos       打开后转为半开的等待时间
+     * @param halfOpenMaxCalls    半开时放行的试探请求数
+     * @param windowSize          统计错误率的最近结果数
+     * @param minimumCalls        窗口内至少有这么多结果才计算错误率
+     * @param clock               时钟
+     */
+    public CircuitBreaker(int thresholdPercentage, long recoveryNanos, int halfOpenMaxCalls,
+                          int windowSize, int minimumCalls, NanoClock clock) {
+        if (thresholdPercentage < 0 || thresholdPercentage > 100) {
+            throw new IllegalArgumentException("错误率阈值必须在 0 到 100 之间: " + thresholdPercentage);
+        }
+        if (recoveryNanos < 0 || windowSize <= 0 || minimumCalls <= 0) {
+            throw new IllegalArgumentException("熔断参数不正确: window=" + windowSize + ", minimumCalls=" + minimumCalls);
+        }
+        if (halfOpenMaxCalls <= 0 || halfOpenMaxCalls > MAX_HALF_OPEN_CALLS) {
+            throw new IllegalArgumentException("半开试探请求数必须在 1 到 " + MAX_HALF_OPEN_CALLS + " 之间: "
+                    + halfOpenMaxCalls);
+        }
+        this.thresholdPercentage = thresholdPercentage;
+        this.recoveryMillis = TimeUnit.NANOSECONDS.toMillis(recoveryNanos);
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.clock = clock;
+        this.origin = clock.nanoTime();
+        this.outcomes = new AtomicIntegerArray(windowSize);
+        this.state = new AtomicLong(word(CLOSED, 0, 0, 0));
+    }
+
+    /**
+     * 按 LimiterConfig 创建熔断器；未开启熔断时返回 null
+     * 窗口为最近 {@value #DEFAULT_WINDOW_SIZE} 个结果，至少 {@value #DEFAULT_MINIMUM_CALLS} 个结果才判断错误率
+     */
+    public static CircuitBreaker forConfig(LimiterConfig config, NanoClock clock) {
+        if (config == null || !config.hasCircuitBreaker()) {
+            return null;
+        }
+        int recoverySeconds = config.getRecoveryTimeSeconds() != null ? config.getRecoveryTimeSeconds() : 60;
+        int halfOpenCalls = config.getHalfOpenMaxCalls() != null ? config.getHalfOpenMaxCalls() : 1;
+        return new CircuitBreaker(config.getErrorThresholdPercentage(), TimeUnit.SECONDS.toNanos(recoverySeconds),
+                Math.max(1, Math.min(MAX_HALF_OPEN_CALLS, halfOpenCalls)), DEFAULT_WINDOW_SIZE,
+                DEFAULT_MINIMUM_CALLS, clock);
+    }
+
+    /**
+     * 请求是否可以发往后端；半开时成功获得的是试探名额，请求最终没有发出时应调用 {@link #releasePermission}
+     */
+    public boolean tryAcquirePermission() {
+        for (;;) {
+            long current = state.get();
+            int stateValue = stateOf(current);
+            if (stateValue == CLOSED) {
+                return true;
+            }
+            if (stateValue == OPEN) {
+                long now = nowMillis();
+                if (now - timeOf(current) < recoveryMillis) {
+                    notPermitted.increment();
+                    return false;
+                }
+                // 恢复时间已过：切换为半开，本请求占用第一个试探名额
+                if (state.compareAndSet(current, word(HALF_OPEN, 1, 0, now))) {
+                    openMillis.addAndGet(now - timeOf(current));
+                    fireStateChange(State.OPEN, State.HALF_OPEN);
+                    return true;
+                }
+                continue;
+            }
+            if (((current >>> ISSUED_SHIFT) & COUNT_MASK) >= halfOpenMaxCalls) {
+                notPermitted.increment();
+                return false;
+            }
+            if (state.compareAndSet(current, current + (1L << ISSUED_SHIFT))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还未使用的试探名额（获得许可后请求被其他限制拒绝）
+     */
+    public void releasePermission() {
+        for (;;) {
+            long current = state.get();
+            if (stateOf(current) != HALF_OPEN || ((current >>> ISSUED_SHIFT) & COUNT_MASK) == 0) {
+                return;
+            }
+            if (state.compareAndSet(current, current - (1L << ISSUED_SHIFT))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 记录一次成功的请求
+     */
+    public void onSuccess() {
+        record(false);
+    }
+
+    /**
+     * 记录一次失败的请求（5xx、超时、连接失败等）
+     */
+    public void onError() {
+        record(true);
+    }
+
+    private void record(boolean failure) {
+        long current = state.get();
+        int stateValue = stateOf(current);
+        if (stateValue == OPEN) {
+            return;
+        }
+        if (stateValue == HALF_OPEN) {
+            recordTrial(failure);
+            return;
+        }
+        int slot = (int) (cursor.getAndIncrement() % outcomes.length());
+        int previous = outcomes.getAndSet(slot, failure ? FAILURE : SUCCESS);
+        long delta = (previous == EMPTY ? ONE_CALL : 0) + (failure ? 1 : 0) - (previous == FAILURE ? 1 : 0);
+        long total = delta == 0 ? counts.get() : counts.addAndGet(delta);
+        if (failure && exceedsThreshold(total)) {
+            trip(CLOSED);
+        }
+    }
+
+    private void recordTrial(boolean failure) {
+        for (;;) {
+            long current = state.get();
+            if (stateOf(current) != HALF_OPEN) {
+                return;
+            }
+            if (failure) {
+                trip(HALF_OPEN);
+                return;
+            }
+            boolean close = ((current >>> SUCCESS_SHIFT) & COUNT_MASK) + 1 >= halfOpenMaxCalls;
+            long next = close ? word(CLOSED, 0, 0, nowMillis()) : current + (1L << SUCCESS_SHIFT);
+            if (state.compareAndSet(current, next)) {
+                if (close) {
+                    fireStateChange(State.HALF_OPEN, State.CLOSED);
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean exceedsThreshold(long total) {
+        // 低 32 位的错误数在并发更新的瞬间可能为负，按有符号数拆分
+        int errors = (int) total;
+        long calls = (total - errors) >> 32;
+        return calls >= minimumCalls && (long) errors * 100 >= (long) thresholdPercentage * calls;
+    }
+
+    /**
+     * 从 expected 状态打开熔断；只有 CAS 成功的线程清空环形缓冲区
+     */
+    private void trip(int expected) {
+        for (;;) {
+            long current = state.get();
+            if (stateOf(current) != expected) {
+                return;
+            }
+            if (state.compareAndSet(current, word(OPEN, 0, 0, nowMillis()))) {
+                trips.incrementAndGet();
+                clearOutcomes();
+                fireStateChange(expected == CLOSED ? State.CLOSED : State.HALF_OPEN, State.OPEN);
+                return;
+            }
+        }
+    }
+
+    private void fireStateChange(State from, State to) {
+        StateListener current = listener;
+        if (current != null) {
+            current.onStateChange(from, to);
+        }
+    }
+
+    private void clearOutcomes() {
+        long delta = 0;
+        for (int i = 0; i < outcomes.length(); i++) {
+            int previous = outcomes.getAndSet(i, EMPTY);
+            if (previous != EMPTY) {
+                delta -= ONE_CALL + (previous == FAILURE ? 1 : 0);
+            }
+        }
+        counts.addAndGet(delta);
+    }
+
+    private long nowMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(clock.nanoTime() - origin));
+    }
+
+    private static long word(int stateValue, long issued, long successes, long timeMillis) {
+        return (timeMillis << TIME_SHIFT) | (successes << SUCCESS_SHIFT) | (issued << ISSUED_SHIFT) | stateValue;
+    }
+
+    private static int stateOf(long word) {
+        return (int) (word & 3);
+    }
+
+    private static long timeOf(long word) {
+        return word >>> TIME_SHIFT;
+    }
+
+    /**
+     * 设置状态转换监听器（替换已有的监听器）；由完成转换的线程同步调用，监听器不应阻塞
+     */
+    public void setStateListener(StateListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 当前状态；OPEN 在恢复时间过后仍报告为 OPEN，直到下一个请求把它切换为半开
+     */
+    public State getState() {
+        return switch (stateOf(state.get())) {
+            case OPEN -> State.OPEN;
+            case HALF_OPEN -> State.HALF_OPEN;
+            default -> State.CLOSED;
+        };
+    }
+
+    /**
+     * 窗口内的错误率（百分比）；结果数不足 minimumCalls 时返回 -1
+     */
+    public double getFailureRate() {
+        long total = counts.get();
+        int errors = (int) total;
+        long calls = (total - errors) >> 32;
+        return calls < minimumCalls ? -1 : errors * 100.0 / calls;
+    }
+
+    /**
+     * 打开次数
+     */
+    public long getTrips() {
+        return trips.get();
+    }
+
+    /**
+     * 因熔断被拒绝的请求数
+     */
+    public long getNotPermitted() {
+        return notPermitted.sum();
+    }
+
+    /**
+     * 处于 OPEN 状态的累计时间（毫秒），包括当前仍未结束的一段
+     */
+    public long getOpenMillis() {
+        long current = state.get();
+        long total = openMillis.get();
+        return stateOf(current) == OPEN ? total + Math.max(0, nowMillis() - timeOf(current)) : total;
+    }
+
+    /**
+     * 注册指标：gateway.breaker.state（0 关闭、1 打开、2 半开）/ failure.rate（Gauge），
+     * gateway.breaker.trips / not.permitted（累计计数），标签由调用方指定（如路由）
+     */
+    public void bindTo(MeterRegistry registry, List<Tag> tags) {
+        Gauge.builder("gateway.breaker.state", this, breaker -> stateOf(breaker.state.get()))
+                .description("熔断器状态").tags(tags).register(registry);
+        Gauge.builder("gateway.breaker.failure.rate", this, CircuitBreaker::getFailureRate)
+                .description("窗口内的错误率（百分比）").tags(tags).register(registry);
+        FunctionCounter.builder("gateway.breaker.trips", trips, AtomicLong::get)
+                .description("熔断打开次数").tags(tags).register(registry);
+        FunctionCounter.builder("gateway.breaker.not.permitted", notPermitted, LongAdder::sum)
+                .description("因熔断被拒绝的请求数").tags(tags).register(registry);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindTo(registry, List.of());
+    }
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * 状态转换监听器
+     */
+    @FunctionalInterface
+    public interface StateListener {
+        void onStateChange(State from, State to);
+    }
+}
@@ -0,0 +1,299 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Client Rate Limiter
+ * 按客户端（IP、用户或路径）分别计数的限流器，内存固定
+ *
+ * 每个客户端键的请求量由两个 {@link CountMinSketch}（当前窗口与上一个窗口，按滑动窗口加权）估计。
+ * 估计值低于限额一半的键直接放行：估计值只会偏大，这些键的实际请求量一定没有超限。
+ * 其余键再扣除哈希冲突的平均噪声（{@link CountMinSketch#debias}），仍达到限额一半的键进入容量为 capacity 的热点表，热点表中的键各自持有一个由配置编译的精确
+ * {@link RateLimiter}，此后由精确令牌桶决定是否放行。热点表已满时，新键只有估计值高于表中最冷的键才会将其替换；
+ * 未能进入热点表的键按估计值限流（可能因哈希冲突被多拒绝，偏差见 {@link CountMinSketch}）。
+ *
+ * 内存为两个 sketch 加上最多 capacity 个精确令牌桶，与出现过的客户端数量无关。
+ */
+public final class ClientRateLimiter {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final LimiterConfig config;
+    private final NanoClock clock;
+    private final long windowNanos;
+    private final int windowLimit;
+    private final int promoteAt;
+    private final int capacity;
+
+    private final CountMinSketch[] sketches;
+    private volatile Window window;
+    private final ConcurrentHashMap<String, HeavyHitter> heavyHitters;
+    // 热点表已满时进入需要超过的估计值；表未满时为 0
+    private volatile int admissionFloor;
+    private final LongAdder sketchRejected = new LongAdder();
+
+    /**
+     * @param config   限流配置，maxPerSecond 或 maxPerMinute 作为每个客户端的限额
+     * @param depth    sketch 行数
+     * @param width    sketch 每行计数器个数
+     * @param capacity 热点表容量（持有精确令牌桶的客户端数上限）
+     * @param clock    时钟
+     */
+    public ClientRateLimiter(LimiterConfig config, int depth, int width, int capacity, NanoClock clock) {
+        if (config.getMaxPerSecond() != null && config.getMaxPerSecond() > 0) {
+            this.windowNanos = SECOND_NANOS;
+            this.windowLimit = config.getMaxPerSecond()
+                    + (config.getBurstSize() != null ? Math.max(0, config.getBurstSize()) : 0);
+        } else if (config.getMaxPerMinute() != null && config.getMaxPerMinute() > 0) {
+            this.windowNanos = MINUTE_NANOS;
+            this.windowLimit = config.getMaxPerMinute();
+        } else {
+            throw new IllegalArgumentException("按客户端限流需要配置 maxPerSecond 或 maxPerMinute");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("热点表容量必须为正数: " + capacity);
+        }
+        this.config = config;
+        this.clock = clock;
+        this.promoteAt = Math.max(1, windowLimit / 2);
+        this.capacity = capacity;
+        this.sketches = new CountMinSketch[] {new CountMinSketch(depth, width), new CountMinSketch(depth, width)};
+        this.window = new Window(Math.floorDiv(clock.nanoTime(), windowNanos), sketches[0], sketches[1]);
+        this.heavyHitters = new ConcurrentHashMap<>(capacity * 2);
+    }
+
+    /**
+     * 为客户端键获取一个许可
+     */
+    public boolean tryAcquire(String key) {
+        long now = clock.nanoTime();
+        Window w = current(now);
+        long hash = CountMinSketch.hash(key);
+        int count = w.current.add(hash, 1);
+
+        HeavyHitter hitter = heavyHitters.get(key);
+        if (hitter == null) {
+            long estimate = w.estimate(hash, count, now, windowNanos);
+            if (estimate < promoteAt) {
+                return true;
+            }
+            // 客户端数量很多时各计数器都有冲突噪声，扣除噪声后再判断，避免大量客户端被误判为热点
+            estimate = w.debiased(hash, count, now, windowNanos);
+            if (estimate < promoteAt) {
+                return true;
+            }
+            hitter = promote(key, hash, estimate, w, now);
+            if (hitter == null) {
+                if (estimate > windowLimit) {
+                    sketchRejected.increment();
+                    return false;
+                }
+                return true;
+            }
+        } else {
+            hitter.estimate = w.debiased(hash, count, now, windowNanos);
+        }
+        if (hitter.bucket.tryAcquire()) {
+            return true;
+        }
+        hitter.rejected.increment();
+        return false;
+    }
+
+    /**
+     * 客户端键当前窗口内的估计请求量
+     */
+    public long estimate(String key) {
+        long now = clock.nanoTime();
+        Window w = current(now);
+        long hash = CountMinSketch.hash(key);
+        return w.debiased(hash, w.current.estimate(hash), now, windowNanos);
+    }
+
+    /**
+     * 当前热点客户端，按估计请求量从高到低排序
+     *
+     * @param limit 最多返回的条数
+     */
+    public List<HeavyHitter> topClients(int limit) {
+        long now = clock.nanoTime();
+        Window w = current(now);
+        List<HeavyHitter> result = new ArrayList<>(heavyHitters.values());
+        for (HeavyHitter hitter : result) {
+            refresh(hitter, w, now);
+        }
+        result.sort(Comparator.comparingLong(HeavyHitter::getEstimate).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    public LimiterConfig getConfig() {
+        return config;
+    }
+
+    public long getWindowNanos() {
+        return windowNanos;
+    }
+
+    public int getWindowLimit() {
+        return windowLimit;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getTrackedClients() {
+        return heavyHitters.size();
+    }
+
+    /**
+     * 未进入热点表、按 sketch 估计值被拒绝的请求数
+     */
+    public long getSketchRejected() {
+        return sketchRejected.sum();
+    }
+
+    public long sketchMemoryBytes() {
+        return sketches[0].memoryBytes() + sketches[1].memoryBytes();
+    }
+
+    private HeavyHitter promote(String key, long hash, long estimate, Window w, long now) {
+        if (estimate <= admissionFloor) {
+            return null;
+        }
+        synchronized (heavyHitters) {
+            HeavyHitter existing = heavyHitters.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (heavyHitters.size() >= capacity) {
+                // 刷新估计值，已经不再访问的客户端会随窗口滑动变冷并被替换
+                HeavyHitter coldest = null;
+                for (HeavyHitter candidate : heavyHitters.values()) {
+                    refresh(candidate, w, now);
+                    if (coldest == null || candidate.estimate < coldest.estimate) {
+                        coldest = candidate;
+                    }
+                }
+                if (coldest == null || coldest.estimate >= estimate) {
+                    admissionFloor = coldest != null ? (int) Math.min(Integer.MAX_VALUE, coldest.estimate) : 0;
+                    return null;
+                }
+                heavyHitters.remove(coldest.key);
+            }
+            HeavyHitter hitter = new HeavyHitter(key, hash, RateLimiter.compile(config, clock), estimate, now);
+            heavyHitters.put(key, hitter);
+            admissionFloor = 0;
+            return hitter;
+        }
+    }
+
+    private void refresh(HeavyHitter hitter, Window w, long now) {
+        hitter.estimate = w.debiased(hitter.hash, w.current.estimate(hitter.hash), now, windowNanos);
+    }
+
+    /**
+     * 切换到 now 所在的窗口：上一个窗口的 sketch 清零后作为新的当前窗口
+     */
+    private Window current(long now) {
+        Window w = window;
+        long index = Math.floorDiv(now, windowNanos);
+        if (index <= w.index) {
+            return w;
+        }
+        synchronized (sketches) {
+            w = window;
+            if (index > w.index) {
+                CountMinSketch previous = index == w.index + 1 ? w.current : w.previous;
+                CountMinSketch next = previous == w.current ? w.previous : w.current;
+                next.clear();
+                if (previous != w.current) {
+                    previous.clear();
+                }
+                w = new Window(index, next, previous);
+                window = w;
+                // 新窗口中重新计算热点表的进入门槛
+                admissionFloor = 0;
+            }
+            return w;
+        }
+    }
+
+    private static final class Window {
+
+        final long index;
+        final CountMinSketch current;
+        final CountMinSketch previous;
+
+        Window(long index, CountMinSketch current, CountMinSketch previous) {
+            this.index = index;
+            this.current = current;
+            this.previous = previous;
+        }
+
+        /**
+         * 滑动窗口估计：当前窗口计数加上上一个窗口计数按未滑出比例加权
+         */
+        long estimate(long hash, int currentCount, long now, long windowNanos) {
+            return currentCount + (long) (previous.estimate(hash) * remaining(now, windowNanos));
+        }
+
+        /**
+         * 扣除冲突噪声后的滑动窗口估计
+         */
+        long debiased(long hash, int currentCount, long now, long windowNanos) {
+            return current.debias(currentCount)
+                    + (long) (previous.debias(previous.estimate(hash)) * remaining(now, windowNanos));
+        }
+
+        private double remaining(long now, long windowNanos) {
+            return 1.0 - (double) Math.max(0, Math.min(windowNanos, now - index * windowNanos)) / windowNanos;
+        }
+    }
+
+    /**
+     * Heavy Hitter
+     * 热点客户端及其精确令牌桶
+     */
+    public static final class HeavyHitter {
+
+        private final String key;
+        private final long hash;
+        private final RateLimiter bucket;
+        private final long trackedSinceNanos;
+        private final LongAdder rejected = new LongAdder();
+        private volatile long estimate;
+
+        HeavyHitter(String key, long hash, RateLimiter bucket, long estimate, long trackedSinceNanos) {
+            this.key = key;
+            this.hash = hash;
+            this.bucket = bucket;
+            this.estimate = estimate;
+            this.trackedSinceNanos = trackedSinceNanos;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getEstimate() {
+            return estimate;
+        }
+
+        public long getRejected() {
+            return rejected.sum();
+        }
+
+        public long getTrackedSinceNanos() {
+            return trackedSinceNanos;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.gateway.admin.limiter;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count-Min Sketch
+ * 固定内存的近似计数器
+ *
+ * depth 行、每行 width 个计数器；一个键在每行按哈希落到一个计数器上，估计值取各行计数的最小值。
+ * 估计值只会偏大不会偏小，偏大量以约 1 - (1/2)^depth 的概率不超过 总计数 * e / width。
+ * 内存为 depth * width * 4 字节，与不同键的数量无关；计数器使用原子自增，无锁。
+ * 总计数远大于 width 时偏大量主要来自哈希冲突的平均噪声，{@link #debias} 扣除这部分噪声得到更接近实际的估计（不再保证只偏大）。
+ */
+public final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * @param depth 行数（哈希函数个数）
+     * @param width 每行计数器个数，向上取整为 2 的幂
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth <= 0 || depth > 16 || width <= 0 || width > (1 << 24)) {
+            throw new IllegalArgumentException("Count-Min Sketch 参数不正确: depth=" + depth + ", width=" + width);
+        }
+        int size = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.counters = new AtomicIntegerArray(depth * size);
+    }
+
+    /**
+     * 键的 64 位哈希（FNV-1a 后再做一次 64 位混合，低位与高位都分布均匀）
+     */
+    public static long hash(CharSequence key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 累加 count 次并返回累加后的估计值
+     */
+    public int add(long hash, int count) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int width = mask + 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int index = row * width + ((h1 + row * h2) & mask);
+            int value = counters.addAndGet(index, count);
+            if (value < min) {
+                min = value;
+            }
+        }
+        total.add(count);
+        return min;
+    }
+
+    /**
+     * 估计值（不小于实际计数）
+     */
+    public int estimate(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int width = mask + 1;
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int value = counters.get(row * width + ((h1 + row * h2) & mask));
+            if (value < min) {
+                min = value;
+            }
+        }
+        return min;
+    }
+
+    /**
+     * 从估计值中扣除其余键平均落到同一计数器上的计数
+     *
+     * @param estimate {@link #add} 或 {@link #estimate} 返回的估计值
+     */
+    public long debias(int estimate) {
+        long noise = (total.sum() - estimate) / mask;
+        return Math.max(0, estimate - Math.max(0, noise));
+    }
+
+    /**
+     * 累加过的总计数
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * 清零；与并发的 add 之间不是原子操作，清零期间的计数可能部分保留
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.lazySet(i, 0);
+        }
+        total.reset();
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return mask + 1;
+    }
+
+    public long memoryBytes() {
+        return (long) counters.length() * Integer.BYTES;
+    }
+}
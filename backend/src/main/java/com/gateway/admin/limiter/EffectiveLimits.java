@@ -0,0 +1,142 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.entity.LimiterConfig.LimitLevel;
+
+import java.util.Arrays;
+
+/**
+ * Effective Limits
+ * 路由按层级继承合并后的有效限额（不可变）
+ *
+ * 限额分为四组，每组整体取自最近一个设置了该组的层级（路由 → 域名 → 项目 → 全局）：
+ * <ul>
+ *   <li>速率组：maxPerSecond 或 maxPerMinute 不为空时设置，包含 burstSize、rateLimitWindowSeconds、limitKey、clusterWide</li>
+ *   <li>并发组：maxConcurrent 不为空时设置，包含 adaptiveConcurrency</li>
+ *   <li>熔断组：开启熔断时设置，包含错误率阈值、恢复时间和半开试探数；下级不能关闭上级开启的熔断</li>
+ *   <li>允许方法：allowedMethods 不为空时设置</li>
+ * </ul>
+ * 同时持有按合并结果编译的 {@link RateLimiter}，请求处理时无需再解析继承链。
+ */
+public final class EffectiveLimits {
+
+    private final String routeId;
+    private final LimiterConfig merged;
+    private final LimitLevel rateSource;
+    private final LimitLevel concurrencySource;
+    private final LimitLevel breakerSource;
+    private final LimitLevel methodsSource;
+    private final RateLimiter rateLimiter;
+
+    EffectiveLimits(String routeId, LimiterConfig merged, LimitLevel rateSource, LimitLevel concurrencySource,
+                    LimitLevel breakerSource, LimitLevel methodsSource, RateLimiter rateLimiter) {
+        this.routeId = routeId;
+        this.merged = merged;
+        this.rateSource = rateSource;
+        this.concurrencySource = concurrencySource;
+        this.breakerSource = breakerSource;
+        this.methodsSource = methodsSource;
+        this.rateLimiter = rateLimiter;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    /**
+     * 合并后的限额（副本，修改不影响本对象）
+     */
+    public LimiterConfig toLimiterConfig() {
+        return LimitHierarchy.copyOf(merged);
+    }
+
+    public Integer getMaxPerSecond() {
+        return merged.getMaxPerSecond();
+    }
+
+    public Integer getMaxPerMinute() {
+        return merged.getMaxPerMinute();
+    }
+
+    public Integer getMaxConcurrent() {
+        return merged.getMaxConcurrent();
+    }
+
+    public boolean hasCircuitBreaker() {
+        return merged.hasCircuitBreaker();
+    }
+
+    /**
+     * 速率组的来源层级，没有任何层级设置时为 null
+     */
+    public LimitLevel getRateSource() {
+        return rateSource;
+    }
+
+    public LimitLevel getConcurrencySource() {
+        return concurrencySource;
+    }
+
+    public LimitLevel getBreakerSource() {
+        return breakerSource;
+    }
+
+    public LimitLevel getMethodsSource() {
+        return methodsSource;
+    }
+
+    /**
+     * 按合并后的速率限额编译的限流器；限额不变的重新计算会沿用同一个实例，已有计数不丢失
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 合并结果与来源层级是否与本对象完全相同
+     */
+    boolean sameAs(LimiterConfig other, LimitLevel rate, LimitLevel concurrency, LimitLevel breaker,
+                   LimitLevel methods) {
+        return rateSource == rate && concurrencySource == concurrency
+                && breakerSource == breaker && methodsSource == methods
+                && sameRate(other)
+                && Arrays.equals(otherValues(merged), otherValues(other));
+    }
+
+    /**
+     * 速率组是否相同（相同时可以沿用已编译的限流器）
+     */
+    boolean sameRate(LimiterConfig other) {
+        return Arrays.equals(rateValues(merged), rateValues(other));
+    }
+
+    private static Object[] rateValues(LimiterConfig config) {
+        return new Object[] {
+                config.getMaxPerSecond(), config.getMaxPerMinute(), config.getBurstSize(),
+                config.getRateLimitWindowSeconds(), config.getLimitKey(), config.getClusterWide()
+        };
+    }
+
+    private static Object[] otherValues(LimiterConfig config) {
+        return new Object[] {
+                config.getMaxConcurrent(), config.getAdaptiveConcurrency(),
+                config.getCircuitBreakerEnabled(), config.getErrorThresholdPercentage(),
+                config.getRecoveryTimeSeconds(), config.getHalfOpenMaxCalls(),
+                config.getAllowedMethods()
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "EffectiveLimits{" +
+                "routeId='" + routeId + '\'' +
+                ", maxPerSecond=" + merged.getMaxPerSecond() +
+                ", maxPerMinute=" + merged.getMaxPerMinute() +
+                ", rateSource=" + rateSource +
+                ", maxConcurrent=" + merged.getMaxConcurrent() +
+                ", concurrencySource=" + concurrencySource +
+                ", breakerSource=" + breakerSource +
+                ", methodsSource=" + methodsSource +
+                '}';
+    }
+}
@@ -0,0 +1,67 @@
+package com.gateway.admin.limiter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-Memory Shared Token Store
+ * 进程内共享令牌存储，用于单节点部署、模拟和测试
+ *
+ * 每个键一个 {@link TokenBucket}；桶参数（速率、周期、容量）变化时按新参数重建该键的桶。
+ */
+public final class InMemorySharedTokenStore implements SharedTokenStore {
+
+    private final NanoClock clock;
+    private final ConcurrentMap<String, Entry> buckets = new ConcurrentHashMap<>();
+
+    public InMemorySharedTokenStore() {
+        this(NanoClock.SYSTEM);
+    }
+
+    public InMemorySharedTokenStore(NanoClock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public long acquire(String key, long requested, long rate, long periodNanos, long capacity) {
+        if (requested <= 0) {
+            return 0;
+        }
+        Entry entry = buckets.compute(key, (k, existing) ->
+                existing != null && existing.matches(rate, periodNanos, capacity)
+                        ? existing
+                        : new Entry(rate, periodNanos, capacity, new TokenBucket(rate, periodNanos, capacity, clock)));
+        TokenBucket bucket = entry.bucket;
+
+        long granted = Math.min(requested, bucket.availablePermits());
+        while (granted > 0 && !bucket.tryAcquire((int) Math.min(granted, Integer.MAX_VALUE))) {
+            granted = Math.min(granted - 1, bucket.availablePermits());
+        }
+        return Math.max(0, granted);
+    }
+
+    /**
+     * 删除一个键的全局桶
+     */
+    public void remove(String key) {
+        buckets.remove(key);
+    }
+
+    private static final class Entry {
+        final long rate;
+        final long periodNanos;
+        final long capacity;
+        final TokenBucket bucket;
+
+        Entry(long rate, long periodNanos, long capacity, TokenBucket bucket) {
+            this.rate = rate;
+            this.periodNanos = periodNanos;
+            this.capacity = capacity;
+            this.bucket = bucket;
+        }
+
+        boolean matches(long rate, long periodNanos, long capacity) {
+            return this.rate == rate && this.periodNanos == periodNanos && this.capacity == capacity;
+        }
+    }
+}
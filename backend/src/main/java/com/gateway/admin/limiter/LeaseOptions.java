@@ -0,0 +1,73 @@
+package com.gateway.admin.limiter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lease Options
+ * 集群限流的令牌租用参数
+ *
+ * 精度界限（N 为节点数，rate 为全局速率）：
+ * <ul>
+ *   <li>令牌在租用时已从全局桶扣除，任意长度为 W 的时间段内全集群放行的请求数
+ *       不超过 rate * (W + leaseTtl) + 全局桶容量（leaseTtl 取租用参数与维度补充周期中的较大值，
+ *       过期令牌在续租返回前仍可使用，另加每节点至多一批令牌）；leaseTtl 越短越接近单机令牌桶的精度</li>
+ *   <li>每个节点本地最多持有约 leaseSize * (1 + refillThreshold) 个未用令牌，
+ *       全局配额被闲置节点占住的上限约为 N * leaseSize，leaseSize 越小越公平、访问共享存储越频繁</li>
+ * </ul>
+ */
+public final class LeaseOptions {
+
+    private final SharedTokenStore store;
+    private final Executor executor;
+    private final long leaseSize;
+    private final double refillThreshold;
+    private final long leaseTtlNanos;
+
+    /**
+     * @param store           共享令牌存储
+     * @param executor        执行租用请求的后台线程池
+     * @param leaseSize       每次租用的令牌数
+     * @param refillThreshold 本地剩余令牌低于 leaseSize * refillThreshold 时开始下一次租用（0 到 1）
+     * @param leaseTtlNanos   租到的令牌有效期，过期未用的令牌在续租返回后作废；各维度实际有效期不短于其补充周期
+     */
+    public LeaseOptions(SharedTokenStore store, Executor executor, long leaseSize,
+                        double refillThreshold, long leaseTtlNanos) {
+        if (leaseSize <= 0 || refillThreshold < 0 || refillThreshold > 1 || leaseTtlNanos <= 0) {
+            throw new IllegalArgumentException("租用参数不正确: leaseSize=" + leaseSize
+                    + ", refillThreshold=" + refillThreshold + ", leaseTtl=" + leaseTtlNanos);
+        }
+        this.store = store;
+        this.executor = executor;
+        this.leaseSize = leaseSize;
+        this.refillThreshold = refillThreshold;
+        this.leaseTtlNanos = leaseTtlNanos;
+    }
+
+    /**
+     * 默认参数：每次租用 leaseSize 个令牌，剩余 20% 时续租，令牌有效期 1 秒（按分钟补充的维度为 1 分钟）
+     */
+    public static LeaseOptions of(SharedTokenStore store, Executor executor, long leaseSize) {
+        return new LeaseOptions(store, executor, leaseSize, 0.2, TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public SharedTokenStore getStore() {
+        return store;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public long getLeaseSize() {
+        return leaseSize;
+    }
+
+    public double getRefillThreshold() {
+        return refillThreshold;
+    }
+
+    public long getLeaseTtlNanos() {
+        return leaseTtlNanos;
+    }
+}
@@ -0,0 +1,176 @@
+package com.gateway.admin.limiter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Leased Token Bucket
+ * 从共享存储批量租用令牌的集群限流维度
+ *
+ * 请求只消耗本地令牌池（一次 CAS），从不在热路径上访问共享存储；本地剩余令牌降到续租阈值时，
+ * 由后台线程向 {@link SharedTokenStore} 租用下一批令牌。同一时刻每个桶最多只有一个租用请求在途。
+ * 租到的令牌有有效期（不短于该维度的补充周期），过期后的第一个请求发起续租，续租返回前仍可使用
+ * 本地剩余令牌，续租返回后旧令牌作废，避免闲置节点积攒的令牌在之后集中放行；低频节点因此不会
+ * 因为每个请求都落在过期之后而被拒绝。
+ *
+ * 本地令牌耗尽而续租尚未返回时请求被拒绝；共享存储不可用时过期令牌随即作废，所有请求都会被拒绝（失败即关闭）。
+ */
+public final class LeasedTokenBucket implements LimitDimension {
+
+    private static final Logger log = LoggerFactory.getLogger(LeasedTokenBucket.class);
+
+    private final String key;
+    private final long rate;
+    private final long periodNanos;
+    private final long capacity;
+    private final LeaseOptions options;
+    private final NanoClock clock;
+    private final long refillBelow;
+    private final long leaseTtlNanos;
+
+    private final AtomicLong tokens = new AtomicLong();
+    private final AtomicBoolean leasing = new AtomicBoolean();
+    private volatile long leaseExpiry;
+    // 全局桶已空或存储不可用时，到该时间之前不再发起租用
+    private volatile long retryAt;
+
+    /**
+     * 创建后立即发起第一次租用
+     *
+     * @param key         共享存储中的限流键
+     * @param rate        全局每个周期补充的令牌数
+     * @param periodNanos 补充周期（纳秒）
+     * @param capacity    全局桶容量
+     * @param options     租用参数
+     * @param clock       时钟
+     */
+    public LeasedTokenBucket(String key, long rate, long periodNanos, long capacity,
+                             LeaseOptions options, NanoClock clock) {
+        this.key = key;
+        this.rate = rate;
+        this.periodNanos = periodNanos;
+        this.capacity = capacity;
+        this.options = options;
+        this.clock = clock;
+        this.refillBelow = (long) (options.getLeaseSize() * options.getRefillThreshold());
+        // 按分钟补充的维度若仍用秒级有效期，租到的令牌大部分会在用掉之前作废
+        this.leaseTtlNanos = Math.max(options.getLeaseTtlNanos(), periodNanos);
+        this.leaseExpiry = clock.nanoTime();
+        this.retryAt = leaseExpiry;
+        refill();
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (clock.nanoTime() - leaseExpiry > 0) {
+            refill();
+            // 续租在途时沿用本地剩余令牌；未能发起续租（退避中）时过期令牌不再可用
+            if (!leasing.get() && clock.nanoTime() - leaseExpiry > 0) {
+                return false;
+            }
+        }
+        boolean refilled = false;
+        for (;;) {
+            long available = tokens.get();
+            if (available < permits) {
+                if (refilled) {
+                    return false;
+                }
+                // 执行器同步执行租用时，新租到的令牌可以直接用于本次请求
+                refill();
+                refilled = true;
+                continue;
+            }
+            long remaining = available - permits;
+            if (tokens.compareAndSet(available, remaining)) {
+                if (remaining <= refillBelow) {
+                    refill();
+                }
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void release(int permits, long stamp) {
+        tokens.addAndGet(permits);
+    }
+
+    /**
+     * 本地令牌足够时为 0，否则估计为全局桶补充 permits 个令牌所需的时间
+     */
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        if (tokens.get() >= permits && clock.nanoTime() - leaseExpiry <= 0) {
+            return 0;
+        }
+        return Math.max(1, periodNanos / rate) * permits;
+    }
+
+    /**
+     * 作废本地令牌并重新租用
+     */
+    @Override
+    public void reset() {
+        tokens.set(0);
+        leaseExpiry = clock.nanoTime();
+        refill();
+    }
+
+    /**
+     * 当前本地剩余令牌数
+     */
+    public long getLocalTokens() {
+        return tokens.get();
+    }
+
+    private void refill() {
+        if (clock.nanoTime() - retryAt < 0 || !leasing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            options.getExecutor().execute(this::lease);
+        } catch (RejectedExecutionException e) {
+            leasing.set(false);
+            log.warn("令牌租用任务被拒绝: key={}", key);
+        }
+    }
+
+    private void lease() {
+        try {
+            long granted = options.getStore().acquire(key, options.getLeaseSize(), rate, periodNanos, capacity);
+            long now = clock.nanoTime();
+            if (granted <= 0) {
+                backOff(now);
+                return;
+            }
+            if (now - leaseExpiry > 0) {
+                tokens.set(granted);
+            } else {
+                tokens.addAndGet(granted);
+            }
+            leaseExpiry = now + leaseTtlNanos;
+        } catch (RuntimeException e) {
+            backOff(clock.nanoTime());
+            log.warn("从共享存储租用令牌失败: key={}, {}", key, e.getMessage());
+        } finally {
+            leasing.set(false);
+        }
+    }
+
+    /**
+     * 等待全局桶补充出一批令牌的时间（不超过令牌有效期）后再租用，避免被拒绝的请求反复访问共享存储；
+     * 租用失败时已过期的本地令牌随即作废
+     */
+    private void backOff(long now) {
+        if (now - leaseExpiry > 0) {
+            tokens.set(0);
+        }
+        long refillNanos = Math.max(1, periodNanos / rate) * options.getLeaseSize();
+        retryAt = now + Math.min(refillNanos, leaseTtlNanos);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gateway.admin.limiter;
+
+/**
+ * Limit Dimension
+ * 限流的一个维度（每秒、每分钟等），{@link RateLimiter} 要求请求同时通过全部维度
+ */
+public interface LimitDimension {
+
+    /**
+     * {@link #acquire} 失败时的返回值
+     */
+    long REJECTED = Long.MIN_VALUE;
+
+    /**
+     * 获取 permits 个许可，失败时不消耗任何配额
+     */
+    boolean tryAcquire(int permits);
+
+    /**
+     * 获取 permits 个许可，成功时返回撤销所需的凭据，失败时返回 {@link #REJECTED}
+     * 计数与时间相关的维度（滑动窗口）用凭据记录许可计入的位置，其余维度凭据为 0
+     */
+    default long acquire(int permits) {
+        return tryAcquire(permits) ? 0 : REJECTED;
+    }
+
+    /**
+     * 撤销已获取的 permits 个许可（其它维度拒绝时调用）
+     *
+     * @param stamp 获取许可时 {@link #acquire} 返回的凭据
+     */
+    void release(int permits, long stamp);
+
+    /**
+     * 距离可以获取 permits 个许可还需等待的纳秒数（估计值），0 表示现在即可获取
+     */
+    long nanosUntilAvailable(int permits);
+
+    /**
+     * 重置为初始状态
+     */
+    void reset();
+}
@@ -0,0 +1,300 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.entity.LimiterConfig.LimitLevel;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limit Hierarchy
+ * 全局 → 项目 → 域名 → 路由 四级限额的继承关系与预先计算的有效限额
+ *
+ * 每条路由的有效限额（{@link EffectiveLimits}）在任一层级变更时立即重新计算并保存，请求处理时按路由ID一次哈希查找即可取得。
+ * 变更只传播到受影响的路由：全局层级影响全部路由，项目和域名层级通过反向索引只影响其下的路由，路由层级只影响自身；
+ * 合并结果没有变化的路由保留原对象，速率组没有变化时沿用已编译的限流器。
+ *
+ * 读取无锁，写入串行化。所有传入的 LimiterConfig 都会被复制，调用方之后修改实体不影响已计算的结果。
+ */
+public final class LimitHierarchy {
+
+    private LimiterConfig global;
+    private final Map<String, LimiterConfig> projects = new HashMap<>();
+    private final Map<String, LimiterConfig> domains = new HashMap<>();
+    private final Map<String, Route> routes = new HashMap<>();
+    private final Map<String, Set<String>> routesByProject = new HashMap<>();
+    private final Map<String, Set<String>> routesByDomain = new HashMap<>();
+
+    private final ConcurrentHashMap<String, EffectiveLimits> effective = new ConcurrentHashMap<>();
+
+    /**
+     * 路由的有效限额；路由不存在时返回 null
+     */
+    public EffectiveLimits get(String routeId) {
+        return effective.get(routeId);
+    }
+
+    public int size() {
+        return effective.size();
+    }
+
+    /**
+     * 设置或删除（limits 为 null）一个上级层级的限额
+     *
+     * @param level    GLOBAL、PROJECT 或 DOMAIN
+     * @param scopeKey 项目名或域名；GLOBAL 层级忽略
+     * @param limits   限额
+     * @return 有效限额发生变化的路由
+     */
+    public synchronized List<String> putLevel(LimitLevel level, String scopeKey, LimiterConfig limits) {
+        LimiterConfig copy = limits != null ? copyOf(limits) : null;
+        Collection<String> affected;
+        switch (level) {
+            case GLOBAL:
+                global = copy;
+                affected = routes.keySet();
+                break;
+            case PROJECT:
+                putOrRemove(projects, scopeKey, copy);
+                affected = routesByProject.getOrDefault(scopeKey, Collections.emptySet());
+                break;
+            case DOMAIN:
+                putOrRemove(domains, scopeKey, copy);
+                affected = routesByDomain.getOrDefault(scopeKey, Collections.emptySet());
+                break;
+            default:
+                throw new IllegalArgumentException("路由层级的限额随路由更新: " + level);
+        }
+        List<String> changed = new ArrayList<>();
+        for (String routeId : affected) {
+            if (recompute(routes.get(routeId))) {
+                changed.add(routeId);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * 新增或更新路由（位置或自身限额变化）
+     *
+     * @param routeId 路由（网关配置）ID
+     * @param project 所属项目，可为 null
+     * @param domain  域名，可为 null
+     * @param limits  路由自身的限额，可为 null
+     * @return 有效限额是否发生变化
+     */
+    public synchronized boolean putRoute(String routeId, String project, String domain, LimiterConfig limits) {
+        Route previous = routes.get(routeId);
+        if (previous != null) {
+            unindex(previous);
+        }
+        Route node = new Route(routeId, project, domain, limits != null ? copyOf(limits) : null);
+        routes.put(routeId, node);
+        index(routesByProject, project, routeId);
+        index(routesByDomain, domain, routeId);
+        return recompute(node);
+    }
+
+    /**
+     * 删除路由
+     *
+     * @return 路由原先是否存在
+     */
+    public synchronized boolean removeRoute(String routeId) {
+        Route node = routes.remove(routeId);
+        if (node != null) {
+            unindex(node);
+        }
+        return effective.remove(routeId) != null;
+    }
+
+    /**
+     * 用全部层级和路由整体替换当前内容
+     */
+    public synchronized void reset(List<LimiterConfig> levels, Collection<Route> allRoutes) {
+        global = null;
+        projects.clear();
+        domains.clear();
+        routes.clear();
+        routesByProject.clear();
+        routesByDomain.clear();
+        for (LimiterConfig level : levels) {
+            switch (level.getLevel()) {
+                case GLOBAL:
+                    global = copyOf(level);
+                    break;
+                case PROJECT:
+                    putOrRemove(projects, level.getScopeKey(), copyOf(level));
+                    break;
+                case DOMAIN:
+                    putOrRemove(domains, level.getScopeKey(), copyOf(level));
+                    break;
+                default:
+                    break;
+            }
+        }
+        Set<String> present = new HashSet<>();
+        for (Route route : allRoutes) {
+            Route node = new Route(route.id, route.project, route.domain,
+                    route.limits != null ? copyOf(route.limits) : null);
+            routes.put(node.id, node);
+            index(routesByProject, node.project, node.id);
+            index(routesByDomain, node.domain, node.id);
+            recompute(node);
+            present.add(node.id);
+        }
+        effective.keySet().retainAll(present);
+    }
+
+    /**
+     * 按 路由 → 域名 → 项目 → 全局 的顺序逐组合并，结果与原来相同时保留原对象
+     */
+    private boolean recompute(Route node) {
+        LimiterConfig[] chain = {
+                node.limits,
+                node.domain != null ? domains.get(node.domain) : null,
+                node.project != null ? projects.get(node.project) : null,
+                global
+        };
+        LimitLevel[] levels = {LimitLevel.ROUTE, LimitLevel.DOMAIN, LimitLevel.PROJECT, LimitLevel.GLOBAL};
+
+        LimiterConfig merged = new LimiterConfig();
+        merged.setLevel(LimitLevel.ROUTE);
+        merged.setRateLimitWindowSeconds(null);
+        merged.setErrorThresholdPercentage(null);
+        merged.setRecoveryTimeSeconds(null);
+        merged.setHalfOpenMaxCalls(null);
+        LimitLevel rateSource = null;
+        LimitLevel concurrencySource = null;
+        LimitLevel breakerSource = null;
+        LimitLevel methodsSource = null;
+        for (int i = 0; i < chain.length; i++) {
+            LimiterConfig level = chain[i];
+            if (level == null) {
+                continue;
+            }
+            if (rateSource == null && (level.getMaxPerSecond() != null || level.getMaxPerMinute() != null)) {
+                rateSource = levels[i];
+                merged.setMaxPerSecond(level.getMaxPerSecond());
+                merged.setMaxPerMinute(level.getMaxPerMinute());
+                merged.setBurstSize(level.getBurstSize());
+                merged.setRateLimitWindowSeconds(level.getRateLimitWindowSeconds());
+                merged.setLimitKey(level.getLimitKey());
+                merged.setClusterWide(level.getClusterWide());
+            }
+            if (concurrencySource == null && level.getMaxConcurrent() != null) {
+                concurrencySource = levels[i];
+                merged.setMaxConcurrent(level.getMaxConcurrent());
+                merged.setAdaptiveConcurrency(level.getAdaptiveConcurrency());
+            }
+            if (breakerSource == null && level.getCircuitBreakerEnabled() != null && level.hasCircuitBreaker()) {
+                breakerSource = levels[i];
+                merged.setCircuitBreakerEnabled(true);
+                merged.setErrorThresholdPercentage(level.getErrorThresholdPercentage());
+                merged.setRecoveryTimeSeconds(level.getRecoveryTimeSeconds());
+                merged.setHalfOpenMaxCalls(level.getHalfOpenMaxCalls());
+            }
+            if (methodsSource == null && level.getAllowedMethods() != null) {
+                methodsSource = levels[i];
+                merged.setAllowedMethods(level.getAllowedMethods());
+            }
+        }
+
+        EffectiveLimits previous = effective.get(node.id);
+        if (previous != null
+                && previous.sameAs(merged, rateSource, concurrencySource, breakerSource, methodsSource)) {
+            return false;
+        }
+        RateLimiter limiter = previous != null && previous.sameRate(merged)
+                ? previous.getRateLimiter() : RateLimiter.compile(merged);
+        effective.put(node.id, new EffectiveLimits(node.id, merged, rateSource, concurrencySource,
+                breakerSource, methodsSource, limiter));
+        return true;
+    }
+
+    private void unindex(Route node) {
+        unindex(routesByProject, node.project, node.id);
+        unindex(routesByDomain, node.domain, node.id);
+    }
+
+    private static void index(Map<String, Set<String>> index, String key, String routeId) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new HashSet<>()).add(routeId);
+        }
+    }
+
+    private static void unindex(Map<String, Set<String>> index, String key, String routeId) {
+        if (key == null) {
+            return;
+        }
+        Set<String> ids = index.get(key);
+        if (ids != null && ids.remove(routeId) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private static void putOrRemove(Map<String, LimiterConfig> map, String key, LimiterConfig value) {
+        Objects.requireNonNull(key, "scopeKey");
+        if (value != null) {
+            map.put(key, value);
+        } else {
+            map.remove(key);
+        }
+    }
+
+    /**
+     * 复制限额字段（不含ID、关联实体和审计字段）
+     */
+    public static LimiterConfig copyOf(LimiterConfig source) {
+        LimiterConfig copy = new LimiterConfig();
+        copy.setLevel(source.getLevel());
+        copy.setScopeKey(source.getScopeKey());
+        copyLimits(source, copy);
+        return copy;
+    }
+
+    /**
+     * 把 source 的限额字段复制到 target，不改变 target 的层级、范围、ID 和关联
+     */
+    public static void copyLimits(LimiterConfig source, LimiterConfig target) {
+        target.setMaxConcurrent(source.getMaxConcurrent());
+        target.setAdaptiveConcurrency(source.getAdaptiveConcurrency());
+        target.setClusterWide(source.getClusterWide());
+        target.setLimitKey(source.getLimitKey());
+        target.setMaxPerMinute(source.getMaxPerMinute());
+        target.setMaxPerSecond(source.getMaxPerSecond());
+        target.setAllowedMethods(source.getAllowedMethods());
+        target.setRateLimitWindowSeconds(source.getRateLimitWindowSeconds());
+        target.setBurstSize(source.getBurstSize());
+        target.setCircuitBreakerEnabled(source.getCircuitBreakerEnabled());
+        target.setErrorThresholdPercentage(source.getErrorThresholdPercentage());
+        target.setRecoveryTimeSeconds(source.getRecoveryTimeSeconds());
+        target.setHalfOpenMaxCalls(source.getHalfOpenMaxCalls());
+    }
+
+    /**
+     * 路由在层级中的位置及其自身限额
+     */
+    public static final class Route {
+
+        final String id;
+        final String project;
+        final String domain;
+        final LimiterConfig limits;
+
+        public Route(String id, String project, String domain, LimiterConfig limits) {
+            this.id = id;
+            this.project = project;
+            this.domain = domain;
+            this.limits = limits;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.gateway.admin.limiter;
+
+/**
+ * Nano Clock
+ * 限流器使用的单调时钟，只用于计算时间差
+ *
+ * 默认使用 {@link System#nanoTime()}；模拟和回放时注入可控时钟。
+ */
+@FunctionalInterface
+public interface NanoClock {
+
+    NanoClock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
@@ -0,0 +1,159 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.entity.LimiterConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate Limiter
+ * 由 LimiterConfig 编译得到的限流器，请求必须同时通过全部维度：
+ * <ul>
+ *   <li>maxPerSecond：{@link TokenBucket}，每秒补充 maxPerSecond 个令牌，容量为 burstSize（未配置时为 maxPerSecond）</li>
+ *   <li>maxPerMinute：{@link SlidingWindowLimiter}，任意 rateLimitWindowSeconds 长的窗口内最多
+ *       maxPerMinute * window / 60 个请求，按秒划分槽位（最多 60 个）；
+ *       未配置 maxPerSecond 时，burstSize 另外编译为一个按 maxPerMinute 速率补充的令牌桶用于平滑突发</li>
+ * </ul>
+ * clusterWide 配置在提供租用参数时编译为集群限流：各维度都是从共享存储租用令牌的 {@link LeasedTokenBucket}，
+ * 限额为全集群合计值（每分钟维度按 rateLimitWindowSeconds 窗口配额作为全局桶容量）。
+ *
+ * 未配置或为 0 的维度不限流。maxConcurrent 限制的是并发数而不是速率，不在此处处理。
+ * 后面的维度拒绝时撤销前面维度已获取的许可，被拒绝的请求不消耗任何配额。
+ */
+public final class RateLimiter {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_WINDOW_SLOTS = 60;
+
+    private static final LimitDimension[] NO_DIMENSIONS = new LimitDimension[0];
+
+    private final LimitDimension[] dimensions;
+
+    private RateLimiter(LimitDimension[] dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * 使用系统时钟编译限流配置
+     */
+    public static RateLimiter compile(LimiterConfig config) {
+        return compile(config, NanoClock.SYSTEM);
+    }
+
+    /**
+     * 使用指定时钟编译为单节点限流器（模拟时注入可控时钟）
+     */
+    public static RateLimiter compile(LimiterConfig config, NanoClock clock) {
+        return compile(config, clock, null, null);
+    }
+
+    /**
+     * 编译限流配置；配置为 clusterWide 且提供了租用参数时编译为集群限流器
+     *
+     * @param config 限流配置
+     * @param clock  时钟
+     * @param key    共享存储中的限流键前缀（通常为配置ID），单节点限流时可为 null
+     * @param lease  租用参数，为 null 时一律编译为单节点限流器
+     */
+    public static RateLimiter compile(LimiterConfig config, NanoClock clock, String key, LeaseOptions lease) {
+        if (config == null) {
+            return new RateLimiter(NO_DIMENSIONS);
+        }
+        boolean clusterWide = lease != null && Boolean.TRUE.equals(config.getClusterWide());
+        List<LimitDimension> dimensions = new ArrayList<>(3);
+        int perSecond = positive(config.getMaxPerSecond());
+        int perMinute = positive(config.getMaxPerMinute());
+        int burst = positive(config.getBurstSize());
+
+        if (perSecond > 0) {
+            long capacity = burst > 0 ? burst : perSecond;
+            dimensions.add(clusterWide
+                    ? new LeasedTokenBucket(key + ":second", perSecond, SECOND_NANOS, capacity, lease, clock)
+                    : new TokenBucket(perSecond, SECOND_NANOS, capacity, clock));
+        }
+        if (perMinute > 0) {
+            int windowSeconds = positive(config.getRateLimitWindowSeconds());
+            if (windowSeconds == 0) {
+                windowSeconds = 60;
+            }
+            long windowQuota = Math.max(1, (long) perMinute * windowSeconds / 60);
+            if (clusterWide) {
+                dimensions.add(new LeasedTokenBucket(key + ":minute", perMinute, MINUTE_NANOS,
+                        perSecond == 0 && burst > 0 ? burst : windowQuota, lease, clock));
+            } else {
+                if (perSecond == 0 && burst > 0) {
+                    dimensions.add(new TokenBucket(perMinute, MINUTE_NANOS, burst, clock));
+                }
+                dimensions.add(new SlidingWindowLimiter(windowQuota, TimeUnit.SECONDS.toNanos(windowSeconds),
+                        Math.min(windowSeconds, MAX_WINDOW_SLOTS), clock));
+            }
+        }
+        return new RateLimiter(dimensions.toArray(NO_DIMENSIONS));
+    }
+
+    /**
+     * 获取一个许可
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * 获取 permits 个许可，全部维度都有足够配额时返回 true
+     */
+    public boolean tryAcquire(int permits) {
+        return acquireFrom(0, permits);
+    }
+
+    /**
+     * 依次获取第 index 个及之后的维度，后面的维度拒绝时用各自的凭据撤销前面的维度（最多 3 层，不分配数组）
+     */
+    private boolean acquireFrom(int index, int permits) {
+        if (index == dimensions.length) {
+            return true;
+        }
+        LimitDimension dimension = dimensions[index];
+        long stamp = dimension.acquire(permits);
+        if (stamp == LimitDimension.REJECTED) {
+            return false;
+        }
+        if (acquireFrom(index + 1, permits)) {
+            return true;
+        }
+        dimension.release(permits, stamp);
+        return false;
+    }
+
+    /**
+     * 距离可以获取 permits 个许可还需等待的纳秒数（取各维度的最大值）
+     */
+    public long nanosUntilAvailable(int permits) {
+        long wait = 0;
+        for (LimitDimension dimension : dimensions) {
+            wait = Math.max(wait, dimension.nanosUntilAvailable(permits));
+        }
+        return wait;
+    }
+
+    /**
+     * 是否没有任何速率限制
+     */
+    public boolean isUnlimited() {
+        return dimensions.length == 0;
+    }
+
+    /**
+     * 重置全部维度
+     */
+    public void reset() {
+        for (LimitDimension dimension : dimensions) {
+            dimension.reset();
+        }
+    }
+
+    private static int positive(Integer value) {
+        return value != null && value > 0 ? value : 0;
+    }
+}
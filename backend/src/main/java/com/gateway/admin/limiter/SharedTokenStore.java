@@ -0,0 +1,24 @@
+package com.gateway.admin.limiter;
+
+/**
+ * Shared Token Store
+ * 集群共享的令牌存储
+ *
+ * 每个键对应一个全局令牌桶，各节点从中批量租用令牌（见 {@link LeasedTokenBucket}）。
+ * 实现必须原子地完成“按时间补充令牌 + 扣减”，例如 Redis 上的 Lua 脚本或数据库行锁；
+ * 调用发生在后台线程，不在请求热路径上。
+ */
+public interface SharedTokenStore {
+
+    /**
+     * 从全局令牌桶中租用最多 requested 个令牌
+     *
+     * @param key         限流键（通常为配置ID + 维度）
+     * @param requested   希望租用的令牌数
+     * @param rate        全局桶每个周期补充的令牌数
+     * @param periodNanos 补充周期（纳秒）
+     * @param capacity    全局桶容量
+     * @return 实际租到的令牌数，0 到 requested 之间
+     */
+    long acquire(String key, long requested, long rate, long periodNanos, long capacity);
+}
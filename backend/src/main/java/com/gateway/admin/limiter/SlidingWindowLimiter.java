@@ -0,0 +1,222 @@
+package com.gateway.admin.limiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sliding Window Limiter
+ * 滑动窗口计数限流器
+ *
+ * 窗口按时间切成 slots 个槽位组成环，每个槽位用 {@link LongAdder} 计数：高并发下各线程落在不同的计数单元上，
+ * 同一条热点路由不会争用同一个缓存行。窗口内的请求数估计为
+ * “当前槽位计数 + 窗口内其余完整槽位之和 + 刚滑出窗口的槽位按未滑出比例加权”，误差约为一个槽位的请求量。
+ *
+ * 槽位切换时由切换线程一次性汇总已完成槽位的计数并保存在新槽位上，热路径只需读取当前槽位的计数；
+ * 只有切换槽位时分配一个新槽位对象。检查与计数不是一个原子操作，并发下最多超出同时通过检查的线程数。
+ *
+ * 当前槽位的计数平时读取近似值：计数时平均每 {@link #REFRESH_INTERVAL} 次汇总一次 LongAdder，
+ * 距离上限不足 {@link #EXACT_MARGIN} 时才在检查时精确汇总，远离上限的热路径上没有 sum()。
+ * 获取许可时返回计入的槽位（{@link #acquire}），撤销时从同一个槽位扣除。
+ */
+public final class SlidingWindowLimiter implements LimitDimension {
+
+    /**
+     * 近似计数的平均刷新间隔（计数次数）
+     */
+    static final int REFRESH_INTERVAL = 64;
+
+    /**
+     * 近似计数落后超过该余量的概率可以忽略（约 e^-4），估计值进入余量后改为精确汇总
+     */
+    static final long EXACT_MARGIN = 4L * REFRESH_INTERVAL;
+
+    private final long limit;
+    private final long slotNanos;
+    private final int slots;
+    private final NanoClock clock;
+    // slots + 1 个位置：额外保留刚滑出窗口的槽位用于加权
+    private final AtomicReferenceArray<Slot> ring;
+
+    /**
+     * @param limit       窗口内允许的请求数
+     * @param windowNanos 窗口长度（纳秒）
+     * @param slots       槽位数，越大越精确
+     * @param clock       时钟
+     */
+    public SlidingWindowLimiter(long limit, long windowNanos, int slots, NanoClock clock) {
+        if (limit <= 0 || windowNanos <= 0 || slots <= 0 || windowNanos < slots) {
+            throw new IllegalArgumentException("滑动窗口参数不正确: limit=" + limit
+                    + ", window=" + windowNanos + ", slots=" + slots);
+        }
+        this.limit = limit;
+        this.slotNanos = windowNanos / slots;
+        this.slots = slots;
+        this.clock = clock;
+        this.ring = new AtomicReferenceArray<>(slots + 1);
+    }
+
+    /**
+     * 获取一个许可
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * 获取 permits 个许可，窗口内估计请求数加上 permits 不超过上限时计数并返回 true
+     */
+    @Override
+    public boolean tryAcquire(int permits) {
+        return acquire(permits) != REJECTED;
+    }
+
+    /**
+     * 获取 permits 个许可，返回计入的槽位编号作为凭据
+     */
+    @Override
+    public long acquire(int permits) {
+        long now = clock.nanoTime();
+        Slot slot = current(now);
+        double completed = completed(slot, now);
+        if (completed + slot.approximate + permits > limit - EXACT_MARGIN
+                && completed + slot.refresh() + permits > limit) {
+            return REJECTED;
+        }
+        slot.add(permits);
+        return slot.epoch;
+    }
+
+    /**
+     * 从获取时计入的槽位撤销 permits 个许可（组合限流中其它维度拒绝时调用）
+     * 该槽位已滑出窗口时不再需要撤销；刚切换过槽位时新槽位汇总的计数在下次切换前仍包含这些许可，只会偏保守
+     */
+    @Override
+    public void release(int permits, long stamp) {
+        Slot slot = ring.get(index(stamp));
+        if (slot != null && slot.epoch == stamp) {
+            slot.count.add(-permits);
+        }
+    }
+
+    /**
+     * 当前窗口内的估计请求数
+     */
+    public long estimatedCount() {
+        long now = clock.nanoTime();
+        return (long) Math.ceil(estimate(current(now), now));
+    }
+
+    /**
+     * 超出上限时返回到下一个槽位边界（重新评估窗口）的纳秒数，未超出时返回 0
+     */
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        long now = clock.nanoTime();
+        Slot slot = current(now);
+        if (estimate(slot, now) + permits <= limit) {
+            return 0;
+        }
+        return slotNanos - Math.floorMod(now, slotNanos);
+    }
+
+    /**
+     * 清空全部计数
+     */
+    @Override
+    public void reset() {
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    private double estimate(Slot slot, long now) {
+        return completed(slot, now) + slot.count.sum();
+    }
+
+    /**
+     * 窗口内已完成槽位的计数与刚滑出窗口的槽位的加权计数
+     */
+    private double completed(Slot slot, long now) {
+        double elapsed = (double) Math.floorMod(now, slotNanos) / slotNanos;
+        return slot.previous + slot.expiring * (1.0 - elapsed);
+    }
+
+    private int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) ring.length());
+    }
+
+    /**
+     * 取得当前时间所在的槽位，槽位已过期时换成新槽位
+     */
+    private Slot current(long now) {
+        long epoch = Math.floorDiv(now, slotNanos);
+        int index = index(epoch);
+        for (;;) {
+            Slot slot = ring.get(index);
+            if (slot != null && slot.epoch == epoch) {
+                return slot;
+            }
+            if (slot != null && slot.epoch > epoch) {
+                // 时钟被其它线程推进到了更新的槽位，计入该槽位即可
+                return slot;
+            }
+            Slot next = roll(epoch);
+            if (ring.compareAndSet(index, slot, next)) {
+                return next;
+            }
+        }
+    }
+
+    private Slot roll(long epoch) {
+        long previous = 0;
+        long expiring = 0;
+        for (int i = 0; i < ring.length(); i++) {
+            Slot slot = ring.get(i);
+            if (slot == null) {
+                continue;
+            }
+            long age = epoch - slot.epoch;
+            if (age >= 1 && age < slots) {
+                previous += slot.count.sum();
+            } else if (age == slots) {
+                expiring = slot.count.sum();
+            }
+        }
+        return new Slot(epoch, previous, expiring);
+    }
+
+    private static final class Slot {
+        final long epoch;
+        // 窗口内其余完整槽位的计数之和（切换时汇总）
+        final long previous;
+        // 刚滑出窗口的槽位计数，按当前槽位已过去的比例线性衰减
+        final long expiring;
+        final LongAdder count = new LongAdder();
+        // count 的近似值：计数后可能偏小，撤销许可后可能偏大
+        volatile long approximate;
+
+        Slot(long epoch, long previous, long expiring) {
+            this.epoch = epoch;
+            this.previous = previous;
+            this.expiring = expiring;
+        }
+
+        void add(int permits) {
+            count.add(permits);
+            if (ThreadLocalRandom.current().nextInt(REFRESH_INTERVAL) == 0) {
+                approximate = count.sum();
+            }
+        }
+
+        long refresh() {
+            long sum = count.sum();
+            approximate = sum;
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.gateway.admin.limiter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Token Bucket
+ * 无锁令牌桶（GCRA 实现）
+ *
+ * 整个桶的状态只有一个 long：理论到达时间 TAT。每个令牌对应一个发放间隔 T = period / rate，
+ * 容量为 burst 的桶允许 TAT 最多领先当前时间 burst * T。获取 n 个令牌即把 TAT 推进 n * T，
+ * 通过一次 CAS 完成；拒绝时不写共享状态。热路径不分配对象、不加锁。
+ *
+ * 状态存放在 long 数组中间一格，前后各留一个缓存行，避免相邻的桶之间伪共享。
+ * 时间比较一律使用差值，nanoTime 溢出不影响结果。
+ */
+public final class TokenBucket implements LimitDimension {
+
+    private static final VarHandle STATE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // 64 字节缓存行 / 8 字节 = 8 个 long
+    private static final int PAD = 8;
+
+    private final long[] state = new long[PAD * 2 + 1];
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long capacity;
+    private final NanoClock clock;
+
+    /**
+     * @param rate        每个周期补充的令牌数
+     * @param periodNanos 周期（纳秒）
+     * @param capacity    桶容量（允许的突发量）
+     * @param clock       时钟
+     */
+    public TokenBucket(long rate, long periodNanos, long capacity, NanoClock clock) {
+        if (rate <= 0 || periodNanos <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("令牌桶参数必须为正数: rate=" + rate
+                    + ", period=" + periodNanos + ", capacity=" + capacity);
+        }
+        this.intervalNanos = Math.max(1, periodNanos / rate);
+        this.toleranceNanos = saturatedMultiply(intervalNanos, capacity);
+        this.capacity = capacity;
+        this.clock = clock;
+        // 初始 TAT 为当前时间，即桶是满的
+        STATE.setVolatile(state, PAD, clock.nanoTime());
+    }
+
+    /**
+     * 获取一个令牌
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * 获取 permits 个令牌，成功返回 true；令牌不足时不消耗任何令牌
+     */
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits > capacity) {
+            return false;
+        }
+        long cost = intervalNanos * permits;
+        long now = clock.nanoTime();
+        for (;;) {
+            long tat = (long) STATE.getVolatile(state, PAD);
+            long next = (tat - now > 0 ? tat : now) + cost;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (STATE.compareAndSet(state, PAD, tat, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 归还 permits 个令牌（组合限流中后续桶拒绝时撤销已获取的令牌），不超过桶容量
+     */
+    @Override
+    public void release(int permits, long stamp) {
+        long cost = intervalNanos * permits;
+        long now = clock.nanoTime();
+        for (;;) {
+            long tat = (long) STATE.getVolatile(state, PAD);
+            if (tat - now <= 0) {
+                return;
+            }
+            long next = tat - cost;
+            if (next - now < 0) {
+                next = now;
+            }
+            if (STATE.compareAndSet(state, PAD, tat, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 当前可用令牌数（瞬时估计值）
+     */
+    public long availablePermits() {
+        long ahead = (long) STATE.getVolatile(state, PAD) - clock.nanoTime();
+        return ahead <= 0 ? capacity : Math.max(0, (toleranceNanos - ahead) / intervalNanos);
+    }
+
+    /**
+     * 距离可以获取 permits 个令牌还需等待的纳秒数，0 表示现在即可获取
+     */
+    @Override
+    public long nanosUntilAvailable(int permits) {
+        long now = clock.nanoTime();
+        long tat = (long) STATE.getVolatile(state, PAD);
+        long next = (tat - now > 0 ? tat : now) + intervalNanos * permits;
+        return Math.max(0, next - now - toleranceNanos);
+    }
+
+    /**
+     * 重置为满桶
+     */
+    @Override
+    public void reset() {
+        STATE.setVolatile(state, PAD, clock.nanoTime());
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    private static long saturatedMultiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        return (high == 0 && low >= 0) ? low : Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,431 @@
+package com.gateway.admin.limiter;
+
+import com.gateway.admin.dto.LimiterSimulationReport;
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.iprule.IpAddresses;
+import com.gateway.admin.iprule.IpRangeTable;
+import com.gateway.admin.iprule.IpRuleTrie;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Traffic Replay Simulator
+ * 限流与熔断回放模拟器
+ *
+ * 按时间顺序回放请求轨迹，经过由待评估 LimiterConfig 编译出的 IP 规则（{@link IpRuleTrie}）、限流器（{@link RateLimiter}）、
+ * 并发限制（静态 maxConcurrent 或 {@link AdaptiveConcurrencyLimiter}）和熔断器（{@link CircuitBreaker}），统计拒绝、熔断和延迟变化。
+ * 所有组件使用由事件时间驱动的模拟时钟，结果与回放速度无关。
+ *
+ * 轨迹为文本文件，每行一个请求：{@code 时间戳(毫秒),路由,客户端IP,状态码,延迟(毫秒，可带小数)}，
+ * 以 # 开头的行和首行表头被跳过。解析直接在字节缓冲区上进行，每个事件不分配对象，单核每秒可处理数百万事件。
+ * 请求在“到达时间 + 延迟”完成，完成时才把结果反馈给熔断器和自适应并发限制；状态码 >= 500 计为错误。
+ * 配置了 IP 规则或外部IP表（{@link IpRangeTable}）时客户端IP在缓冲区上直接解析后查找，被拒绝的请求不进入后续限流；
+ * 否则只按格式校验。匹配的 IP 规则优先于外部IP表。
+ *
+ * 非线程安全，每次回放创建新实例。
+ */
+public final class TrafficReplaySimulator {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    private static final long NANOS_PER_MICRO = 1_000L;
+
+    private final LimiterConfig config;
+    private final byte[] route;
+
+    private long now;
+    private final NanoClock clock = () -> now;
+
+    private final IpRuleTrie ipRules;
+    private final IpRangeTable ipTable;
+    private final byte[] address = new byte[16];
+    private final AsciiSequence ipText = new AsciiSequence();
+    private final RateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter adaptive;
+    private final int staticConcurrency;
+    private final CircuitBreaker breaker;
+    private final CompletionHeap inFlight = new CompletionHeap();
+
+    private final LatencyHistogram original = new LatencyHistogram();
+    private final LatencyHistogram simulated = new LatencyHistogram();
+    private final LatencyHistogram admittedLatency = new LatencyHistogram();
+    private final LimiterSimulationReport report = new LimiterSimulationReport();
+
+    /**
+     * @param config 待评估的限流配置
+     * @param route  只回放该路由的事件；为 null 时全部事件视为同一路由
+     */
+    public TrafficReplaySimulator(LimiterConfig config, String route) {
+        this(config, route, null);
+    }
+
+    /**
+     * @param config  待评估的限流配置
+     * @param route   只回放该路由的事件；为 null 时全部事件视为同一路由
+     * @param ipTable 配置引用的外部IP表；为 null 时不检查
+     */
+    public TrafficReplaySimulator(LimiterConfig config, String route, IpRangeTable ipTable) {
+        this.config = config;
+        this.ipTable = ipTable;
+        this.route = route != null ? route.getBytes(StandardCharsets.UTF_8) : null;
+        this.ipRules = config.getIpRules() != null && !config.getIpRules().isEmpty()
+                ? IpRuleTrie.compile(config.getIpRules()) : null;
+        this.rateLimiter = RateLimiter.compile(config, clock);
+        this.adaptive = AdaptiveConcurrencyLimiter.forConfig(config, clock);
+        this.staticConcurrency = adaptive == null && config.getMaxConcurrent() != null
+                ? config.getMaxConcurrent() : 0;
+        this.breaker = CircuitBreaker.forConfig(config, clock);
+        report.setRoute(route);
+    }
+
+    /**
+     * 回放整个轨迹并返回统计结果
+     */
+    public LimiterSimulationReport replay(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int length = 0;
+        boolean firstLine = true;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) > 0) {
+            length += read;
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    parseLine(buffer, lineStart, i, firstLine);
+                    firstLine = false;
+                    lineStart = i + 1;
+                }
+            }
+            length -= lineStart;
+            System.arraycopy(buffer, lineStart, buffer, 0, length);
+            if (length == buffer.length) {
+                // 单行超过缓冲区，按格式错误丢弃
+                report.setMalformedLines(report.getMalformedLines() + 1);
+                length = 0;
+            }
+        }
+        if (length > 0) {
+            parseLine(buffer, 0, length, firstLine);
+        }
+        finish();
+
+        long elapsedNanos = Math.max(1, System.nanoTime() - start);
+        report.setElapsedMillis(elapsedNanos / NANOS_PER_MILLI);
+        report.setEventsPerSecond(report.getTotalEvents() * 1_000_000_000L / elapsedNanos);
+        return report;
+    }
+
+    private void parseLine(byte[] b, int from, int to, boolean firstLine) {
+        if (to > from && b[to - 1] == '\r') {
+            to--;
+        }
+        if (from == to || b[from] == '#') {
+            return;
+        }
+        if (firstLine && (b[from] < '0' || b[from] > '9')) {
+            return;
+        }
+        report.setTotalEvents(report.getTotalEvents() + 1);
+
+        // 时间戳
+        int p = from;
+        long timestamp = 0;
+        int digits = 0;
+        while (p < to && b[p] >= '0' && b[p] <= '9') {
+            timestamp = timestamp * 10 + (b[p++] - '0');
+            digits++;
+        }
+        if (digits == 0 || p >= to || b[p] != ',') {
+            malformed();
+            return;
+        }
+        // 路由
+        int routeStart = ++p;
+        while (p < to && b[p] != ',') {
+            p++;
+        }
+        int routeEnd = p;
+        if (p >= to) {
+            malformed();
+            return;
+        }
+        // 客户端IP
+        int ipStart = ++p;
+        while (p < to && b[p] != ',') {
+            byte c = b[p];
+            if (!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F' || c == '.' || c == ':')) {
+                malformed();
+                return;
+            }
+            p++;
+        }
+        if (p >= to || p == ipStart) {
+            malformed();
+            return;
+        }
+        int addressLength = 0;
+        if (ipRules != null || ipTable != null) {
+            addressLength = IpAddresses.parseInto(ipText.wrap(b), ipStart, p, address);
+            if (addressLength == 0) {
+                malformed();
+                return;
+            }
+        }
+        // 状态码
+        p++;
+        int status = 0;
+        digits = 0;
+        while (p < to && b[p] >= '0' && b[p] <= '9') {
+            status = status * 10 + (b[p++] - '0');
+            digits++;
+        }
+        if (digits == 0 || p >= to || b[p] != ',') {
+            malformed();
+            return;
+        }
+        // 延迟（毫秒，最多保留到微秒）
+        p++;
+        long latencyMicros = 0;
+        digits = 0;
+        while (p < to && b[p] >= '0' && b[p] <= '9') {
+            latencyMicros = latencyMicros * 10 + (b[p++] - '0');
+            digits++;
+        }
+        latencyMicros *= 1000;
+        if (p < to && b[p] == '.') {
+            p++;
+            long scale = 100;
+            while (p < to && b[p] >= '0' && b[p] <= '9') {
+                latencyMicros += (b[p++] - '0') * scale;
+                scale /= 10;
+            }
+        }
+        if (digits == 0 || p != to) {
+            malformed();
+            return;
+        }
+
+        if (route != null && !routeMatches(b, routeStart, routeEnd)) {
+            return;
+        }
+        onEvent(timestamp, status, latencyMicros, addressLength);
+    }
+
+    /**
+     * 匹配的 IP 规则决定结果；没有匹配时落在外部IP表内则拒绝，否则按 IP 规则的默认结果
+     */
+    private boolean ipPermits(int addressLength) {
+        int rank = ipRules != null ? ipRules.lookup(address, addressLength) : -1;
+        if (rank >= 0) {
+            return ipRules.rule(rank).getMode() == IpRuleMode.ALLOW;
+        }
+        if (ipTable != null && ipTable.contains(address, addressLength)) {
+            return false;
+        }
+        return ipRules == null || !ipRules.hasAllowRules();
+    }
+
+    private boolean routeMatches(byte[] b, int from, int to) {
+        return Arrays.equals(b, from, to, route, 0, route.length);
+    }
+
+    private void malformed() {
+        report.setTotalEvents(report.getTotalEvents() - 1);
+        report.setMalformedLines(report.getMalformedLines() + 1);
+    }
+
+    private void onEvent(long timestampMillis, int status, long latencyMicros, int addressLength) {
+        long time = timestampMillis * NANOS_PER_MILLI;
+        if (time - now > 0 || report.getMatchedEvents() == 0) {
+            now = time;
+        }
+        completeUntil(now);
+        report.setMatchedEvents(report.getMatchedEvents() + 1);
+
+        boolean error = status >= 500;
+        original.record(latencyMicros);
+        if (error) {
+            report.setErrorsOriginal(report.getErrorsOriginal() + 1);
+        }
+
+        if ((ipRules != null || ipTable != null) && !ipPermits(addressLength)) {
+            report.setIpDenied(report.getIpDenied() + 1);
+            simulated.record(0);
+            return;
+        }
+        if (breaker != null && !breaker.tryAcquirePermission()) {
+            report.setShortCircuited(report.getShortCircuited() + 1);
+            simulated.record(0);
+            return;
+        }
+        if (!rateLimiter.tryAcquire()) {
+            releaseBreakerPermission();
+            report.setRateLimited(report.getRateLimited() + 1);
+            simulated.record(0);
+            return;
+        }
+        if (adaptive != null ? !adaptive.tryAcquire()
+                : staticConcurrency > 0 && inFlight.size() >= staticConcurrency) {
+            releaseBreakerPermission();
+            report.setConcurrencyLimited(report.getConcurrencyLimited() + 1);
+            simulated.record(0);
+            return;
+        }
+
+        report.setAdmitted(report.getAdmitted() + 1);
+        simulated.record(latencyMicros);
+        admittedLatency.record(latencyMicros);
+        if (error) {
+            report.setErrorsAdmitted(report.getErrorsAdmitted() + 1);
+        }
+        long latencyNanos = latencyMicros * NANOS_PER_MICRO;
+        // 错误结果编码为负数
+        inFlight.push(now + latencyNanos, error ? -latencyNanos - 1 : latencyNanos);
+    }
+
+    private void releaseBreakerPermission() {
+        if (breaker != null) {
+            breaker.releasePermission();
+        }
+    }
+
+    /**
+     * 处理完成时间不晚于 time 的在途请求，把结果反馈给熔断器和自适应并发限制
+     */
+    private void completeUntil(long time) {
+        while (inFlight.size() > 0 && inFlight.peekTime() - time <= 0) {
+            long completedAt = inFlight.peekTime();
+            long outcome = inFlight.pop();
+            boolean error = outcome < 0;
+            long saved = now;
+            now = completedAt;
+            if (breaker != null) {
+                if (error) {
+                    breaker.onError();
+                } else {
+                    breaker.onSuccess();
+                }
+            }
+            if (adaptive != null) {
+                if (error) {
+                    adaptive.onDropped();
+                } else {
+                    adaptive.onSuccess(outcome);
+                }
+            }
+            now = saved;
+        }
+    }
+
+    private void finish() {
+        completeUntil(Long.MAX_VALUE);
+        if (breaker != null) {
+            report.setBreakerTrips(breaker.getTrips());
+            report.setBreakerOpenMillis(breaker.getOpenMillis());
+        }
+        report.setOriginalP50Millis(original.percentile(0.50) / 1000.0);
+        report.setOriginalP99Millis(original.percentile(0.99) / 1000.0);
+        report.setOriginalMaxMillis(original.getMax() / 1000.0);
+        report.setSimulatedP50Millis(simulated.percentile(0.50) / 1000.0);
+        report.setSimulatedP99Millis(simulated.percentile(0.99) / 1000.0);
+        report.setAdmittedP99Millis(admittedLatency.percentile(0.99) / 1000.0);
+    }
+
+    /**
+     * 按完成时间排序的在途请求最小堆（基本类型数组，不装箱）
+     */
+    private static final class CompletionHeap {
+
+        private long[] times = new long[256];
+        private long[] values = new long[256];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        long peekTime() {
+            return times[0];
+        }
+
+        void push(long time, long value) {
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (times[parent] - time <= 0) {
+                    break;
+                }
+                times[i] = times[parent];
+                values[i] = values[parent];
+                i = parent;
+            }
+            times[i] = time;
+            values[i] = value;
+        }
+
+        long pop() {
+            long result = values[0];
+            long time = times[--size];
+            long value = values[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && times[child + 1] - times[child] < 0) {
+                    child++;
+                }
+                if (time - times[child] <= 0) {
+                    break;
+                }
+                times[i] = times[child];
+                values[i] = values[child];
+                i = child;
+            }
+            times[i] = time;
+            values[i] = value;
+            return result;
+        }
+    }
+
+    /**
+     * 以 CharSequence 形式读取字节缓冲区（只含 ASCII），供地址解析复用，不复制数据
+     */
+    private static final class AsciiSequence implements CharSequence {
+
+        private byte[] bytes;
+
+        AsciiSequence wrap(byte[] bytes) {
+            this.bytes = bytes;
+            return this;
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xff);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
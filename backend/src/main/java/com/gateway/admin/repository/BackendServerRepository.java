@@ -0,0 +1,30 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.entity.ConfigStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Backend Server Repository
+ * 后端服务器数据访问接口
+ */
+@Repository
+public interface BackendServerRepository extends JpaRepository<BackendServer, Long> {
+
+    /**
+     * 查找路由的全部后端服务器
+     */
+    List<BackendServer> findByGatewayConfigId(String gatewayConfigId);
+
+    /**
+     * 查找指定状态路由下启用且配置了健康检查地址的服务器
+     */
+    @Query("SELECT b FROM BackendServer b WHERE b.enabled = true AND b.healthCheckUrl IS NOT NULL " +
+           "AND b.gatewayConfig.status = :status")
+    List<BackendServer> findHealthCheckTargets(@Param("status") ConfigStatus status);
+}
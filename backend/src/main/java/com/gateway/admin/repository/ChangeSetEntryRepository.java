@@ -0,0 +1,40 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.ChangeSetEntry;
+import com.gateway.admin.entity.ChangeSetStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Change Set Entry Repository
+ * 变更集条目数据访问接口
+ */
+@Repository
+public interface ChangeSetEntryRepository extends JpaRepository<ChangeSetEntry, Long> {
+
+    /**
+     * 查找变更集中某个配置的条目
+     */
+    Optional<ChangeSetEntry> findByChangeSetIdAndGatewayConfigId(String changeSetId, String gatewayConfigId);
+
+    /**
+     * 查找变更集的全部条目
+     */
+    List<ChangeSetEntry> findByChangeSetIdOrderByIdAsc(String changeSetId);
+
+    /**
+     * 检查配置是否已被其他指定状态的变更集占用
+     */
+    @Query("SELECT COUNT(e) > 0 FROM ChangeSetEntry e WHERE e.gatewayConfigId = :configId " +
+           "AND e.changeSet.status = :status AND e.changeSet.id != :excludeChangeSetId")
+    boolean existsInOtherChangeSet(
+            @Param("configId") String configId,
+            @Param("status") ChangeSetStatus status,
+            @Param("excludeChangeSetId") String excludeChangeSetId
+    );
+}
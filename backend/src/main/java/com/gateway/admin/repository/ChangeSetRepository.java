@@ -0,0 +1,26 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.ChangeSet;
+import com.gateway.admin.entity.ChangeSetStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Change Set Repository
+ * 变更集数据访问接口
+ */
+@Repository
+public interface ChangeSetRepository extends JpaRepository<ChangeSet, String> {
+
+    /**
+     * 根据状态查找变更集，按创建时间倒序
+     */
+    List<ChangeSet> findByStatusOrderByCreatedAtDesc(ChangeSetStatus status);
+
+    /**
+     * 根据修订号查找变更集
+     */
+    List<ChangeSet> findByRevision(Long revision);
+}
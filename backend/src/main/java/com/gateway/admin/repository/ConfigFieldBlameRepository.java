@@ -0,0 +1,47 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.ConfigFieldBlame;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Configuration Field Blame Repository
+ * 配置字段归属索引数据访问接口
+ */
+@Repository
+public interface ConfigFieldBlameRepository extends JpaRepository<ConfigFieldBlame, Long> {
+
+    /**
+     * 按唯一键查找单个字段的归属
+     */
+    Optional<ConfigFieldBlame> findByGatewayConfigIdAndFieldPath(String gatewayConfigId, String fieldPath);
+
+    /**
+     * 查找配置的全部字段归属
+     */
+    List<ConfigFieldBlame> findByGatewayConfigId(String gatewayConfigId);
+
+    /**
+     * 查找路径前缀下的字段归属（例如某个后端服务器的全部字段），按路径排序
+     */
+    List<ConfigFieldBlame> findByGatewayConfigIdAndFieldPathStartingWithOrderByFieldPathAsc(
+            String gatewayConfigId, String pathPrefix);
+
+    /**
+     * 检查配置是否已建立索引
+     */
+    boolean existsByGatewayConfigId(String gatewayConfigId);
+
+    /**
+     * 删除配置的全部字段归属
+     */
+    @Modifying
+    @Query("DELETE FROM ConfigFieldBlame b WHERE b.gatewayConfigId = :configId")
+    int deleteByConfigId(@Param("configId") String configId);
+}
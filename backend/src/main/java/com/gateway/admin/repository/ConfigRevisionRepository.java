@@ -0,0 +1,27 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.ConfigRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Configuration Revision Repository
+ * 全局配置修订数据访问接口
+ */
+@Repository
+public interface ConfigRevisionRepository extends JpaRepository<ConfigRevision, Long> {
+
+    /**
+     * 查找大于指定修订号的修订，供数据面增量同步
+     */
+    List<ConfigRevision> findByRevisionGreaterThanOrderByRevisionAsc(Long revision);
+
+    /**
+     * 获取当前最新修订号
+     */
+    @Query("SELECT MAX(r.revision) FROM ConfigRevision r")
+    Long findLatestRevision();
+}
@@ -0,0 +1,99 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.ConfigVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Configuration Version Repository
+ * 配置版本历史数据访问接口
+ */
+@Repository
+public interface ConfigVersionRepository extends JpaRepository<ConfigVersion, Long> {
+
+    /**
+     * 查找配置的最新版本记录
+     */
+    Optional<ConfigVersion> findTopByGatewayConfigIdOrderByVersionDesc(String gatewayConfigId);
+
+    /**
+     * 查找不晚于指定版本的最近一个检查点
+     */
+    Optional<ConfigVersion> findTopByGatewayConfigIdAndVersionLessThanEqualAndCheckpointTrueOrderByVersionDesc(
+            String gatewayConfigId, Integer version);
+
+    /**
+     * 查找版本区间内的记录，按版本升序（用于回放增量）
+     */
+    List<ConfigVersion> findByGatewayConfigIdAndVersionBetweenOrderByVersionAsc(
+            String gatewayConfigId, Integer fromVersion, Integer toVersion);
+
+    /**
+     * 检查版本记录是否存在
+     */
+    boolean existsByGatewayConfigIdAndVersion(String gatewayConfigId, Integer version);
+
+    /**
+     * 查询版本历史元数据（不加载payload），按版本倒序
+     */
+    @Query("SELECT v.version, v.checkpoint, v.revision, v.description, v.createdAt, v.createdBy, LENGTH(v.payload) " +
+           "FROM ConfigVersion v WHERE v.gatewayConfigId = :configId ORDER BY v.version DESC")
+    List<Object[]> findHistoryMetadata(@Param("configId") String configId);
+
+    /**
+     * 查询某个全局修订涉及的配置ID
+     */
+    @Query("SELECT DISTINCT v.gatewayConfigId FROM ConfigVersion v WHERE v.revision = :revision")
+    List<String> findConfigIdsByRevision(@Param("revision") Long revision);
+
+    /**
+     * 查询某个全局修订之前各配置的最近版本（配置ID, 版本号），用于撤销整个修订
+     */
+    @Query("SELECT p.gatewayConfigId, MAX(p.version) FROM ConfigVersion p, ConfigVersion v " +
+           "WHERE v.revision = :revision AND p.gatewayConfigId = v.gatewayConfigId AND p.version < v.version " +
+           "GROUP BY p.gatewayConfigId")
+    List<Object[]> findVersionsBeforeRevision(@Param("revision") Long revision);
+
+    /**
+     * 查询指定时间之后发生过变更的配置ID
+     */
+    @Query("SELECT DISTINCT v.gatewayConfigId FROM ConfigVersion v WHERE v.createdAt > :time")
+    List<String> findConfigIdsChangedAfter(@Param("time") LocalDateTime time);
+
+    /**
+     * 查询指定时间之后发生过变更的配置在该时间点的版本（配置ID, 版本号）
+     */
+    @Query("SELECT v.gatewayConfigId, MAX(v.version) FROM ConfigVersion v " +
+           "WHERE v.createdAt <= :time AND v.gatewayConfigId IN " +
+           "(SELECT c.gatewayConfigId FROM ConfigVersion c WHERE c.createdAt > :time) " +
+           "GROUP BY v.gatewayConfigId")
+    List<Object[]> findVersionsAtTime(@Param("time") LocalDateTime time);
+
+    /**
+     * 查找指定版本的记录
+     */
+    Optional<ConfigVersion> findByGatewayConfigIdAndVersion(String gatewayConfigId, Integer version);
+
+    /**
+     * 查找需要清理历史的配置：版本数超过上限或存在早于截止时间的版本
+     * 需要分组扫描整张表，每次清理只执行一次
+     */
+    @Query("SELECT v.gatewayConfigId FROM ConfigVersion v " +
+           "GROUP BY v.gatewayConfigId " +
+           "HAVING COUNT(v) > 1 AND (COUNT(v) > :maxCount OR MIN(v.createdAt) < :cutoff) " +
+           "ORDER BY v.gatewayConfigId")
+    List<String> findCompactionCandidates(@Param("maxCount") long maxCount, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * 查询配置的保留判断所需元数据（记录ID, 版本号, 创建时间, 是否检查点），按版本倒序
+     */
+    @Query("SELECT v.id, v.version, v.createdAt, v.checkpoint FROM ConfigVersion v " +
+           "WHERE v.gatewayConfigId = :configId ORDER BY v.version DESC")
+    List<Object[]> findRetentionMetadata(@Param("configId") String configId);
+}
@@ -5,10 +5,12 @@ import com.gateway.admin.entity.ConfigStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -93,6 +95,11 @@ public interface GatewayConfigRepository extends JpaRepository<GatewayConfig, St
             @Param("excludeId") String excludeId
     );
 
+    /**
+     * 检查域名和路径组合是否被指定ID集合以外的配置占用
+     */
+    boolean existsByDomainAndRequestPathPatternAndIdNotIn(String domain, String requestPathPattern, Collection<String> ids);
+
     /**
      * 根据版本号查找配置
      */
@@ -115,4 +122,35 @@ public interface GatewayConfigRepository extends JpaRepository<GatewayConfig, St
      */
     @Query("SELECT gc.cmdbProject, COUNT(gc) FROM GatewayConfig gc WHERE gc.cmdbProject IS NOT NULL GROUP BY gc.cmdbProject")
     List<Object[]> countByProject();
-} 
\ No newline at end of file
+
+    /**
+     * 查询全部配置的内容哈希（配置ID, 版本号, 内容哈希），供数据面判断哪些配置需要重新加载
+     */
+    @Query("SELECT gc.id, gc.version, gc.contentHash FROM GatewayConfig gc")
+    List<Object[]> findContentHashes();
+
+    /**
+     * 按ID顺序分页查询配置，从 afterId 之后开始（键集分页，不使用 OFFSET）
+     */
+    List<GatewayConfig> findByIdGreaterThanOrderByIdAsc(String afterId, Pageable pageable);
+
+    /**
+     * 按ID顺序查询尚无内容哈希的配置（引入内容哈希之前写入的配置），从 afterId 之后开始
+     */
+    List<GatewayConfig> findByContentHashIsNullAndIdGreaterThanOrderByIdAsc(String afterId, Pageable pageable);
+
+    /**
+     * 补写内容哈希；配置在计算之后被修改（版本号变化或已有哈希）时不覆盖
+     */
+    @Modifying
+    @Query("UPDATE GatewayConfig gc SET gc.contentHash = :hash " +
+           "WHERE gc.id = :id AND gc.version = :version AND gc.contentHash IS NULL")
+    int backfillContentHash(@Param("id") String id, @Param("version") Integer version, @Param("hash") String hash);
+
+    /**
+     * 查询指定状态的配置在限额层级中的位置及其自身限流配置（配置ID, 项目, 域名, 限流配置或 null）
+     */
+    @Query("SELECT gc.id, gc.cmdbProject, gc.domain, lc FROM GatewayConfig gc LEFT JOIN gc.limiterConfig lc " +
+           "WHERE gc.status = :status")
+    List<Object[]> findLimitPlacements(@Param("status") ConfigStatus status);
+}
@@ -0,0 +1,32 @@
+package com.gateway.admin.repository;
+
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.entity.LimiterConfig.LimitLevel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Limiter Configuration Repository
+ * 限流配置数据访问接口
+ */
+@Repository
+public interface LimiterConfigRepository extends JpaRepository<LimiterConfig, Long> {
+
+    /**
+     * 查找某一层级某个范围的限流配置（GLOBAL 层级 scopeKey 为 null）
+     */
+    Optional<LimiterConfig> findFirstByLevelAndScopeKey(LimitLevel level, String scopeKey);
+
+    /**
+     * 查找某一层级的全部限流配置
+     */
+    List<LimiterConfig> findByLevelOrderByScopeKeyAsc(LimitLevel level);
+
+    /**
+     * 查找不属于单个路由的全部上级限流配置
+     */
+    List<LimiterConfig> findByLevelNot(LimitLevel level);
+}
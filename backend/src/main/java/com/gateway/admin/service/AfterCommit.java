@@ -0,0 +1,30 @@
+package com.gateway.admin.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * After Commit
+ * 把内存状态的更新和事件发布推迟到当前事务提交之后，事务回滚时不执行
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * 在当前事务提交后执行；没有事务时立即执行
+     */
+    static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,173 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.archive.AuditArchiveStore;
+import com.gateway.admin.archive.AuditRecord;
+import com.gateway.admin.archive.AuditRowMapper;
+import com.gateway.admin.archive.AuditSegmentWriter;
+import com.gateway.admin.archive.AuditTableRegistry;
+import com.gateway.admin.exception.GatewayConfigException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Audit Archive Service
+ * 审计数据冷归档服务
+ *
+ * 将早于 gateway.admin.archive.older-than-days 的 Envers 审计行按 (REV, id) 顺序分批读出，
+ * 按修订时间的月份写入只追加的压缩段文件（见 {@link AuditSegmentWriter}），全部段发布后推进归档水位，
+ * 再通过历史清理服务分批删除热表中已归档的行（每个实体的最新一行保留在热表中）。
+ */
+@Service
+public class AuditArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditArchiveService.class);
+
+    private static final AuditRowMapper ROW_MAPPER = new AuditRowMapper();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditTableRegistry auditTableRegistry;
+
+    @Autowired
+    private AuditArchiveStore auditArchiveStore;
+
+    @Autowired
+    private HistoryCompactionService historyCompactionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.admin.archive.older-than-days:365}")
+    private int olderThanDays;
+
+    @Value("${gateway.admin.archive.fetch-size:5000}")
+    private int fetchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * 定时归档
+     */
+    @Scheduled(cron = "${gateway.admin.archive.cron:0 0 4 * * *}")
+    public void scheduledArchive() {
+        if (auditArchiveStore.isEnabled()) {
+            archive();
+        }
+    }
+
+    /**
+     * 执行一次归档，返回写入段文件的行数；已有任务运行时直接返回 0
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("审计归档任务正在运行，跳过本次触发");
+            return 0;
+        }
+        try {
+            long cutoffMillis = LocalDateTime.now().minusDays(olderThanDays)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            Long cutoffRev = jdbcTemplate.queryForObject(
+                    "SELECT MAX(REV) FROM REVINFO WHERE REVTSTMP < ?", Long.class, cutoffMillis);
+            if (cutoffRev == null) {
+                return 0;
+            }
+
+            long archived = 0;
+            for (String table : auditTableRegistry.findAuditTables()) {
+                archived += archiveTable(table, cutoffRev);
+                historyCompactionService.purgeAuditTable(table, auditArchiveStore.getArchivedRevision(table));
+            }
+            log.info("审计归档完成: 写入 {} 行, 截止修订 {}", archived, cutoffRev);
+            return archived;
+        } catch (IOException e) {
+            throw new GatewayConfigException("审计归档失败", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("审计归档被中断");
+            return 0;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 归档一张审计表中 (水位, cutoffRev] 范围内的行；任何失败都丢弃本次未发布的段，水位不变
+     * 上一次归档在写段之后、推进水位之前中断时留下的段先删除，这些行仍在热表中，本次重新写入
+     */
+    private long archiveTable(String table, long cutoffRev) throws IOException {
+        long watermark = auditArchiveStore.getArchivedRevision(table);
+        if (cutoffRev <= watermark) {
+            return 0;
+        }
+        int discarded = auditArchiveStore.discardUnpublished(table, watermark);
+        if (discarded > 0) {
+            log.warn("删除上次中断的归档留下的未发布文件: table={}, files={}", table, discarded);
+        }
+
+        String select = "SELECT a.*, r.REVTSTMP AS " + AuditRowMapper.TIMESTAMP_COLUMN + " FROM " + table + " a " +
+                "JOIN REVINFO r ON r.REV = a.REV WHERE a.REV <= ? AND ";
+        String first = select + "a.REV > ? ORDER BY a.REV, a.id LIMIT ?";
+        String next = select + "(a.REV > ? OR (a.REV = ? AND a.id > ?)) ORDER BY a.REV, a.id LIMIT ?";
+
+        Map<YearMonth, AuditSegmentWriter> writers = new HashMap<>();
+        long archived = 0;
+        try {
+            List<AuditRecord> batch = jdbcTemplate.query(first, ROW_MAPPER, cutoffRev, watermark, fetchSize);
+            while (!batch.isEmpty()) {
+                for (AuditRecord record : batch) {
+                    YearMonth month = AuditArchiveStore.monthOf(record.getTimestamp());
+                    AuditSegmentWriter writer = writers.get(month);
+                    if (writer == null) {
+                        writer = auditArchiveStore.openWriter(table, month);
+                        writers.put(month, writer);
+                    }
+                    writer.append(record);
+                }
+                archived += batch.size();
+                AuditRecord last = batch.get(batch.size() - 1);
+                batch = jdbcTemplate.query(next, ROW_MAPPER, cutoffRev,
+                        last.getRevision(), last.getRevision(), last.getEntityId(), fetchSize);
+            }
+            for (AuditSegmentWriter writer : writers.values()) {
+                writer.close();
+            }
+        } catch (IOException | RuntimeException e) {
+            for (AuditSegmentWriter writer : writers.values()) {
+                try {
+                    writer.abort();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+
+        auditArchiveStore.setArchivedRevision(table, cutoffRev);
+        if (archived > 0) {
+            Counter.builder("gateway.admin.archive.rows.archived")
+                    .description("写入冷归档段的审计行数")
+                    .tag("table", table)
+                    .register(meterRegistry)
+                    .increment(archived);
+        }
+        return archived;
+    }
+}
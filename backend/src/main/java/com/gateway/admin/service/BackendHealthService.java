@@ -0,0 +1,244 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.BackendStatusDTO;
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.event.BackendStateChangedEvent;
+import com.gateway.admin.event.EffectiveLimitsChangedEvent;
+import com.gateway.admin.event.RouteChangedEvent;
+import com.gateway.admin.limiter.EffectiveLimits;
+import com.gateway.admin.limiter.NanoClock;
+import com.gateway.admin.repository.BackendServerRepository;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.upstream.BackendPool;
+import com.gateway.admin.upstream.BackendPool.Host;
+import com.gateway.admin.upstream.BackendPool.HostState;
+import com.gateway.admin.upstream.HealthStatus;
+import com.gateway.admin.upstream.OutlierPolicy;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backend Health Service
+ * 后端服务器摘除服务
+ *
+ * 为每条路由维护一个 {@link BackendPool}：路由级熔断之外，每台后端服务器按自己的请求结果单独熔断，
+ * 出错的服务器被摘除出加权选择，恢复时间过后接收试探请求，试探成功后在 slowStart 时间内逐步恢复权重。
+ * 摘除参数取路由的有效熔断组（含继承），路由没有熔断配置时使用 gateway.admin.outlier 下的默认值。
+ *
+ * 主动健康检查（{@link HealthCheckService}）判定不健康的服务器同样移出选择，健康检查恢复后重新加入。
+ *
+ * 状态变化以 {@link BackendStateChangedEvent} 发布。服务器池在首次访问时创建，路由变更（{@link RouteChangedEvent}）
+ * 或有效熔断参数变化（{@link EffectiveLimitsChangedEvent}，含上级限额变更）提交后重建，未变化服务器的熔断状态保留。
+ * 请求线程上的熔断器转换只更新服务器状态，选择表重建和事件发布在 backend-pool-maintenance 线程上执行。
+ */
+@Service
+public class BackendHealthService {
+
+    private static final Logger log = LoggerFactory.getLogger(BackendHealthService.class);
+
+    @Autowired
+    private BackendServerRepository backendServerRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private EffectiveLimitService effectiveLimitService;
+
+    @Autowired
+    private HealthCheckService healthCheckService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, BackendPool> pools = new ConcurrentHashMap<>();
+
+    @Value("${gateway.admin.outlier.error-threshold-percentage:50}")
+    private int errorThresholdPercentage;
+
+    @Value("${gateway.admin.outlier.recovery-seconds:30}")
+    private int recoverySeconds;
+
+    @Value("${gateway.admin.outlier.half-open-max-calls:3}")
+    private int halfOpenMaxCalls;
+
+    @Value("${gateway.admin.outlier.max-ejection-percent:50}")
+    private int maxEjectionPercent;
+
+    @Value("${gateway.admin.outlier.slow-start-seconds:30}")
+    private int slowStartSeconds;
+
+    private ExecutorService maintenance;
+
+    @PostConstruct
+    void start() {
+        maintenance = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backend-pool-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthCheckService.addListener(this::onHealthChange);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        maintenance.shutdownNow();
+    }
+
+    /**
+     * 路由的服务器池；首次访问时从数据库加载，路由不存在时返回不缓存的空池
+     */
+    public BackendPool getPool(String routeId) {
+        BackendPool pool = pools.get(routeId);
+        if (pool != null) {
+            return pool;
+        }
+        List<BackendServer> servers = backendServerRepository.findByGatewayConfigId(routeId);
+        if (servers.isEmpty() && !gatewayConfigRepository.existsById(routeId)) {
+            return createPool(routeId, servers, null);
+        }
+        return pools.computeIfAbsent(routeId, key -> createPool(key, servers, null));
+    }
+
+    /**
+     * 为路由选择一台后端服务器；路由没有可用服务器时返回 null
+     */
+    public Host select(String routeId) {
+        return getPool(routeId).select();
+    }
+
+    /**
+     * 记录发往某台服务器的请求结果；服务器已不在池中（路由刚变更）时忽略
+     */
+    public void onResult(String routeId, Long backendId, boolean success) {
+        BackendPool pool = pools.get(routeId);
+        Host host = pool != null ? pool.find(backendId) : null;
+        if (host != null) {
+            pool.onResult(host, success);
+        }
+    }
+
+    /**
+     * 路由下各服务器的当前状态
+     */
+    public List<BackendStatusDTO> getStatus(String routeId) {
+        List<BackendStatusDTO> result = new ArrayList<>();
+        for (Host host : getPool(routeId).getHosts()) {
+            result.add(toStatus(routeId, host));
+        }
+        return result;
+    }
+
+    /**
+     * 当前全部未处于 HEALTHY 状态的服务器（已加载的路由）
+     */
+    public List<BackendStatusDTO> getEjections() {
+        List<BackendStatusDTO> result = new ArrayList<>();
+        for (BackendPool pool : pools.values()) {
+            for (Host host : pool.getHosts()) {
+                if (host.getState() != HostState.HEALTHY) {
+                    result.add(toStatus(pool.getRouteId(), host));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 路由配置变更，提交后重建已加载的服务器池
+     */
+    @EventListener
+    public void onRouteChanged(RouteChangedEvent event) {
+        GatewayConfig config = event.getConfig();
+        String routeId = config.getId();
+        if (config.getStatus() == ConfigStatus.ARCHIVED) {
+            AfterCommit.run(() -> pools.remove(routeId));
+            return;
+        }
+        List<BackendServer> servers = new ArrayList<>(config.getBackendServers());
+        AfterCommit.run(() -> pools.computeIfPresent(routeId, (key, previous) -> createPool(key, servers, previous)));
+    }
+
+    /**
+     * 有效熔断参数变化（路由自身或上级限额），按原服务器列表重建已加载的服务器池；事务提交后发布，直接重建
+     */
+    @EventListener
+    public void onEffectiveLimitsChanged(EffectiveLimitsChangedEvent event) {
+        for (String routeId : event.getRouteIds()) {
+            pools.computeIfPresent(routeId, (key, previous) -> createPool(key, previous.getServers(), previous));
+        }
+    }
+
+    /**
+     * 结束已满 slowStart 时间的权重恢复
+     */
+    @Scheduled(fixedDelayString = "${gateway.admin.outlier.sweep-interval-ms:1000}")
+    public void advance() {
+        for (BackendPool pool : pools.values()) {
+            pool.advance();
+        }
+    }
+
+    private void onHealthChange(HealthStatus status) {
+        for (BackendPool pool : pools.values()) {
+            // healthy 为 null（地址已移出检查）按健康处理
+            pool.onHealthCheck(status.getUri(), !Boolean.FALSE.equals(status.getHealthy()));
+        }
+    }
+
+    private BackendPool createPool(String routeId, List<BackendServer> servers, BackendPool previous) {
+        OutlierPolicy defaults = new OutlierPolicy(errorThresholdPercentage,
+                TimeUnit.SECONDS.toNanos(recoverySeconds), halfOpenMaxCalls, maxEjectionPercent,
+                TimeUnit.SECONDS.toNanos(slowStartSeconds));
+        EffectiveLimits limits = effectiveLimitService.getEffectiveLimits(routeId);
+        OutlierPolicy policy = limits != null && limits.hasCircuitBreaker()
+                ? defaults.withBreaker(limits.toLimiterConfig()) : defaults;
+        return BackendPool.create(routeId, servers, policy, NanoClock.SYSTEM, this::publish, previous,
+                uri -> Boolean.FALSE.equals(healthCheckService.isHealthy(uri)), maintenance);
+    }
+
+    private void publish(BackendPool pool, Host host, HostState from, HostState to) {
+        double failureRate = host.getBreaker().getFailureRate();
+        if (to == HostState.EJECTED || to == HostState.UNHEALTHY) {
+            log.warn("后端服务器已摘除: route={}, backend={}, {} -> {}", pool.getRouteId(), host.getAddress(), from, to);
+        } else {
+            log.info("后端服务器状态变化: route={}, backend={}, {} -> {}", pool.getRouteId(), host.getAddress(), from, to);
+        }
+        eventPublisher.publishEvent(new BackendStateChangedEvent(pool.getRouteId(), host.getBackendId(),
+                host.getAddress(), from, to, failureRate, LocalDateTime.now()));
+    }
+
+    private static BackendStatusDTO toStatus(String routeId, Host host) {
+        BackendStatusDTO status = new BackendStatusDTO();
+        status.setRouteId(routeId);
+        status.setBackendId(host.getBackendId());
+        status.setAddress(host.getAddress());
+        status.setState(host.getState().name());
+        status.setWeight(host.getWeight());
+        status.setEffectiveWeight(host.getEffectiveWeight());
+        double failureRate = host.getBreaker().getFailureRate();
+        status.setFailureRate(failureRate >= 0 ? failureRate : null);
+        status.setTrips(host.getBreaker().getTrips());
+        status.setOpenMillis(host.getBreaker().getOpenMillis());
+        return status;
+    }
+}
@@ -0,0 +1,454 @@
+package com.gateway.admin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.admin.dto.GatewayConfigDTO;
+import com.gateway.admin.entity.ChangeSet;
+import com.gateway.admin.entity.ChangeSetEntry;
+import com.gateway.admin.entity.ChangeSetStatus;
+import com.gateway.admin.entity.ConfigRevision;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.event.ConfigRevisionPublishedEvent;
+import com.gateway.admin.exception.ConfigValidationException;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.repository.ChangeSetEntryRepository;
+import com.gateway.admin.repository.ChangeSetRepository;
+import com.gateway.admin.repository.ConfigRevisionRepository;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.validation.ConfigValidationEngine;
+import com.gateway.admin.validation.ValidationError;
+import com.gateway.admin.validation.ValidationResult;
+import com.gateway.admin.version.ContentHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Change Set Service
+ * 变更集服务
+ *
+ * 将多个配置的修改暂存为草稿，发布时在同一事务内全部生效，只生成一个全局修订号、
+ * 只清理一次缓存、只发布一次修订事件（事务提交后）
+ *
+ * 草稿只保存在变更集条目中，新建的配置在发布前不写入 gateway_configs，不影响线上配置和路由唯一性。
+ * 每个配置只有一个条目：内容修改与状态变更不能暂存在同一条目中，需要先移除已有条目或分两个变更集发布
+ */
+@Service
+@Transactional
+public class ChangeSetService {
+
+    @Autowired
+    private ChangeSetRepository changeSetRepository;
+
+    @Autowired
+    private ChangeSetEntryRepository changeSetEntryRepository;
+
+    @Autowired
+    private ConfigRevisionRepository configRevisionRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Autowired
+    private ConfigValidationEngine configValidationEngine;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * 创建变更集
+     */
+    public ChangeSet createChangeSet(String name, String description, String createdBy) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new GatewayConfigException("变更集名称不能为空");
+        }
+        ChangeSet changeSet = new ChangeSet(name, description, createdBy);
+        changeSet.setCreatedAt(LocalDateTime.now());
+        return changeSetRepository.save(changeSet);
+    }
+
+    /**
+     * 根据ID查找变更集
+     */
+    @Transactional(readOnly = true)
+    public ChangeSet getChangeSet(String changeSetId) {
+        return changeSetRepository.findById(changeSetId)
+                .orElseThrow(() -> new GatewayConfigException("变更集不存在: " + changeSetId));
+    }
+
+    /**
+     * 查找所有编辑中的变更集
+     */
+    @Transactional(readOnly = true)
+    public List<ChangeSet> findOpenChangeSets() {
+        return changeSetRepository.findByStatusOrderByCreatedAtDesc(ChangeSetStatus.OPEN);
+    }
+
+    /**
+     * 暂存新建配置
+     * 只在变更集条目中记录草稿并预先分配配置ID，发布时才写入配置表
+     */
+    public ChangeSetEntry stageCreate(String changeSetId, GatewayConfigDTO configDTO) {
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+        validateDraft(configDTO);
+
+        if (gatewayConfigRepository.existsByDomainAndRequestPathPattern(
+                configDTO.getDomain(), configDTO.getRequestPathPattern())) {
+            throw new GatewayConfigException("域名和路径组合已存在");
+        }
+
+        ChangeSetEntry entry = new ChangeSetEntry(UUID.randomUUID().toString(), ChangeSetEntry.Operation.CREATE);
+        entry.setPayload(writePayload(configDTO));
+        entry.setUpdatedBy(configDTO.getCreatedBy());
+        changeSet.addEntry(entry);
+        return changeSetEntryRepository.save(entry);
+    }
+
+    /**
+     * 暂存配置更新，同一配置在变更集中的多次修改合并为一个条目；已暂存状态变更的配置不能再暂存更新
+     */
+    public ChangeSetEntry stageUpdate(String changeSetId, String configId, GatewayConfigDTO configDTO) {
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+        validateDraft(configDTO);
+
+        ChangeSetEntry entry = changeSetEntryRepository.findByChangeSetIdAndGatewayConfigId(changeSetId, configId)
+                .orElse(null);
+        if (entry == null) {
+            findConfig(configId);
+            entry = newEntry(changeSet, configId, ChangeSetEntry.Operation.UPDATE);
+        } else if (!entry.getOperation().isContentChange()) {
+            throw conflict(entry);
+        }
+
+        entry.setPayload(writePayload(configDTO));
+        entry.setUpdatedBy(configDTO.getUpdatedBy());
+        return changeSetEntryRepository.save(entry);
+    }
+
+    /**
+     * 暂存启用、禁用或删除操作；同一配置的多次状态变更以最后一次为准，已暂存新建或更新的配置不能再暂存状态变更
+     */
+    public ChangeSetEntry stageStatusChange(String changeSetId, String configId,
+                                            ChangeSetEntry.Operation operation, String updatedBy) {
+        if (operation == ChangeSetEntry.Operation.CREATE || operation == ChangeSetEntry.Operation.UPDATE) {
+            throw new GatewayConfigException("不支持的状态变更操作: " + operation.getCode());
+        }
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+
+        ChangeSetEntry entry = changeSetEntryRepository.findByChangeSetIdAndGatewayConfigId(changeSetId, configId)
+                .orElse(null);
+        if (entry != null && entry.getOperation().isContentChange()) {
+            throw conflict(entry);
+        }
+        findConfig(configId);
+        if (entry == null) {
+            entry = newEntry(changeSet, configId, operation);
+        }
+        entry.setOperation(operation);
+        entry.setUpdatedBy(updatedBy);
+        return changeSetEntryRepository.save(entry);
+    }
+
+    /**
+     * 从变更集中移除某个配置的条目
+     */
+    public void unstage(String changeSetId, String configId) {
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+        ChangeSetEntry entry = changeSetEntryRepository.findByChangeSetIdAndGatewayConfigId(changeSetId, configId)
+                .orElseThrow(() -> new GatewayConfigException("变更集中不存在该配置: " + configId));
+
+        changeSet.removeEntry(entry);
+        changeSetRepository.save(changeSet);
+    }
+
+    /**
+     * 放弃变更集
+     */
+    public ChangeSet discardChangeSet(String changeSetId) {
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+        changeSet.setStatus(ChangeSetStatus.DISCARDED);
+        return changeSetRepository.save(changeSet);
+    }
+
+    /**
+     * 发布变更集
+     * 所有条目在同一事务中生效：整体校验、一次批量写入、一个全局修订号、一次缓存清理、一个修订事件
+     *
+     * @return 本次发布的修订；全部条目都没有实际变化时不分配修订号，返回 null
+     */
+    public ConfigRevision publishChangeSet(String changeSetId, String publishedBy) {
+        ChangeSet changeSet = getOpenChangeSet(changeSetId);
+        List<ChangeSetEntry> entries = changeSet.getEntries();
+        if (entries.isEmpty()) {
+            throw new GatewayConfigException("变更集为空: " + changeSetId);
+        }
+
+        List<String> configIds = entries.stream()
+                .map(ChangeSetEntry::getGatewayConfigId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, GatewayConfig> configs = new HashMap<>();
+        for (GatewayConfig config : gatewayConfigRepository.findAllById(configIds)) {
+            configs.put(config.getId(), config);
+        }
+        for (ChangeSetEntry entry : entries) {
+            if (entry.getOperation() == ChangeSetEntry.Operation.CREATE) {
+                configs.put(entry.getGatewayConfigId(), newConfig(entry, now));
+            }
+        }
+
+        Map<String, GatewayConfigDTO> payloads = readPayloads(entries);
+        validatePublish(entries, configs, payloads, configIds);
+
+        // 内容哈希不变的条目（重复保存、启用已启用的配置等）不增加版本号，也不写版本记录
+        List<GatewayConfig> changedConfigs = new ArrayList<>();
+        Map<String, String> previousRoutes = new HashMap<>();
+        for (ChangeSetEntry entry : entries) {
+            GatewayConfig config = configs.get(entry.getGatewayConfigId());
+            boolean create = entry.getOperation() == ChangeSetEntry.Operation.CREATE;
+            if (!create) {
+                previousRoutes.put(config.getId(), routeKey(config.getDomain(), config.getRequestPathPattern()));
+            }
+            String previousHash = create ? null : ContentHasher.hash(config);
+            LocalDateTime previousUpdatedAt = config.getUpdatedAt();
+            String previousUpdatedBy = config.getUpdatedBy();
+
+            applyEntry(entry, config, payloads.get(entry.getGatewayConfigId()));
+            if (!create && previousHash.equals(ContentHasher.hash(config))) {
+                config.setUpdatedAt(previousUpdatedAt);
+                config.setUpdatedBy(previousUpdatedBy);
+                continue;
+            }
+            if (!create) {
+                config.incrementVersion();
+            }
+            config.setUpdatedAt(now);
+            config.setUpdatedBy(publishedBy);
+            changedConfigs.add(config);
+        }
+
+        if (changedConfigs.isEmpty()) {
+            changeSet.setStatus(ChangeSetStatus.PUBLISHED);
+            changeSet.setPublishedAt(now);
+            changeSet.setPublishedBy(publishedBy);
+            changeSetRepository.save(changeSet);
+            return null;
+        }
+
+        ConfigRevision revision = configRevisionRepository.save(new ConfigRevision(
+                changeSet.getId(), "发布变更集: " + changeSet.getName(), changedConfigs.size(), publishedBy));
+        List<GatewayConfig> savedConfigs = saveRoutes(changedConfigs, previousRoutes);
+
+        String versionDescription = "变更集 " + changeSet.getName() + " (修订 " + revision.getRevision() + ")";
+        for (GatewayConfig config : savedConfigs) {
+            versionManagementService.createVersionRecord(config, versionDescription, revision.getRevision());
+        }
+
+        changeSet.setStatus(ChangeSetStatus.PUBLISHED);
+        changeSet.setRevision(revision.getRevision());
+        changeSet.setPublishedAt(now);
+        changeSet.setPublishedBy(publishedBy);
+        changeSetRepository.save(changeSet);
+
+        ConfigRevisionPublishedEvent event = new ConfigRevisionPublishedEvent(revision.getRevision(), changeSet.getId(),
+                savedConfigs.stream().map(GatewayConfig::getId).collect(Collectors.toList()));
+        AfterCommit.run(() -> eventPublisher.publishEvent(event));
+        GatewayConfigCache.evict(cacheManager);
+        return revision;
+    }
+
+    /**
+     * 获取当前最新的全局修订号
+     */
+    @Transactional(readOnly = true)
+    public Long getLatestRevision() {
+        Long latest = configRevisionRepository.findLatestRevision();
+        return latest != null ? latest : 0L;
+    }
+
+    /**
+     * 获取指定修订号之后的全部修订，供数据面增量同步
+     */
+    @Transactional(readOnly = true)
+    public List<ConfigRevision> getRevisionsSince(Long revision) {
+        return configRevisionRepository.findByRevisionGreaterThanOrderByRevisionAsc(revision != null ? revision : 0L);
+    }
+
+    /**
+     * 按不冲突的顺序写入配置
+     * 唯一索引 idx_domain_path 在每条语句执行时检查，变更集内交换两个配置的路由、或新建配置占用另一个配置
+     * 让出的路由时，直接写入会在中间状态冲突：先把路由改变的配置改为以配置ID区分的临时路径并刷新，再写入最终值
+     */
+    private List<GatewayConfig> saveRoutes(List<GatewayConfig> configs, Map<String, String> previousRoutes) {
+        Map<GatewayConfig, String> moved = new HashMap<>();
+        for (GatewayConfig config : configs) {
+            String previous = previousRoutes.get(config.getId());
+            if (previous != null && !previous.equals(routeKey(config.getDomain(), config.getRequestPathPattern()))) {
+                moved.put(config, config.getRequestPathPattern());
+                config.setRequestPathPattern("#" + config.getId());
+            }
+        }
+        if (!moved.isEmpty()) {
+            gatewayConfigRepository.saveAllAndFlush(moved.keySet());
+            moved.forEach(GatewayConfig::setRequestPathPattern);
+        }
+        return gatewayConfigRepository.saveAll(configs);
+    }
+
+    private static String routeKey(String domain, String path) {
+        return domain + '\u0000' + path;
+    }
+
+    private static GatewayConfig newConfig(ChangeSetEntry entry, LocalDateTime now) {
+        GatewayConfig config = new GatewayConfig();
+        config.setId(entry.getGatewayConfigId());
+        config.setVersion(1);
+        config.setCreatedAt(now);
+        config.setCreatedBy(entry.getUpdatedBy());
+        return config;
+    }
+
+    private void applyEntry(ChangeSetEntry entry, GatewayConfig config, GatewayConfigDTO payload) {
+        switch (entry.getOperation()) {
+            case CREATE:
+                GatewayConfigService.applyChanges(config, payload);
+                config.setStatus(ConfigStatus.ACTIVE);
+                break;
+            case UPDATE:
+                GatewayConfigService.applyChanges(config, payload);
+                break;
+            case ENABLE:
+                config.setStatus(ConfigStatus.ACTIVE);
+                break;
+            case DISABLE:
+                config.setStatus(ConfigStatus.DISABLED);
+                break;
+            case DELETE:
+                config.setStatus(ConfigStatus.ARCHIVED);
+                break;
+            default:
+                throw new GatewayConfigException("不支持的变更操作: " + entry.getOperation());
+        }
+    }
+
+    /**
+     * 发布前整体校验：字段格式、配置存在性、域名和路径组合唯一性（含变更集内部冲突）
+     * 删除的配置归档后仍占用原来的域名和路径组合
+     */
+    private void validatePublish(List<ChangeSetEntry> entries, Map<String, GatewayConfig> configs,
+                                 Map<String, GatewayConfigDTO> payloads, List<String> configIds) {
+        ValidationResult result = new ValidationResult(null);
+
+        List<String> payloadIds = new ArrayList<>(payloads.keySet());
+        List<ValidationResult> payloadResults = configValidationEngine.validateAll(
+                payloadIds.stream().map(payloads::get).collect(Collectors.toList()));
+        for (int i = 0; i < payloadIds.size(); i++) {
+            for (ValidationError error : payloadResults.get(i).getErrors()) {
+                result.addError(payloadIds.get(i) + "." + error.getField(), error.getMessage());
+            }
+        }
+
+        Set<String> routeKeys = new HashSet<>();
+        for (ChangeSetEntry entry : entries) {
+            String configId = entry.getGatewayConfigId();
+            GatewayConfig config = configs.get(configId);
+            if (config == null) {
+                result.addError(configId, "配置不存在: " + configId);
+                continue;
+            }
+            GatewayConfigDTO payload = payloads.get(configId);
+            String domain = payload != null ? payload.getDomain() : config.getDomain();
+            String path = payload != null ? payload.getRequestPathPattern() : config.getRequestPathPattern();
+            if (!routeKeys.add(routeKey(domain, path))) {
+                result.addError(configId, "变更集内域名和路径组合重复: " + domain + path);
+            } else if (payload != null
+                    && gatewayConfigRepository.existsByDomainAndRequestPathPatternAndIdNotIn(domain, path, configIds)) {
+                result.addError(configId, "域名和路径组合已存在: " + domain + path);
+            }
+        }
+
+        if (!result.isValid()) {
+            throw new ConfigValidationException(result);
+        }
+    }
+
+    private void validateDraft(GatewayConfigDTO configDTO) {
+        ValidationResult result = configValidationEngine.validate(configDTO);
+        if (!result.isValid()) {
+            throw new ConfigValidationException(result);
+        }
+    }
+
+    private ChangeSet getOpenChangeSet(String changeSetId) {
+        ChangeSet changeSet = getChangeSet(changeSetId);
+        if (!changeSet.isOpen()) {
+            throw new GatewayConfigException("变更集已" + changeSet.getStatus().getDescription() + ": " + changeSetId);
+        }
+        return changeSet;
+    }
+
+    private ChangeSetEntry newEntry(ChangeSet changeSet, String configId, ChangeSetEntry.Operation operation) {
+        if (changeSetEntryRepository.existsInOtherChangeSet(configId, ChangeSetStatus.OPEN, changeSet.getId())) {
+            throw new GatewayConfigException("配置已在其他编辑中的变更集中: " + configId);
+        }
+        ChangeSetEntry entry = new ChangeSetEntry(configId, operation);
+        changeSet.addEntry(entry);
+        return entry;
+    }
+
+    private static GatewayConfigException conflict(ChangeSetEntry entry) {
+        return new GatewayConfigException("配置已在变更集中暂存为" + entry.getOperation().getDescription()
+                + "，请先移除该条目: " + entry.getGatewayConfigId());
+    }
+
+    private GatewayConfig findConfig(String configId) {
+        return gatewayConfigRepository.findById(configId)
+                .orElseThrow(() -> new GatewayConfigException("配置不存在: " + configId));
+    }
+
+    private String writePayload(GatewayConfigDTO configDTO) {
+        try {
+            return objectMapper.writeValueAsString(configDTO);
+        } catch (JsonProcessingException e) {
+            throw new GatewayConfigException("草稿序列化失败", e);
+        }
+    }
+
+    private Map<String, GatewayConfigDTO> readPayloads(List<ChangeSetEntry> entries) {
+        Map<String, GatewayConfigDTO> payloads = new HashMap<>();
+        for (ChangeSetEntry entry : entries) {
+            if (entry.getPayload() == null) {
+                continue;
+            }
+            try {
+                payloads.put(entry.getGatewayConfigId(),
+                        objectMapper.readValue(entry.getPayload(), GatewayConfigDTO.class));
+            } catch (JsonProcessingException e) {
+                throw new GatewayConfigException("草稿反序列化失败: " + entry.getGatewayConfigId(), e);
+            }
+        }
+        return payloads;
+    }
+}
@@ -0,0 +1,136 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.HeavyHitterDTO;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.limiter.ClientRateLimiter;
+import com.gateway.admin.limiter.NanoClock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Client Limiter Service
+ * 按客户端限流服务
+ *
+ * 为 limitKey 为 IP / USER / PATH 的限流配置维护 {@link ClientRateLimiter}，按配置ID缓存，
+ * 配置更新（updatedAt 变化）后重新编译。每个限流器的内存由 sketch 尺寸和热点表容量决定，
+ * 可通过 {@link #getHeavyHitters} 查看当前请求量最大的客户端。
+ */
+@Service
+public class ClientLimiterService {
+
+    @Value("${gateway.admin.limiter.client.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${gateway.admin.limiter.client.sketch-width:65536}")
+    private int sketchWidth;
+
+    @Value("${gateway.admin.limiter.client.heavy-hitter-capacity:1024}")
+    private int heavyHitterCapacity;
+
+    private final ConcurrentHashMap<Long, Compiled> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * 按配置的计数维度为一次请求获取许可
+     *
+     * @param config   限流配置
+     * @param clientIp 客户端IP
+     * @param user     用户标识，未认证时为 null
+     * @param path     请求路径
+     * @return 未超过该客户端的限额时返回 true；配置不是按客户端限流时总是返回 true
+     */
+    public boolean tryAcquire(LimiterConfig config, String clientIp, String user, String path) {
+        if (config == null || !config.isPerClient()) {
+            return true;
+        }
+        String key;
+        switch (config.getLimitKey()) {
+            case IP:
+                key = clientIp;
+                break;
+            case USER:
+                key = user;
+                break;
+            default:
+                key = path;
+                break;
+        }
+        return key == null || limiterFor(config).tryAcquire(key);
+    }
+
+    /**
+     * 当前请求量最大的客户端，按估计请求量从高到低排序
+     *
+     * @param limiterConfigId 限流配置ID
+     * @param limit           最多返回的条数
+     */
+    public List<HeavyHitterDTO> getHeavyHitters(Long limiterConfigId, int limit) {
+        Compiled compiled = limiters.get(limiterConfigId);
+        if (compiled == null) {
+            return Collections.emptyList();
+        }
+        ClientRateLimiter limiter = compiled.limiter;
+        long now = NanoClock.SYSTEM.nanoTime();
+        String limitKey = limiter.getConfig().getLimitKey().name();
+        return limiter.topClients(Math.max(0, limit)).stream()
+                .map(hitter -> {
+                    HeavyHitterDTO dto = new HeavyHitterDTO();
+                    dto.setClientKey(hitter.getKey());
+                    dto.setLimitKey(limitKey);
+                    dto.setEstimatedRequests(hitter.getEstimate());
+                    dto.setWindowLimit(limiter.getWindowLimit());
+                    dto.setWindowSeconds(TimeUnit.NANOSECONDS.toSeconds(limiter.getWindowNanos()));
+                    dto.setRejected(hitter.getRejected());
+                    dto.setTrackedSeconds(TimeUnit.NANOSECONDS.toSeconds(now - hitter.getTrackedSinceNanos()));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 丢弃配置对应的限流器（配置删除或取消按客户端限流时调用）
+     */
+    public void evict(Long limiterConfigId) {
+        limiters.remove(limiterConfigId);
+    }
+
+    private ClientRateLimiter limiterFor(LimiterConfig config) {
+        if (config.getId() == null) {
+            throw new GatewayConfigException("按客户端限流的配置尚未保存");
+        }
+        Compiled compiled = limiters.get(config.getId());
+        if (compiled != null && Objects.equals(compiled.updatedAt, config.getUpdatedAt())) {
+            return compiled.limiter;
+        }
+        return limiters.compute(config.getId(), (id, existing) -> {
+            if (existing != null && Objects.equals(existing.updatedAt, config.getUpdatedAt())) {
+                return existing;
+            }
+            try {
+                return new Compiled(config.getUpdatedAt(), new ClientRateLimiter(
+                        config, sketchDepth, sketchWidth, heavyHitterCapacity, NanoClock.SYSTEM));
+            } catch (IllegalArgumentException e) {
+                throw new GatewayConfigException("按客户端限流配置不正确: " + e.getMessage(), e);
+            }
+        }).limiter;
+    }
+
+    private static final class Compiled {
+
+        final LocalDateTime updatedAt;
+        final ClientRateLimiter limiter;
+
+        Compiled(LocalDateTime updatedAt, ClientRateLimiter limiter) {
+            this.updatedAt = updatedAt;
+            this.limiter = limiter;
+        }
+    }
+}
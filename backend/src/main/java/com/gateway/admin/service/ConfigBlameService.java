@@ -0,0 +1,185 @@
+package com.gateway.admin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.gateway.admin.dto.FieldBlameDTO;
+import com.gateway.admin.entity.ConfigFieldBlame;
+import com.gateway.admin.entity.ConfigVersion;
+import com.gateway.admin.event.RouteChangedEvent;
+import com.gateway.admin.repository.ConfigFieldBlameRepository;
+import com.gateway.admin.version.ContentHasher;
+import com.gateway.admin.version.SnapshotDiffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Configuration Blame Service
+ * 配置字段归属服务
+ *
+ * 为每个配置聚合维护“字段 → 最后修改的版本/修订/操作人/时间”索引。字段以快照中的 JSON Pointer 路径标识，
+ * 子对象按自然键定位（如 /backends/10.0.0.1:8080/weight）。每次写入版本记录时，用新快照各叶子字段的指纹
+ * 与索引中的指纹比较，只更新变化的字段，维护开销与字段数成正比，与历史长度无关；查询单个字段为一次唯一索引查找。
+ * 索引只描述当前存在的字段，字段被删除时对应行一并删除。
+ * 索引随 {@link RouteChangedEvent} 在写入版本记录的同一事务内更新。
+ */
+@Service
+@Transactional
+public class ConfigBlameService {
+
+    @Autowired
+    private ConfigFieldBlameRepository configFieldBlameRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    /**
+     * 用新版本快照更新字段归属索引；索引建立之前已有历史的配置先按保留的历史重建一次
+     */
+    @EventListener
+    public void onRouteChanged(RouteChangedEvent event) {
+        ConfigVersion record = event.getVersion();
+        String configId = record.getGatewayConfigId();
+        if (record.getVersion() > 1 && !isIndexed(configId)) {
+            rebuild(configId, record.getVersion() - 1);
+        }
+        record(configId, record.getVersion(), record.getRevision(),
+                record.getCreatedBy(), record.getCreatedAt(), event.getSnapshot());
+    }
+
+    /**
+     * 按保留的版本历史重建配置的字段归属索引
+     * 早于最早保留版本的修改无法追溯，这些字段归属到最早保留的版本
+     */
+    public void rebuild(String configId) {
+        rebuild(configId, Integer.MAX_VALUE);
+    }
+
+    private void rebuild(String configId, int upToVersion) {
+        clear(configId);
+        versionManagementService.forEachSnapshot(configId, upToVersion, (record, snapshot) ->
+                record(configId, record.getVersion(), record.getRevision(),
+                        record.getCreatedBy(), record.getCreatedAt(), snapshot));
+    }
+
+    /**
+     * 按新版本快照更新配置的字段归属
+     *
+     * @param configId 配置ID
+     * @param version  版本号
+     * @param revision 全局修订号，可为 null
+     * @param operator 操作人
+     * @param time     修改时间
+     * @param snapshot 该版本的完整快照
+     */
+    public void record(String configId, int version, Long revision, String operator,
+                       LocalDateTime time, JsonNode snapshot) {
+        Map<String, Long> fields = new HashMap<>();
+        collectFields("", snapshot, fields);
+
+        List<ConfigFieldBlame> changed = new ArrayList<>();
+        List<ConfigFieldBlame> removed = new ArrayList<>();
+        for (ConfigFieldBlame blame : configFieldBlameRepository.findByGatewayConfigId(configId)) {
+            Long hash = fields.remove(blame.getFieldPath());
+            if (hash == null) {
+                removed.add(blame);
+            } else if (!hash.equals(blame.getValueHash())) {
+                changed.add(update(blame, hash, version, revision, operator, time));
+            }
+        }
+        for (Map.Entry<String, Long> field : fields.entrySet()) {
+            changed.add(update(new ConfigFieldBlame(configId, field.getKey()),
+                    field.getValue(), version, revision, operator, time));
+        }
+
+        if (!removed.isEmpty()) {
+            configFieldBlameRepository.deleteAllInBatch(removed);
+        }
+        if (!changed.isEmpty()) {
+            configFieldBlameRepository.saveAll(changed);
+        }
+    }
+
+    /**
+     * 检查配置是否已建立字段归属索引
+     */
+    @Transactional(readOnly = true)
+    public boolean isIndexed(String configId) {
+        return configFieldBlameRepository.existsByGatewayConfigId(configId);
+    }
+
+    /**
+     * 清除配置的字段归属索引（重建前调用）
+     */
+    public void clear(String configId) {
+        configFieldBlameRepository.deleteByConfigId(configId);
+    }
+
+    /**
+     * 查询单个字段最后一次修改的归属
+     *
+     * @param configId 配置ID
+     * @param path     字段路径，如 /backends/10.0.0.1:8080/weight
+     */
+    @Transactional(readOnly = true)
+    public Optional<FieldBlameDTO> getFieldBlame(String configId, String path) {
+        return configFieldBlameRepository.findByGatewayConfigIdAndFieldPath(configId, path).map(this::toDTO);
+    }
+
+    /**
+     * 查询路径前缀下全部字段的归属，前缀为空时返回整个配置，按路径排序
+     */
+    @Transactional(readOnly = true)
+    public List<FieldBlameDTO> getBlame(String configId, String pathPrefix) {
+        return configFieldBlameRepository.findByGatewayConfigIdAndFieldPathStartingWithOrderByFieldPathAsc(
+                        configId, pathPrefix != null ? pathPrefix : "")
+                .stream()
+                .map(this::toDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 收集快照中的叶子字段：对象逐层展开，其它节点（标量、数组）作为一个字段
+     */
+    private static void collectFields(String path, JsonNode node, Map<String, Long> fields) {
+        if (!node.isObject()) {
+            fields.put(path, ContentHasher.fingerprint(node));
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> children = node.fields();
+        while (children.hasNext()) {
+            Map.Entry<String, JsonNode> child = children.next();
+            collectFields(path + "/" + SnapshotDiffer.escape(child.getKey()), child.getValue(), fields);
+        }
+    }
+
+    private static ConfigFieldBlame update(ConfigFieldBlame blame, long hash, int version, Long revision,
+                                           String operator, LocalDateTime time) {
+        blame.setValueHash(hash);
+        blame.setVersion(version);
+        blame.setRevision(revision);
+        blame.setModifiedBy(operator);
+        blame.setModifiedAt(time);
+        return blame;
+    }
+
+    private FieldBlameDTO toDTO(ConfigFieldBlame blame) {
+        FieldBlameDTO dto = new FieldBlameDTO();
+        dto.setConfigId(blame.getGatewayConfigId());
+        dto.setPath(blame.getFieldPath());
+        dto.setVersion(blame.getVersion());
+        dto.setRevision(blame.getRevision());
+        dto.setModifiedAt(blame.getModifiedAt());
+        dto.setModifiedBy(blame.getModifiedBy());
+        return dto;
+    }
+}
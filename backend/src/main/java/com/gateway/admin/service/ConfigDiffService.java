@@ -0,0 +1,117 @@
+package com.gateway.admin.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.dto.ConfigDiffDTO;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.version.SnapshotChange;
+import com.gateway.admin.version.SnapshotDiffer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Configuration Diff Service
+ * 配置版本对比服务
+ *
+ * 两个版本的快照中集合均按自然键（后端 host:port、Header名称、IP/CIDR、扩展类型）组织为对象，
+ * 因此一次线性遍历即可得到字段级与集合元素级差异。版本历史不可变，结果按 (configId, from, to) 缓存。
+ * 快照中的认证密钥在写入版本历史时已替换为占位值，差异结果不再单独屏蔽。
+ */
+@Service
+@Transactional(readOnly = true)
+public class ConfigDiffService {
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    /**
+     * 对比配置的两个版本
+     * 结果缓存的条目数和存活时间受 gateway.admin.cache 限制；版本内容被改写时只清除涉及该版本的条目
+     */
+    @Cacheable(value = "configDiffs", key = "#configId + '_' + #fromVersion + '_' + #toVersion")
+    public ConfigDiffDTO compareVersions(String configId, Integer fromVersion, Integer toVersion) {
+        if (fromVersion == null || toVersion == null) {
+            throw new GatewayConfigException("对比版本不能为空");
+        }
+        ObjectNode from = versionManagementService.getVersionSnapshot(configId, fromVersion);
+        ObjectNode to = fromVersion.equals(toVersion) ? from : versionManagementService.getVersionSnapshot(configId, toVersion);
+        return toDiffDTO(configId, fromVersion, toVersion, SnapshotDiffer.diff(from, to));
+    }
+
+    /**
+     * 获取最近N次变更，每项为相邻两个版本之间的差异，按版本倒序
+     * 按版本顺序一次遍历保留的历史，连续的增量在上一个快照上应用，每个版本只还原一次
+     */
+    public List<ConfigDiffDTO> getRecentChanges(String configId, int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        Deque<ConfigDiffDTO> recent = new ArrayDeque<>();
+        ObjectNode[] previous = new ObjectNode[1];
+        int[] previousVersion = new int[1];
+        versionManagementService.forEachSnapshot(configId, Integer.MAX_VALUE, (record, snapshot) -> {
+            // 回调中的快照会被下一个增量原地修改，差异结果引用的节点须来自副本
+            ObjectNode current = snapshot.deepCopy();
+            if (previous[0] != null) {
+                recent.addFirst(toDiffDTO(configId, previousVersion[0], record.getVersion(),
+                        SnapshotDiffer.diff(previous[0], current)));
+                if (recent.size() > limit) {
+                    recent.removeLast();
+                }
+            }
+            previous[0] = current;
+            previousVersion[0] = record.getVersion();
+        });
+        return new ArrayList<>(recent);
+    }
+
+    private ConfigDiffDTO toDiffDTO(String configId, Integer fromVersion, Integer toVersion, List<SnapshotChange> changes) {
+        ConfigDiffDTO dto = new ConfigDiffDTO(configId, fromVersion, toVersion);
+        List<ConfigDiffDTO.FieldChangeDTO> items = new ArrayList<>(changes.size());
+        int added = 0;
+        int removed = 0;
+        int modified = 0;
+        for (SnapshotChange change : changes) {
+            ConfigDiffDTO.FieldChangeDTO item = new ConfigDiffDTO.FieldChangeDTO();
+            List<String> segments = splitPath(change.getPath());
+            item.setPath(change.getPath());
+            item.setSegments(segments);
+            item.setSection(segments.isEmpty() ? null : segments.get(0));
+            item.setChangeType(change.getType().getCode());
+
+            item.setOldValue(change.getOldValue());
+            item.setNewValue(change.getNewValue());
+            items.add(item);
+
+            switch (change.getType()) {
+                case ADDED -> added++;
+                case REMOVED -> removed++;
+                default -> modified++;
+            }
+        }
+        dto.setChanges(items);
+        dto.setAdded(added);
+        dto.setRemoved(removed);
+        dto.setModified(modified);
+        return dto;
+    }
+
+    private static List<String> splitPath(String path) {
+        if (path == null || path.length() <= 1) {
+            return Collections.emptyList();
+        }
+        String[] parts = path.substring(1).split("/", -1);
+        List<String> segments = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            segments.add(SnapshotDiffer.unescape(part));
+        }
+        return segments;
+    }
+}
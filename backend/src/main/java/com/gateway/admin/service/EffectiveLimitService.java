@@ -0,0 +1,183 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.entity.LimiterConfig.LimitLevel;
+import com.gateway.admin.event.EffectiveLimitsChangedEvent;
+import com.gateway.admin.event.RouteChangedEvent;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.limiter.EffectiveLimits;
+import com.gateway.admin.limiter.LimitHierarchy;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.repository.LimiterConfigRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Effective Limit Service
+ * 分级限额继承服务
+ *
+ * 维护全局、项目（cmdbProject）、域名三级上级限流配置，并为每条激活的路由预先计算继承合并后的有效限额（{@link LimitHierarchy}）。
+ * 上级限额保存或路由配置变更在事务提交后只重新计算受影响的路由，请求处理时 {@link #getEffectiveLimits} 为一次哈希查找。
+ * 有效限额确实变化的路由以 {@link EffectiveLimitsChangedEvent} 发布。
+ */
+@Service
+public class EffectiveLimitService {
+
+    private static final Logger log = LoggerFactory.getLogger(EffectiveLimitService.class);
+
+    @Autowired
+    private LimiterConfigRepository limiterConfigRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final LimitHierarchy hierarchy = new LimitHierarchy();
+
+    /**
+     * 在接收请求之前加载；自调用不经过事务代理，显式开启事务
+     */
+    @PostConstruct
+    void init() {
+        transactionTemplate.executeWithoutResult(status -> rebuild());
+    }
+
+    /**
+     * 从数据库重新加载全部层级和路由
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<LimiterConfig> levels = limiterConfigRepository.findByLevelNot(LimitLevel.ROUTE);
+        List<LimitHierarchy.Route> routes = new ArrayList<>();
+        for (Object[] row : gatewayConfigRepository.findLimitPlacements(ConfigStatus.ACTIVE)) {
+            routes.add(new LimitHierarchy.Route((String) row[0], (String) row[1], (String) row[2],
+                    (LimiterConfig) row[3]));
+        }
+        hierarchy.reset(levels, routes);
+        log.info("有效限额已重建: {} 个上级限额, {} 条路由", levels.size(), routes.size());
+    }
+
+    /**
+     * 路由的有效限额；路由不存在或未激活（草稿、停用、归档）时返回 null
+     */
+    public EffectiveLimits getEffectiveLimits(String routeId) {
+        return hierarchy.get(routeId);
+    }
+
+    /**
+     * 查询某一上级层级的全部限流配置
+     */
+    @Transactional(readOnly = true)
+    public List<LimiterConfig> getLevelLimits(LimitLevel level) {
+        return limiterConfigRepository.findByLevelOrderByScopeKeyAsc(level);
+    }
+
+    /**
+     * 保存上级层级的限流配置，提交后重新计算其下的路由
+     *
+     * @param level    GLOBAL、PROJECT 或 DOMAIN
+     * @param scopeKey 项目名或域名；GLOBAL 层级忽略
+     * @param limits   限额（只使用其中的限额字段）
+     */
+    @Transactional
+    public LimiterConfig saveLevelLimits(LimitLevel level, String scopeKey, LimiterConfig limits) {
+        String key = validateScope(level, scopeKey);
+        if (limits == null) {
+            throw new GatewayConfigException("限流配置不能为空");
+        }
+        LimiterConfig entity = limiterConfigRepository.findFirstByLevelAndScopeKey(level, key)
+                .orElseGet(() -> {
+                    LimiterConfig created = new LimiterConfig();
+                    created.setLevel(level);
+                    created.setScopeKey(key);
+                    return created;
+                });
+        LimitHierarchy.copyLimits(limits, entity);
+        LimiterConfig saved = limiterConfigRepository.save(entity);
+
+        LimiterConfig snapshot = LimitHierarchy.copyOf(saved);
+        AfterCommit.run(() -> {
+            List<String> changed = hierarchy.putLevel(level, key, snapshot);
+            log.info("{} 层级限额已更新: scope={}, {} 条路由的有效限额变化", level, key, changed.size());
+            publishChanged(changed);
+        });
+        return saved;
+    }
+
+    /**
+     * 删除上级层级的限流配置，其下的路由改为继承更上一级
+     */
+    @Transactional
+    public void deleteLevelLimits(LimitLevel level, String scopeKey) {
+        String key = validateScope(level, scopeKey);
+        LimiterConfig entity = limiterConfigRepository.findFirstByLevelAndScopeKey(level, key)
+                .orElseThrow(() -> new GatewayConfigException("限流配置不存在: " + level + " " + key));
+        limiterConfigRepository.delete(entity);
+        AfterCommit.run(() -> {
+            List<String> changed = hierarchy.putLevel(level, key, null);
+            log.info("{} 层级限额已删除: scope={}, {} 条路由的有效限额变化", level, key, changed.size());
+            publishChanged(changed);
+        });
+    }
+
+    /**
+     * 路由配置变更（新建、修改、启停、归档、回滚），提交后只重新计算该路由；路由不再激活时移除
+     */
+    @EventListener
+    public void onRouteChanged(RouteChangedEvent event) {
+        GatewayConfig config = event.getConfig();
+        String routeId = config.getId();
+        if (config.getStatus() != ConfigStatus.ACTIVE) {
+            AfterCommit.run(() -> {
+                if (hierarchy.removeRoute(routeId)) {
+                    publishChanged(List.of(routeId));
+                }
+            });
+            return;
+        }
+        String project = config.getCmdbProject();
+        String domain = config.getDomain();
+        LimiterConfig own = config.getLimiterConfig() != null ? LimitHierarchy.copyOf(config.getLimiterConfig()) : null;
+        AfterCommit.run(() -> {
+            if (hierarchy.putRoute(routeId, project, domain, own)) {
+                publishChanged(List.of(routeId));
+            }
+        });
+    }
+
+    private void publishChanged(List<String> routeIds) {
+        if (!routeIds.isEmpty()) {
+            eventPublisher.publishEvent(new EffectiveLimitsChangedEvent(routeIds));
+        }
+    }
+
+    private static String validateScope(LimitLevel level, String scopeKey) {
+        if (level == null || level == LimitLevel.ROUTE) {
+            throw new GatewayConfigException("路由层级的限流配置随网关配置保存: " + level);
+        }
+        if (level == LimitLevel.GLOBAL) {
+            return null;
+        }
+        if (scopeKey == null || scopeKey.isBlank()) {
+            throw new GatewayConfigException(level + " 层级的限流配置必须指定项目或域名");
+        }
+        return scopeKey.trim();
+    }
+}
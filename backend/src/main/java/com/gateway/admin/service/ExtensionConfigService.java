@@ -2,16 +2,23 @@ package com.gateway.admin.service;
 
 import com.gateway.admin.entity.*;
 import com.gateway.admin.repository.ExtensionConfigRepository;
+import com.gateway.admin.repository.GatewayConfigRepository;
 import com.gateway.admin.repository.SecurityAuthConfigRepository;
 import com.gateway.admin.repository.DynamicHeaderInjectionRepository;
 import com.gateway.admin.dto.ExtensionConfigDTO;
 import com.gateway.admin.dto.SecurityAuthConfigDTO;
 import com.gateway.admin.dto.DynamicHeaderInjectionDTO;
+import com.gateway.admin.exception.ConfigValidationException;
 import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.validation.ConfigValidationEngine;
+import com.gateway.admin.validation.ValidationResult;
+import com.gateway.admin.version.ContentHasher;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -19,6 +26,9 @@ import java.util.stream.Collectors;
 /**
  * Extension Configuration Service
  * 扩展配置服务类
+ *
+ * 扩展配置是网关配置内容的一部分：增删改与网关配置的更新一样增加版本号、写版本记录（同时更新内容哈希、
+ * 发布路由变更事件）并清理配置缓存；内容没有变化的更新不产生新版本
  */
 @Service
 @Transactional
@@ -33,10 +43,22 @@ public class ExtensionConfigService {
     @Autowired
     private DynamicHeaderInjectionRepository dynamicHeaderInjectionRepository;
 
+    @Autowired
+    private ConfigValidationEngine configValidationEngine;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     /**
      * 创建扩展配置
      */
-    public ExtensionConfig createExtensionConfig(ExtensionConfigDTO dto, GatewayConfig gatewayConfig) {
+    public ExtensionConfig createExtensionConfig(ExtensionConfigDTO dto, GatewayConfig gatewayConfig, String updatedBy) {
         validateExtensionConfig(dto);
         
         ExtensionConfig extensionConfig = new ExtensionConfig(dto.getExtensionType());
@@ -59,17 +81,22 @@ public class ExtensionConfigService {
             extensionConfig.setDynamicHeaderInjections(injections);
         }
 
-        return extensionConfigRepository.save(extensionConfig);
+        ExtensionConfig savedConfig = extensionConfigRepository.save(extensionConfig);
+        gatewayConfig.getExtensionConfigs().add(savedConfig);
+        recordVersion(gatewayConfig, null, updatedBy, "新增扩展配置: " + dto.getExtensionType());
+        return savedConfig;
     }
 
     /**
      * 更新扩展配置
      */
-    public ExtensionConfig updateExtensionConfig(Long id, ExtensionConfigDTO dto) {
+    public ExtensionConfig updateExtensionConfig(Long id, ExtensionConfigDTO dto, String updatedBy) {
         ExtensionConfig existingConfig = extensionConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("扩展配置不存在: " + id));
 
         validateExtensionConfig(dto);
+        GatewayConfig gatewayConfig = existingConfig.getGatewayConfig();
+        String previousHash = ContentHasher.hash(gatewayConfig);
         
         existingConfig.setEnabled(dto.getEnabled());
         existingConfig.setDescription(dto.getDescription());
@@ -85,17 +112,22 @@ public class ExtensionConfigService {
             updateDynamicHeaderInjections(existingConfig, dto.getDynamicHeaderInjections());
         }
 
-        return extensionConfigRepository.save(existingConfig);
+        ExtensionConfig savedConfig = extensionConfigRepository.save(existingConfig);
+        recordVersion(gatewayConfig, previousHash, updatedBy, "更新扩展配置: " + existingConfig.getExtensionType());
+        return savedConfig;
     }
 
     /**
      * 删除扩展配置
      */
-    public void deleteExtensionConfig(Long id) {
+    public void deleteExtensionConfig(Long id, String updatedBy) {
         ExtensionConfig config = extensionConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("扩展配置不存在: " + id));
-        
+
+        GatewayConfig gatewayConfig = config.getGatewayConfig();
+        gatewayConfig.getExtensionConfigs().remove(config);
         extensionConfigRepository.delete(config);
+        recordVersion(gatewayConfig, null, updatedBy, "删除扩展配置: " + config.getExtensionType());
     }
 
     /**
@@ -198,91 +230,29 @@ public class ExtensionConfigService {
     }
 
     /**
-     * 验证扩展配置
+     * 扩展配置变化后增加所属网关配置的版本号并写版本记录
+     *
+     * @param previousHash 修改前的内容哈希，与修改后相同时不产生新版本；为 null 表示总是记录
      */
-    private void validateExtensionConfig(ExtensionConfigDTO dto) {
-        if (dto.getExtensionType() == null || dto.getExtensionType().trim().isEmpty()) {
-            throw new GatewayConfigException("扩展类型不能为空");
-        }
-
-        // 验证安全认证配置
-        if ("SECURITY_AUTH".equals(dto.getExtensionType()) && dto.getSecurityAuthConfig() != null) {
-            validateSecurityAuthConfig(dto.getSecurityAuthConfig());
-        }
-
-        // 验证动态Header注入配置
-        if ("DYNAMIC_HEADER".equals(dto.getExtensionType()) && dto.getDynamicHeaderInjections() != null) {
-            for (DynamicHeaderInjectionDTO injection : dto.getDynamicHeaderInjections()) {
-                validateDynamicHeaderInjection(injection);
-            }
+    private void recordVersion(GatewayConfig config, String previousHash, String updatedBy, String description) {
+        if (previousHash != null && previousHash.equals(ContentHasher.hash(config))) {
+            return;
         }
+        config.setUpdatedAt(LocalDateTime.now());
+        config.setUpdatedBy(updatedBy);
+        config.incrementVersion();
+        gatewayConfigRepository.save(config);
+        versionManagementService.createVersionRecord(config, description);
+        GatewayConfigCache.evict(cacheManager);
     }
 
     /**
-     * 验证安全认证配置
+     * 验证扩展配置，一次性返回全部错误
      */
-    private void validateSecurityAuthConfig(SecurityAuthConfigDTO dto) {
-        if (dto.getAuthType() == null) {
-            throw new GatewayConfigException("认证类型不能为空");
-        }
-
-        SecurityAuthConfig.AuthType authType = SecurityAuthConfig.AuthType.valueOf(dto.getAuthType());
-        
-        switch (authType) {
-            case BASIC:
-                if (dto.getUsername() == null || dto.getUsername().trim().isEmpty()) {
-                    throw new GatewayConfigException("基础认证用户名不能为空");
-                }
-                if (dto.getPassword() == null || dto.getPassword().trim().isEmpty()) {
-                    throw new GatewayConfigException("基础认证密码不能为空");
-                }
-                break;
-            case API_KEY:
-                if (dto.getApiKey() == null || dto.getApiKey().trim().isEmpty()) {
-                    throw new GatewayConfigException("API密钥不能为空");
-                }
-                break;
-            case JWT:
-                if (dto.getJwtSecret() == null || dto.getJwtSecret().trim().isEmpty()) {
-                    throw new GatewayConfigException("JWT密钥不能为空");
-                }
-                break;
-            case OAUTH2:
-                if (dto.getOauth2ClientId() == null || dto.getOauth2ClientId().trim().isEmpty()) {
-                    throw new GatewayConfigException("OAuth2客户端ID不能为空");
-                }
-                if (dto.getOauth2ClientSecret() == null || dto.getOauth2ClientSecret().trim().isEmpty()) {
-                    throw new GatewayConfigException("OAuth2客户端密钥不能为空");
-                }
-                break;
-        }
-    }
-
-    /**
-     * 验证动态Header注入配置
-     */
-    private void validateDynamicHeaderInjection(DynamicHeaderInjectionDTO dto) {
-        if (dto.getHeaderName() == null || dto.getHeaderName().trim().isEmpty()) {
-            throw new GatewayConfigException("Header名称不能为空");
-        }
-
-        if (dto.getValueType() == null) {
-            throw new GatewayConfigException("值类型不能为空");
-        }
-
-        DynamicHeaderInjection.ValueType valueType = DynamicHeaderInjection.ValueType.valueOf(dto.getValueType());
-        
-        switch (valueType) {
-            case STATIC:
-                if (dto.getHeaderValue() == null || dto.getHeaderValue().trim().isEmpty()) {
-                    throw new GatewayConfigException("静态值不能为空");
-                }
-                break;
-            case EXPRESSION:
-                if (dto.getValueExpression() == null || dto.getValueExpression().trim().isEmpty()) {
-                    throw new GatewayConfigException("表达式不能为空");
-                }
-                break;
+    private void validateExtensionConfig(ExtensionConfigDTO dto) {
+        ValidationResult result = configValidationEngine.validate(dto);
+        if (!result.isValid()) {
+            throw new ConfigValidationException(result);
         }
     }
 
@@ -0,0 +1,27 @@
+package com.gateway.admin.service;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+/**
+ * Gateway Config Cache
+ * 所有写入配置的路径（单个配置、变更集发布、回滚、IP规则导入等）共用的配置缓存清理；
+ * 不使用 @CacheEvict，它不保证在事务提交之后才清理
+ */
+final class GatewayConfigCache {
+
+    static final String NAME = "gatewayConfigs";
+
+    private GatewayConfigCache() {
+    }
+
+    /**
+     * 在当前事务提交后清空配置缓存，避免提交前的并发读取把旧值重新放回缓存
+     */
+    static void evict(CacheManager cacheManager) {
+        Cache cache = cacheManager.getCache(NAME);
+        if (cache != null) {
+            AfterCommit.run(cache::clear);
+        }
+    }
+}
@@ -5,20 +5,32 @@ import com.gateway.admin.entity.ConfigStatus;
 import com.gateway.admin.repository.GatewayConfigRepository;
 import com.gateway.admin.dto.GatewayConfigDTO;
 import com.gateway.admin.dto.GatewayConfigSearchDTO;
+import com.gateway.admin.exception.ConfigValidationException;
 import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.validation.ConfigValidationEngine;
+import com.gateway.admin.validation.ValidationResult;
+import com.gateway.admin.version.ContentHasher;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Gateway Configuration Service
@@ -34,10 +46,24 @@ public class GatewayConfigService {
     @Autowired
     private VersionManagementService versionManagementService;
 
+    @Autowired
+    private ConfigValidationEngine configValidationEngine;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 全量校验时每页加载的配置数
+     */
+    @Value("${gateway.admin.validation.page-size:500}")
+    private int validationPageSize;
+
     /**
      * 创建新的网关配置
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public GatewayConfig createConfig(GatewayConfigDTO configDTO) {
         // 验证域名和路径组合的唯一性
         if (gatewayConfigRepository.existsByDomainAndRequestPathPattern(
@@ -69,14 +95,15 @@ public class GatewayConfigService {
         
         // 创建版本记录
         versionManagementService.createVersionRecord(savedConfig, "初始版本");
-        
+
+        evictConfigCache();
         return savedConfig;
     }
 
     /**
      * 更新网关配置
+     * 更新后内容哈希不变时视为空操作：不增加版本号、不写版本记录和审计记录、不清理缓存
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public GatewayConfig updateConfig(String id, GatewayConfigDTO configDTO) {
         GatewayConfig existingConfig = gatewayConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("配置不存在: " + id));
@@ -87,22 +114,19 @@ public class GatewayConfigService {
             throw new GatewayConfigException("域名和路径组合已存在");
         }
 
-        // 保存旧版本信息用于版本管理
-        String oldDescription = existingConfig.getDescription();
-        
+        // 子对象可能被其他服务单独修改，以当前实际内容计算更新前的哈希
+        String previousHash = ContentHasher.hash(existingConfig);
+        LocalDateTime previousUpdatedAt = existingConfig.getUpdatedAt();
+        String previousUpdatedBy = existingConfig.getUpdatedBy();
+
         // 更新配置
-        existingConfig.setDomain(configDTO.getDomain());
-        existingConfig.setRequestPathPattern(configDTO.getRequestPathPattern());
-        existingConfig.setBackendForwardPath(configDTO.getBackendForwardPath());
-        existingConfig.setCmdbProject(configDTO.getCmdbProject());
-        existingConfig.setDescription(configDTO.getDescription());
-        existingConfig.setUpdatedAt(LocalDateTime.now());
-        existingConfig.setUpdatedBy(configDTO.getUpdatedBy());
+        applyChanges(existingConfig, configDTO);
 
-        // 更新扩展数据
-        if (configDTO.getExtensionType() != null) {
-            existingConfig.setExtensionType(configDTO.getExtensionType());
-            existingConfig.setExtensionData(configDTO.getExtensionData());
+        if (previousHash.equals(ContentHasher.hash(existingConfig))) {
+            // 还原审计字段，实体不再是脏数据，事务提交时不会产生UPDATE和审计行
+            existingConfig.setUpdatedAt(previousUpdatedAt);
+            existingConfig.setUpdatedBy(previousUpdatedBy);
+            return existingConfig;
         }
 
         // 增加版本号
@@ -114,9 +138,30 @@ public class GatewayConfigService {
         versionManagementService.createVersionRecord(updatedConfig, 
                 "更新配置: " + configDTO.getDescription());
 
+        evictConfigCache();
         return updatedConfig;
     }
 
+    /**
+     * 将DTO中的可编辑字段写入配置实体
+     * 不依赖Bean状态，变更集发布时复用
+     */
+    static void applyChanges(GatewayConfig config, GatewayConfigDTO configDTO) {
+        config.setDomain(configDTO.getDomain());
+        config.setRequestPathPattern(configDTO.getRequestPathPattern());
+        config.setBackendForwardPath(configDTO.getBackendForwardPath());
+        config.setCmdbProject(configDTO.getCmdbProject());
+        config.setDescription(configDTO.getDescription());
+        config.setUpdatedAt(LocalDateTime.now());
+        config.setUpdatedBy(configDTO.getUpdatedBy());
+
+        // 更新扩展数据
+        if (configDTO.getExtensionType() != null) {
+            config.setExtensionType(configDTO.getExtensionType());
+            config.setExtensionData(configDTO.getExtensionData());
+        }
+    }
+
     /**
      * 根据ID查找配置
      */
@@ -168,10 +213,12 @@ public class GatewayConfigService {
     /**
      * 启用配置
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public GatewayConfig enableConfig(String id, String updatedBy) {
         GatewayConfig config = gatewayConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("配置不存在: " + id));
+        if (config.getStatus() == ConfigStatus.ACTIVE) {
+            return config;
+        }
 
         config.setStatus(ConfigStatus.ACTIVE);
         config.setUpdatedAt(LocalDateTime.now());
@@ -183,16 +230,19 @@ public class GatewayConfigService {
         // 创建版本记录
         versionManagementService.createVersionRecord(updatedConfig, "启用配置");
 
+        evictConfigCache();
         return updatedConfig;
     }
 
     /**
      * 禁用配置
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public GatewayConfig disableConfig(String id, String updatedBy) {
         GatewayConfig config = gatewayConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("配置不存在: " + id));
+        if (config.getStatus() == ConfigStatus.DISABLED) {
+            return config;
+        }
 
         config.setStatus(ConfigStatus.DISABLED);
         config.setUpdatedAt(LocalDateTime.now());
@@ -204,16 +254,19 @@ public class GatewayConfigService {
         // 创建版本记录
         versionManagementService.createVersionRecord(updatedConfig, "禁用配置");
 
+        evictConfigCache();
         return updatedConfig;
     }
 
     /**
      * 删除配置
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public void deleteConfig(String id) {
         GatewayConfig config = gatewayConfigRepository.findById(id)
                 .orElseThrow(() -> new GatewayConfigException("配置不存在: " + id));
+        if (config.getStatus() == ConfigStatus.ARCHIVED) {
+            return;
+        }
 
         // 软删除：将状态设置为归档
         config.setStatus(ConfigStatus.ARCHIVED);
@@ -224,6 +277,7 @@ public class GatewayConfigService {
         
         // 创建版本记录
         versionManagementService.createVersionRecord(config, "删除配置");
+        evictConfigCache();
     }
 
     /**
@@ -261,9 +315,14 @@ public class GatewayConfigService {
     /**
      * 批量更新配置状态
      */
-    @CacheEvict(value = "gatewayConfigs", allEntries = true)
     public void batchUpdateStatus(List<String> ids, ConfigStatus status, String updatedBy) {
-        List<GatewayConfig> configs = gatewayConfigRepository.findAllById(ids);
+        // 状态已经是目标状态的配置不产生新版本
+        List<GatewayConfig> configs = gatewayConfigRepository.findAllById(ids).stream()
+                .filter(config -> config.getStatus() != status)
+                .collect(Collectors.toList());
+        if (configs.isEmpty()) {
+            return;
+        }
         
         for (GatewayConfig config : configs) {
             config.setStatus(status);
@@ -277,48 +336,66 @@ public class GatewayConfigService {
         }
         
         gatewayConfigRepository.saveAll(configs);
+        evictConfigCache();
     }
 
     /**
-     * 验证配置数据
+     * 获取全部配置的内容哈希（配置ID -> 内容哈希），数据面据此跳过未变化的配置
      */
-    public void validateConfig(GatewayConfigDTO configDTO) {
-        if (configDTO.getDomain() == null || configDTO.getDomain().trim().isEmpty()) {
-            throw new GatewayConfigException("域名不能为空");
-        }
-        
-        if (configDTO.getRequestPathPattern() == null || configDTO.getRequestPathPattern().trim().isEmpty()) {
-            throw new GatewayConfigException("请求路径模式不能为空");
-        }
-        
-        if (configDTO.getBackendForwardPath() == null || configDTO.getBackendForwardPath().trim().isEmpty()) {
-            throw new GatewayConfigException("后端转发路径不能为空");
-        }
-        
-        // 验证域名格式
-        if (!isValidDomain(configDTO.getDomain())) {
-            throw new GatewayConfigException("域名格式不正确");
+    @Transactional(readOnly = true)
+    public Map<String, String> getContentHashes() {
+        Map<String, String> hashes = new HashMap<>();
+        for (Object[] row : gatewayConfigRepository.findContentHashes()) {
+            hashes.put((String) row[0], (String) row[2]);
         }
-        
-        // 验证路径格式
-        if (!isValidPathPattern(configDTO.getRequestPathPattern())) {
-            throw new GatewayConfigException("请求路径模式格式不正确");
+        return hashes;
+    }
+
+    /**
+     * 配置内容确实发生变化时才清理配置缓存
+     */
+    private void evictConfigCache() {
+        GatewayConfigCache.evict(cacheManager);
+    }
+
+    /**
+     * 验证配置数据，一次性返回全部错误
+     */
+    public void validateConfig(GatewayConfigDTO configDTO) {
+        ValidationResult result = configValidationEngine.validate(configDTO);
+        if (!result.isValid()) {
+            throw new ConfigValidationException(result);
         }
     }
 
     /**
-     * 验证域名格式
+     * 批量验证配置数据（批量导入）
      */
-    private boolean isValidDomain(String domain) {
-        // 简单的域名验证，可以根据需要增强
-        return domain != null && domain.matches("^[a-zA-Z0-9]([a-zA-Z0-9\\-]{0,61}[a-zA-Z0-9])?(\\.[a-zA-Z0-9]([a-zA-Z0-9\\-]{0,61}[a-zA-Z0-9])?)*$");
+    public List<ValidationResult> validateConfigs(List<GatewayConfigDTO> configDTOs) {
+        return configValidationEngine.validateAll(configDTOs);
     }
 
     /**
-     * 验证路径模式格式
+     * 全量校验已保存的配置，仅返回未通过校验的结果
+     * 按ID分页加载，每页校验后清空持久化上下文，内存占用与页大小成正比而与配置总数无关
      */
-    private boolean isValidPathPattern(String pathPattern) {
-        // 简单的路径验证，可以根据需要增强
-        return pathPattern != null && pathPattern.startsWith("/") && pathPattern.length() > 1;
+    @Transactional(readOnly = true)
+    public List<ValidationResult> validateAllConfigs() {
+        List<ValidationResult> invalid = new ArrayList<>();
+        String afterId = "";
+        while (true) {
+            List<GatewayConfig> page = gatewayConfigRepository.findByIdGreaterThanOrderByIdAsc(
+                    afterId, PageRequest.of(0, validationPageSize));
+            if (page.isEmpty()) {
+                return invalid;
+            }
+            for (ValidationResult result : configValidationEngine.validateAllConfigs(page)) {
+                if (!result.isValid()) {
+                    invalid.add(result);
+                }
+            }
+            afterId = page.get(page.size() - 1).getId();
+            entityManager.clear();
+        }
     }
-} 
\ No newline at end of file
+}
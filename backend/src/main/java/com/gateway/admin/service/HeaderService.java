@@ -4,6 +4,9 @@ import com.gateway.admin.entity.*;
 import com.gateway.admin.dto.HeaderConfigDTO;
 import com.gateway.admin.dto.CspHeaderDTO;
 import com.gateway.admin.dto.CacheHeaderDTO;
+import com.gateway.admin.validation.ConfigValidationEngine;
+import com.gateway.admin.validation.ValidationResult;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +22,9 @@ import java.util.stream.Collectors;
 @Transactional
 public class HeaderService {
 
+    @Autowired
+    private ConfigValidationEngine configValidationEngine;
+
     /**
      * 将Header配置转换为DTO
      */
@@ -232,72 +238,12 @@ public class HeaderService {
     }
 
     /**
-     * 验证Header配置
+     * 验证Header配置，一次性返回全部错误
      */
     public void validateHeaderConfig(HeaderConfigDTO dto) {
-        // 验证Header名称格式
-        if (dto.getRequestHeaders() != null) {
-            for (HeaderConfigDTO.HeaderDTO header : dto.getRequestHeaders()) {
-                validateHeaderName(header.getName());
-            }
-        }
-
-        if (dto.getResponseHeaders() != null) {
-            for (HeaderConfigDTO.HeaderDTO header : dto.getResponseHeaders()) {
-                validateHeaderName(header.getName());
-            }
-        }
-
-        // 验证CSP配置
-        if (dto.getCspHeader() != null) {
-            validateCspHeader(dto.getCspHeader());
-        }
-
-        // 验证Cache配置
-        if (dto.getCacheHeader() != null) {
-            validateCacheHeader(dto.getCacheHeader());
-        }
-    }
-
-    /**
-     * 验证Header名称
-     */
-    private void validateHeaderName(String name) {
-        if (name == null || name.trim().isEmpty()) {
-            throw new IllegalArgumentException("Header名称不能为空");
-        }
-        
-        // 检查Header名称格式
-        if (!name.matches("^[A-Za-z0-9\\-]+$")) {
-            throw new IllegalArgumentException("Header名称格式不正确: " + name);
-        }
-    }
-
-    /**
-     * 验证CSP Header
-     */
-    private void validateCspHeader(CspHeaderDTO cspHeader) {
-        if (CspHeader.CspTemplateType.CUSTOM.getCode().equals(cspHeader.getTemplateType())) {
-            if (cspHeader.getCspPolicy() == null || cspHeader.getCspPolicy().trim().isEmpty()) {
-                throw new IllegalArgumentException("自定义CSP策略不能为空");
-            }
-        }
-    }
-
-    /**
-     * 验证Cache Header
-     */
-    private void validateCacheHeader(CacheHeaderDTO cacheHeader) {
-        if (cacheHeader.getMaxAgeSeconds() != null && cacheHeader.getMaxAgeSeconds() < 0) {
-            throw new IllegalArgumentException("max-age不能为负数");
-        }
-        
-        if (cacheHeader.getStaleWhileRevalidateSeconds() != null && cacheHeader.getStaleWhileRevalidateSeconds() < 0) {
-            throw new IllegalArgumentException("stale-while-revalidate不能为负数");
-        }
-        
-        if (cacheHeader.getStaleIfErrorSeconds() != null && cacheHeader.getStaleIfErrorSeconds() < 0) {
-            throw new IllegalArgumentException("stale-if-error不能为负数");
+        ValidationResult result = configValidationEngine.validate(dto);
+        if (!result.isValid()) {
+            throw new IllegalArgumentException(result.getMessage());
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,160 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.repository.BackendServerRepository;
+import com.gateway.admin.upstream.HealthChecker;
+import com.gateway.admin.upstream.HealthStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Health Check Service
+ * 后端服务器主动健康检查服务
+ *
+ * 定期从数据库读取激活路由下配置了 healthCheckUrl 的服务器，按检查地址去重后交给 {@link HealthChecker}：
+ * 多条路由共用的地址只检查一次，单次检查超时取各服务器 timeoutSeconds 的最小值（不超过检查间隔）。
+ * 检查结果保存在内存健康表中，结论变化时通知已注册的监听器（{@link BackendHealthService} 据此把不健康的服务器移出选择）。
+ */
+@Service
+public class HealthCheckService {
+
+    private static final Logger log = LoggerFactory.getLogger(HealthCheckService.class);
+
+    @Autowired
+    private BackendServerRepository backendServerRepository;
+
+    @Value("${gateway.admin.health-check.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.admin.health-check.interval-seconds:10}")
+    private int intervalSeconds;
+
+    /**
+     * 检查间隔随机浮动的比例
+     */
+    @Value("${gateway.admin.health-check.jitter:0.2}")
+    private double jitter;
+
+    @Value("${gateway.admin.health-check.healthy-threshold:2}")
+    private int healthyThreshold;
+
+    @Value("${gateway.admin.health-check.unhealthy-threshold:3}")
+    private int unhealthyThreshold;
+
+    @Value("${gateway.admin.health-check.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${gateway.admin.health-check.connect-timeout-seconds:3}")
+    private int connectTimeoutSeconds;
+
+    private final List<HealthChecker.Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService notifier;
+    private HealthChecker checker;
+
+    @PostConstruct
+    void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backend-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 结论变化在单独的线程上按顺序通知，重建服务器池不占用 HttpClient 的 I/O 线程
+        notifier = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "backend-health-notify");
+            thread.setDaemon(true);
+            return thread;
+        });
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(connectTimeoutSeconds))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        checker = new HealthChecker(client, scheduler, Duration.ofSeconds(intervalSeconds), jitter,
+                healthyThreshold, unhealthyThreshold, maxInFlight);
+        checker.setListener(this::onHealthChange, notifier);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        checker.close();
+        scheduler.shutdownNow();
+        notifier.shutdownNow();
+    }
+
+    /**
+     * 按数据库中的服务器更新检查目标；新增服务器最迟在一个同步周期后开始检查
+     */
+    @Scheduled(fixedDelayString = "${gateway.admin.health-check.sync-interval-ms:30000}")
+    public void syncTargets() {
+        if (!enabled) {
+            return;
+        }
+        List<BackendServer> servers = backendServerRepository.findHealthCheckTargets(ConfigStatus.ACTIVE);
+        Map<URI, Duration> wanted = HealthChecker.targets(servers, Duration.ofSeconds(intervalSeconds),
+                server -> log.warn("健康检查地址格式不正确，跳过: backend={}:{}, url={}",
+                        server.getHostname(), server.getPort(), server.getHealthCheckUrl()));
+        int before = checker.size();
+        checker.sync(wanted);
+        if (before != wanted.size()) {
+            log.info("健康检查目标已更新: {} -> {}", before, wanted.size());
+        }
+    }
+
+    /**
+     * 地址的健康结论；不是检查目标或尚无结论时返回 null
+     */
+    public Boolean isHealthy(URI uri) {
+        HealthStatus status = checker.getStatus(uri);
+        return status != null ? status.getHealthy() : null;
+    }
+
+    public HealthStatus getStatus(URI uri) {
+        return checker.getStatus(uri);
+    }
+
+    /**
+     * 内存健康表：全部检查地址的最近结果
+     */
+    public List<HealthStatus> getStatuses() {
+        return checker.getStatuses();
+    }
+
+    /**
+     * 注册健康结论变化监听器；在通知线程上按顺序调用，healthy 为 null 表示地址已移出检查、按健康处理
+     */
+    public void addListener(HealthChecker.Listener listener) {
+        listeners.add(listener);
+    }
+
+    private void onHealthChange(HealthStatus status) {
+        if (Boolean.FALSE.equals(status.getHealthy())) {
+            log.warn("健康检查失败，服务器不健康: url={}, error={}", status.getUri(), status.getLastError());
+        } else if (status.getHealthy() == null) {
+            log.info("不健康的地址已移出健康检查: url={}", status.getUri());
+        } else {
+            log.info("健康检查恢复: url={}", status.getUri());
+        }
+        for (HealthChecker.Listener listener : listeners) {
+            listener.onHealthChange(status);
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.archive.AuditArchiveStore;
+import com.gateway.admin.archive.AuditTableRegistry;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.repository.ConfigVersionRepository;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.version.ContentHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * History Compaction Service
+ * 历史数据清理服务
+ *
+ * 按 gateway.admin.version.max-history-count / auto-cleanup-days 定期清理 config_versions
+ * 与 Envers 审计表（*_AUDIT、REVINFO）。所有删除按索引分小批执行，每批独立的短事务，
+ * 批次之间按上一批耗时自适应休眠，避免长时间持有锁或挤占在线流量。
+ * 启用审计冷归档（gateway.admin.archive.enabled）时，审计行只有在写入归档段之后才会被删除。
+ * 启动后还会一次性为引入内容哈希之前写入的配置补齐 content_hash。
+ * 清理和补齐都在独立的 history-compaction 线程上执行，批次间的休眠不占用调度线程和启动线程。
+ */
+@Service
+public class HistoryCompactionService {
+
+    private static final Logger log = LoggerFactory.getLogger(HistoryCompactionService.class);
+
+    private static final String METRIC_PREFIX = "gateway.admin.compaction";
+
+    @Autowired
+    private ConfigVersionRepository configVersionRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AuditTableRegistry auditTableRegistry;
+
+    @Autowired
+    private AuditArchiveStore auditArchiveStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${gateway.admin.version.max-history-count:50}")
+    private int maxHistoryCount;
+
+    @Value("${gateway.admin.version.auto-cleanup-days:90}")
+    private int autoCleanupDays;
+
+    @Value("${gateway.admin.version.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${gateway.admin.version.compaction.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 批次间最小休眠时间（毫秒）
+     */
+    @Value("${gateway.admin.version.compaction.min-pause-ms:50}")
+    private long minPauseMs;
+
+    /**
+     * 批次间休眠时间与上一批耗时之比；1.0 表示清理任务最多占用一半的数据库时间
+     */
+    @Value("${gateway.admin.version.compaction.throttle-ratio:1.0}")
+    private double throttleRatio;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean stopping = new AtomicBoolean(false);
+    private final AtomicLong processedConfigs = new AtomicLong();
+    private final AtomicLong lastRunReclaimed = new AtomicLong();
+    private final Map<String, Counter> reclaimedCounters = new ConcurrentHashMap<>();
+    private volatile double progress;
+
+    private Timer runTimer;
+    private ExecutorService worker;
+
+    @PostConstruct
+    void start() {
+        worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "history-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder(METRIC_PREFIX + ".running", running, flag -> flag.get() ? 1 : 0)
+                .description("历史清理任务是否正在运行")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".progress", this, service -> service.progress)
+                .description("清理进度(0-1)：版本历史阶段占前一半，审计表阶段占后一半")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".configs.processed", processedConfigs, AtomicLong::get)
+                .description("本次运行已处理的配置数")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".last.run.reclaimed", lastRunReclaimed, AtomicLong::get)
+                .description("上次运行回收的行数")
+                .register(meterRegistry);
+        runTimer = Timer.builder(METRIC_PREFIX + ".duration")
+                .description("历史清理任务耗时")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        stopping.set(true);
+        worker.shutdownNow();
+    }
+
+    /**
+     * 定时清理，提交到 history-compaction 线程后立即返回
+     */
+    @Scheduled(cron = "${gateway.admin.version.compaction.cron:0 30 3 * * *}")
+    public void scheduledCompaction() {
+        if (enabled) {
+            worker.execute(this::compact);
+        }
+    }
+
+    /**
+     * 执行一次清理，返回回收的行数；已有任务运行时直接返回 0
+     */
+    public long compact() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("历史清理任务正在运行，跳过本次触发");
+            return 0;
+        }
+        processedConfigs.set(0);
+        progress = 0;
+        long start = System.nanoTime();
+        long reclaimed = 0;
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(autoCleanupDays);
+            reclaimed += compactConfigVersions(cutoff);
+            progress = 0.5;
+            reclaimed += compactAuditTables(cutoff);
+            log.info("历史清理完成: 回收 {} 行, 处理 {} 个配置", reclaimed, processedConfigs.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("历史清理被中断: 已回收 {} 行", reclaimed);
+        } finally {
+            lastRunReclaimed.set(reclaimed);
+            runTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            progress = 1;
+            running.set(false);
+        }
+        return reclaimed;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public double getProgress() {
+        return progress;
+    }
+
+    // ==================== config_versions ====================
+
+    /**
+     * 一次查出全部候选配置后逐个处理；每个配置保留最新的连续一段版本（不超过 maxHistoryCount 且不早于截止时间，
+     * 最新版本总是保留），先把保留段中最早的版本改写为检查点，再分批删除更早的记录
+     * 候选集合只在开始时计算一次，清理期间新写入的版本留到下一次清理
+     */
+    private long compactConfigVersions(LocalDateTime cutoff) throws InterruptedException {
+        List<String> candidates = transactionTemplate.execute(status ->
+                configVersionRepository.findCompactionCandidates(maxHistoryCount, cutoff));
+        if (candidates == null) {
+            return 0;
+        }
+        long reclaimed = 0;
+        for (int i = 0; i < candidates.size() && !stopping.get(); i++) {
+            reclaimed += compactConfig(candidates.get(i), cutoff);
+            processedConfigs.incrementAndGet();
+            progress = 0.5 * (i + 1) / candidates.size();
+        }
+        return reclaimed;
+    }
+
+    private long compactConfig(String configId, LocalDateTime cutoff) throws InterruptedException {
+        List<Object[]> history = transactionTemplate.execute(status ->
+                configVersionRepository.findRetentionMetadata(configId));
+        if (history == null) {
+            return 0;
+        }
+        int keep = 1;
+        while (keep < history.size() && keep < maxHistoryCount
+                && !((LocalDateTime) history.get(keep)[2]).isBefore(cutoff)) {
+            keep++;
+        }
+        if (keep >= history.size()) {
+            return 0;
+        }
+
+        Object[] oldestKept = history.get(keep - 1);
+        if (!Boolean.TRUE.equals(oldestKept[3])) {
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status ->
+                    versionManagementService.foldIntoCheckpoint(configId, (Integer) oldestKept[1]));
+            throttle(start);
+        }
+
+        List<Long> ids = new ArrayList<>(history.size() - keep);
+        for (int i = keep; i < history.size(); i++) {
+            ids.add((Long) history.get(i)[0]);
+        }
+        for (int from = 0; from < ids.size() && !stopping.get(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> configVersionRepository.deleteAllByIdInBatch(chunk));
+            reclaimed("config_versions", chunk.size());
+            throttle(start);
+        }
+        return ids.size();
+    }
+
+    // ==================== 内容哈希补齐 ====================
+
+    /**
+     * 启动后为 content_hash 为空的配置补算内容哈希，否则数据面按哈希比较时这些配置每次都被视为已变化，
+     * 首次写入也无法按内容短路。按ID分批推进，每批一个短事务；计算期间被修改的配置由那次写入自行设置哈希
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillContentHashes() {
+        worker.execute(this::backfillAll);
+    }
+
+    private void backfillAll() {
+        long filled = 0;
+        String afterId = "";
+        try {
+            while (!stopping.get()) {
+                long start = System.nanoTime();
+                String from = afterId;
+                List<GatewayConfig> configs = transactionTemplate.execute(status -> {
+                    List<GatewayConfig> batch = gatewayConfigRepository.findByContentHashIsNullAndIdGreaterThanOrderByIdAsc(
+                            from, PageRequest.of(0, batchSize));
+                    for (GatewayConfig config : batch) {
+                        gatewayConfigRepository.backfillContentHash(config.getId(), config.getVersion(),
+                                ContentHasher.hash(config));
+                    }
+                    return batch;
+                });
+                if (configs == null || configs.isEmpty()) {
+                    break;
+                }
+                filled += configs.size();
+                afterId = configs.get(configs.size() - 1).getId();
+                throttle(start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (filled > 0) {
+            log.info("配置内容哈希补齐完成: 处理 {} 个配置", filled);
+        }
+    }
+
+    // ==================== Envers 审计表 ====================
+
+    /**
+     * 删除早于截止时间的审计行，但每个实体至少保留最新的一行审计记录；随后删除不再被引用的 REVINFO
+     */
+    private long compactAuditTables(LocalDateTime cutoff) throws InterruptedException {
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Long cutoffRev = jdbcTemplate.queryForObject(
+                "SELECT MAX(REV) FROM REVINFO WHERE REVTSTMP < ?", Long.class, cutoffMillis);
+        if (cutoffRev == null) {
+            return 0;
+        }
+
+        List<String> tables = auditTableRegistry.findAuditTables();
+        long reclaimed = 0;
+        for (int i = 0; i < tables.size() && !stopping.get(); i++) {
+            progress = 0.5 + 0.5 * i / (tables.size() + 1);
+            String table = tables.get(i);
+            // 启用冷归档时只删除已归档（水位以下）的审计行
+            long maxRevision = auditArchiveStore.isEnabled()
+                    ? Math.min(cutoffRev, auditArchiveStore.getArchivedRevision(table)) : cutoffRev;
+            reclaimed += purgeAuditTable(table, maxRevision);
+        }
+        progress = 0.5 + 0.5 * tables.size() / (tables.size() + 1);
+        reclaimed += compactRevisionInfo(tables, cutoffRev);
+        return reclaimed;
+    }
+
+    /**
+     * 删除审计表中修订号不超过 maxRevision 且已有更新记录的行，返回删除行数
+     * 借助 REV 外键索引按修订号升序取一批可删除的 (id, REV)，按主键逐行删除；
+     * 已删除的行不会再被选中，因此游标取本批最大 REV 即可继续
+     *
+     * @param table 审计表名，须来自 {@link AuditTableRegistry}
+     */
+    public long purgeAuditTable(String table, long maxRevision) throws InterruptedException {
+        String select = "SELECT a.id, a.REV FROM " + table + " a WHERE a.REV >= ? AND a.REV <= ? " +
+                "AND EXISTS (SELECT 1 FROM " + table + " b WHERE b.id = a.id AND b.REV > a.REV) " +
+                "ORDER BY a.REV LIMIT ?";
+        String delete = "DELETE FROM " + table + " WHERE id = ? AND REV = ?";
+
+        long reclaimed = 0;
+        long cursor = 0;
+        while (!stopping.get()) {
+            long start = System.nanoTime();
+            List<Object[]> rows = jdbcTemplate.query(select,
+                    (rs, rowNum) -> new Object[]{rs.getObject(1), rs.getLong(2)}, cursor, maxRevision, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(delete, rows));
+            reclaimed(table, rows.size());
+            reclaimed += rows.size();
+            cursor = (Long) rows.get(rows.size() - 1)[1];
+            throttle(start);
+        }
+        return reclaimed;
+    }
+
+    private long compactRevisionInfo(List<String> tables, long cutoffRev) throws InterruptedException {
+        long reclaimed = 0;
+        long cursor = 0;
+        while (!stopping.get()) {
+            long start = System.nanoTime();
+            List<Long> revs = jdbcTemplate.queryForList(
+                    "SELECT REV FROM REVINFO WHERE REV >= ? AND REV <= ? ORDER BY REV LIMIT ?",
+                    Long.class, cursor, cutoffRev, batchSize);
+            if (revs.isEmpty()) {
+                break;
+            }
+            String in = revs.stream().map(String::valueOf).collect(Collectors.joining(","));
+            Set<Long> referenced = new HashSet<>();
+            for (String table : tables) {
+                referenced.addAll(jdbcTemplate.queryForList(
+                        "SELECT DISTINCT REV FROM " + table + " WHERE REV IN (" + in + ")", Long.class));
+            }
+            List<Object[]> unreferenced = revs.stream()
+                    .filter(rev -> !referenced.contains(rev))
+                    .map(rev -> new Object[]{rev})
+                    .collect(Collectors.toList());
+            if (!unreferenced.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate("DELETE FROM REVINFO WHERE REV = ?", unreferenced));
+                reclaimed("REVINFO", unreferenced.size());
+                reclaimed += unreferenced.size();
+            }
+            cursor = revs.get(revs.size() - 1) + 1;
+            throttle(start);
+        }
+        return reclaimed;
+    }
+
+    // ==================== 辅助方法 ====================
+
+    private void reclaimed(String table, int rows) {
+        reclaimedCounters.computeIfAbsent(table, name -> Counter.builder(METRIC_PREFIX + ".rows.reclaimed")
+                        .description("历史清理回收的行数")
+                        .tag("table", name)
+                        .register(meterRegistry))
+                .increment(rows);
+    }
+
+    /**
+     * 按上一批耗时自适应休眠：数据库繁忙时单批耗时变长，休眠随之变长
+     */
+    private void throttle(long batchStartNanos) throws InterruptedException {
+        long elapsedMs = (System.nanoTime() - batchStartNanos) / 1_000_000;
+        long pause = Math.max(minPauseMs, (long) (elapsedMs * throttleRatio));
+        Thread.sleep(pause);
+    }
+}
@@ -0,0 +1,232 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.IpRuleAnalysisReport;
+import com.gateway.admin.dto.IpRuleAnalysisReport.MergeGroupDTO;
+import com.gateway.admin.dto.IpRuleAnalysisReport.RuleFindingDTO;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.entity.IpRule;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.iprule.CidrRule;
+import com.gateway.admin.iprule.IpRuleAnalysis;
+import com.gateway.admin.iprule.IpRuleAnalysis.MergeGroup;
+import com.gateway.admin.iprule.IpRuleAnalysis.Verdict;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.repository.LimiterConfigRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * IP Rule Analysis Service
+ * IP规则遮蔽与冗余分析服务
+ *
+ * 分析见 {@link IpRuleAnalysis}。一键清理删除被遮蔽和重复的规则，可选地把可合并的规则组替换为合并后的前缀；
+ * 两者都不改变任何地址的判定结果。冗余规则只报告不删除。清理通过 JPA 修改规则集合，照常产生审计记录和配置版本。
+ */
+@Service
+@Transactional
+public class IpRuleAnalysisService {
+
+    private static final Logger log = LoggerFactory.getLogger(IpRuleAnalysisService.class);
+
+    @Autowired
+    private LimiterConfigRepository limiterConfigRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    /**
+     * 分析限流配置的IP规则
+     */
+    @Transactional(readOnly = true)
+    public IpRuleAnalysisReport analyze(Long limiterConfigId) {
+        LimiterConfig limiter = findLimiter(limiterConfigId);
+        IpRuleAnalysisReport report = new IpRuleAnalysisReport();
+        long start = System.nanoTime();
+        analyze(limiter, report);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * 一键清理：删除被遮蔽和重复的规则，mergeRules 为 true 时同时合并可合并的规则组
+     *
+     * @return 清理前的分析结果，附带实际删除的规则数和合并的规则组数
+     */
+    public IpRuleAnalysisReport cleanup(Long limiterConfigId, boolean mergeRules, String operator) {
+        LimiterConfig limiter = findLimiter(limiterConfigId);
+        IpRuleAnalysisReport report = new IpRuleAnalysisReport();
+        long start = System.nanoTime();
+        IpRuleAnalysis analysis = analyze(limiter, report);
+
+        Set<Long> removed = new HashSet<>();
+        for (CidrRule rule : analysis.removable()) {
+            removed.add(rule.getRuleId());
+        }
+        List<IpRule> added = new ArrayList<>();
+        int merged = 0;
+        if (mergeRules) {
+            Set<String> occupied = new HashSet<>();
+            for (IpRule rule : limiter.getIpRules()) {
+                if (!removed.contains(rule.getId())) {
+                    occupied.add(rule.getIpOrCidr());
+                }
+            }
+            for (MergeGroup group : analysis.mergeGroups()) {
+                String prefix = group.getPrefix().toString();
+                // 合并结果等于组内某条规则时保留该规则，只删除被它吸收的规则
+                CidrRule survivor = null;
+                for (CidrRule member : group.getMembers()) {
+                    if (member.getCidr().equals(group.getPrefix())) {
+                        survivor = member;
+                    }
+                }
+                if (survivor == null && occupied.contains(prefix)) {
+                    log.warn("合并后的前缀与已有规则冲突，跳过合并: limiter={}, prefix={}", limiterConfigId, prefix);
+                    continue;
+                }
+                for (CidrRule member : group.getMembers()) {
+                    if (member != survivor) {
+                        removed.add(member.getRuleId());
+                    }
+                }
+                if (survivor == null) {
+                    IpRule rule = new IpRule(prefix, group.getMode());
+                    rule.setPriority(group.getPriority());
+                    rule.setDescription("合并 " + group.getMembers().size() + " 条规则");
+                    rule.setLimiterConfig(limiter);
+                    added.add(rule);
+                    occupied.add(prefix);
+                }
+                merged++;
+            }
+        }
+
+        if (!removed.isEmpty() || !added.isEmpty()) {
+            limiter.getIpRules().removeIf(rule -> removed.contains(rule.getId()));
+            limiter.getIpRules().addAll(added);
+            LocalDateTime now = LocalDateTime.now();
+            limiter.setUpdatedAt(now);
+            limiterConfigRepository.save(limiter);
+            recordVersion(limiter, now, operator,
+                    "清理IP规则: 删除 " + removed.size() + " 条，新增合并规则 " + added.size() + " 条");
+        }
+        report.setRemovedRules(removed.size());
+        report.setMergedGroups(merged);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("IP规则清理完成: limiter={}, removed={}, added={}, mergedGroups={}",
+                limiterConfigId, removed.size(), added.size(), merged);
+        return report;
+    }
+
+    private LimiterConfig findLimiter(Long limiterConfigId) {
+        return limiterConfigRepository.findById(limiterConfigId)
+                .orElseThrow(() -> new GatewayConfigException("限流配置不存在: " + limiterConfigId));
+    }
+
+    private IpRuleAnalysis analyze(LimiterConfig limiter, IpRuleAnalysisReport report) {
+        List<CidrRule> parsed = new ArrayList<>();
+        int order = 0;
+        for (IpRule rule : limiter.getIpRules()) {
+            if (Boolean.FALSE.equals(rule.getEnabled())) {
+                continue;
+            }
+            try {
+                parsed.add(CidrRule.of(rule, order++));
+            } catch (IllegalArgumentException e) {
+                RuleFindingDTO finding = new RuleFindingDTO();
+                finding.setRuleId(rule.getId());
+                finding.setIpOrCidr(rule.getIpOrCidr());
+                finding.setMode(rule.getMode() != null ? rule.getMode().name() : null);
+                finding.setPriority(rule.getPriority());
+                finding.setReason(e.getMessage());
+                report.getInvalid().add(finding);
+            }
+        }
+        IpRuleAnalysis analysis = IpRuleAnalysis.of(parsed);
+
+        report.setLimiterConfigId(limiter.getId());
+        report.setTotalRules(limiter.getIpRules().size());
+        report.setAnalyzedRules(analysis.size());
+        List<CidrRule> ranked = analysis.rules();
+        for (int rank = 0; rank < ranked.size(); rank++) {
+            Verdict verdict = analysis.verdict(rank);
+            if (verdict == Verdict.EFFECTIVE) {
+                report.setEffectiveRules(report.getEffectiveRules() + 1);
+                continue;
+            }
+            RuleFindingDTO finding = toFinding(ranked.get(rank), analysis.coveredBy(rank), verdict);
+            if (verdict == Verdict.SHADOWED) {
+                report.getShadowed().add(finding);
+            } else if (verdict == Verdict.DUPLICATE) {
+                report.getDuplicates().add(finding);
+            } else {
+                report.getRedundant().add(finding);
+            }
+        }
+        for (MergeGroup group : analysis.mergeGroups()) {
+            MergeGroupDTO dto = new MergeGroupDTO();
+            dto.setPrefix(group.getPrefix().toString());
+            dto.setMode(group.getMode().name());
+            dto.setPriority(group.getPriority());
+            for (CidrRule member : group.getMembers()) {
+                dto.getRuleIds().add(member.getRuleId());
+                dto.getMembers().add(member.getCidr().toString());
+            }
+            report.getMergeable().add(dto);
+        }
+        report.setRemovableRules(analysis.removable().size());
+        return analysis;
+    }
+
+    private static RuleFindingDTO toFinding(CidrRule rule, CidrRule coveredBy, Verdict verdict) {
+        RuleFindingDTO finding = new RuleFindingDTO();
+        finding.setRuleId(rule.getRuleId());
+        finding.setIpOrCidr(rule.getCidr().toString());
+        finding.setMode(rule.getMode().name());
+        finding.setPriority(rule.getPriority());
+        if (coveredBy != null) {
+            finding.setCoveredByRuleId(coveredBy.getRuleId());
+            finding.setCoveredBy(coveredBy.toString());
+        }
+        switch (verdict) {
+            case DUPLICATE -> finding.setReason("与更靠前的规则前缀和模式相同");
+            case SHADOWED -> finding.setReason(coveredBy != null
+                    ? "整个前缀被更靠前的规则覆盖" : "整个前缀被多条更具体的规则共同覆盖");
+            default -> finding.setReason("单独删除后由同模式的规则或默认结果判定，结果不变");
+        }
+        return finding;
+    }
+
+    /**
+     * 路由级限流配置的规则变化时增加路由配置的版本号并写版本记录
+     */
+    private void recordVersion(LimiterConfig limiter, LocalDateTime now, String operator, String description) {
+        GatewayConfig config = limiter.getGatewayConfig();
+        if (config == null) {
+            return;
+        }
+        config.setUpdatedAt(now);
+        config.setUpdatedBy(operator);
+        config.incrementVersion();
+        gatewayConfigRepository.save(config);
+        versionManagementService.createVersionRecord(config, description);
+        GatewayConfigCache.evict(cacheManager);
+    }
+}
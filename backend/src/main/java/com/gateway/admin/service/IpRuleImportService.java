@@ -0,0 +1,336 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.IpRuleImportReport;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.entity.IpRule;
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.iprule.Cidr;
+import com.gateway.admin.iprule.CidrAggregator;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.repository.LimiterConfigRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * IP Rule Import Service
+ * IP规则批量导入服务
+ *
+ * 逐行流式读取地址列表（每行一个 IP 或 CIDR，# 或 ; 之后为注释，行内第一个空白或逗号之后的内容忽略），
+ * 与同一限流配置中同模式、同优先级的已有规则一起合并为最少前缀（{@link CidrAggregator}），
+ * 同优先级的另一模式规则作为合并屏障，保证合并前后每个地址的判定结果不变。
+ *
+ * 只支持路由级限流配置。新增与删除通过 JDBC 批量执行，不经过 JPA 与 Envers 审计；变更以所属路由的一个配置版本记录追踪。
+ */
+@Service
+public class IpRuleImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(IpRuleImportService.class);
+
+    private static final int MAX_SAMPLES = 20;
+    private static final String IMPORT_DESCRIPTION = "批量导入";
+
+    private static final String SELECT_SQL =
+            "SELECT id, ip_or_cidr, mode, priority, enabled FROM ip_rules WHERE limiter_config_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO ip_rules (limiter_config_id, ip_or_cidr, mode, description, priority, enabled, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM ip_rules WHERE id = ?";
+
+    @Autowired
+    private LimiterConfigRepository limiterConfigRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * 每个 JDBC 批次的语句数
+     */
+    @Value("${gateway.admin.ip-rules.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * 单次导入的最大有效条目数
+     */
+    @Value("${gateway.admin.ip-rules.import.max-entries:2000000}")
+    private int maxEntries;
+
+    /**
+     * 导入地址列表
+     *
+     * @param limiterConfigId 限流配置ID
+     * @param in              地址列表（UTF-8 文本），由调用方关闭
+     * @param mode            导入规则的模式
+     * @param priority        导入规则的优先级
+     * @param replaceExisting 为 true 时替换同模式、同优先级的已有规则；否则与已有规则合并
+     * @param operator        操作人
+     */
+    @Transactional
+    public IpRuleImportReport importRules(Long limiterConfigId, InputStream in, IpRuleMode mode, int priority,
+                                          boolean replaceExisting, String operator) {
+        if (mode == null) {
+            throw new GatewayConfigException("导入规则的模式不能为空");
+        }
+        LimiterConfig limiter = limiterConfigRepository.findById(limiterConfigId)
+                .orElseThrow(() -> new GatewayConfigException("限流配置不存在: " + limiterConfigId));
+        // 上级限额的IP规则不随路由版本记录，批量导入只支持路由级限流配置
+        if (limiter.getLevel() != LimiterConfig.LimitLevel.ROUTE) {
+            throw new GatewayConfigException("只能向路由级限流配置导入IP规则: " + limiterConfigId);
+        }
+        long start = System.nanoTime();
+        IpRuleImportReport report = new IpRuleImportReport();
+        List<Cidr> input = parse(in, report);
+
+        // 按导入规则的分组划分已有规则
+        Map<Cidr, Long> sameGroup = new HashMap<>();
+        List<Long> deletes = new ArrayList<>();
+        List<Cidr> barriers = new ArrayList<>();
+        Set<String> occupied = new HashSet<>();
+        for (ExistingRule rule : jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new ExistingRule(rs.getLong(1),
+                rs.getString(2), rs.getString(3), rs.getInt(4), rs.getBoolean(5)), limiterConfigId)) {
+            Cidr cidr = rule.cidr();
+            boolean samePriority = rule.enabled && rule.priority == priority && cidr != null;
+            if (samePriority && mode.name().equals(rule.mode)) {
+                if (sameGroup.putIfAbsent(cidr, rule.id) != null) {
+                    deletes.add(rule.id);
+                }
+                continue;
+            }
+            if (samePriority) {
+                barriers.add(cidr);
+            }
+            // 其他规则占用的地址文本不能再插入，版本快照按 ipOrCidr 区分规则
+            occupied.add(rule.ipOrCidr);
+            if (cidr != null) {
+                occupied.add(cidr.toString());
+            }
+        }
+        if (!replaceExisting) {
+            input.addAll(sameGroup.keySet());
+        }
+
+        List<Cidr> aggregated = CidrAggregator.aggregate(input, barriers);
+        report.setAggregatedEntries(aggregated.size());
+        report.setCompressionRatio(aggregated.isEmpty() ? 0 : Math.round(100.0 * input.size() / aggregated.size()) / 100.0);
+
+        List<String> inserts = new ArrayList<>();
+        List<Cidr> occupiedBlocks = new ArrayList<>();
+        for (Cidr cidr : aggregated) {
+            String text = cidr.toString();
+            if (sameGroup.remove(cidr) != null) {
+                report.setUnchanged(report.getUnchanged() + 1);
+            } else if (occupied.contains(text)) {
+                occupiedBlocks.add(cidr);
+            } else {
+                inserts.add(text);
+            }
+        }
+        if (!occupiedBlocks.isEmpty()) {
+            unmerge(limiterConfigId, input, occupiedBlocks, sameGroup, occupied, inserts, report);
+        }
+        // 被合并吸收或被替换的同组规则
+        deletes.addAll(sameGroup.values());
+
+        if (!inserts.isEmpty() || !deletes.isEmpty()) {
+            write(limiter, inserts, deletes, mode, priority, operator);
+        }
+        report.setInserted(inserts.size());
+        report.setDeleted(deletes.size());
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("IP规则导入完成: limiter={}, mode={}, priority={}, parsed={}, invalid={}, aggregated={}, ratio={}, "
+                        + "inserted={}, deleted={}, {} ms", limiterConfigId, mode, priority, report.getParsedEntries(),
+                report.getInvalidEntries(), report.getAggregatedEntries(), report.getCompressionRatio(),
+                report.getInserted(), report.getDeleted(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * 合并后的前缀文本已被其他规则占用时，改为逐条处理被合并进该前缀的原始条目：
+     * 被另一条保留的原始条目包含的不再单独插入，同组已有规则保留，文本同样被占用的条目逐条计为冲突
+     */
+    private void unmerge(Long limiterConfigId, List<Cidr> input, List<Cidr> occupiedBlocks, Map<Cidr, Long> sameGroup,
+                         Set<String> occupied, List<String> inserts, IpRuleImportReport report) {
+        Collections.sort(occupiedBlocks);
+        Set<Cidr> originals = new TreeSet<>();
+        for (Cidr cidr : input) {
+            // 合并结果互不重叠，包含该条目的只可能是排序位置不大于它的最后一个前缀
+            int index = Collections.binarySearch(occupiedBlocks, cidr);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            if (index >= 0 && occupiedBlocks.get(index).contains(cidr)) {
+                originals.add(cidr);
+            }
+        }
+        Cidr kept = null;
+        for (Cidr cidr : originals) {
+            if (kept != null && kept.contains(cidr)) {
+                continue;
+            }
+            String text = cidr.toString();
+            if (sameGroup.remove(cidr) != null) {
+                report.setUnchanged(report.getUnchanged() + 1);
+                kept = cidr;
+            } else if (occupied.contains(text)) {
+                report.setConflicts(report.getConflicts() + 1);
+                if (report.getConflictSamples().size() < MAX_SAMPLES) {
+                    report.getConflictSamples().add(text);
+                }
+                log.warn("导入的IP规则与已有规则冲突，已跳过: limiter={}, cidr={}", limiterConfigId, text);
+            } else {
+                inserts.add(text);
+                kept = cidr;
+            }
+        }
+    }
+
+    private List<Cidr> parse(InputStream in, IpRuleImportReport report) {
+        List<Cidr> entries = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                report.setTotalLines(report.getTotalLines() + 1);
+                String entry = firstToken(line);
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                try {
+                    entries.add(Cidr.parse(entry));
+                } catch (IllegalArgumentException e) {
+                    report.setInvalidEntries(report.getInvalidEntries() + 1);
+                    if (report.getInvalidSamples().size() < MAX_SAMPLES) {
+                        report.getInvalidSamples().add("第 " + report.getTotalLines() + " 行: " + entry);
+                    }
+                    continue;
+                }
+                if (entries.size() > maxEntries) {
+                    throw new GatewayConfigException("导入条目超过上限: " + maxEntries);
+                }
+            }
+        } catch (IOException e) {
+            throw new GatewayConfigException("读取IP规则列表失败", e);
+        }
+        report.setParsedEntries(entries.size());
+        return entries;
+    }
+
+    /**
+     * 行内第一个条目：去掉注释，截取到第一个空白或逗号
+     */
+    static String firstToken(String line) {
+        int from = 0;
+        int to = line.length();
+        while (from < to && Character.isWhitespace(line.charAt(from))) {
+            from++;
+        }
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '#' || c == ';' || c == ',' || Character.isWhitespace(c)) {
+                to = i;
+                break;
+            }
+        }
+        return line.substring(from, to);
+    }
+
+    private void write(LimiterConfig limiter, List<String> inserts, List<Long> deletes, IpRuleMode mode,
+                       int priority, String operator) {
+        // JDBC 批量写入之前先把持久化上下文中的修改刷入数据库
+        entityManager.flush();
+        jdbcTemplate.batchUpdate(DELETE_SQL, deletes, batchSize, (ps, id) -> ps.setLong(1, id));
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, batchSize, (ps, text) -> {
+            ps.setLong(1, limiter.getId());
+            ps.setString(2, text);
+            ps.setString(3, mode.name());
+            ps.setString(4, IMPORT_DESCRIPTION);
+            ps.setInt(5, priority);
+            ps.setBoolean(6, true);
+            ps.setObject(7, now);
+            ps.setObject(8, now);
+        });
+
+        // 规则集合绕过了 JPA，清除二级缓存后重新加载
+        SessionFactory sessionFactory = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictCollectionData(LimiterConfig.class.getName() + ".ipRules", limiter.getId());
+        sessionFactory.getCache().evictEntityData(IpRule.class);
+        entityManager.refresh(limiter);
+        limiter.setUpdatedAt(now);
+
+        GatewayConfig config = limiter.getGatewayConfig();
+        if (config != null) {
+            config.setUpdatedAt(now);
+            config.setUpdatedBy(operator);
+            config.incrementVersion();
+            gatewayConfigRepository.save(config);
+            versionManagementService.createVersionRecord(config,
+                    "导入IP规则: 新增 " + inserts.size() + " 条，删除 " + deletes.size() + " 条");
+            GatewayConfigCache.evict(cacheManager);
+        }
+    }
+
+    private static final class ExistingRule {
+
+        final long id;
+        final String ipOrCidr;
+        final String mode;
+        final int priority;
+        final boolean enabled;
+
+        ExistingRule(long id, String ipOrCidr, String mode, int priority, boolean enabled) {
+            this.id = id;
+            this.ipOrCidr = ipOrCidr;
+            this.mode = mode;
+            this.priority = priority;
+            this.enabled = enabled;
+        }
+
+        /**
+         * 解析地址；格式不正确的已有规则不参与合并
+         */
+        Cidr cidr() {
+            try {
+                return Cidr.parse(ipOrCidr);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.IpTableReport;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.iprule.Cidr;
+import com.gateway.admin.iprule.IpAddresses;
+import com.gateway.admin.iprule.IpRangeTable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * IP Table Service
+ * 外部IP表服务
+ *
+ * 外部IP表是限流配置通过 ipTable 引用的大型拒绝列表，以 {@link IpRangeTable} 文件存放在
+ * gateway.admin.ip-tables.directory 目录下（文件名为 表名.iprt），不占用 ip_rules 表和 Java 堆。
+ * 发布时逐行流式读取地址列表（每行一个 IP、CIDR 或 起始地址-结束地址，注释规则与 IP 规则导入相同），
+ * 生成新文件后原子替换并立即切换到新表；其他进程（或节点共享的目录）发布的新文件由定时检查发现后重新映射。
+ */
+@Service
+public class IpTableService {
+
+    private static final Logger log = LoggerFactory.getLogger(IpTableService.class);
+
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]{0,63}");
+    private static final int MAX_SAMPLES = 20;
+
+    private final Map<String, IpRangeTable> tables = new ConcurrentHashMap<>();
+
+    @Value("${gateway.admin.ip-tables.directory:data/ip-tables}")
+    private String directory;
+
+    /**
+     * 单次发布的最大有效条目数
+     */
+    @Value("${gateway.admin.ip-tables.max-entries:50000000}")
+    private long maxEntries;
+
+    /**
+     * 发布外部IP表：整体替换同名表
+     *
+     * @param name 表名（字母、数字、下划线和连字符，最长 64 个字符）
+     * @param in   地址列表（UTF-8 文本），由调用方关闭
+     */
+    public IpTableReport publish(String name, InputStream in) {
+        Path path = resolve(name);
+        long start = System.nanoTime();
+        IpTableReport report = new IpTableReport();
+        IpRangeTable.Builder builder = IpRangeTable.builder();
+        long lines = 0;
+        long invalid = 0;
+        List<String> samples = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                String entry = IpRuleImportService.firstToken(line);
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                if (!addEntry(builder, entry)) {
+                    invalid++;
+                    if (samples.size() < MAX_SAMPLES) {
+                        samples.add("第 " + lines + " 行: " + entry);
+                    }
+                    continue;
+                }
+                if (builder.size() > maxEntries) {
+                    throw new GatewayConfigException("IP表条目超过上限: " + maxEntries);
+                }
+            }
+        } catch (IOException e) {
+            throw new GatewayConfigException("读取IP表地址列表失败", e);
+        }
+
+        IpRangeTable table;
+        try {
+            table = builder.writeTo(path);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new GatewayConfigException("写入IP表失败: " + name, e);
+        }
+        tables.put(name, table);
+
+        fill(report, name, table);
+        report.setTotalLines(lines);
+        report.setParsedEntries(builder.size());
+        report.setInvalidEntries(invalid);
+        report.setInvalidSamples(samples);
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        log.info("IP表已发布: name={}, entries={}, invalid={}, ipv4Ranges={}, ipv6Ranges={}, {} bytes, {} ms",
+                name, builder.size(), invalid, table.getIpv4Count(), table.getIpv6Count(),
+                table.getFileBytes(), report.getElapsedMillis());
+        return report;
+    }
+
+    /**
+     * 已映射的外部IP表；首次访问时映射文件
+     *
+     * @throws GatewayConfigException 表不存在或文件格式不正确
+     */
+    public IpRangeTable get(String name) {
+        IpRangeTable table = tables.get(name);
+        if (table != null) {
+            return table;
+        }
+        Path path = resolve(name);
+        if (!Files.isRegularFile(path)) {
+            throw new GatewayConfigException("IP表不存在: " + name);
+        }
+        return tables.computeIfAbsent(name, key -> open(key, path));
+    }
+
+    public IpTableReport describe(String name) {
+        IpTableReport report = new IpTableReport();
+        fill(report, name, get(name));
+        return report;
+    }
+
+    /**
+     * 删除外部IP表；已映射的读者继续使用旧内容直到释放
+     */
+    public void delete(String name) {
+        Path path = resolve(name);
+        try {
+            if (!Files.deleteIfExists(path)) {
+                throw new GatewayConfigException("IP表不存在: " + name);
+            }
+        } catch (IOException e) {
+            throw new GatewayConfigException("删除IP表失败: " + name, e);
+        }
+        tables.remove(name);
+        log.info("IP表已删除: name={}", name);
+    }
+
+    /**
+     * 检查已映射的表对应的文件是否被替换，被替换时重新映射；文件被删除时移除
+     */
+    @Scheduled(fixedDelayString = "${gateway.admin.ip-tables.refresh-interval-ms:5000}")
+    public void refresh() {
+        for (Map.Entry<String, IpRangeTable> entry : tables.entrySet()) {
+            String name = entry.getKey();
+            Path path = resolve(name);
+            if (!entry.getValue().isStale(path)) {
+                continue;
+            }
+            if (!Files.isRegularFile(path)) {
+                tables.remove(name, entry.getValue());
+                log.info("IP表文件已删除，停止使用: name={}", name);
+                continue;
+            }
+            try {
+                IpRangeTable table = open(name, path);
+                tables.replace(name, entry.getValue(), table);
+                log.info("IP表已重新映射: name={}, ipv4Ranges={}, ipv6Ranges={}",
+                        name, table.getIpv4Count(), table.getIpv6Count());
+            } catch (GatewayConfigException e) {
+                log.warn("IP表重新映射失败，继续使用旧表: name={}, {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private static IpRangeTable open(String name, Path path) {
+        try {
+            return IpRangeTable.open(path);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new GatewayConfigException("打开IP表失败: " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 解析 IP、CIDR 或 起始地址-结束地址
+     */
+    private static boolean addEntry(IpRangeTable.Builder builder, String entry) {
+        try {
+            int dash = entry.indexOf('-');
+            if (dash < 0) {
+                builder.add(Cidr.parse(entry));
+                return true;
+            }
+            byte[] first = IpAddresses.parse(entry, 0, dash);
+            byte[] last = IpAddresses.parse(entry, dash + 1, entry.length());
+            if (first == null || last == null) {
+                return false;
+            }
+            builder.addRange(first, last);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new GatewayConfigException("IP表名称不正确: " + name);
+        }
+        Path base = Paths.get(directory).toAbsolutePath().normalize();
+        return base.resolve(name + IpRangeTable.FILE_SUFFIX);
+    }
+
+    private static void fill(IpTableReport report, String name, IpRangeTable table) {
+        report.setName(name);
+        report.setIpv4Ranges(table.getIpv4Count());
+        report.setIpv6Ranges(table.getIpv6Count());
+        report.setFileBytes(table.getFileBytes());
+        report.setCreatedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(table.getCreatedAt()), ZoneId.systemDefault()));
+    }
+}
@@ -0,0 +1,95 @@
+package com.gateway.admin.service;
+
+import com.gateway.admin.dto.LimiterSimulationReport;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.limiter.TrafficReplaySimulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Limiter Simulation Service
+ * 限流配置回放模拟服务
+ *
+ * 在上线前用记录下来的请求轨迹评估一份待发布的 LimiterConfig：会拒绝多少请求、熔断器会打开几次、延迟分布如何变化。
+ * 轨迹文件放在 gateway.admin.simulation.trace-directory 目录下，支持 .gz 压缩。
+ */
+@Service
+public class LimiterSimulationService {
+
+    private static final Logger log = LoggerFactory.getLogger(LimiterSimulationService.class);
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    @Autowired
+    private IpTableService ipTableService;
+
+    @Value("${gateway.admin.simulation.trace-directory:data/traces}")
+    private String traceDirectory;
+
+    /**
+     * 回放轨迹文件
+     *
+     * @param traceFile 轨迹文件名（相对于轨迹目录）
+     * @param proposed  待评估的限流配置
+     * @param route     只回放该路由的请求；为空时回放全部请求
+     */
+    public LimiterSimulationReport simulate(String traceFile, LimiterConfig proposed, String route) {
+        if (proposed == null) {
+            throw new GatewayConfigException("限流配置不能为空");
+        }
+        Path path = resolveTrace(traceFile);
+        String routeFilter = route != null && !route.isBlank() ? route : null;
+
+        TrafficReplaySimulator simulator;
+        try {
+            simulator = new TrafficReplaySimulator(proposed, routeFilter, proposed.getIpTable() != null
+                    ? ipTableService.get(proposed.getIpTable()) : null);
+        } catch (IllegalArgumentException e) {
+            throw new GatewayConfigException("限流配置不正确: " + e.getMessage(), e);
+        }
+        try (InputStream in = open(path)) {
+            LimiterSimulationReport report = simulator.replay(in);
+            log.info("限流回放完成: trace={}, route={}, events={}, admitted={}, rateLimited={}, breakerTrips={}, {} events/s",
+                    traceFile, routeFilter, report.getMatchedEvents(), report.getAdmitted(),
+                    report.getRateLimited(), report.getBreakerTrips(), report.getEventsPerSecond());
+            return report;
+        } catch (IOException e) {
+            throw new GatewayConfigException("读取请求轨迹失败: " + traceFile, e);
+        }
+    }
+
+    private Path resolveTrace(String traceFile) {
+        if (traceFile == null || traceFile.isBlank()) {
+            throw new GatewayConfigException("轨迹文件名不能为空");
+        }
+        Path base = Paths.get(traceDirectory).toAbsolutePath().normalize();
+        Path path = base.resolve(traceFile).normalize();
+        if (!path.startsWith(base)) {
+            throw new GatewayConfigException("轨迹文件必须位于轨迹目录内: " + traceFile);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new GatewayConfigException("轨迹文件不存在: " + traceFile);
+        }
+        return path;
+    }
+
+    private InputStream open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        if (path.getFileName().toString().endsWith(".gz")) {
+            return new GZIPInputStream(in, READ_BUFFER_SIZE);
+        }
+        return new BufferedInputStream(in, READ_BUFFER_SIZE);
+    }
+}
@@ -0,0 +1,449 @@
+package com.gateway.admin.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.version.RoutingTableEntry;
+import com.gateway.admin.version.SnapshotCodec;
+import com.gateway.admin.version.SnapshotDiffer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Routing Table History Service
+ * 路由表时间点还原服务
+ *
+ * 定期把整张路由表（全部配置在该时刻的快照）按配置ID排序写入一个 gzip 压缩的 JSON Lines 检查点文件；
+ * 还原任意时间点 T 时，取不晚于 T 的最近检查点，与 config_versions 中 (检查点时间, T] 内的版本记录
+ * 按配置ID做归并：两侧都按配置ID有序流式读取，内存中只保留当前一个配置的快照，结果逐条交给调用方。
+ *
+ * 增量链断开的配置（基准版本不在检查点中，例如中间版本被清理）需要按版本单独还原。流式结果集未关闭时
+ * 同一连接不能执行其他查询，因此先只读版本号做一遍归并找出这些配置，关闭结果集后加载它们的快照，
+ * 再做带快照内容的第二遍归并。检查点文件保存全部配置，对外还原的路由表只包含激活状态的配置。
+ */
+@Service
+public class RoutingTableHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(RoutingTableHistoryService.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String FILE_PREFIX = "routing-";
+    private static final String FILE_SUFFIX = ".jsonl.gz";
+
+    private static final String CHANGES_SQL =
+            "SELECT gateway_config_id, version, checkpoint, payload FROM config_versions " +
+            "WHERE created_at > ? AND created_at <= ? ORDER BY gateway_config_id, version";
+
+    private static final String CHANGE_VERSIONS_SQL =
+            "SELECT gateway_config_id, version, checkpoint FROM config_versions " +
+            "WHERE created_at > ? AND created_at <= ? ORDER BY gateway_config_id, version";
+
+    @Autowired
+    private VersionManagementService versionManagementService;
+
+    @Value("${gateway.admin.routing-checkpoint.directory:data/routing-checkpoints}")
+    private String directory;
+
+    @Value("${gateway.admin.routing-checkpoint.retain:48}")
+    private int retain;
+
+    /**
+     * 检查点时间相对当前时间的延后量，保证检查点时刻之前的版本记录都已提交
+     */
+    @Value("${gateway.admin.routing-checkpoint.safety-lag-seconds:60}")
+    private long safetyLagSeconds;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate streamingJdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        // MySQL 驱动仅在 fetchSize 为 Integer.MIN_VALUE 时逐行流式返回结果
+        streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * 定时生成路由表检查点
+     */
+    @Scheduled(cron = "${gateway.admin.routing-checkpoint.cron:0 0 * * * *}")
+    public void scheduledCheckpoint() {
+        createCheckpoint();
+    }
+
+    /**
+     * 生成一个路由表检查点文件，返回检查点时间
+     */
+    public LocalDateTime createCheckpoint() {
+        LocalDateTime time = LocalDateTime.now().minusSeconds(safetyLagSeconds).truncatedTo(ChronoUnit.SECONDS);
+        long start = System.currentTimeMillis();
+        try {
+            Path dir = Paths.get(directory);
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, FILE_PREFIX, ".tmp");
+            long[] count = new long[1];
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024), StandardCharsets.UTF_8))) {
+                merge(time, entry -> {
+                    ObjectNode line = MAPPER.createObjectNode();
+                    line.put("id", entry.getConfigId());
+                    line.put("version", entry.getVersion());
+                    line.set("snapshot", entry.getSnapshot());
+                    try {
+                        writer.write(MAPPER.writeValueAsString(line));
+                        writer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                });
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, dir.resolve(FILE_PREFIX + toMillis(time) + FILE_SUFFIX), StandardCopyOption.ATOMIC_MOVE);
+            pruneCheckpoints(dir);
+            log.info("路由表检查点已生成: 时间 {}, {} 个配置, 耗时 {}ms", time, count[0], System.currentTimeMillis() - start);
+            return time;
+        } catch (IOException | UncheckedIOException e) {
+            throw new GatewayConfigException("生成路由表检查点失败", e);
+        }
+    }
+
+    /**
+     * 还原指定时间点的路由表（激活状态的配置），按配置ID升序逐条交给 consumer，不在内存中汇总
+     */
+    public void reconstruct(LocalDateTime time, Consumer<RoutingTableEntry> consumer) {
+        String active = ConfigStatus.ACTIVE.name();
+        merge(time, entry -> {
+            if (active.equals(entry.getSnapshot().path("status").asText())) {
+                consumer.accept(entry);
+            }
+        });
+    }
+
+    /**
+     * 还原指定时间点的全部配置（包括草稿和已归档的配置，作为下一个检查点的完整起点）
+     */
+    private void merge(LocalDateTime time, Consumer<RoutingTableEntry> consumer) {
+        long target = toMillis(time);
+        Path checkpoint = null;
+        long checkpointMillis = 0;
+        try {
+            for (Path file : listCheckpoints(Paths.get(directory))) {
+                long millis = checkpointMillis(file);
+                if (millis <= target && millis >= checkpointMillis) {
+                    checkpoint = file;
+                    checkpointMillis = millis;
+                }
+            }
+
+            Timestamp from = new Timestamp(checkpointMillis);
+            Timestamp to = Timestamp.valueOf(time);
+
+            Map<String, Integer> detached;
+            try (CheckpointReader base = new CheckpointReader(checkpoint, false)) {
+                ChainChecker checker = new ChainChecker(base);
+                streamingJdbcTemplate.query(CHANGE_VERSIONS_SQL, checker, from, to);
+                detached = checker.finish();
+            }
+            Map<String, RoutingTableEntry> restored = new HashMap<>();
+            detached.forEach((configId, version) -> restored.put(configId, new RoutingTableEntry(
+                    configId, version, versionManagementService.getVersionSnapshot(configId, version))));
+
+            try (CheckpointReader base = new CheckpointReader(checkpoint, true)) {
+                Merger merger = new Merger(base, restored, consumer);
+                streamingJdbcTemplate.query(CHANGES_SQL, merger, from, to);
+                merger.finish();
+            }
+        } catch (IOException | UncheckedIOException e) {
+            throw new GatewayConfigException("还原路由表失败: " + time, e);
+        }
+    }
+
+    /**
+     * 只按版本号归并检查点与版本记录，找出截至目标时间增量链仍断开的配置及其最后版本号
+     */
+    private static final class ChainChecker implements RowCallbackHandler {
+
+        private final CheckpointReader base;
+        private final Map<String, Integer> detached = new HashMap<>();
+
+        private String currentId;
+        private boolean known;
+        private int currentVersion;
+
+        ChainChecker(CheckpointReader base) {
+            this.base = base;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String configId = rs.getString(1);
+            int version = rs.getInt(2);
+            boolean checkpoint = rs.getBoolean(3);
+
+            if (!configId.equals(currentId)) {
+                checkCurrent();
+                RoutingTableEntry entry;
+                while ((entry = base.peek()) != null && entry.getConfigId().compareTo(configId) < 0) {
+                    base.next();
+                }
+                currentId = configId;
+                known = entry != null && entry.getConfigId().equals(configId);
+                currentVersion = known ? entry.getVersion() : 0;
+            }
+
+            known = checkpoint || (known && version == currentVersion + 1);
+            currentVersion = version;
+        }
+
+        private void checkCurrent() {
+            if (currentId != null && !known) {
+                detached.put(currentId, currentVersion);
+            }
+        }
+
+        Map<String, Integer> finish() {
+            checkCurrent();
+            return detached;
+        }
+    }
+
+    /**
+     * 把检查点与按配置ID、版本号有序的版本记录归并
+     * 配置ID为 UUID（仅含小写十六进制和连字符），数据库排序与 String.compareTo 一致
+     */
+    private static final class Merger implements RowCallbackHandler {
+
+        private final CheckpointReader base;
+        private final Map<String, RoutingTableEntry> restored;
+        private final Consumer<RoutingTableEntry> consumer;
+
+        private String currentId;
+        private ObjectNode current;
+        private int currentVersion;
+
+        Merger(CheckpointReader base, Map<String, RoutingTableEntry> restored, Consumer<RoutingTableEntry> consumer) {
+            this.base = base;
+            this.restored = restored;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            String configId = rs.getString(1);
+            int version = rs.getInt(2);
+            boolean checkpoint = rs.getBoolean(3);
+            byte[] payload = rs.getBytes(4);
+
+            if (!configId.equals(currentId)) {
+                if (currentId != null && configId.compareTo(currentId) < 0) {
+                    throw new GatewayConfigException("版本记录未按配置ID排序: " + configId);
+                }
+                emitCurrent();
+                startConfig(configId);
+            }
+
+            if (checkpoint) {
+                current = (ObjectNode) SnapshotCodec.decode(payload);
+            } else if (current != null && version == currentVersion + 1) {
+                SnapshotDiffer.applyDelta(current, SnapshotCodec.decode(payload));
+            } else {
+                current = null;
+            }
+            RoutingTableEntry entry = restored.get(configId);
+            if (entry != null && entry.getVersion() == version) {
+                // 增量链断开的配置使用第一遍之后单独还原的快照
+                current = entry.getSnapshot();
+            }
+            currentVersion = version;
+        }
+
+        /**
+         * 先输出检查点中排在该配置之前、期间没有变化的配置，再以检查点中的该配置（如有）作为起点
+         */
+        private void startConfig(String configId) {
+            RoutingTableEntry entry;
+            while ((entry = base.peek()) != null && entry.getConfigId().compareTo(configId) < 0) {
+                consumer.accept(base.next());
+            }
+            currentId = configId;
+            if (entry != null && entry.getConfigId().equals(configId)) {
+                base.next();
+                current = entry.getSnapshot();
+                currentVersion = entry.getVersion();
+            } else {
+                current = null;
+                currentVersion = 0;
+            }
+        }
+
+        private void emitCurrent() {
+            if (currentId != null && current == null) {
+                // 两遍之间有版本记录被写入或清理
+                throw new GatewayConfigException("还原期间版本记录发生变化，请重试: " + currentId);
+            }
+            if (currentId != null) {
+                consumer.accept(new RoutingTableEntry(currentId, currentVersion, current));
+            }
+            current = null;
+        }
+
+        void finish() {
+            emitCurrent();
+            RoutingTableEntry entry;
+            while ((entry = base.next()) != null) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    /**
+     * 顺序读取检查点文件，支持预读一条；没有检查点时视为空表
+     * 不读取快照时只解析配置ID和版本号，条目的快照为 null
+     */
+    private static final class CheckpointReader implements Closeable {
+
+        private final BufferedReader reader;
+        private final boolean snapshots;
+        private RoutingTableEntry next;
+
+        CheckpointReader(Path file, boolean snapshots) throws IOException {
+            this.reader = file != null ? new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8)) : null;
+            this.snapshots = snapshots;
+            advance();
+        }
+
+        RoutingTableEntry peek() {
+            return next;
+        }
+
+        RoutingTableEntry next() {
+            RoutingTableEntry entry = next;
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            next = null;
+            if (reader == null) {
+                return;
+            }
+            try {
+                String line = reader.readLine();
+                if (line != null && snapshots) {
+                    JsonNode node = MAPPER.readTree(line);
+                    next = new RoutingTableEntry(node.get("id").asText(), node.get("version").asInt(),
+                            (ObjectNode) node.get("snapshot"));
+                } else if (line != null) {
+                    next = readVersion(line);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static RoutingTableEntry readVersion(String line) throws IOException {
+            String id = null;
+            int version = 0;
+            try (JsonParser parser = MAPPER.getFactory().createParser(line)) {
+                parser.nextToken();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    if ("id".equals(field)) {
+                        id = parser.getText();
+                    } else if ("version".equals(field)) {
+                        version = parser.getIntValue();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            return new RoutingTableEntry(id, version, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+    }
+
+    private void pruneCheckpoints(Path dir) throws IOException {
+        List<Path> checkpoints = listCheckpoints(dir);
+        checkpoints.sort((a, b) -> Long.compare(checkpointMillis(b), checkpointMillis(a)));
+        for (int i = retain; i < checkpoints.size(); i++) {
+            Files.deleteIfExists(checkpoints.get(i));
+        }
+    }
+
+    private static List<Path> listCheckpoints(Path dir) throws IOException {
+        List<Path> checkpoints = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return checkpoints;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX);
+            }).forEach(checkpoints::add);
+        }
+        return checkpoints;
+    }
+
+    private static long checkpointMillis(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
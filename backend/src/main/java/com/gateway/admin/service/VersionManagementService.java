@@ -1,40 +1,386 @@
 package com.gateway.admin.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.dto.ConfigVersionDTO;
+import com.gateway.admin.entity.ConfigRevision;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.entity.ConfigVersion;
 import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.event.ConfigRevisionPublishedEvent;
+import com.gateway.admin.event.RouteChangedEvent;
+import com.gateway.admin.exception.ConfigValidationException;
+import com.gateway.admin.exception.GatewayConfigException;
+import com.gateway.admin.repository.ConfigRevisionRepository;
+import com.gateway.admin.repository.ConfigVersionRepository;
+import com.gateway.admin.repository.GatewayConfigRepository;
+import com.gateway.admin.validation.ValidationResult;
+import com.gateway.admin.version.ConfigSnapshotMapper;
+import com.gateway.admin.version.ContentHasher;
+import com.gateway.admin.version.SnapshotChange;
+import com.gateway.admin.version.SnapshotCodec;
+import com.gateway.admin.version.SnapshotDiffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
 /**
  * Version Management Service
  * 版本管理服务
+ *
+ * 版本历史按“周期性全量检查点 + 结构化增量”存储，覆盖整个配置聚合
+ * （后端服务器、Header、限流及IP规则、扩展配置）。
+ * 回滚只需还原一个目标快照（最近检查点 + 不超过 checkpointInterval - 1 个增量）并整体写回，
+ * 不依赖逐表回放 Envers 审计记录。
  */
 @Service
 @Transactional
 public class VersionManagementService {
 
+    private static final Logger log = LoggerFactory.getLogger(VersionManagementService.class);
+
+    @Autowired
+    private ConfigVersionRepository configVersionRepository;
+
+    @Autowired
+    private GatewayConfigRepository gatewayConfigRepository;
+
+    @Autowired
+    private ConfigRevisionRepository configRevisionRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * 两个检查点之间的最大版本跨度，还原任一版本最多回放 checkpointInterval - 1 个增量
+     */
+    @Value("${gateway.admin.version.checkpoint-interval:10}")
+    private int checkpointInterval;
+
     /**
      * 创建版本记录
      */
     public void createVersionRecord(GatewayConfig config, String description) {
-        // 这里可以添加版本记录的具体实现
-        // 例如：记录到版本历史表、发送通知等
-        System.out.println("创建版本记录: " + config.getId() + ", 描述: " + description);
+        createVersionRecord(config, description, null);
+    }
+
+    /**
+     * 创建版本记录，并关联全局修订号；写入后发布 {@link RouteChangedEvent}
+     */
+    public ConfigVersion createVersionRecord(GatewayConfig config, String description, Long revision) {
+        String configId = config.getId();
+        int version = config.getVersion();
+        ObjectNode snapshot = ConfigSnapshotMapper.toSnapshot(config);
+        config.setContentHash(ContentHasher.hash(config));
+
+        ConfigVersion record;
+        Optional<ConfigVersion> latest = configVersionRepository.findTopByGatewayConfigIdOrderByVersionDesc(configId);
+        if (latest.isPresent() && latest.get().getVersion() >= version) {
+            if (latest.get().getVersion() > version) {
+                log.warn("忽略过期的版本记录: config={}, version={}, latest={}",
+                        configId, version, latest.get().getVersion());
+                return latest.get();
+            }
+            // 同一版本重复记录（例如发布新建的草稿）：重写最新记录为检查点，不影响已有增量链
+            record = latest.get();
+            record.setCheckpoint(true);
+            record.setPayload(SnapshotCodec.encode(snapshot));
+            evictDiffs(configId, version);
+        } else if (latest.isEmpty()) {
+            record = new ConfigVersion(configId, version, true, SnapshotCodec.encode(snapshot));
+        } else {
+            record = newRecord(configId, version, latest.get().getVersion(), snapshot);
+        }
+
+        record.setRevision(revision);
+        record.setDescription(description);
+        record.setCreatedAt(LocalDateTime.now());
+        record.setCreatedBy(config.getUpdatedBy() != null ? config.getUpdatedBy() : config.getCreatedBy());
+        ConfigVersion saved = configVersionRepository.save(record);
+        eventPublisher.publishEvent(new RouteChangedEvent(config, saved, snapshot));
+        return saved;
+    }
+
+    /**
+     * 按版本顺序逐个还原保留的版本快照（密钥已脱敏），直到 upToVersion（含）
+     * 连续的增量在上一个快照上原地应用，回调不应修改或保留快照
+     */
+    @Transactional(readOnly = true)
+    public void forEachSnapshot(String configId, int upToVersion, BiConsumer<ConfigVersion, ObjectNode> action) {
+        ObjectNode snapshot = null;
+        int previousVersion = 0;
+        for (ConfigVersion record : configVersionRepository.findByGatewayConfigIdAndVersionBetweenOrderByVersionAsc(
+                configId, 0, upToVersion)) {
+            if (record.isCheckpoint()) {
+                snapshot = (ObjectNode) SnapshotCodec.decode(record.getPayload());
+            } else if (snapshot != null && record.getVersion() == previousVersion + 1) {
+                SnapshotDiffer.applyDelta(snapshot, SnapshotCodec.decode(record.getPayload()));
+            } else {
+                snapshot = replay(configId, findCheckpoint(configId, record.getVersion()), record.getVersion());
+            }
+            action.accept(record, snapshot);
+            previousVersion = record.getVersion();
+        }
+    }
+
+    /**
+     * 版本内容被改写后，提交时逐个清除涉及该版本的对比缓存（与 {@link ConfigDiffService#compareVersions} 的缓存键一致）
+     * 被改写的总是最新版本，另一端只可能是不超过它的版本号，其他配置的缓存不受影响
+     */
+    private void evictDiffs(String configId, int version) {
+        Cache diffs = cacheManager.getCache("configDiffs");
+        if (diffs == null) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            for (int other = 1; other <= version; other++) {
+                diffs.evict(configId + "_" + other + "_" + version);
+                diffs.evict(configId + "_" + version + "_" + other);
+            }
+        });
+    }
+
+    /**
+     * 根据检查点间隔决定写入全量检查点还是相对前一版本的增量
+     */
+    private ConfigVersion newRecord(String configId, int version, int previousVersion, ObjectNode snapshot) {
+        ConfigVersion checkpoint = findCheckpoint(configId, previousVersion);
+        if (version - checkpoint.getVersion() >= checkpointInterval) {
+            return new ConfigVersion(configId, version, true, SnapshotCodec.encode(snapshot));
+        }
+
+        ObjectNode previous = replay(configId, checkpoint, previousVersion);
+        List<SnapshotChange> changes = SnapshotDiffer.diff(previous, snapshot);
+        return new ConfigVersion(configId, version, false, SnapshotCodec.encode(SnapshotDiffer.toDelta(changes)));
     }
 
     /**
      * 获取配置的版本历史
      */
     @Transactional(readOnly = true)
-    public void getVersionHistory(String configId) {
-        // 实现版本历史查询逻辑
-        System.out.println("获取配置版本历史: " + configId);
+    public List<ConfigVersionDTO> getVersionHistory(String configId) {
+        List<ConfigVersionDTO> history = new ArrayList<>();
+        for (Object[] row : configVersionRepository.findHistoryMetadata(configId)) {
+            ConfigVersionDTO dto = new ConfigVersionDTO();
+            dto.setConfigId(configId);
+            dto.setVersion((Integer) row[0]);
+            dto.setCheckpoint((Boolean) row[1]);
+            dto.setRevision((Long) row[2]);
+            dto.setDescription((String) row[3]);
+            dto.setCreatedAt((LocalDateTime) row[4]);
+            dto.setCreatedBy((String) row[5]);
+            dto.setPayloadSize(row[6] != null ? ((Number) row[6]).intValue() : null);
+            history.add(dto);
+        }
+        return history;
+    }
+
+    /**
+     * 还原指定版本的完整配置快照
+     * 从不晚于该版本的最近检查点开始，最多回放 checkpointInterval - 1 个增量
+     */
+    @Transactional(readOnly = true)
+    public ObjectNode getVersionSnapshot(String configId, Integer version) {
+        if (!configVersionRepository.existsByGatewayConfigIdAndVersion(configId, version)) {
+            throw new GatewayConfigException("版本不存在: " + configId + ", 版本: " + version);
+        }
+        return replay(configId, findCheckpoint(configId, version), version);
+    }
+
+    private ConfigVersion findCheckpoint(String configId, Integer version) {
+        return configVersionRepository
+                .findTopByGatewayConfigIdAndVersionLessThanEqualAndCheckpointTrueOrderByVersionDesc(configId, version)
+                .orElseThrow(() -> new GatewayConfigException("版本检查点不存在: " + configId + ", 版本: " + version));
+    }
+
+    /**
+     * 从检查点回放到指定版本
+     */
+    private ObjectNode replay(String configId, ConfigVersion checkpoint, Integer version) {
+        ObjectNode snapshot = (ObjectNode) SnapshotCodec.decode(checkpoint.getPayload());
+        if (checkpoint.getVersion() >= version) {
+            return snapshot;
+        }
+        for (ConfigVersion record : configVersionRepository.findByGatewayConfigIdAndVersionBetweenOrderByVersionAsc(
+                configId, checkpoint.getVersion() + 1, version)) {
+            JsonNode payload = SnapshotCodec.decode(record.getPayload());
+            if (record.isCheckpoint()) {
+                snapshot = (ObjectNode) payload;
+            } else {
+                SnapshotDiffer.applyDelta(snapshot, payload);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * 将指定版本改写为全量检查点，供历史清理删除更早版本前调用，保证保留下来的最早版本仍可独立还原
+     */
+    public void foldIntoCheckpoint(String configId, Integer version) {
+        ConfigVersion record = configVersionRepository.findByGatewayConfigIdAndVersion(configId, version)
+                .orElseThrow(() -> new GatewayConfigException("版本不存在: " + configId + ", 版本: " + version));
+        if (record.isCheckpoint()) {
+            return;
+        }
+        ObjectNode snapshot = replay(configId, findCheckpoint(configId, version), version);
+        record.setCheckpoint(true);
+        record.setPayload(SnapshotCodec.encode(snapshot));
+        configVersionRepository.save(record);
     }
 
     /**
      * 回滚到指定版本
      */
-    public void rollbackToVersion(String configId, Integer version) {
-        // 实现版本回滚逻辑
-        System.out.println("回滚配置到版本: " + configId + ", 版本: " + version);
+    public GatewayConfig rollbackToVersion(String configId, Integer version) {
+        return rollbackToVersion(configId, version, null);
+    }
+
+    /**
+     * 回滚到指定版本：还原目标版本快照写回配置，作为新版本（检查点）保存
+     */
+    public GatewayConfig rollbackToVersion(String configId, Integer version, String operator) {
+        Map<String, Integer> targets = new HashMap<>();
+        targets.put(configId, version);
+        return rollback(targets, "回滚到版本 " + version, operator).get(0);
+    }
+
+    /**
+     * 撤销一个全局修订（变更集发布）：修订涉及的配置回到发布前的版本，修订中新建的配置归档
+     */
+    public List<GatewayConfig> rollbackRevision(Long revision, String operator) {
+        List<String> configIds = configVersionRepository.findConfigIdsByRevision(revision);
+        if (configIds.isEmpty()) {
+            throw new GatewayConfigException("修订不存在或未涉及任何配置: " + revision);
+        }
+        Map<String, Integer> targets = new HashMap<>();
+        for (String configId : configIds) {
+            targets.put(configId, null);
+        }
+        for (Object[] row : configVersionRepository.findVersionsBeforeRevision(revision)) {
+            targets.put((String) row[0], (Integer) row[1]);
+        }
+        return rollback(targets, "撤销修订 " + revision, operator);
+    }
+
+    /**
+     * 将指定时间之后变更过的全部配置回滚到该时间点的状态，该时间之后新建的配置归档
+     */
+    public List<GatewayConfig> rollbackToTime(LocalDateTime time, String operator) {
+        List<String> configIds = configVersionRepository.findConfigIdsChangedAfter(time);
+        if (configIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<String, Integer> targets = new HashMap<>();
+        for (String configId : configIds) {
+            targets.put(configId, null);
+        }
+        for (Object[] row : configVersionRepository.findVersionsAtTime(time)) {
+            targets.put((String) row[0], (Integer) row[1]);
+        }
+        return rollback(targets, "回滚到时间点 " + time, operator);
+    }
+
+    /**
+     * 批量回滚：一次加载配置、逐个还原目标快照（检查点 + 有界增量）、整体校验、一次批量写入，
+     * 新版本直接写为检查点，并作为一个全局修订发布。目标版本为 null 表示该配置在目标状态下不存在，归档处理。
+     */
+    private List<GatewayConfig> rollback(Map<String, Integer> targets, String description, String operator) {
+        List<GatewayConfig> configs = gatewayConfigRepository.findAllById(targets.keySet());
+        if (configs.size() != targets.size()) {
+            Set<String> missing = new HashSet<>(targets.keySet());
+            configs.forEach(config -> missing.remove(config.getId()));
+            throw new GatewayConfigException("配置不存在: " + missing);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (GatewayConfig config : configs) {
+            Integer version = targets.get(config.getId());
+            if (version == null) {
+                // 没有更早的版本：仅当首个版本仍在历史中（即配置确实在目标状态之后创建）时才归档
+                if (!configVersionRepository.existsByGatewayConfigIdAndVersion(config.getId(), 1)) {
+                    throw new GatewayConfigException("目标版本已被清理，无法回滚: " + config.getId());
+                }
+                config.setStatus(ConfigStatus.ARCHIVED);
+            } else {
+                ConfigSnapshotMapper.applySnapshot(config, getVersionSnapshot(config.getId(), version));
+            }
+            config.incrementVersion();
+            config.setUpdatedAt(now);
+            config.setUpdatedBy(operator);
+        }
+        validateRouteUniqueness(configs, targets.keySet());
+
+        ConfigRevision revision = configRevisionRepository.save(
+                new ConfigRevision(null, description, configs.size(), operator));
+        List<GatewayConfig> saved = gatewayConfigRepository.saveAll(configs);
+
+        List<ConfigVersion> records = new ArrayList<>(saved.size());
+        List<ObjectNode> snapshots = new ArrayList<>(saved.size());
+        for (GatewayConfig config : saved) {
+            ObjectNode snapshot = ConfigSnapshotMapper.toSnapshot(config);
+            snapshots.add(snapshot);
+            config.setContentHash(ContentHasher.hash(config));
+            ConfigVersion record = new ConfigVersion(config.getId(), config.getVersion(), true,
+                    SnapshotCodec.encode(snapshot));
+            record.setRevision(revision.getRevision());
+            record.setDescription(description);
+            record.setCreatedAt(now);
+            record.setCreatedBy(operator);
+            records.add(record);
+        }
+        configVersionRepository.saveAll(records);
+        for (int i = 0; i < records.size(); i++) {
+            eventPublisher.publishEvent(new RouteChangedEvent(saved.get(i), records.get(i), snapshots.get(i)));
+        }
+
+        log.info("{}: {} 个配置, 修订 {}", description, saved.size(), revision.getRevision());
+        ConfigRevisionPublishedEvent event = new ConfigRevisionPublishedEvent(
+                revision.getRevision(), null, new ArrayList<>(targets.keySet()));
+        AfterCommit.run(() -> eventPublisher.publishEvent(event));
+        GatewayConfigCache.evict(cacheManager);
+        return saved;
+    }
+
+    /**
+     * 回滚后的域名和路径组合不能与批次内其他配置或库中其他配置冲突
+     * 批次内回滚为归档的配置不参与检查；库中已归档的配置仍占用其路由（唯一索引 idx_domain_path 不区分状态），照常计入
+     */
+    private void validateRouteUniqueness(List<GatewayConfig> configs, Collection<String> configIds) {
+        ValidationResult result = new ValidationResult(null);
+        Set<String> routeKeys = new HashSet<>();
+        for (GatewayConfig config : configs) {
+            if (config.getStatus() == ConfigStatus.ARCHIVED) {
+                continue;
+            }
+            String routeKey = config.getDomain() + config.getRequestPathPattern();
+            if (!routeKeys.add(routeKey)
+                    || gatewayConfigRepository.existsByDomainAndRequestPathPatternAndIdNotIn(
+                            config.getDomain(), config.getRequestPathPattern(), configIds)) {
+                result.addError(config.getId(), "域名和路径组合已存在: " + config.getDomain() + config.getRequestPathPattern());
+            }
+        }
+        if (!result.isValid()) {
+            throw new ConfigValidationException(result);
+        }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package com.gateway.admin.upstream;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Alias Table
+ * 加权随机选择的别名表（Vose 算法）
+ *
+ * 构建 O(n)，每次选择 O(1)：一个随机数确定列和列内位置，位置落在 probability[i] 以内选 i，否则选 alias[i]。
+ * 构建后不可变，可以被任意线程并发使用，不加锁。管理端与数据面共用本类，保证两边按同样的权重分布选择后端。
+ */
+public final class AliasTable {
+
+    private final double[] probability;
+    private final int[] alias;
+
+    private AliasTable(double[] probability, int[] alias) {
+        this.probability = probability;
+        this.alias = alias;
+    }
+
+    /**
+     * 按权重构建；权重必须非负且至少有一个大于 0
+     */
+    public static AliasTable build(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("权重不正确: " + weight);
+            }
+            total += weight;
+        }
+        if (n == 0 || total <= 0) {
+            throw new IllegalArgumentException("至少需要一个大于 0 的权重");
+        }
+
+        // 缩放到平均值为 1，小于 1 的列用大于 1 的列补满
+        double[] probability = new double[n];
+        int[] alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // 剩余的列只差浮点误差，按满列处理
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        return new AliasTable(probability, alias);
+    }
+
+    /**
+     * 按权重随机选择一个下标
+     */
+    public int next() {
+        double u = ThreadLocalRandom.current().nextDouble() * probability.length;
+        int column = (int) u;
+        if (column >= probability.length) {
+            column = probability.length - 1;
+        }
+        return u - column < probability[column] ? column : alias[column];
+    }
+
+    public int size() {
+        return probability.length;
+    }
+}
@@ -0,0 +1,487 @@
+package com.gateway.admin.upstream;
+
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.limiter.CircuitBreaker;
+import com.gateway.admin.limiter.NanoClock;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Backend Pool
+ * 路由的后端服务器池（按服务器熔断与摘除）
+ *
+ * 路由级熔断器保护整条路由；池中每台服务器另有一个熔断器（{@link OutlierPolicy}），单台服务器出错只摘除它自己：
+ * <ul>
+ *   <li>HEALTHY：按配置权重参与加权随机选择</li>
+ *   <li>EJECTED：熔断打开，不参与选择</li>
+ *   <li>PROBING：恢复时间已过，{@link #select} 优先把请求发给它作为试探，试探名额用完后等待结果</li>
+ *   <li>RECOVERING：试探全部成功，重新加入，权重在 slowStart 时间内从 10% 线性恢复</li>
+ *   <li>UNHEALTHY：主动健康检查（{@link HealthChecker}）判定不健康，不参与选择，也不发送试探请求，健康检查恢复后重新加入</li>
+ * </ul>
+ * 被摘除或不健康的服务器超过 maxEjectionPercent 时进入恐慌模式，全部服务器按配置权重参与选择。
+ * 熔断器转换发生在请求线程上：转换线程只更新服务器状态，选择表重建和 {@link Listener} 通知交给创建时传入的执行器
+ * （单线程，按提交顺序执行，先重建后通知），连续的转换合并为一次重建。重建完成前刚被摘除的服务器仍可能被选中，
+ * 其熔断器处于打开状态，调用方照常记录结果即可。RECOVERING → HEALTHY 由 {@link #advance} 发现。
+ *
+ * 加权选择使用不可变的 {@link Schedule}（候选服务器 + {@link AliasTable}），选择是 O(1) 且不加锁；
+ * 只在候选集合变化（熔断状态转换）时重建，权重恢复期间由 {@link #advance} 按定时任务的间隔分步重建。
+ * 服务器列表创建后不变，路由或有效熔断参数变更时创建新池，熔断参数不变的服务器保留原来的熔断状态。
+ */
+public final class BackendPool {
+
+    private static final double MIN_WEIGHT_FACTOR = 0.1;
+
+    private final String routeId;
+    private final OutlierPolicy policy;
+    private final NanoClock clock;
+    private final List<BackendServer> servers;
+    private final Host[] hosts;
+    private final Listener listener;
+    private final Executor executor;
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile Schedule schedule;
+
+    private BackendPool(String routeId, List<BackendServer> servers, OutlierPolicy policy, NanoClock clock,
+                        Listener listener, Executor executor, Host[] hosts) {
+        this.routeId = routeId;
+        this.servers = servers;
+        this.policy = policy;
+        this.clock = clock;
+        this.listener = listener;
+        this.executor = executor;
+        this.hosts = hosts;
+    }
+
+    /**
+     * 创建服务器池；只包含启用且权重大于 0 的服务器
+     *
+     * @param previous 路由变更前的池，主机名、端口和熔断参数都不变的服务器沿用其熔断状态；可为 null
+     * @param listener 状态转换监听器；可为 null
+     */
+    public static BackendPool create(String routeId, Collection<BackendServer> servers, OutlierPolicy policy,
+                                     NanoClock clock, Listener listener, BackendPool previous) {
+        return create(routeId, servers, policy, clock, listener, previous, null);
+    }
+
+    /**
+     * 创建服务器池，并按 failingHealthCheck 标记主动健康检查当前不健康的服务器（不触发状态通知）
+     *
+     * @param failingHealthCheck 健康检查地址当前是否不健康；可为 null
+     */
+    public static BackendPool create(String routeId, Collection<BackendServer> servers, OutlierPolicy policy,
+                                     NanoClock clock, Listener listener, BackendPool previous,
+                                     Predicate<URI> failingHealthCheck) {
+        return create(routeId, servers, policy, clock, listener, previous, failingHealthCheck, Runnable::run);
+    }
+
+    /**
+     * 创建服务器池，熔断器转换引起的选择表重建和状态通知在 executor 上执行
+     *
+     * @param executor 单线程执行器；传入 Runnable::run 时在转换线程上同步执行
+     */
+    public static BackendPool create(String routeId, Collection<BackendServer> servers, OutlierPolicy policy,
+                                     NanoClock clock, Listener listener, BackendPool previous,
+                                     Predicate<URI> failingHealthCheck, Executor executor) {
+        List<Host> hosts = new ArrayList<>();
+        for (BackendServer server : servers) {
+            if (!Boolean.TRUE.equals(server.getEnabled()) || server.getWeight() == null || server.getWeight() <= 0) {
+                continue;
+            }
+            Host reused = previous != null && previous.policy.sameBreaker(policy) ? previous.find(server) : null;
+            CircuitBreaker breaker = reused != null ? reused.breaker : policy.newBreaker(clock);
+            Host host = new Host(server, breaker);
+            host.failingHealthCheck = host.healthCheckUri != null && failingHealthCheck != null
+                    && failingHealthCheck.test(host.healthCheckUri);
+            if (reused != null) {
+                host.ejectedAt = reused.ejectedAt;
+                host.recoveredAt = reused.recoveredAt;
+                host.recovering = reused.recovering;
+            }
+            hosts.add(host);
+        }
+        BackendPool pool = new BackendPool(routeId, List.copyOf(servers), policy, clock, listener, executor,
+                hosts.toArray(new Host[0]));
+        // 沿用的熔断器从此把状态转换通知给新池
+        for (Host host : pool.hosts) {
+            host.attach(pool);
+        }
+        pool.rebuild();
+        return pool;
+    }
+
+    private Host find(BackendServer server) {
+        for (Host host : hosts) {
+            if (Objects.equals(host.backendId, server.getId()) && host.hostname.equals(server.getHostname())
+                    && host.port == server.getPort()) {
+                return host;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 选择一台服务器；没有服务器时返回 null
+     * 到了试探时间的服务器优先被选中（试探请求），否则按别名表加权随机选择
+     */
+    public Host select() {
+        Schedule current = schedule;
+        if (current.candidates.length == 0) {
+            return null;
+        }
+        if (current.ejected.length > 0) {
+            long now = clock.nanoTime();
+            for (Host host : current.ejected) {
+                boolean probeDue = host.breaker.getState() == CircuitBreaker.State.HALF_OPEN
+                        || now - host.ejectedAt >= policy.getRecoveryNanos();
+                if (probeDue && host.breaker.tryAcquirePermission()) {
+                    return host;
+                }
+            }
+        }
+        return current.candidates[current.table.next()];
+    }
+
+    /**
+     * 记录发往 host 的请求结果
+     */
+    public void onResult(Host host, boolean success) {
+        if (success) {
+            host.breaker.onSuccess();
+        } else {
+            host.breaker.onError();
+        }
+    }
+
+    /**
+     * 主动健康检查结论变化时调用，更新使用该检查地址的服务器
+     */
+    public void onHealthCheck(URI uri, boolean healthy) {
+        List<Host> changed = new ArrayList<>();
+        List<HostState> before = new ArrayList<>();
+        for (Host host : hosts) {
+            if (uri.equals(host.healthCheckUri) && host.failingHealthCheck == healthy) {
+                before.add(host.getState());
+                host.failingHealthCheck = !healthy;
+                changed.add(host);
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        rebuild();
+        for (int i = 0; i < changed.size(); i++) {
+            HostState after = changed.get(i).getState();
+            if (after != before.get(i)) {
+                fire(changed.get(i), before.get(i), after);
+            }
+        }
+    }
+
+    /**
+     * 结束已满 slowStart 时间的权重恢复（RECOVERING → HEALTHY），由定时任务调用
+     */
+    public void advance() {
+        long now = clock.nanoTime();
+        boolean ramping = false;
+        for (Host host : hosts) {
+            if (!host.recovering || host.breaker.getState() != CircuitBreaker.State.CLOSED) {
+                continue;
+            }
+            ramping = true;
+            if (now - host.recoveredAt >= policy.getSlowStartNanos()) {
+                host.recovering = false;
+                fire(host, HostState.RECOVERING, HostState.HEALTHY);
+            }
+        }
+        // 没有服务器在恢复权重时别名表不变，不重建
+        if (ramping) {
+            rebuild();
+        }
+    }
+
+    /**
+     * 在执行器上重建选择表；已有重建在排队时不再提交
+     */
+    private void scheduleRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    /**
+     * 在执行器上通知状态转换，排在转换时提交的重建之后
+     */
+    private void scheduleFire(Host host, HostState from, HostState to) {
+        if (listener != null) {
+            executor.execute(() -> fire(host, from, to));
+        }
+    }
+
+    /**
+     * 按当前熔断状态和有效权重重建选择表；重建之间互斥，选择线程只读取 volatile 引用
+     */
+    private synchronized void rebuild() {
+        long now = clock.nanoTime();
+        List<Host> available = new ArrayList<>(hosts.length);
+        List<Host> ejected = new ArrayList<>();
+        for (Host host : hosts) {
+            boolean closed = host.breaker.getState() == CircuitBreaker.State.CLOSED;
+            if (closed && !host.failingHealthCheck) {
+                available.add(host);
+            } else if (!closed && !host.failingHealthCheck) {
+                ejected.add(host);
+            }
+        }
+        int excluded = hosts.length - available.size();
+        boolean panic = excluded > 0
+                && (available.isEmpty() || excluded * 100 > policy.getMaxEjectionPercent() * hosts.length);
+        Host[] candidates = panic ? hosts : available.toArray(new Host[0]);
+        AliasTable table = null;
+        if (candidates.length > 0) {
+            double[] weights = new double[candidates.length];
+            for (int i = 0; i < candidates.length; i++) {
+                weights[i] = candidates[i].effectiveWeight(now, policy.getSlowStartNanos());
+            }
+            table = AliasTable.build(weights);
+        }
+        schedule = new Schedule(candidates, table, ejected.toArray(new Host[0]), panic);
+    }
+
+    public Host find(Long backendId) {
+        for (Host host : hosts) {
+            if (Objects.equals(host.backendId, backendId)) {
+                return host;
+            }
+        }
+        return null;
+    }
+
+    public List<Host> getHosts() {
+        return List.of(hosts);
+    }
+
+    /**
+     * 创建池时的服务器列表（含未启用的），有效熔断参数变化时据此重建
+     */
+    public List<BackendServer> getServers() {
+        return servers;
+    }
+
+    public String getRouteId() {
+        return routeId;
+    }
+
+    public OutlierPolicy getPolicy() {
+        return policy;
+    }
+
+    public boolean isEmpty() {
+        return hosts.length == 0;
+    }
+
+    /**
+     * 是否处于恐慌模式（被摘除的服务器超过 maxEjectionPercent，全部服务器参与选择）
+     */
+    public boolean isPanic() {
+        return schedule.panic;
+    }
+
+    private void fire(Host host, HostState from, HostState to) {
+        if (listener != null) {
+            listener.onStateChange(this, host, from, to);
+        }
+    }
+
+    /**
+     * 一次重建的选择表：candidates 与别名表的下标一一对应，ejected 为需要检查试探时间的服务器（不含健康检查不健康的）
+     */
+    private static final class Schedule {
+        final Host[] candidates;
+        final AliasTable table;
+        final Host[] ejected;
+        final boolean panic;
+
+        Schedule(Host[] candidates, AliasTable table, Host[] ejected, boolean panic) {
+            this.candidates = candidates;
+            this.table = table;
+            this.ejected = ejected;
+            this.panic = panic;
+        }
+    }
+
+    public enum HostState {
+        HEALTHY, EJECTED, PROBING, RECOVERING, UNHEALTHY
+    }
+
+    /**
+     * 服务器状态转换监听器；熔断器转换在池的执行器上通知，健康检查和权重恢复在调用线程上通知，不应阻塞
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onStateChange(BackendPool pool, Host host, HostState from, HostState to);
+    }
+
+    /**
+     * 池中的一台服务器
+     */
+    public static final class Host {
+
+        private final Long backendId;
+        private final String hostname;
+        private final int port;
+        private final String protocol;
+        private final String healthCheckUrl;
+        private final URI healthCheckUri;
+        private final int timeoutSeconds;
+        private final int weight;
+        private final CircuitBreaker breaker;
+
+        private volatile BackendPool pool;
+        private volatile long ejectedAt;
+        private volatile long recoveredAt;
+        private volatile boolean recovering;
+        private volatile boolean failingHealthCheck;
+
+        private Host(BackendServer server, CircuitBreaker breaker) {
+            this.backendId = server.getId();
+            this.hostname = server.getHostname();
+            this.port = server.getPort();
+            this.protocol = server.getProtocol() != null ? server.getProtocol().name() : "HTTP";
+            this.healthCheckUrl = server.getHealthCheckUrl();
+            this.healthCheckUri = healthCheckUri(server);
+            this.timeoutSeconds = server.getTimeoutSeconds() != null ? server.getTimeoutSeconds() : 30;
+            this.weight = server.getWeight();
+            this.breaker = breaker;
+        }
+
+        private static URI healthCheckUri(BackendServer server) {
+            try {
+                return HealthChecker.probeUri(server.getProtocol() != null ? server.getProtocol().name() : null,
+                        server.getHostname(), server.getPort(), server.getHealthCheckUrl());
+            } catch (IllegalArgumentException e) {
+                // 地址格式不正确的服务器不参与主动健康检查
+                return null;
+            }
+        }
+
+        private void attach(BackendPool owner) {
+            this.pool = owner;
+            breaker.setStateListener(this::onBreakerStateChange);
+        }
+
+        private void onBreakerStateChange(CircuitBreaker.State from, CircuitBreaker.State to) {
+            BackendPool owner = pool;
+            long now = owner.clock.nanoTime();
+            switch (to) {
+                case OPEN -> {
+                    HostState previous = from == CircuitBreaker.State.HALF_OPEN ? HostState.PROBING
+                            : failingHealthCheck ? HostState.UNHEALTHY
+                            : recovering ? HostState.RECOVERING : HostState.HEALTHY;
+                    ejectedAt = now;
+                    recovering = false;
+                    owner.scheduleRebuild();
+                    owner.scheduleFire(this, previous, HostState.EJECTED);
+                }
+                case HALF_OPEN -> owner.scheduleFire(this, HostState.EJECTED, HostState.PROBING);
+                default -> {
+                    boolean slowStart = owner.policy.getSlowStartNanos() > 0;
+                    if (slowStart) {
+                        recoveredAt = now;
+                        recovering = true;
+                    }
+                    owner.scheduleRebuild();
+                    owner.scheduleFire(this, HostState.PROBING, getState());
+                }
+            }
+        }
+
+        /**
+         * 权重恢复期间按已恢复的时间比例折算（不低于 10%）
+         */
+        private double effectiveWeight(long now, long slowStartNanos) {
+            if (!recovering || slowStartNanos <= 0) {
+                return weight;
+            }
+            double factor = (double) (now - recoveredAt) / slowStartNanos;
+            return weight * Math.max(MIN_WEIGHT_FACTOR, Math.min(1.0, factor));
+        }
+
+        public HostState getState() {
+            return switch (breaker.getState()) {
+                case OPEN -> HostState.EJECTED;
+                case HALF_OPEN -> HostState.PROBING;
+                default -> failingHealthCheck ? HostState.UNHEALTHY
+                        : recovering ? HostState.RECOVERING : HostState.HEALTHY;
+            };
+        }
+
+        /**
+         * 当前有效权重（权重恢复期间小于配置权重）
+         */
+        public double getEffectiveWeight() {
+            BackendPool owner = pool;
+            return effectiveWeight(owner.clock.nanoTime(), owner.policy.getSlowStartNanos());
+        }
+
+        public Long getBackendId() {
+            return backendId;
+        }
+
+        public String getHostname() {
+            return hostname;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getProtocol() {
+            return protocol;
+        }
+
+        public String getHealthCheckUrl() {
+            return healthCheckUrl;
+        }
+
+        /**
+         * 主动健康检查使用的地址；没有配置或格式不正确时为 null
+         */
+        public URI getHealthCheckUri() {
+            return healthCheckUri;
+        }
+
+        public int getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public CircuitBreaker getBreaker() {
+            return breaker;
+        }
+
+        /**
+         * 最近一次被摘除的时间（{@link NanoClock} 读数）
+         */
+        public long getEjectedAt() {
+            return ejectedAt;
+        }
+
+        public String getAddress() {
+            return hostname + ":" + port;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.gateway.admin.upstream;
+
+import com.gateway.admin.entity.BackendServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Health Checker
+ * 主动健康检查
+ *
+ * 按健康检查地址（而不是按服务器）调度：多条路由共用的同一地址只检查一次。检查请求通过 {@link HttpClient#sendAsync}
+ * 非阻塞发送，调度线程只负责发起，上千个地址也只占用一个调度线程和 HttpClient 的少量 I/O 线程；
+ * 同时在途的检查数受 maxInFlight 限制，超出时顺延。
+ *
+ * 每个地址在上一次检查完成后才安排下一次，间隔在 interval 上下随机浮动 jitter 比例，首次检查在 [0, interval) 内随机开始，
+ * 避免所有地址同时检查。2xx 响应算成功；连续成功 healthyThreshold 次转为健康，连续失败 unhealthyThreshold 次转为不健康，
+ * 尚无结论时首次成功即为健康。结论变化时通过 {@link #setListener} 指定的执行器通知 {@link Listener}，
+ * 检查回调所在的 HttpClient I/O 线程不执行监听器代码；不健康的地址被移出检查目标时补发一次 healthy 为 null 的通知。
+ */
+public final class HealthChecker {
+
+    private static final String USER_AGENT = "gateway-health-check";
+
+    private final HttpClient client;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalNanos;
+    private final double jitter;
+    private final int healthyThreshold;
+    private final int unhealthyThreshold;
+    private final Semaphore inFlight;
+    private final Map<URI, Target> targets = new ConcurrentHashMap<>();
+
+    private volatile Listener listener;
+    private volatile Executor listenerExecutor;
+
+    /**
+     * @param scheduler          调度线程池，由调用方负责关闭
+     * @param interval           同一地址两次检查之间的平均间隔
+     * @param jitter             间隔随机浮动的比例，0 到 1
+     * @param healthyThreshold   不健康的地址转为健康需要的连续成功次数
+     * @param unhealthyThreshold 转为不健康需要的连续失败次数
+     * @param maxInFlight        同时在途的检查请求数上限
+     */
+    public HealthChecker(HttpClient client, ScheduledExecutorService scheduler, Duration interval, double jitter,
+                         int healthyThreshold, int unhealthyThreshold, int maxInFlight) {
+        if (interval.isNegative() || interval.isZero() || jitter < 0 || jitter > 1
+                || healthyThreshold < 1 || unhealthyThreshold < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("健康检查参数不正确: interval=" + interval + ", jitter=" + jitter
+                    + ", healthyThreshold=" + healthyThreshold + ", unhealthyThreshold=" + unhealthyThreshold
+                    + ", maxInFlight=" + maxInFlight);
+        }
+        this.client = client;
+        this.scheduler = scheduler;
+        this.intervalNanos = interval.toNanos();
+        this.jitter = jitter;
+        this.healthyThreshold = healthyThreshold;
+        this.unhealthyThreshold = unhealthyThreshold;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * 服务器的健康检查地址；healthCheckUrl 为空时返回 null
+     * 绝对地址（http:// 或 https://）原样使用，否则作为路径拼接在服务器地址之后
+     *
+     * @throws IllegalArgumentException 地址格式不正确
+     */
+    public static URI probeUri(String protocol, String hostname, int port, String healthCheckUrl) {
+        if (healthCheckUrl == null || healthCheckUrl.isBlank()) {
+            return null;
+        }
+        String url = healthCheckUrl.trim();
+        String lower = url.toLowerCase(Locale.ROOT);
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
+            String scheme = protocol != null ? protocol.toLowerCase(Locale.ROOT) : "http";
+            url = scheme + "://" + hostname + ":" + port + (url.startsWith("/") ? url : "/" + url);
+        }
+        URI uri = URI.create(url);
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("健康检查地址缺少主机名: " + healthCheckUrl);
+        }
+        return uri;
+    }
+
+    /**
+     * 按服务器构建检查目标：地址相同的服务器（可能属于不同路由）合并为一个目标，超时取各服务器 timeoutSeconds 的最小值，
+     * 不超过 maxTimeout；未配置健康检查地址的服务器忽略，地址格式不正确的服务器交给 invalid
+     */
+    public static Map<URI, Duration> targets(Collection<BackendServer> servers, Duration maxTimeout,
+                                             Consumer<BackendServer> invalid) {
+        Map<URI, Duration> result = new HashMap<>();
+        for (BackendServer server : servers) {
+            URI uri;
+            try {
+                uri = probeUri(server.getProtocol() != null ? server.getProtocol().name() : null,
+                        server.getHostname(), server.getPort(), server.getHealthCheckUrl());
+            } catch (IllegalArgumentException e) {
+                if (invalid != null) {
+                    invalid.accept(server);
+                }
+                continue;
+            }
+            if (uri == null) {
+                continue;
+            }
+            Duration timeout = server.getTimeoutSeconds() != null
+                    ? Duration.ofSeconds(Math.max(1, server.getTimeoutSeconds())) : maxTimeout;
+            if (timeout.compareTo(maxTimeout) > 0) {
+                timeout = maxTimeout;
+            }
+            result.merge(uri, timeout, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+        }
+        return result;
+    }
+
+    /**
+     * 以 wanted 替换检查目标：新地址开始检查，不再需要的地址停止检查并从健康表中移除，已有地址保留结果并更新超时
+     *
+     * @param wanted 地址到单次检查超时的映射
+     */
+    public synchronized void sync(Map<URI, Duration> wanted) {
+        targets.entrySet().removeIf(entry -> {
+            if (wanted.containsKey(entry.getKey())) {
+                return false;
+            }
+            remove(entry.getValue());
+            return true;
+        });
+        wanted.forEach((uri, timeout) -> {
+            Target target = targets.get(uri);
+            if (target != null) {
+                target.timeout = timeout;
+                return;
+            }
+            target = new Target(uri, timeout);
+            targets.put(uri, target);
+            schedule(target, ThreadLocalRandom.current().nextLong(intervalNanos));
+        });
+    }
+
+    /**
+     * 地址的最近检查结果；不是检查目标时返回 null
+     */
+    public HealthStatus getStatus(URI uri) {
+        Target target = uri != null ? targets.get(uri) : null;
+        return target != null ? target.status : null;
+    }
+
+    /**
+     * 健康表：全部检查目标的最近结果
+     */
+    public List<HealthStatus> getStatuses() {
+        List<HealthStatus> result = new ArrayList<>(targets.size());
+        for (Target target : targets.values()) {
+            result.add(target.status);
+        }
+        return result;
+    }
+
+    public int size() {
+        return targets.size();
+    }
+
+    /**
+     * 设置健康结论变化监听器
+     *
+     * @param executor 执行监听器的执行器；需要按提交顺序执行（如单线程执行器），同一地址的通知才不会乱序
+     */
+    public void setListener(Listener listener, Executor executor) {
+        this.listenerExecutor = executor;
+        this.listener = listener;
+    }
+
+    /**
+     * 停止全部检查
+     */
+    public synchronized void close() {
+        for (Target target : targets.values()) {
+            target.cancel();
+        }
+        targets.clear();
+    }
+
+    /**
+     * 停止检查一个地址；它当前不健康时通知 healthy 为 null，使用方不会一直把它当作不健康
+     */
+    private void remove(Target target) {
+        synchronized (target) {
+            target.cancel();
+            if (Boolean.FALSE.equals(target.status.getHealthy())) {
+                dispatch(HealthStatus.unknown(target.uri));
+            }
+        }
+    }
+
+    private void dispatch(HealthStatus status) {
+        Listener current = listener;
+        Executor executor = listenerExecutor;
+        if (current == null) {
+            return;
+        }
+        try {
+            executor.execute(() -> current.onHealthChange(status));
+        } catch (RejectedExecutionException e) {
+            // 执行器已关闭
+        }
+    }
+
+    private void schedule(Target target, long delayNanos) {
+        if (target.cancelled) {
+            return;
+        }
+        try {
+            target.next = scheduler.schedule(() -> probe(target), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // 调度线程池已关闭
+        }
+    }
+
+    private void probe(Target target) {
+        if (target.cancelled) {
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            // 在途检查已满，在十分之一间隔内随机顺延
+            schedule(target, 1 + ThreadLocalRandom.current().nextLong(Math.max(1, intervalNanos / 10)));
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(target.uri)
+                .timeout(target.timeout)
+                .header("User-Agent", USER_AGENT)
+                .GET()
+                .build();
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response;
+        try {
+            response = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        } catch (RuntimeException e) {
+            inFlight.release();
+            record(target, null, System.nanoTime() - start, e);
+            schedule(target, nextDelay());
+            return;
+        }
+        response.whenComplete((result, error) -> {
+            inFlight.release();
+            record(target, result != null ? result.statusCode() : null, System.nanoTime() - start, error);
+            schedule(target, nextDelay());
+        });
+    }
+
+    /**
+     * 记录一次检查结果；同一地址同时只有一个检查在途，结果按顺序写入。
+     * 与 {@link #remove} 在 target 上互斥，移除后到达的结果不会再发出不健康通知
+     */
+    private void record(Target target, Integer statusCode, long latencyNanos, Throwable error) {
+        synchronized (target) {
+            if (!target.cancelled) {
+                update(target, statusCode, latencyNanos, error);
+            }
+        }
+    }
+
+    private void update(Target target, Integer statusCode, long latencyNanos, Throwable error) {
+        boolean success = error == null && statusCode != null && statusCode >= 200 && statusCode < 300;
+        HealthStatus previous = target.status;
+        int successes = success ? previous.getConsecutiveSuccesses() + 1 : 0;
+        int failures = success ? 0 : previous.getConsecutiveFailures() + 1;
+        Boolean healthy = previous.getHealthy();
+        if (success && (healthy == null || (!healthy && successes >= healthyThreshold))) {
+            healthy = Boolean.TRUE;
+        } else if (!success && !Boolean.FALSE.equals(healthy) && failures >= unhealthyThreshold) {
+            healthy = Boolean.FALSE;
+        }
+        String lastError = success ? null : describe(statusCode, error);
+        HealthStatus next = new HealthStatus(target.uri, healthy, successes, failures, statusCode,
+                TimeUnit.NANOSECONDS.toMillis(latencyNanos), lastError, System.currentTimeMillis());
+        target.status = next;
+        if (healthy != null && !healthy.equals(previous.getHealthy())) {
+            dispatch(next);
+        }
+    }
+
+    private long nextDelay() {
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Math.max(1, (long) (intervalNanos * factor));
+    }
+
+    private static String describe(Integer statusCode, Throwable error) {
+        if (error == null) {
+            return "HTTP " + statusCode;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause.getMessage() != null
+                ? cause.getClass().getSimpleName() + ": " + cause.getMessage()
+                : cause.getClass().getSimpleName();
+    }
+
+    /**
+     * 健康结论变化监听器；在 {@link #setListener} 指定的执行器上调用。
+     * healthy 为 null 表示地址已不再检查，使用方应按健康处理
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onHealthChange(HealthStatus status);
+    }
+
+    private static final class Target {
+
+        final URI uri;
+        volatile Duration timeout;
+        volatile HealthStatus status;
+        volatile ScheduledFuture<?> next;
+        volatile boolean cancelled;
+
+        Target(URI uri, Duration timeout) {
+            this.uri = uri;
+            this.timeout = timeout;
+            this.status = HealthStatus.unknown(uri);
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> pending = next;
+            if (pending != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.gateway.admin.upstream;
+
+import java.net.URI;
+
+/**
+ * Health Status
+ * 一个健康检查地址的最近检查结果（不可变）
+ *
+ * healthy 为 null 表示尚未得出结论（还没有检查过，或首次检查失败但未达到不健康阈值），此时按健康处理。
+ */
+public final class HealthStatus {
+
+    private final URI uri;
+    private final Boolean healthy;
+    private final int consecutiveSuccesses;
+    private final int consecutiveFailures;
+    private final Integer statusCode;
+    private final Long latencyMillis;
+    private final String lastError;
+    private final long checkedAt;
+
+    HealthStatus(URI uri, Boolean healthy, int consecutiveSuccesses, int consecutiveFailures,
+                 Integer statusCode, Long latencyMillis, String lastError, long checkedAt) {
+        this.uri = uri;
+        this.healthy = healthy;
+        this.consecutiveSuccesses = consecutiveSuccesses;
+        this.consecutiveFailures = consecutiveFailures;
+        this.statusCode = statusCode;
+        this.latencyMillis = latencyMillis;
+        this.lastError = lastError;
+        this.checkedAt = checkedAt;
+    }
+
+    static HealthStatus unknown(URI uri) {
+        return new HealthStatus(uri, null, 0, 0, null, null, null, 0);
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public Boolean getHealthy() {
+        return healthy;
+    }
+
+    public int getConsecutiveSuccesses() {
+        return consecutiveSuccesses;
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * 最近一次响应的状态码；连接失败或超时时为 null
+     */
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public Long getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * 最近一次检查完成的时间（epoch 毫秒），未检查过时为 0
+     */
+    public long getCheckedAt() {
+        return checkedAt;
+    }
+}
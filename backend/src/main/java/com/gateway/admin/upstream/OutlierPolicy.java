@@ -0,0 +1,91 @@
+package com.gateway.admin.upstream;
+
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.limiter.CircuitBreaker;
+import com.gateway.admin.limiter.NanoClock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outlier Policy
+ * 后端摘除参数
+ *
+ * 每台后端服务器各有一个按这些参数创建的 {@link CircuitBreaker}：熔断打开即摘除，恢复时间过后放行试探请求，
+ * 试探全部成功后重新加入，权重在 slowStart 时间内从 10% 线性恢复到配置值。
+ * 被摘除的服务器超过 maxEjectionPercent 时不再按摘除状态选择（全部服务器参与负载均衡），避免故障扩散到仅剩的服务器上。
+ */
+public final class OutlierPolicy {
+
+    private final int thresholdPercentage;
+    private final long recoveryNanos;
+    private final int halfOpenMaxCalls;
+    private final int maxEjectionPercent;
+    private final long slowStartNanos;
+
+    /**
+     * @param thresholdPercentage 摘除的错误率（百分比）
+     * @param recoveryNanos       摘除后开始试探的等待时间
+     * @param halfOpenMaxCalls    试探请求数
+     * @param maxEjectionPercent  同一路由最多摘除的服务器比例（百分比）
+     * @param slowStartNanos      重新加入后权重恢复到配置值的时间，0 表示立即恢复
+     */
+    public OutlierPolicy(int thresholdPercentage, long recoveryNanos, int halfOpenMaxCalls,
+                         int maxEjectionPercent, long slowStartNanos) {
+        if (maxEjectionPercent < 0 || maxEjectionPercent > 100 || slowStartNanos < 0) {
+            throw new IllegalArgumentException("摘除参数不正确: maxEjectionPercent=" + maxEjectionPercent
+                    + ", slowStart=" + slowStartNanos);
+        }
+        this.thresholdPercentage = thresholdPercentage;
+        this.recoveryNanos = recoveryNanos;
+        this.halfOpenMaxCalls = halfOpenMaxCalls;
+        this.maxEjectionPercent = maxEjectionPercent;
+        this.slowStartNanos = slowStartNanos;
+    }
+
+    /**
+     * 路由设置了熔断（含继承的上级熔断组）时按其错误率、恢复时间和试探请求数摘除，否则使用本参数
+     */
+    public OutlierPolicy withBreaker(LimiterConfig limits) {
+        if (limits == null || !limits.hasCircuitBreaker()) {
+            return this;
+        }
+        long recovery = limits.getRecoveryTimeSeconds() != null
+                ? TimeUnit.SECONDS.toNanos(limits.getRecoveryTimeSeconds()) : recoveryNanos;
+        int halfOpen = limits.getHalfOpenMaxCalls() != null ? limits.getHalfOpenMaxCalls() : halfOpenMaxCalls;
+        return new OutlierPolicy(limits.getErrorThresholdPercentage(), recovery, Math.max(1, halfOpen),
+                maxEjectionPercent, slowStartNanos);
+    }
+
+    CircuitBreaker newBreaker(NanoClock clock) {
+        return new CircuitBreaker(thresholdPercentage, recoveryNanos, halfOpenMaxCalls,
+                CircuitBreaker.DEFAULT_WINDOW_SIZE, CircuitBreaker.DEFAULT_MINIMUM_CALLS, clock);
+    }
+
+    public int getThresholdPercentage() {
+        return thresholdPercentage;
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    public int getHalfOpenMaxCalls() {
+        return halfOpenMaxCalls;
+    }
+
+    public int getMaxEjectionPercent() {
+        return maxEjectionPercent;
+    }
+
+    public long getSlowStartNanos() {
+        return slowStartNanos;
+    }
+
+    /**
+     * 熔断参数是否相同；相同时路由变更后保留服务器的熔断状态
+     */
+    boolean sameBreaker(OutlierPolicy other) {
+        return other != null && thresholdPercentage == other.thresholdPercentage
+                && recoveryNanos == other.recoveryNanos && halfOpenMaxCalls == other.halfOpenMaxCalls;
+    }
+}
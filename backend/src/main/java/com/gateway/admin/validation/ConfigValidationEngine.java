@@ -0,0 +1,296 @@
+package com.gateway.admin.validation;
+
+import com.gateway.admin.dto.CacheHeaderDTO;
+import com.gateway.admin.dto.CspHeaderDTO;
+import com.gateway.admin.dto.DynamicHeaderInjectionDTO;
+import com.gateway.admin.dto.ExtensionConfigDTO;
+import com.gateway.admin.dto.GatewayConfigDTO;
+import com.gateway.admin.dto.HeaderConfigDTO;
+import com.gateway.admin.dto.SecurityAuthConfigDTO;
+import com.gateway.admin.entity.CspHeader;
+import com.gateway.admin.entity.DynamicHeaderInjection;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.entity.SecurityAuthConfig;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Configuration Validation Engine
+ * 配置校验引擎
+ *
+ * 每个对象收集全部错误；批量校验（批量导入、全量校验任务）拆分到独立的 ForkJoinPool 上并行执行。
+ */
+@Component
+public class ConfigValidationEngine {
+
+    /**
+     * 单个子任务的最小批量，低于该值直接在当前线程顺序校验
+     */
+    private static final int SEQUENTIAL_THRESHOLD = 256;
+
+    private final ForkJoinPool validationPool;
+
+    public ConfigValidationEngine(
+            @Value("${gateway.admin.validation.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.validationPool = new ForkJoinPool(threads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        validationPool.shutdown();
+    }
+
+    /**
+     * 校验网关配置DTO
+     */
+    public ValidationResult validate(GatewayConfigDTO dto) {
+        ValidationResult result = new ValidationResult(dto.getId());
+        validateRouting(dto.getDomain(), dto.getRequestPathPattern(), dto.getBackendForwardPath(), result);
+        return result;
+    }
+
+    /**
+     * 校验已持久化的网关配置
+     */
+    public ValidationResult validate(GatewayConfig config) {
+        ValidationResult result = new ValidationResult(config.getId());
+        validateRouting(config.getDomain(), config.getRequestPathPattern(), config.getBackendForwardPath(), result);
+        return result;
+    }
+
+    private void validateRouting(String domain, String requestPathPattern, String backendForwardPath,
+                                 ValidationResult result) {
+        if (Validators.isBlank(domain)) {
+            result.addError("domain", "域名不能为空");
+        } else if (!Validators.isValidDomain(domain)) {
+            result.addError("domain", "域名格式不正确");
+        }
+
+        if (Validators.isBlank(requestPathPattern)) {
+            result.addError("requestPathPattern", "请求路径模式不能为空");
+        } else if (!Validators.isValidPathPattern(requestPathPattern)) {
+            result.addError("requestPathPattern", "请求路径模式格式不正确");
+        }
+
+        if (Validators.isBlank(backendForwardPath)) {
+            result.addError("backendForwardPath", "后端转发路径不能为空");
+        }
+    }
+
+    /**
+     * 校验Header配置
+     */
+    public ValidationResult validate(HeaderConfigDTO dto) {
+        ValidationResult result = new ValidationResult(null);
+        validateHeaders("requestHeaders", dto.getRequestHeaders(), result);
+        validateHeaders("responseHeaders", dto.getResponseHeaders(), result);
+
+        CspHeaderDTO cspHeader = dto.getCspHeader();
+        if (cspHeader != null
+                && CspHeader.CspTemplateType.CUSTOM.getCode().equals(cspHeader.getTemplateType())
+                && Validators.isBlank(cspHeader.getCspPolicy())) {
+            result.addError("cspHeader.cspPolicy", "自定义CSP策略不能为空");
+        }
+
+        CacheHeaderDTO cacheHeader = dto.getCacheHeader();
+        if (cacheHeader != null) {
+            if (isNegative(cacheHeader.getMaxAgeSeconds())) {
+                result.addError("cacheHeader.maxAgeSeconds", "max-age不能为负数");
+            }
+            if (isNegative(cacheHeader.getStaleWhileRevalidateSeconds())) {
+                result.addError("cacheHeader.staleWhileRevalidateSeconds", "stale-while-revalidate不能为负数");
+            }
+            if (isNegative(cacheHeader.getStaleIfErrorSeconds())) {
+                result.addError("cacheHeader.staleIfErrorSeconds", "stale-if-error不能为负数");
+            }
+        }
+        return result;
+    }
+
+    private void validateHeaders(String field, List<HeaderConfigDTO.HeaderDTO> headers, ValidationResult result) {
+        if (headers == null) {
+            return;
+        }
+        for (int i = 0; i < headers.size(); i++) {
+            String name = headers.get(i).getName();
+            if (Validators.isBlank(name)) {
+                result.addError(field + "[" + i + "].name", "Header名称不能为空");
+            } else if (!Validators.isValidHeaderName(name)) {
+                result.addError(field + "[" + i + "].name", "Header名称格式不正确: " + name);
+            }
+        }
+    }
+
+    private static boolean isNegative(Integer value) {
+        return value != null && value < 0;
+    }
+
+    /**
+     * 校验扩展配置
+     */
+    public ValidationResult validate(ExtensionConfigDTO dto) {
+        ValidationResult result = new ValidationResult(dto.getId() != null ? dto.getId().toString() : null);
+        if (Validators.isBlank(dto.getExtensionType())) {
+            result.addError("extensionType", "扩展类型不能为空");
+            return result;
+        }
+
+        if ("SECURITY_AUTH".equals(dto.getExtensionType()) && dto.getSecurityAuthConfig() != null) {
+            validateSecurityAuthConfig(dto.getSecurityAuthConfig(), result);
+        }
+
+        if ("DYNAMIC_HEADER".equals(dto.getExtensionType()) && dto.getDynamicHeaderInjections() != null) {
+            List<DynamicHeaderInjectionDTO> injections = dto.getDynamicHeaderInjections();
+            for (int i = 0; i < injections.size(); i++) {
+                validateDynamicHeaderInjection("dynamicHeaderInjections[" + i + "]", injections.get(i), result);
+            }
+        }
+        return result;
+    }
+
+    private void validateSecurityAuthConfig(SecurityAuthConfigDTO dto, ValidationResult result) {
+        if (dto.getAuthType() == null) {
+            result.addError("securityAuthConfig.authType", "认证类型不能为空");
+            return;
+        }
+        if (!Validators.isEnumConstant(SecurityAuthConfig.AuthType.class, dto.getAuthType())) {
+            result.addError("securityAuthConfig.authType", "认证类型不正确: " + dto.getAuthType());
+            return;
+        }
+
+        switch (SecurityAuthConfig.AuthType.valueOf(dto.getAuthType())) {
+            case BASIC:
+                if (Validators.isBlank(dto.getUsername())) {
+                    result.addError("securityAuthConfig.username", "基础认证用户名不能为空");
+                }
+                if (Validators.isBlank(dto.getPassword())) {
+                    result.addError("securityAuthConfig.password", "基础认证密码不能为空");
+                }
+                break;
+            case API_KEY:
+                if (Validators.isBlank(dto.getApiKey())) {
+                    result.addError("securityAuthConfig.apiKey", "API密钥不能为空");
+                }
+                break;
+            case JWT:
+                if (Validators.isBlank(dto.getJwtSecret())) {
+                    result.addError("securityAuthConfig.jwtSecret", "JWT密钥不能为空");
+                }
+                break;
+            case OAUTH2:
+                if (Validators.isBlank(dto.getOauth2ClientId())) {
+                    result.addError("securityAuthConfig.oauth2ClientId", "OAuth2客户端ID不能为空");
+                }
+                if (Validators.isBlank(dto.getOauth2ClientSecret())) {
+                    result.addError("securityAuthConfig.oauth2ClientSecret", "OAuth2客户端密钥不能为空");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void validateDynamicHeaderInjection(String field, DynamicHeaderInjectionDTO dto, ValidationResult result) {
+        if (Validators.isBlank(dto.getHeaderName())) {
+            result.addError(field + ".headerName", "Header名称不能为空");
+        }
+
+        if (dto.getValueType() == null) {
+            result.addError(field + ".valueType", "值类型不能为空");
+            return;
+        }
+        if (!Validators.isEnumConstant(DynamicHeaderInjection.ValueType.class, dto.getValueType())) {
+            result.addError(field + ".valueType", "值类型不正确: " + dto.getValueType());
+            return;
+        }
+
+        switch (DynamicHeaderInjection.ValueType.valueOf(dto.getValueType())) {
+            case STATIC:
+                if (Validators.isBlank(dto.getHeaderValue())) {
+                    result.addError(field + ".headerValue", "静态值不能为空");
+                }
+                break;
+            case EXPRESSION:
+                if (Validators.isBlank(dto.getValueExpression())) {
+                    result.addError(field + ".valueExpression", "表达式不能为空");
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 批量校验网关配置DTO
+     */
+    public List<ValidationResult> validateAll(List<GatewayConfigDTO> dtos) {
+        return validateAll(dtos, this::validate);
+    }
+
+    /**
+     * 批量校验已持久化的网关配置
+     */
+    public List<ValidationResult> validateAllConfigs(List<GatewayConfig> configs) {
+        return validateAll(configs, this::validate);
+    }
+
+    /**
+     * 批量校验，结果顺序与输入顺序一致
+     */
+    public <T> List<ValidationResult> validateAll(List<T> items, Function<T, ValidationResult> validator) {
+        if (!(items instanceof RandomAccess)) {
+            items = new ArrayList<>(items);
+        }
+        ValidationResult[] results = new ValidationResult[items.size()];
+        if (items.size() <= SEQUENTIAL_THRESHOLD) {
+            new ValidateTask<>(items, validator, results, 0, items.size()).compute();
+        } else {
+            validationPool.invoke(new ValidateTask<>(items, validator, results, 0, items.size()));
+        }
+        return new ArrayList<>(Arrays.asList(results));
+    }
+
+    /**
+     * 二分拆分的校验任务，每个子任务写入结果数组中互不重叠的区间
+     */
+    private static final class ValidateTask<T> extends RecursiveAction {
+
+        private final List<T> items;
+        private final Function<T, ValidationResult> validator;
+        private final ValidationResult[] results;
+        private final int from;
+        private final int to;
+
+        ValidateTask(List<T> items, Function<T, ValidationResult> validator,
+                     ValidationResult[] results, int from, int to) {
+            this.items = items;
+            this.validator = validator;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    results[i] = validator.apply(items.get(i));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ValidateTask<>(items, validator, results, from, mid),
+                    new ValidateTask<>(items, validator, results, mid, to));
+        }
+    }
+}
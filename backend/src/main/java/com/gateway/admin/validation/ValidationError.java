@@ -0,0 +1,29 @@
+package com.gateway.admin.validation;
+
+/**
+ * Validation Error
+ * 单条校验错误
+ */
+public class ValidationError {
+
+    private final String field;
+    private final String message;
+
+    public ValidationError(String field, String message) {
+        this.field = field;
+        this.message = message;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return field + ": " + message;
+    }
+}
@@ -0,0 +1,68 @@
+package com.gateway.admin.validation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Validation Result
+ * 单个对象的校验结果，收集该对象的全部错误而不是在第一个错误处停止
+ */
+public class ValidationResult {
+
+    private final String target;
+    private List<ValidationError> errors;
+
+    public ValidationResult(String target) {
+        this.target = target;
+    }
+
+    public void addError(String field, String message) {
+        if (errors == null) {
+            errors = new ArrayList<>(4);
+        }
+        errors.add(new ValidationError(field, message));
+    }
+
+    public void merge(ValidationResult other) {
+        if (other.errors != null) {
+            if (errors == null) {
+                errors = new ArrayList<>(other.errors.size());
+            }
+            errors.addAll(other.errors);
+        }
+    }
+
+    /**
+     * 校验对象标识（配置ID、导入行号等）
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors == null ? Collections.emptyList() : Collections.unmodifiableList(errors);
+    }
+
+    public boolean isValid() {
+        return errors == null || errors.isEmpty();
+    }
+
+    /**
+     * 将全部错误拼接为一条消息
+     */
+    public String getMessage() {
+        return getErrors().stream()
+                .map(ValidationError::getMessage)
+                .collect(Collectors.joining("; "));
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationResult{" +
+                "target='" + target + '\'' +
+                ", errors=" + getErrors() +
+                '}';
+    }
+}
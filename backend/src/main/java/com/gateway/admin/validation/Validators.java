@@ -0,0 +1,121 @@
+package com.gateway.admin.validation;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Validators
+ * 手写的格式校验器
+ *
+ * 替代 String.matches 的正则校验：String.matches 每次调用都会重新编译正则，
+ * 这里逐字符扫描，不分配任何对象，语义与原正则保持一致。
+ */
+public final class Validators {
+
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    /**
+     * 每个枚举类型的常量名集合；getEnumConstants 每次调用都会复制常量数组
+     */
+    private static final ClassValue<Set<String>> ENUM_NAMES = new ClassValue<>() {
+        @Override
+        protected Set<String> computeValue(Class<?> type) {
+            Set<String> names = new HashSet<>();
+            for (Object constant : type.getEnumConstants()) {
+                names.add(((Enum<?>) constant).name());
+            }
+            return Set.copyOf(names);
+        }
+    };
+
+    private Validators() {
+    }
+
+    /**
+     * 判断字符串是否为空或仅包含空白字符
+     */
+    public static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证域名格式
+     * 等价于 ^[a-zA-Z0-9]([a-zA-Z0-9\-]{0,61}[a-zA-Z0-9])?(\.[a-zA-Z0-9]([a-zA-Z0-9\-]{0,61}[a-zA-Z0-9])?)*$
+     */
+    public static boolean isValidDomain(String domain) {
+        if (domain == null || domain.isEmpty()) {
+            return false;
+        }
+        int labelStart = 0;
+        int length = domain.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || domain.charAt(i) == '.') {
+                if (!isValidLabel(domain, labelStart, i)) {
+                    return false;
+                }
+                labelStart = i + 1;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValidLabel(String domain, int start, int end) {
+        int labelLength = end - start;
+        if (labelLength < 1 || labelLength > MAX_LABEL_LENGTH) {
+            return false;
+        }
+        if (!isAlphanumeric(domain.charAt(start)) || !isAlphanumeric(domain.charAt(end - 1))) {
+            return false;
+        }
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = domain.charAt(i);
+            if (!isAlphanumeric(c) && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 验证路径模式格式
+     */
+    public static boolean isValidPathPattern(String pathPattern) {
+        return pathPattern != null && pathPattern.length() > 1 && pathPattern.charAt(0) == '/';
+    }
+
+    /**
+     * 验证Header名称格式
+     * 等价于 ^[A-Za-z0-9\-]+$
+     */
+    public static boolean isValidHeaderName(String name) {
+        if (name == null || name.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!isAlphanumeric(c) && c != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断名称是否为枚举的合法常量名
+     */
+    public static <E extends Enum<E>> boolean isEnumConstant(Class<E> enumType, String name) {
+        return name != null && ENUM_NAMES.get(enumType).contains(name);
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,556 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.entity.BackendServer;
+import com.gateway.admin.entity.CacheHeader;
+import com.gateway.admin.entity.ConfigStatus;
+import com.gateway.admin.entity.CspHeader;
+import com.gateway.admin.entity.DynamicHeaderInjection;
+import com.gateway.admin.entity.ExtensionConfig;
+import com.gateway.admin.entity.GatewayConfig;
+import com.gateway.admin.entity.Header;
+import com.gateway.admin.entity.HeaderConfig;
+import com.gateway.admin.entity.IpRule;
+import com.gateway.admin.entity.LimiterConfig;
+import com.gateway.admin.entity.SecurityAuthConfig;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Configuration Snapshot Mapper
+ * 将 GatewayConfig 聚合（后端、Header、限流、扩展）转换为规范化的JSON快照
+ *
+ * 子集合按自然键（host:port、Header名称、CIDR、扩展类型）转换为有序对象而不是数组，
+ * 这样两个版本之间可以按键做线性时间的结构化比较，增量中的路径也保持稳定。
+ * 空值字段不写入快照；版本号、时间戳等元数据保存在版本记录上，不属于快照内容。
+ *
+ * {@link #applySnapshot} 是反向操作：把快照写回实体聚合，子对象按同一自然键复用已有行。
+ *
+ * 认证密钥（password、apiKey、jwtSecret、oauth2ClientSecret）不进入版本历史：快照中只记录 {@link #REDACTED}，
+ * 回滚时保留当前的密钥。只有内容哈希使用含密钥的快照（{@link #toSnapshot(GatewayConfig, boolean)}），
+ * 单独更换密钥仍算一次内容变化。
+ */
+public final class ConfigSnapshotMapper {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    /**
+     * 快照中代替密钥明文的占位值
+     */
+    public static final String REDACTED = "******";
+
+    private ConfigSnapshotMapper() {
+    }
+
+    /**
+     * 生成配置聚合的快照（密钥以占位值代替），用于版本历史、对比与字段归属
+     */
+    public static ObjectNode toSnapshot(GatewayConfig config) {
+        return toSnapshot(config, false);
+    }
+
+    /**
+     * 生成配置聚合的快照
+     *
+     * @param includeSecrets 是否写入密钥明文；只用于计算内容哈希，结果不得持久化
+     */
+    static ObjectNode toSnapshot(GatewayConfig config, boolean includeSecrets) {
+        ObjectNode root = NODES.objectNode();
+        put(root, "domain", config.getDomain());
+        put(root, "requestPathPattern", config.getRequestPathPattern());
+        put(root, "backendForwardPath", config.getBackendForwardPath());
+        put(root, "cmdbProject", config.getCmdbProject());
+        put(root, "status", config.getStatus());
+        put(root, "extensionType", config.getExtensionType());
+        put(root, "extensionData", config.getExtensionData());
+        put(root, "description", config.getDescription());
+
+        putKeyed(root, "backends", config.getBackendServers(),
+                ConfigSnapshotMapper::backendKey, ConfigSnapshotMapper::backendNode);
+
+        if (config.getHeaderConfig() != null) {
+            root.set("headers", headerConfigNode(config.getHeaderConfig()));
+        }
+        if (config.getLimiterConfig() != null) {
+            root.set("limiter", limiterNode(config.getLimiterConfig()));
+        }
+
+        putKeyed(root, "extensions", config.getExtensionConfigs(),
+                ExtensionConfig::getExtensionType, extension -> extensionNode(extension, includeSecrets));
+        return root;
+    }
+
+    /**
+     * 将快照写回配置聚合（用于回滚）
+     * 快照中缺失的字段置空；子集合按自然键对齐，已有行原地更新，多余行删除，缺失行新建
+     */
+    public static void applySnapshot(GatewayConfig config, JsonNode snapshot) {
+        config.setDomain(text(snapshot, "domain"));
+        config.setRequestPathPattern(text(snapshot, "requestPathPattern"));
+        config.setBackendForwardPath(text(snapshot, "backendForwardPath"));
+        config.setCmdbProject(text(snapshot, "cmdbProject"));
+        config.setStatus(enumValue(snapshot, "status", ConfigStatus.class));
+        config.setExtensionType(text(snapshot, "extensionType"));
+        config.setExtensionData(text(snapshot, "extensionData"));
+        config.setDescription(text(snapshot, "description"));
+
+        reconcile(config.getBackendServers(), snapshot.get("backends"), ConfigSnapshotMapper::backendKey,
+                () -> {
+                    BackendServer backend = new BackendServer();
+                    backend.setGatewayConfig(config);
+                    return backend;
+                }, ConfigSnapshotMapper::applyBackend);
+
+        JsonNode headers = snapshot.get("headers");
+        if (headers == null) {
+            config.setHeaderConfig(null);
+        } else {
+            HeaderConfig headerConfig = config.getHeaderConfig();
+            if (headerConfig == null) {
+                headerConfig = new HeaderConfig();
+                headerConfig.setGatewayConfig(config);
+                config.setHeaderConfig(headerConfig);
+            }
+            applyHeaderConfig(headerConfig, headers);
+        }
+
+        JsonNode limiter = snapshot.get("limiter");
+        if (limiter == null) {
+            config.setLimiterConfig(null);
+        } else {
+            LimiterConfig limiterConfig = config.getLimiterConfig();
+            if (limiterConfig == null) {
+                limiterConfig = new LimiterConfig();
+                limiterConfig.setGatewayConfig(config);
+                config.setLimiterConfig(limiterConfig);
+            }
+            applyLimiter(limiterConfig, limiter);
+        }
+
+        reconcile(config.getExtensionConfigs(), snapshot.get("extensions"), ExtensionConfig::getExtensionType,
+                () -> {
+                    ExtensionConfig extension = new ExtensionConfig();
+                    extension.setGatewayConfig(config);
+                    return extension;
+                }, ConfigSnapshotMapper::applyExtension);
+    }
+
+    /**
+     * 后端服务器的自然键
+     */
+    public static String backendKey(BackendServer backend) {
+        return backend.getHostname() + ":" + backend.getPort();
+    }
+
+    private static ObjectNode backendNode(BackendServer backend) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "hostname", backend.getHostname());
+        put(node, "port", backend.getPort());
+        put(node, "protocol", backend.getProtocol());
+        put(node, "region", backend.getRegion());
+        put(node, "dataCenter", backend.getDataCenter());
+        put(node, "enabled", backend.getEnabled());
+        put(node, "weight", backend.getWeight());
+        put(node, "healthCheckUrl", backend.getHealthCheckUrl());
+        put(node, "timeoutSeconds", backend.getTimeoutSeconds());
+        put(node, "retryCount", backend.getRetryCount());
+        return node;
+    }
+
+    private static ObjectNode headerConfigNode(HeaderConfig headerConfig) {
+        ObjectNode node = NODES.objectNode();
+        putKeyed(node, "requestHeaders", headerConfig.getRequestHeaders(),
+                Header::getName, ConfigSnapshotMapper::headerNode);
+        putKeyed(node, "responseHeaders", headerConfig.getResponseHeaders(),
+                Header::getName, ConfigSnapshotMapper::headerNode);
+
+        CspHeader csp = headerConfig.getCspHeader();
+        if (csp != null) {
+            ObjectNode cspNode = NODES.objectNode();
+            put(cspNode, "templateType", csp.getTemplateType());
+            put(cspNode, "cspPolicy", csp.getCspPolicy());
+            put(cspNode, "enabled", csp.getEnabled());
+            put(cspNode, "description", csp.getDescription());
+            node.set("csp", cspNode);
+        }
+
+        CacheHeader cache = headerConfig.getCacheHeader();
+        if (cache != null) {
+            ObjectNode cacheNode = NODES.objectNode();
+            put(cacheNode, "cacheControl", cache.getCacheControl());
+            put(cacheNode, "etagEnabled", cache.getEtagEnabled());
+            put(cacheNode, "maxAgeSeconds", cache.getMaxAgeSeconds());
+            put(cacheNode, "staleWhileRevalidateSeconds", cache.getStaleWhileRevalidateSeconds());
+            put(cacheNode, "staleIfErrorSeconds", cache.getStaleIfErrorSeconds());
+            put(cacheNode, "varyHeaders", cache.getVaryHeaders());
+            put(cacheNode, "enabled", cache.getEnabled());
+            put(cacheNode, "description", cache.getDescription());
+            node.set("cache", cacheNode);
+        }
+        return node;
+    }
+
+    private static ObjectNode headerNode(Header header) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "name", header.getName());
+        put(node, "value", header.getValue());
+        put(node, "override", header.getOverride());
+        put(node, "enabled", header.getEnabled());
+        put(node, "description", header.getDescription());
+        return node;
+    }
+
+    private static ObjectNode limiterNode(LimiterConfig limiter) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "maxConcurrent", limiter.getMaxConcurrent());
+        // 开关只在开启时写入，未开启的配置快照与引入这些字段前保持一致
+        if (Boolean.TRUE.equals(limiter.getAdaptiveConcurrency())) {
+            node.put("adaptiveConcurrency", true);
+        }
+        if (Boolean.TRUE.equals(limiter.getClusterWide())) {
+            node.put("clusterWide", true);
+        }
+        put(node, "limitKey", limiter.getLimitKey());
+        put(node, "maxPerMinute", limiter.getMaxPerMinute());
+        put(node, "maxPerSecond", limiter.getMaxPerSecond());
+        put(node, "allowedMethods", limiter.getAllowedMethods());
+        put(node, "rateLimitWindowSeconds", limiter.getRateLimitWindowSeconds());
+        put(node, "burstSize", limiter.getBurstSize());
+        put(node, "circuitBreakerEnabled", limiter.getCircuitBreakerEnabled());
+        put(node, "errorThresholdPercentage", limiter.getErrorThresholdPercentage());
+        put(node, "recoveryTimeSeconds", limiter.getRecoveryTimeSeconds());
+        put(node, "halfOpenMaxCalls", limiter.getHalfOpenMaxCalls());
+        put(node, "ipTable", limiter.getIpTable());
+        putKeyed(node, "ipRules", limiter.getIpRules(),
+                IpRule::getIpOrCidr, ConfigSnapshotMapper::ipRuleNode);
+        return node;
+    }
+
+    private static ObjectNode ipRuleNode(IpRule rule) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "ipOrCidr", rule.getIpOrCidr());
+        put(node, "mode", rule.getMode());
+        put(node, "priority", rule.getPriority());
+        put(node, "enabled", rule.getEnabled());
+        put(node, "description", rule.getDescription());
+        return node;
+    }
+
+    private static ObjectNode extensionNode(ExtensionConfig extension, boolean includeSecrets) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "extensionType", extension.getExtensionType());
+        put(node, "enabled", extension.getEnabled());
+        put(node, "priority", extension.getPriority());
+        put(node, "description", extension.getDescription());
+
+        SecurityAuthConfig auth = extension.getSecurityAuthConfig();
+        if (auth != null) {
+            ObjectNode authNode = NODES.objectNode();
+            put(authNode, "authType", auth.getAuthType());
+            put(authNode, "username", auth.getUsername());
+            putSecret(authNode, "password", auth.getPassword(), includeSecrets);
+            putSecret(authNode, "apiKey", auth.getApiKey(), includeSecrets);
+            put(authNode, "apiKeyHeader", auth.getApiKeyHeader());
+            putSecret(authNode, "jwtSecret", auth.getJwtSecret(), includeSecrets);
+            put(authNode, "jwtIssuer", auth.getJwtIssuer());
+            put(authNode, "jwtAudience", auth.getJwtAudience());
+            put(authNode, "oauth2ClientId", auth.getOauth2ClientId());
+            putSecret(authNode, "oauth2ClientSecret", auth.getOauth2ClientSecret(), includeSecrets);
+            put(authNode, "oauth2AuthorizationUrl", auth.getOauth2AuthorizationUrl());
+            put(authNode, "oauth2TokenUrl", auth.getOauth2TokenUrl());
+            put(authNode, "enabled", auth.getEnabled());
+            put(authNode, "description", auth.getDescription());
+            node.set("securityAuth", authNode);
+        }
+
+        putKeyed(node, "dynamicHeaders", extension.getDynamicHeaderInjections(),
+                DynamicHeaderInjection::getHeaderName, ConfigSnapshotMapper::dynamicHeaderNode);
+        return node;
+    }
+
+    private static ObjectNode dynamicHeaderNode(DynamicHeaderInjection injection) {
+        ObjectNode node = NODES.objectNode();
+        put(node, "headerName", injection.getHeaderName());
+        put(node, "headerValue", injection.getHeaderValue());
+        put(node, "valueType", injection.getValueType());
+        put(node, "valueExpression", injection.getValueExpression());
+        put(node, "conditionExpression", injection.getConditionExpression());
+        put(node, "priority", injection.getPriority());
+        put(node, "enabled", injection.getEnabled());
+        put(node, "description", injection.getDescription());
+        return node;
+    }
+
+    private static void applyBackend(BackendServer backend, JsonNode node) {
+        backend.setHostname(text(node, "hostname"));
+        backend.setPort(integer(node, "port"));
+        backend.setProtocol(enumValue(node, "protocol", BackendServer.Protocol.class));
+        backend.setRegion(enumValue(node, "region", BackendServer.Region.class));
+        backend.setDataCenter(text(node, "dataCenter"));
+        backend.setEnabled(bool(node, "enabled"));
+        backend.setWeight(integer(node, "weight"));
+        backend.setHealthCheckUrl(text(node, "healthCheckUrl"));
+        backend.setTimeoutSeconds(integer(node, "timeoutSeconds"));
+        backend.setRetryCount(integer(node, "retryCount"));
+    }
+
+    private static void applyHeaderConfig(HeaderConfig headerConfig, JsonNode node) {
+        reconcile(headerConfig.getRequestHeaders(), node.get("requestHeaders"), Header::getName,
+                () -> newHeader(headerConfig, Header.HeaderType.REQUEST), ConfigSnapshotMapper::applyHeader);
+        reconcile(headerConfig.getResponseHeaders(), node.get("responseHeaders"), Header::getName,
+                () -> newHeader(headerConfig, Header.HeaderType.RESPONSE), ConfigSnapshotMapper::applyHeader);
+
+        JsonNode cspNode = node.get("csp");
+        if (cspNode == null) {
+            headerConfig.setCspHeader(null);
+        } else {
+            CspHeader csp = headerConfig.getCspHeader();
+            if (csp == null) {
+                csp = new CspHeader();
+                csp.setHeaderConfig(headerConfig);
+                headerConfig.setCspHeader(csp);
+            }
+            csp.setTemplateType(enumValue(cspNode, "templateType", CspHeader.CspTemplateType.class));
+            csp.setCspPolicy(text(cspNode, "cspPolicy"));
+            csp.setEnabled(bool(cspNode, "enabled"));
+            csp.setDescription(text(cspNode, "description"));
+        }
+
+        JsonNode cacheNode = node.get("cache");
+        if (cacheNode == null) {
+            headerConfig.setCacheHeader(null);
+        } else {
+            CacheHeader cache = headerConfig.getCacheHeader();
+            if (cache == null) {
+                cache = new CacheHeader();
+                cache.setHeaderConfig(headerConfig);
+                headerConfig.setCacheHeader(cache);
+            }
+            cache.setCacheControl(text(cacheNode, "cacheControl"));
+            cache.setEtagEnabled(bool(cacheNode, "etagEnabled"));
+            cache.setMaxAgeSeconds(integer(cacheNode, "maxAgeSeconds"));
+            cache.setStaleWhileRevalidateSeconds(integer(cacheNode, "staleWhileRevalidateSeconds"));
+            cache.setStaleIfErrorSeconds(integer(cacheNode, "staleIfErrorSeconds"));
+            cache.setVaryHeaders(text(cacheNode, "varyHeaders"));
+            cache.setEnabled(bool(cacheNode, "enabled"));
+            cache.setDescription(text(cacheNode, "description"));
+        }
+    }
+
+    private static Header newHeader(HeaderConfig headerConfig, Header.HeaderType headerType) {
+        Header header = new Header();
+        header.setHeaderType(headerType);
+        header.setHeaderConfig(headerConfig);
+        return header;
+    }
+
+    private static void applyHeader(Header header, JsonNode node) {
+        header.setName(text(node, "name"));
+        header.setValue(text(node, "value"));
+        header.setOverride(bool(node, "override"));
+        header.setEnabled(bool(node, "enabled"));
+        header.setDescription(text(node, "description"));
+    }
+
+    private static void applyLimiter(LimiterConfig limiter, JsonNode node) {
+        limiter.setMaxConcurrent(integer(node, "maxConcurrent"));
+        limiter.setAdaptiveConcurrency(Boolean.TRUE.equals(bool(node, "adaptiveConcurrency")));
+        limiter.setClusterWide(Boolean.TRUE.equals(bool(node, "clusterWide")));
+        limiter.setLimitKey(enumValue(node, "limitKey", LimiterConfig.LimitKey.class));
+        limiter.setMaxPerMinute(integer(node, "maxPerMinute"));
+        limiter.setMaxPerSecond(integer(node, "maxPerSecond"));
+        limiter.setAllowedMethods(text(node, "allowedMethods"));
+        limiter.setRateLimitWindowSeconds(integer(node, "rateLimitWindowSeconds"));
+        limiter.setBurstSize(integer(node, "burstSize"));
+        limiter.setCircuitBreakerEnabled(bool(node, "circuitBreakerEnabled"));
+        limiter.setErrorThresholdPercentage(integer(node, "errorThresholdPercentage"));
+        limiter.setRecoveryTimeSeconds(integer(node, "recoveryTimeSeconds"));
+        limiter.setHalfOpenMaxCalls(integer(node, "halfOpenMaxCalls"));
+        limiter.setIpTable(text(node, "ipTable"));
+        reconcile(limiter.getIpRules(), node.get("ipRules"), IpRule::getIpOrCidr,
+                () -> {
+                    IpRule rule = new IpRule();
+                    rule.setLimiterConfig(limiter);
+                    return rule;
+                }, ConfigSnapshotMapper::applyIpRule);
+    }
+
+    private static void applyIpRule(IpRule rule, JsonNode node) {
+        rule.setIpOrCidr(text(node, "ipOrCidr"));
+        rule.setMode(enumValue(node, "mode", IpRule.IpRuleMode.class));
+        rule.setPriority(integer(node, "priority"));
+        rule.setEnabled(bool(node, "enabled"));
+        rule.setDescription(text(node, "description"));
+    }
+
+    private static void applyExtension(ExtensionConfig extension, JsonNode node) {
+        extension.setExtensionType(text(node, "extensionType"));
+        extension.setEnabled(bool(node, "enabled"));
+        extension.setPriority(integer(node, "priority"));
+        extension.setDescription(text(node, "description"));
+
+        JsonNode authNode = node.get("securityAuth");
+        if (authNode == null) {
+            extension.setSecurityAuthConfig(null);
+        } else {
+            SecurityAuthConfig auth = extension.getSecurityAuthConfig();
+            if (auth == null) {
+                auth = new SecurityAuthConfig();
+                auth.setExtensionConfig(extension);
+                extension.setSecurityAuthConfig(auth);
+            }
+            auth.setAuthType(enumValue(authNode, "authType", SecurityAuthConfig.AuthType.class));
+            auth.setUsername(text(authNode, "username"));
+            auth.setPassword(secret(authNode, "password", auth.getPassword()));
+            auth.setApiKey(secret(authNode, "apiKey", auth.getApiKey()));
+            auth.setApiKeyHeader(text(authNode, "apiKeyHeader"));
+            auth.setJwtSecret(secret(authNode, "jwtSecret", auth.getJwtSecret()));
+            auth.setJwtIssuer(text(authNode, "jwtIssuer"));
+            auth.setJwtAudience(text(authNode, "jwtAudience"));
+            auth.setOauth2ClientId(text(authNode, "oauth2ClientId"));
+            auth.setOauth2ClientSecret(secret(authNode, "oauth2ClientSecret", auth.getOauth2ClientSecret()));
+            auth.setOauth2AuthorizationUrl(text(authNode, "oauth2AuthorizationUrl"));
+            auth.setOauth2TokenUrl(text(authNode, "oauth2TokenUrl"));
+            auth.setEnabled(bool(authNode, "enabled"));
+            auth.setDescription(text(authNode, "description"));
+        }
+
+        reconcile(extension.getDynamicHeaderInjections(), node.get("dynamicHeaders"),
+                DynamicHeaderInjection::getHeaderName,
+                () -> {
+                    DynamicHeaderInjection injection = new DynamicHeaderInjection();
+                    injection.setExtensionConfig(extension);
+                    return injection;
+                }, ConfigSnapshotMapper::applyDynamicHeader);
+    }
+
+    private static void applyDynamicHeader(DynamicHeaderInjection injection, JsonNode node) {
+        injection.setHeaderName(text(node, "headerName"));
+        injection.setHeaderValue(text(node, "headerValue"));
+        injection.setValueType(enumValue(node, "valueType", DynamicHeaderInjection.ValueType.class));
+        injection.setValueExpression(text(node, "valueExpression"));
+        injection.setConditionExpression(text(node, "conditionExpression"));
+        injection.setPriority(integer(node, "priority"));
+        injection.setEnabled(bool(node, "enabled"));
+        injection.setDescription(text(node, "description"));
+    }
+
+    /**
+     * 将子集合与快照中的键控对象对齐，键的生成规则（含重复键序号）与 putKeyed 一致
+     */
+    private static <T> void reconcile(List<T> items, JsonNode keyed, Function<T, String> keyFunction,
+                                      Supplier<T> factory, BiConsumer<T, JsonNode> applier) {
+        Map<String, T> existing = new HashMap<>();
+        for (T item : items) {
+            String key = String.valueOf(keyFunction.apply(item));
+            String uniqueKey = key;
+            for (int n = 2; existing.containsKey(uniqueKey); n++) {
+                uniqueKey = key + "#" + n;
+            }
+            existing.put(uniqueKey, item);
+        }
+
+        if (keyed != null) {
+            Iterator<Map.Entry<String, JsonNode>> fields = keyed.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                T item = existing.remove(field.getKey());
+                if (item == null) {
+                    item = factory.get();
+                    items.add(item);
+                }
+                applier.accept(item, field.getValue());
+            }
+        }
+        if (!existing.isEmpty()) {
+            items.removeAll(existing.values());
+        }
+    }
+
+    /**
+     * 将子集合按自然键写为有序对象；自然键重复时追加序号保证唯一
+     */
+    private static <T> void putKeyed(ObjectNode parent, String field, List<T> items,
+                                     Function<T, String> keyFunction, Function<T, ObjectNode> nodeFunction) {
+        if (items == null || items.isEmpty()) {
+            return;
+        }
+        Map<String, ObjectNode> sorted = new TreeMap<>();
+        for (T item : items) {
+            String key = String.valueOf(keyFunction.apply(item));
+            String uniqueKey = key;
+            for (int n = 2; sorted.containsKey(uniqueKey); n++) {
+                uniqueKey = key + "#" + n;
+            }
+            sorted.put(uniqueKey, nodeFunction.apply(item));
+        }
+        ObjectNode node = parent.putObject(field);
+        sorted.forEach(node::set);
+    }
+
+    private static void putSecret(ObjectNode node, String field, String value, boolean includeSecrets) {
+        if (value != null) {
+            node.put(field, includeSecrets ? value : REDACTED);
+        }
+    }
+
+    /**
+     * 回滚时的密钥：快照中有值（占位值或旧历史中的明文）时保留当前密钥，不从历史读取；快照中没有时置空
+     */
+    private static String secret(JsonNode node, String field, String current) {
+        return node.hasNonNull(field) ? current : null;
+    }
+
+    private static void put(ObjectNode node, String field, String value) {
+        if (value != null) {
+            node.put(field, value);
+        }
+    }
+
+    private static void put(ObjectNode node, String field, Integer value) {
+        if (value != null) {
+            node.put(field, value);
+        }
+    }
+
+    private static void put(ObjectNode node, String field, Boolean value) {
+        if (value != null) {
+            node.put(field, value);
+        }
+    }
+
+    private static void put(ObjectNode node, String field, Enum<?> value) {
+        if (value != null) {
+            node.put(field, value.name());
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asText() : null;
+    }
+
+    private static Integer integer(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asInt() : null;
+    }
+
+    private static Boolean bool(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value != null && !value.isNull() ? value.asBoolean() : null;
+    }
+
+    private static <E extends Enum<E>> E enumValue(JsonNode node, String field, Class<E> type) {
+        String value = text(node, field);
+        return value != null ? Enum.valueOf(type, value) : null;
+    }
+}
@@ -0,0 +1,95 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.admin.entity.GatewayConfig;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Content Hasher
+ * 配置聚合的内容哈希
+ *
+ * 对快照做规范化序列化（对象字段按名称排序、无空白）后取 SHA-256，
+ * 内容相同的聚合无论字段写入顺序如何都得到相同的哈希。
+ * 聚合的哈希包含认证密钥（版本快照中是占位值），只更换密钥也会得到新的哈希。
+ */
+public final class ContentHasher {
+
+    private static final JsonFactory JSON_FACTORY = new ObjectMapper().getFactory();
+
+    private ContentHasher() {
+    }
+
+    /**
+     * 计算配置聚合当前内容的哈希
+     */
+    public static String hash(GatewayConfig config) {
+        return hash(ConfigSnapshotMapper.toSnapshot(config, true));
+    }
+
+    /**
+     * 计算快照的哈希（64位十六进制）
+     */
+    public static String hash(JsonNode snapshot) {
+        return HexFormat.of().formatHex(digest(snapshot));
+    }
+
+    /**
+     * 计算单个节点的64位指纹（SHA-256 前8字节），用于字段级变化判断
+     */
+    public static long fingerprint(JsonNode node) {
+        return ByteBuffer.wrap(digest(node)).getLong();
+    }
+
+    private static byte[] digest(JsonNode node) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            writeCanonical(generator, node);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(out.toByteArray());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static void writeCanonical(JsonGenerator generator, JsonNode node) throws IOException {
+        if (node.isObject()) {
+            List<String> names = new ArrayList<>(node.size());
+            Iterator<String> fieldNames = node.fieldNames();
+            while (fieldNames.hasNext()) {
+                names.add(fieldNames.next());
+            }
+            Collections.sort(names);
+            generator.writeStartObject();
+            for (String name : names) {
+                generator.writeFieldName(name);
+                writeCanonical(generator, node.get(name));
+            }
+            generator.writeEndObject();
+        } else if (node.isArray()) {
+            generator.writeStartArray();
+            for (JsonNode element : node) {
+                writeCanonical(generator, element);
+            }
+            generator.writeEndArray();
+        } else {
+            generator.writeTree(node);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Routing Table Entry
+ * 某一时间点路由表中的一条配置：配置ID、当时的版本号及完整快照
+ */
+public class RoutingTableEntry {
+
+    private final String configId;
+    private final int version;
+    private final ObjectNode snapshot;
+
+    public RoutingTableEntry(String configId, int version, ObjectNode snapshot) {
+        this.configId = configId;
+        this.version = version;
+        this.snapshot = snapshot;
+    }
+
+    public String getConfigId() {
+        return configId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public ObjectNode getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,72 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Snapshot Change
+ * 两个快照之间的一处结构化差异，路径为 JSON Pointer (RFC 6901)
+ */
+public class SnapshotChange {
+
+    private final String path;
+    private final ChangeType type;
+    private final JsonNode oldValue;
+    private final JsonNode newValue;
+
+    public SnapshotChange(String path, ChangeType type, JsonNode oldValue, JsonNode newValue) {
+        this.path = path;
+        this.type = type;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public JsonNode getOldValue() {
+        return oldValue;
+    }
+
+    public JsonNode getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return "SnapshotChange{" +
+                "path='" + path + '\'' +
+                ", type=" + type +
+                '}';
+    }
+
+    /**
+     * Change Type Enum
+     * 差异类型枚举
+     */
+    public enum ChangeType {
+        ADDED("ADDED", "新增"),
+        REMOVED("REMOVED", "删除"),
+        MODIFIED("MODIFIED", "修改");
+
+        private final String code;
+        private final String description;
+
+        ChangeType(String code, String description) {
+            this.code = code;
+            this.description = description;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+}
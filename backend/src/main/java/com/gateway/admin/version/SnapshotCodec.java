@@ -0,0 +1,53 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gateway.admin.exception.GatewayConfigException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Snapshot Codec
+ * 快照与增量的存储编码：JSON + Deflate 压缩
+ */
+public final class SnapshotCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SnapshotCodec() {
+    }
+
+    /**
+     * 编码为压缩后的字节
+     */
+    public static byte[] encode(JsonNode node) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (OutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+            MAPPER.writeValue(out, node);
+        } catch (IOException e) {
+            throw new GatewayConfigException("快照编码失败", e);
+        } finally {
+            deflater.end();
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 解码压缩字节
+     */
+    public static JsonNode decode(byte[] payload) {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(payload))) {
+            return MAPPER.readTree(in);
+        } catch (IOException e) {
+            throw new GatewayConfigException("快照解码失败", e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.gateway.admin.version;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.gateway.admin.exception.GatewayConfigException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot Differ
+ * 快照结构化比较与增量编码
+ *
+ * 对象按字段名逐层比较（哈希查找，线性时间），其它节点按值比较。
+ * 增量为类 JSON Patch 的操作数组：{"op":"set","path":...,"value":...} / {"op":"remove","path":...}，
+ * 只记录新值，旧值可由前一个版本还原。
+ */
+public final class SnapshotDiffer {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private static final String OP = "op";
+    private static final String PATH = "path";
+    private static final String VALUE = "value";
+    private static final String OP_SET = "set";
+    private static final String OP_REMOVE = "remove";
+
+    private SnapshotDiffer() {
+    }
+
+    /**
+     * 比较两个快照，返回从 from 到 to 的全部差异
+     */
+    public static List<SnapshotChange> diff(JsonNode from, JsonNode to) {
+        List<SnapshotChange> changes = new ArrayList<>();
+        diff("", from, to, changes);
+        return changes;
+    }
+
+    private static void diff(String path, JsonNode from, JsonNode to, List<SnapshotChange> changes) {
+        if (from != null && to != null && from.isObject() && to.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = from.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String childPath = path + "/" + escape(field.getKey());
+                JsonNode target = to.get(field.getKey());
+                if (target == null) {
+                    changes.add(new SnapshotChange(childPath, SnapshotChange.ChangeType.REMOVED, field.getValue(), null));
+                } else {
+                    diff(childPath, field.getValue(), target, changes);
+                }
+            }
+            Iterator<Map.Entry<String, JsonNode>> added = to.fields();
+            while (added.hasNext()) {
+                Map.Entry<String, JsonNode> field = added.next();
+                if (!from.has(field.getKey())) {
+                    changes.add(new SnapshotChange(path + "/" + escape(field.getKey()),
+                            SnapshotChange.ChangeType.ADDED, null, field.getValue()));
+                }
+            }
+        } else if (from == null) {
+            changes.add(new SnapshotChange(path, SnapshotChange.ChangeType.ADDED, null, to));
+        } else if (to == null) {
+            changes.add(new SnapshotChange(path, SnapshotChange.ChangeType.REMOVED, from, null));
+        } else if (!from.equals(to)) {
+            changes.add(new SnapshotChange(path, SnapshotChange.ChangeType.MODIFIED, from, to));
+        }
+    }
+
+    /**
+     * 将差异编码为增量操作数组
+     */
+    public static ArrayNode toDelta(List<SnapshotChange> changes) {
+        ArrayNode delta = NODES.arrayNode(changes.size());
+        for (SnapshotChange change : changes) {
+            ObjectNode op = delta.addObject();
+            if (change.getType() == SnapshotChange.ChangeType.REMOVED) {
+                op.put(OP, OP_REMOVE);
+                op.put(PATH, change.getPath());
+            } else {
+                op.put(OP, OP_SET);
+                op.put(PATH, change.getPath());
+                op.set(VALUE, change.getNewValue());
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * 在快照上原地应用增量
+     */
+    public static void applyDelta(ObjectNode snapshot, JsonNode delta) {
+        for (JsonNode op : delta) {
+            String path = op.get(PATH).asText();
+            int lastSlash = path.lastIndexOf('/');
+            if (lastSlash < 0) {
+                throw new GatewayConfigException("增量路径不正确: " + path);
+            }
+            String field = unescape(path.substring(lastSlash + 1));
+            if (OP_REMOVE.equals(op.get(OP).asText())) {
+                ObjectNode parent = resolveParent(snapshot, path.substring(0, lastSlash), false);
+                if (parent != null) {
+                    parent.remove(field);
+                }
+            } else {
+                resolveParent(snapshot, path.substring(0, lastSlash), true).set(field, op.get(VALUE).deepCopy());
+            }
+        }
+    }
+
+    private static ObjectNode resolveParent(ObjectNode root, String parentPath, boolean create) {
+        ObjectNode current = root;
+        if (parentPath.isEmpty()) {
+            return current;
+        }
+        int start = 1;
+        while (start <= parentPath.length()) {
+            int end = parentPath.indexOf('/', start);
+            if (end < 0) {
+                end = parentPath.length();
+            }
+            String segment = unescape(parentPath.substring(start, end));
+            JsonNode child = current.get(segment);
+            if (child == null || !child.isObject()) {
+                if (!create) {
+                    return null;
+                }
+                child = current.putObject(segment);
+            }
+            current = (ObjectNode) child;
+            start = end + 1;
+        }
+        return current;
+    }
+
+    /**
+     * JSON Pointer 片段转义
+     */
+    public static String escape(String segment) {
+        if (segment.indexOf('~') < 0 && segment.indexOf('/') < 0) {
+            return segment;
+        }
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * JSON Pointer 片段反转义
+     */
+    public static String unescape(String segment) {
+        if (segment.indexOf('~') < 0) {
+            return segment;
+        }
+        return segment.replace("~1", "/").replace("~0", "~");
+    }
+}
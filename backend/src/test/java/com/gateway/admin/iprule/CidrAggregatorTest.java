@@ -0,0 +1,113 @@
+package com.gateway.admin.iprule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CIDR Aggregator Test
+ * 在两个各 256 个地址的小空间（10.0.0.0/24、2001:db8::/120）内随机生成前缀与屏障，逐个地址与暴力判定比较
+ */
+class CidrAggregatorTest {
+
+    private static final byte[] IPV4_BASE = {10, 0, 0, 0};
+    private static final byte[] IPV6_BASE = IpAddresses.parse("2001:db8::");
+    private static final int ROUNDS = 500;
+
+    private final Random random = new Random(20240917L);
+
+    @Test
+    void aggregateCoversTheSameAddressesWithMinimalPrefixes() {
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Cidr> input = randomCidrs(1 + random.nextInt(40));
+
+            List<Cidr> output = CidrAggregator.aggregate(input);
+
+            for (byte[] address : allAddresses()) {
+                assertThat(covers(output, address))
+                        .as("round %d, %s, input %s", round, IpAddresses.format(address), input)
+                        .isEqualTo(covers(input, address));
+            }
+            for (int i = 0; i < output.size(); i++) {
+                for (int j = i + 1; j < output.size(); j++) {
+                    Cidr a = output.get(i);
+                    Cidr b = output.get(j);
+                    assertThat(a.compareTo(b)).as("round %d, order", round).isNegative();
+                    assertThat(a.contains(b) || b.contains(a)).as("round %d, overlap %s %s", round, a, b).isFalse();
+                    assertThat(a.isSiblingOf(b)).as("round %d, siblings %s %s", round, a, b).isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    void barriersKeepTheLongestPrefixVerdictOfEveryAddress() {
+        for (int round = 0; round < ROUNDS; round++) {
+            List<Cidr> input = randomCidrs(1 + random.nextInt(40));
+            List<Cidr> barriers = randomCidrs(random.nextInt(8));
+            barriers.removeAll(input);
+
+            List<Cidr> output = CidrAggregator.aggregate(input, barriers);
+
+            for (byte[] address : allAddresses()) {
+                assertThat(verdict(output, barriers, address))
+                        .as("round %d, %s, input %s, barriers %s", round, IpAddresses.format(address), input, barriers)
+                        .isEqualTo(verdict(input, barriers, address));
+            }
+            for (Cidr cidr : output) {
+                if (barriers.stream().anyMatch(cidr::contains)) {
+                    assertThat(input).as("round %d, merged over a barrier", round).contains(cidr);
+                }
+            }
+        }
+    }
+
+    /**
+     * 最长前缀判定：1 表示合并的一方胜出，-1 表示屏障胜出，0 表示同长度或都不匹配
+     */
+    private static int verdict(List<Cidr> rules, List<Cidr> barriers, byte[] address) {
+        return Integer.compare(longestMatch(rules, address), longestMatch(barriers, address));
+    }
+
+    private static int longestMatch(List<Cidr> cidrs, byte[] address) {
+        int longest = -1;
+        for (Cidr cidr : cidrs) {
+            if (cidr.contains(address)) {
+                longest = Math.max(longest, cidr.getPrefixLength());
+            }
+        }
+        return longest;
+    }
+
+    private static boolean covers(List<Cidr> cidrs, byte[] address) {
+        return longestMatch(cidrs, address) >= 0;
+    }
+
+    private List<Cidr> randomCidrs(int count) {
+        List<Cidr> cidrs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            byte[] base = random.nextBoolean() ? IPV4_BASE : IPV6_BASE;
+            byte[] address = base.clone();
+            address[address.length - 1] = (byte) random.nextInt(256);
+            int hostBits = random.nextInt(9);
+            cidrs.add(Cidr.of(address, address.length * 8 - hostBits));
+        }
+        return cidrs;
+    }
+
+    private static List<byte[]> allAddresses() {
+        List<byte[]> addresses = new ArrayList<>();
+        for (byte[] base : List.of(IPV4_BASE, IPV6_BASE)) {
+            for (int last = 0; last < 256; last++) {
+                byte[] address = base.clone();
+                address[address.length - 1] = (byte) last;
+                addresses.add(address);
+            }
+        }
+        return addresses;
+    }
+}
@@ -0,0 +1,162 @@
+package com.gateway.admin.iprule;
+
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+import com.gateway.admin.iprule.IpRuleAnalysis.MergeGroup;
+import com.gateway.admin.iprule.IpRuleAnalysis.Verdict;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IP Rule Analysis Test
+ * 1500 个随机规则集，在两个各 256 个地址的小空间（10.0.0.0/24、2001:db8::/120）及空间外的探测地址上逐个地址暴力判定，
+ * 与分析结论、可删除规则和合并建议比较
+ */
+class IpRuleAnalysisTest {
+
+    private static final byte[] IPV4_BASE = {10, 0, 0, 0};
+    private static final byte[] IPV6_BASE = IpAddresses.parse("2001:db8::");
+    private static final int RULE_SETS = 1500;
+
+    private final Random random = new Random(20240702L);
+    private final List<byte[]> addresses = allAddresses();
+
+    @Test
+    void verdictsMatchBruteForce() {
+        for (int set = 0; set < RULE_SETS; set++) {
+            List<CidrRule> input = randomRules(1 + random.nextInt(30));
+            IpRuleAnalysis analysis = IpRuleAnalysis.of(input);
+            List<CidrRule> rules = analysis.rules();
+            boolean[] before = outcomes(rules);
+
+            for (int rank = 0; rank < rules.size(); rank++) {
+                assertThat(analysis.verdict(rank))
+                        .as("set %d, rule %s, rules %s", set, rules.get(rank), rules)
+                        .isEqualTo(expectedVerdict(rules, rank, before));
+            }
+        }
+    }
+
+    @Test
+    void removingRemovableRulesKeepsEveryOutcome() {
+        for (int set = 0; set < RULE_SETS; set++) {
+            IpRuleAnalysis analysis = IpRuleAnalysis.of(randomRules(1 + random.nextInt(30)));
+            List<CidrRule> kept = new ArrayList<>(analysis.rules());
+            kept.removeAll(analysis.removable());
+
+            assertThat(outcomes(kept)).as("set %d, rules %s", set, analysis.rules())
+                    .isEqualTo(outcomes(analysis.rules()));
+        }
+    }
+
+    @Test
+    void applyingAMergeGroupKeepsEveryOutcome() {
+        for (int set = 0; set < RULE_SETS; set++) {
+            IpRuleAnalysis analysis = IpRuleAnalysis.of(randomRules(1 + random.nextInt(30)));
+            List<CidrRule> kept = new ArrayList<>(analysis.rules());
+            kept.removeAll(analysis.removable());
+            boolean[] expected = outcomes(kept);
+
+            for (MergeGroup group : analysis.mergeGroups()) {
+                List<CidrRule> merged = new ArrayList<>(kept);
+                merged.removeAll(group.getMembers());
+                merged.add(new CidrRule(group.getPrefix(), group.getMode(), group.getPriority(), null, Integer.MAX_VALUE));
+
+                assertThat(outcomes(merged)).as("set %d, group %s, rules %s", set, group.getPrefix(), kept)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    /**
+     * 暴力结论：没有地址由它判定时为重复（存在序号更小的同前缀同模式规则）或被遮蔽；
+     * 否则单独删除后有地址结果改变为生效，没有为冗余
+     */
+    private Verdict expectedVerdict(List<CidrRule> rules, int rank, boolean[] before) {
+        CidrRule rule = rules.get(rank);
+        boolean decides = false;
+        for (byte[] address : addresses) {
+            if (winner(rules, address) == rule) {
+                decides = true;
+                break;
+            }
+        }
+        if (!decides) {
+            for (int other = 0; other < rank; other++) {
+                CidrRule earlier = rules.get(other);
+                if (earlier.getCidr().equals(rule.getCidr()) && earlier.getMode() == rule.getMode()) {
+                    return Verdict.DUPLICATE;
+                }
+            }
+            return Verdict.SHADOWED;
+        }
+        List<CidrRule> without = new ArrayList<>(rules);
+        without.remove(rank);
+        return Arrays.equals(outcomes(without), before) ? Verdict.REDUNDANT : Verdict.EFFECTIVE;
+    }
+
+    /**
+     * 每个地址是否放行：按生效顺序最先匹配的规则决定，没有匹配时存在 ALLOW 规则则拒绝
+     */
+    private boolean[] outcomes(List<CidrRule> rules) {
+        boolean whitelist = rules.stream().anyMatch(rule -> rule.getMode() == IpRuleMode.ALLOW);
+        boolean[] permits = new boolean[addresses.size()];
+        for (int i = 0; i < permits.length; i++) {
+            CidrRule winner = winner(rules, addresses.get(i));
+            permits[i] = winner == null ? !whitelist : winner.getMode() == IpRuleMode.ALLOW;
+        }
+        return permits;
+    }
+
+    private static CidrRule winner(List<CidrRule> rules, byte[] address) {
+        CidrRule best = null;
+        for (CidrRule rule : rules) {
+            if (rule.getCidr().contains(address) && (best == null || CidrRule.PRECEDENCE.compare(rule, best) < 0)) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 前缀落在两个小空间内，少量重复前缀以产生重复与同前缀异模式的规则
+     */
+    private List<CidrRule> randomRules(int count) {
+        List<CidrRule> rules = new ArrayList<>(count);
+        for (int order = 0; order < count; order++) {
+            Cidr cidr;
+            if (order > 0 && random.nextInt(8) == 0) {
+                cidr = rules.get(random.nextInt(order)).getCidr();
+            } else {
+                byte[] address = (random.nextBoolean() ? IPV4_BASE : IPV6_BASE).clone();
+                address[address.length - 1] = (byte) random.nextInt(256);
+                cidr = Cidr.of(address, address.length * 8 - random.nextInt(9));
+            }
+            IpRuleMode mode = random.nextInt(3) == 0 ? IpRuleMode.ALLOW : IpRuleMode.DENY;
+            rules.add(new CidrRule(cidr, mode, random.nextInt(2), (long) order, order));
+        }
+        return rules;
+    }
+
+    /**
+     * 两个小空间内的全部地址，另加空间外各一个探测地址（白名单语义下未命中的结果）
+     */
+    private static List<byte[]> allAddresses() {
+        List<byte[]> addresses = new ArrayList<>();
+        for (byte[] base : List.of(IPV4_BASE, IPV6_BASE)) {
+            for (int last = 0; last < 256; last++) {
+                byte[] address = base.clone();
+                address[address.length - 1] = (byte) last;
+                addresses.add(address);
+            }
+        }
+        addresses.add(new byte[]{11, 0, 0, 1});
+        addresses.add(IpAddresses.parse("2001:db9::1"));
+        return addresses;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gateway.admin.iprule;
+
+import com.gateway.admin.entity.IpRule.IpRuleMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IP Rule Trie Test
+ * 随机规则集与线性扫描的差分测试：规则集中在少数几个网段内以产生嵌套与叶子下推，查询地址取自规则网络附近
+ */
+class IpRuleTrieTest {
+
+    private static final int ROUNDS = 300;
+    private static final int QUERIES = 2000;
+
+    private final Random random = new Random(20240611L);
+
+    @Test
+    void lookupMatchesLinearScan() {
+        for (int round = 0; round < ROUNDS; round++) {
+            byte[][] clusters = randomClusters();
+            List<CidrRule> rules = randomRules(clusters, 1 + random.nextInt(round % 10 == 0 ? 400 : 40));
+            IpRuleTrie trie = IpRuleTrie.compileRules(rules);
+
+            for (int i = 0; i < QUERIES; i++) {
+                byte[] address = randomAddress(clusters, rules);
+                CidrRule expected = linearScan(rules, address);
+                int rank = trie.lookup(address);
+
+                CidrRule actual = rank < 0 ? null : trie.rule(rank);
+                assertThat(actual).as("round %d, %s, rules %s", round, IpAddresses.format(address), rules)
+                        .isSameAs(expected);
+                assertThat(trie.permits(address))
+                        .isEqualTo(expected == null ? !hasAllow(rules) : expected.getMode() == IpRuleMode.ALLOW);
+                if (address.length == 4) {
+                    assertThat(trie.lookupIpv4(IpAddresses.toInt(address, 0))).isEqualTo(rank);
+                    assertThat(trie.lookup(ipv4Mapped(address))).isEqualTo(rank);
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyTrieMatchesNothing() {
+        IpRuleTrie trie = IpRuleTrie.compileRules(List.of());
+
+        assertThat(trie.lookup(new byte[]{10, 0, 0, 1})).isEqualTo(-1);
+        assertThat(trie.lookup(new byte[16])).isEqualTo(-1);
+        assertThat(trie.permits(new byte[]{10, 0, 0, 1})).isTrue();
+    }
+
+    private static CidrRule linearScan(List<CidrRule> rules, byte[] address) {
+        CidrRule best = null;
+        for (CidrRule rule : rules) {
+            if (rule.getCidr().contains(address) && (best == null || CidrRule.PRECEDENCE.compare(rule, best) < 0)) {
+                best = rule;
+            }
+        }
+        return best;
+    }
+
+    private static boolean hasAllow(List<CidrRule> rules) {
+        return rules.stream().anyMatch(rule -> rule.getMode() == IpRuleMode.ALLOW);
+    }
+
+    /**
+     * 两个 IPv4 /16 与两个 IPv6 /48 网段
+     */
+    private byte[][] randomClusters() {
+        byte[][] clusters = new byte[4][];
+        for (int i = 0; i < clusters.length; i++) {
+            clusters[i] = new byte[i < 2 ? 4 : 16];
+            random.nextBytes(clusters[i]);
+        }
+        return clusters;
+    }
+
+    private List<CidrRule> randomRules(byte[][] clusters, int count) {
+        List<CidrRule> rules = new ArrayList<>(count);
+        for (int order = 0; order < count; order++) {
+            byte[] address = nearby(clusters[random.nextInt(clusters.length)]);
+            int bits = address.length * 8;
+            int prefix = random.nextInt(20) == 0 ? random.nextInt(bits + 1) : bits - random.nextInt(bits / 2 + 1);
+            IpRuleMode mode = random.nextBoolean() ? IpRuleMode.ALLOW : IpRuleMode.DENY;
+            rules.add(new CidrRule(Cidr.of(address, prefix), mode, random.nextInt(3), (long) order, order));
+        }
+        return rules;
+    }
+
+    private byte[] randomAddress(byte[][] clusters, List<CidrRule> rules) {
+        return switch (random.nextInt(4)) {
+            case 0 -> nearby(rules.get(random.nextInt(rules.size())).getCidr().getAddress());
+            case 1 -> nearby(clusters[random.nextInt(clusters.length)]);
+            case 2 -> rules.get(random.nextInt(rules.size())).getCidr().getAddress();
+            default -> {
+                byte[] address = new byte[random.nextBoolean() ? 4 : 16];
+                random.nextBytes(address);
+                yield address;
+            }
+        };
+    }
+
+    /**
+     * 保留网段的前半部分，随机改写末尾若干位
+     */
+    private byte[] nearby(byte[] base) {
+        byte[] address = base.clone();
+        int bits = address.length * 8;
+        int flip = random.nextInt(bits / 2 + 1);
+        for (int bit = bits - flip; bit < bits; bit++) {
+            if (random.nextBoolean()) {
+                address[bit >>> 3] ^= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+        return address;
+    }
+
+    private static byte[] ipv4Mapped(byte[] ipv4) {
+        byte[] address = new byte[16];
+        address[10] = (byte) 0xff;
+        address[11] = (byte) 0xff;
+        System.arraycopy(ipv4, 0, address, 12, 4);
+        return address;
+    }
+}
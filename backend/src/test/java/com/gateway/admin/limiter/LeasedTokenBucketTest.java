@@ -0,0 +1,97 @@
+package com.gateway.admin.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Leased Token Bucket Test
+ * 集群限流租用：低频节点在租约过期后的放行、续租在途时沿用本地令牌、按维度周期放大的有效期与共享存储故障
+ */
+class LeasedTokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1);
+    private final NanoClock clock = now::get;
+    private final InMemorySharedTokenStore store = new InMemorySharedTokenStore(clock);
+
+    @Test
+    void lowRateNodeIsAdmittedAfterEveryLeaseExpiry() {
+        LeasedTokenBucket bucket = new LeasedTokenBucket("route:second", 100, SECOND, 100,
+                LeaseOptions.of(store, Runnable::run, 10), clock);
+
+        int admitted = 0;
+        for (int i = 0; i < 20; i++) {
+            now.addAndGet(2 * SECOND);
+            if (bucket.tryAcquire(1)) {
+                admitted++;
+            }
+        }
+
+        assertThat(admitted).isEqualTo(20);
+    }
+
+    @Test
+    void expiredTokensAreUsableUntilTheRenewalLands() {
+        Queue<Runnable> pending = new ArrayDeque<>();
+        LeasedTokenBucket bucket = new LeasedTokenBucket("route:second", 100, SECOND, 100,
+                LeaseOptions.of(store, pending::add, 10), clock);
+        pending.poll().run();
+        assertThat(bucket.tryAcquire(1)).isTrue();
+
+        now.addAndGet(2 * SECOND);
+        assertThat(bucket.tryAcquire(1)).isTrue();
+        assertThat(pending).hasSize(1);
+        assertThat(bucket.getLocalTokens()).isEqualTo(8);
+
+        pending.poll().run();
+        assertThat(bucket.getLocalTokens()).isEqualTo(10);
+    }
+
+    @Test
+    void minuteLeasesOutliveTheDefaultTtl() {
+        AtomicInteger leases = new AtomicInteger();
+        SharedTokenStore counting = (key, requested, rate, periodNanos, capacity) -> {
+            leases.incrementAndGet();
+            return store.acquire(key, requested, rate, periodNanos, capacity);
+        };
+        LeasedTokenBucket bucket = new LeasedTokenBucket("route:minute", 60, MINUTE, 60,
+                LeaseOptions.of(counting, Runnable::run, 10), clock);
+
+        for (int i = 0; i < 5; i++) {
+            now.addAndGet(5 * SECOND);
+            assertThat(bucket.tryAcquire(1)).isTrue();
+        }
+
+        assertThat(leases.get()).isEqualTo(1);
+        assertThat(bucket.getLocalTokens()).isEqualTo(5);
+    }
+
+    @Test
+    void expiredTokensAreDroppedWhenTheStoreFails() {
+        AtomicInteger failing = new AtomicInteger();
+        SharedTokenStore flaky = (key, requested, rate, periodNanos, capacity) -> {
+            if (failing.get() > 0) {
+                throw new IllegalStateException("store unavailable");
+            }
+            return store.acquire(key, requested, rate, periodNanos, capacity);
+        };
+        LeasedTokenBucket bucket = new LeasedTokenBucket("route:second", 100, SECOND, 100,
+                LeaseOptions.of(flaky, Runnable::run, 10), clock);
+        assertThat(bucket.tryAcquire(1)).isTrue();
+
+        failing.set(1);
+        now.addAndGet(2 * SECOND);
+
+        assertThat(bucket.tryAcquire(1)).isFalse();
+        assertThat(bucket.getLocalTokens()).isZero();
+    }
+}
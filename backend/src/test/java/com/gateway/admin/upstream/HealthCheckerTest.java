@@ -0,0 +1,236 @@
+package com.gateway.admin.upstream;
+
+import com.gateway.admin.entity.BackendServer;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Health Checker Test
+ * 主动健康检查：使用内嵌的 HttpServer 作为后端，检查阈值、地址去重、移除目标与结论变化通知
+ */
+class HealthCheckerTest {
+
+    private static final Duration INTERVAL = Duration.ofMillis(50);
+    private static final Duration TIMEOUT = Duration.ofMillis(300);
+    private static final int HANG = -1;
+
+    private final Map<String, Integer> responses = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> maxConcurrent = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> concurrent = new ConcurrentHashMap<>();
+    private final List<HealthStatus> events = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService notifier;
+    private HealthChecker checker;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            int inFlight = concurrent.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            maxConcurrent.computeIfAbsent(path, key -> new AtomicInteger()).accumulateAndGet(inFlight, Math::max);
+            try {
+                int status = responses.getOrDefault(path, 200);
+                if (status == HANG) {
+                    release.await(5, TimeUnit.SECONDS);
+                    status = 200;
+                }
+                exchange.sendResponseHeaders(status, -1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                concurrent.get(path).decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        notifier = Executors.newSingleThreadExecutor();
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        checker = new HealthChecker(client, scheduler, INTERVAL, 0.2, 2, 3, 16);
+        checker.setListener(events::add, notifier);
+    }
+
+    @AfterEach
+    void tearDown() {
+        checker.close();
+        release.countDown();
+        scheduler.shutdownNow();
+        notifier.shutdownNow();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void successfulResponseIsHealthyOnFirstCheckAndNotifiesOnce() {
+        URI uri = uri("/ok");
+        checker.sync(Map.of(uri, TIMEOUT));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> status(uri).getConsecutiveSuccesses() >= 5);
+
+        assertThat(status(uri).getHealthy()).isTrue();
+        assertThat(status(uri).getStatusCode()).isEqualTo(200);
+        await().atMost(Duration.ofSeconds(5)).until(() -> !events.isEmpty());
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getHealthy()).isTrue();
+        assertThat(events.get(0).getConsecutiveSuccesses()).isEqualTo(1);
+    }
+
+    @Test
+    void errorResponseIsUnhealthyOnlyAfterThreshold() {
+        responses.put("/error", 500);
+        URI uri = uri("/error");
+        checker.sync(Map.of(uri, TIMEOUT));
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> Boolean.FALSE.equals(status(uri).getHealthy()));
+        await().atMost(Duration.ofSeconds(5)).until(() -> status(uri).getConsecutiveFailures() >= 6);
+
+        assertThat(events).hasSize(1);
+        HealthStatus flip = events.get(0);
+        assertThat(flip.getHealthy()).isFalse();
+        assertThat(flip.getConsecutiveFailures()).isEqualTo(3);
+        assertThat(flip.getStatusCode()).isEqualTo(500);
+        assertThat(flip.getLastError()).isEqualTo("HTTP 500");
+    }
+
+    @Test
+    void hangingResponseTimesOutAndIsUnhealthy() {
+        responses.put("/hang", HANG);
+        URI uri = uri("/hang");
+        checker.sync(Map.of(uri, TIMEOUT));
+
+        await().atMost(Duration.ofSeconds(10)).until(() -> Boolean.FALSE.equals(status(uri).getHealthy()));
+
+        HealthStatus status = status(uri);
+        assertThat(status.getStatusCode()).isNull();
+        assertThat(status.getLastError()).contains("HttpTimeoutException");
+        assertThat(status.getLatencyMillis()).isGreaterThanOrEqualTo(TIMEOUT.toMillis());
+        assertThat(events).extracting(HealthStatus::getHealthy).containsExactly(false);
+    }
+
+    @Test
+    void unhealthyTargetRecoversAfterHealthyThreshold() {
+        responses.put("/flaky", 500);
+        URI uri = uri("/flaky");
+        checker.sync(Map.of(uri, TIMEOUT));
+        await().atMost(Duration.ofSeconds(5)).until(() -> Boolean.FALSE.equals(status(uri).getHealthy()));
+
+        responses.put("/flaky", 204);
+        await().atMost(Duration.ofSeconds(5)).until(() -> Boolean.TRUE.equals(status(uri).getHealthy()));
+        await().atMost(Duration.ofSeconds(5)).until(() -> status(uri).getConsecutiveSuccesses() >= 5);
+
+        assertThat(events).extracting(HealthStatus::getHealthy).containsExactly(false, true);
+        assertThat(events.get(1).getConsecutiveSuccesses()).isEqualTo(2);
+    }
+
+    @Test
+    void urlSharedByServersIsProbedOnce() {
+        String host = server.getAddress().getHostString();
+        int port = server.getAddress().getPort();
+        List<BackendServer> servers = List.of(
+                backend(host, port, "/shared", 30),
+                backend(host, port, "shared", 2),
+                backend("other-host", 1, "http://" + host + ":" + port + "/shared", 5),
+                backend(host, port, null, 5));
+
+        Map<URI, Duration> targets = HealthChecker.targets(servers, Duration.ofSeconds(10), null);
+
+        assertThat(targets).containsOnlyKeys(uri("/shared"));
+        assertThat(targets.get(uri("/shared"))).isEqualTo(Duration.ofSeconds(2));
+
+        long start = System.nanoTime();
+        checker.sync(targets);
+        await().atMost(Duration.ofSeconds(5)).until(() -> hits.containsKey("/shared")
+                && hits.get("/shared").get() >= 10);
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(checker.size()).isEqualTo(1);
+        assertThat(maxConcurrent.get("/shared").get()).isEqualTo(1);
+        // 三台服务器各检查一次时请求数约为 3 倍；间隔最短为 0.8 * INTERVAL
+        long upperBound = elapsed / (INTERVAL.toNanos() * 8 / 10) + 2;
+        assertThat((long) hits.get("/shared").get()).isLessThanOrEqualTo(upperBound);
+    }
+
+    @Test
+    void removedTargetIsNoLongerProbed() throws InterruptedException {
+        URI uri = uri("/removed");
+        checker.sync(Map.of(uri, TIMEOUT));
+        await().atMost(Duration.ofSeconds(5)).until(() -> hits.containsKey("/removed")
+                && hits.get("/removed").get() >= 3);
+
+        checker.sync(Map.of());
+        // 移除时可能仍有一个检查在途
+        Thread.sleep(INTERVAL.toMillis() * 2);
+        int afterRemoval = hits.get("/removed").get();
+        Thread.sleep(INTERVAL.toMillis() * 6);
+
+        assertThat(hits.get("/removed").get()).isEqualTo(afterRemoval);
+        assertThat(checker.getStatus(uri)).isNull();
+        assertThat(checker.size()).isZero();
+        // 移除健康的地址不发通知
+        assertThat(events).extracting(HealthStatus::getHealthy).containsExactly(true);
+    }
+
+    @Test
+    void removingUnhealthyTargetNotifiesWithoutConclusion() {
+        responses.put("/gone", 503);
+        URI uri = uri("/gone");
+        checker.sync(Map.of(uri, TIMEOUT));
+        await().atMost(Duration.ofSeconds(5)).until(() -> Boolean.FALSE.equals(status(uri).getHealthy()));
+
+        checker.sync(Map.of());
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> events.size() == 2);
+        assertThat(events.get(1).getUri()).isEqualTo(uri);
+        assertThat(events.get(1).getHealthy()).isNull();
+    }
+
+    private HealthStatus status(URI uri) {
+        return checker.getStatus(uri);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+    }
+
+    private static BackendServer backend(String host, int port, String healthCheckUrl, int timeoutSeconds) {
+        BackendServer server = new BackendServer(host, port, BackendServer.Protocol.HTTP, null, "dc1");
+        server.setHealthCheckUrl(healthCheckUrl);
+        server.setTimeoutSeconds(timeoutSeconds);
+        return server;
+    }
+}